@@ -0,0 +1,22 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AsignacionLoteRequest {
+
+    // Cada elemento se valida por separado: los inválidos se reportan sin frenar al resto
+    @NotEmpty(message = "El lote debe incluir al menos una asignación")
+    @Size(max = 1000, message = "El lote no puede superar las 1000 asignaciones")
+    private List<AsignacionTurnoDTO> asignaciones;
+}
@@ -0,0 +1,24 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ===================================
+// EstadoBcryptDTO - Métricas del pool de hashing de contraseñas
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoBcryptDTO {
+    private int costo; // Factor de trabajo en uso
+    private int hilos;
+    private int activos; // Hashes calculándose ahora
+    private int enCola;
+    private int capacidadCola;
+    private long completados;
+    private long rechazados; // Cola llena o espera máxima superada
+    private double promedioHashMs;
+}
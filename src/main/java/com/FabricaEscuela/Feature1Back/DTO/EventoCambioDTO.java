@@ -0,0 +1,43 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// === Evento del canal de cambios (SSE) ===
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoCambioDTO {
+
+    public enum Tipo {
+        TURNO_CREADO,
+        TURNO_ACTUALIZADO,
+        TURNO_ELIMINADO,
+        ASIGNACION_CREADA,
+        ASIGNACION_INICIADA,
+        ASIGNACION_FINALIZADA,
+        // La jornada terminó y la asignación vuelve a PROGRAMADA hasta su siguiente ocurrencia
+        ASIGNACION_JORNADA_CERRADA,
+        ASIGNACION_CANCELADA,
+        // Control: el historial ya no tiene los eventos pedidos; el cliente debe recargar el estado completo
+        REINICIO,
+        // Control: eventos descartados porque el cliente no los leía a tiempo (datos = cantidad)
+        DESCARTADOS
+    }
+
+    private Long id; // Secuencia del canal; los eventos de control no tienen id
+    private Tipo tipo;
+    private Long rutaId;
+    private Long turnoId;
+    private Long asignacionId;
+    private Long conductorId;
+    private List<Long> conductorIds; // Conductores con el turno asignado (eventos de turno)
+    private LocalDateTime instante;
+    private Object datos; // TurnoDTO o AsignacionTurnoDTO según el tipo
+}
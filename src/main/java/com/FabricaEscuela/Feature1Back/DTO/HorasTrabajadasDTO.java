@@ -0,0 +1,28 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// ===================================
+// HorasTrabajadasDTO - Horas de un conductor en una semana ISO o en un mes
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HorasTrabajadasDTO {
+    private Long conductorId;
+    private String periodo; // SEMANA o MES
+    private LocalDate desde;
+    private LocalDate hasta;
+    private long minutos;
+    private double horas;
+    private int turnos; // Asignaciones finalizadas en el periodo
+    private double horasMaximas;
+    private double horasExtra;
+    private boolean conHorasExtra;
+}
@@ -0,0 +1,26 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// ===================================
+// PaginaCursorDTO - Página por cursor (keyset sobre id)
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaCursorDTO<T> {
+
+    // Tamaño máximo de página de los listados por cursor
+    public static final int TAMANO_PAGINA_MAXIMO = 500;
+
+    private List<T> contenido;
+    private int tamano;
+    private boolean hayMas;
+    private Long siguienteCursor; // Pasar como "cursor" para pedir la siguiente página
+}
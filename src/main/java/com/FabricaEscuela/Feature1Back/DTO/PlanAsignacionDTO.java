@@ -0,0 +1,57 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+// ===================================
+// PlanAsignacionDTO - Propuesta de asignación automática (vista previa y confirmación)
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlanAsignacionDTO {
+
+    private Integer numeroSemana;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDate fechaInicio;
+
+    private LocalDate fechaFin;
+
+    @NotEmpty(message = "El plan no tiene propuestas para confirmar")
+    private List<Propuesta> propuestas;
+
+    private List<Long> turnosSinAsignar;
+
+    // Estadísticas del reparto (horas semanales por conductor, incluyendo asignaciones vigentes)
+    private int totalTurnos;
+    private int turnosAsignados;
+    private int conductoresUsados;
+    private double horasPromedio;
+    private double horasMinimas;
+    private double horasMaximas;
+    private double desviacionHoras;
+    private int movimientosBusquedaLocal;
+    private long duracionMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Propuesta {
+        private Long turnoId;
+        private Long conductorId;
+        private String conductorNombre;
+        private DayOfWeek diaSemana;
+        private String horarioTurno;
+    }
+}
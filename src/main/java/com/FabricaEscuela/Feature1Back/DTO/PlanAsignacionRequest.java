@@ -0,0 +1,33 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlanAsignacionRequest {
+
+    @NotNull(message = "El número de semana es obligatorio")
+    @Min(value = 1, message = "El número de semana debe ser al menos 1")
+    @Max(value = 52, message = "El número de semana no puede ser mayor a 52")
+    private Integer numeroSemana;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDate fechaInicio;
+
+    private LocalDate fechaFin; // null = indefinido
+
+    private List<Long> rutaIds; // null o vacío = todas las rutas
+
+    private List<Long> conductorIds; // null o vacío = todos los conductores
+}
@@ -0,0 +1,26 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// ===================================
+// ReconstruccionHorasDTO - Resultado de recalcular el libro de horas
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconstruccionHorasDTO {
+    private int totalConductores;
+    private int conductoresExitosos;
+    private int asignaciones;
+    private int filas; // Filas del libro escritas
+    private Map<Long, String> errores; // conductorId -> motivo
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+}
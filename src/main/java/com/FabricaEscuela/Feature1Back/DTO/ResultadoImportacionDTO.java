@@ -0,0 +1,31 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// ===================================
+// ResultadoImportacionDTO - Resumen de una importación masiva por CSV
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoImportacionDTO {
+    private int totalFilas;
+    private int filasImportadas;
+    private int filasConError;
+    private List<ErrorFila> errores; // Se reportan como máximo los primeros errores
+    private long duracionMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFila {
+        private int linea;
+        private String mensaje;
+    }
+}
@@ -0,0 +1,33 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// ===================================
+// ResultadoLoteAsignacionesDTO - Resultado por elemento de una asignación masiva
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoLoteAsignacionesDTO {
+    private int total;
+    private int creadas;
+    private int rechazadas;
+    private List<ResultadoItem> resultados; // En el mismo orden que la solicitud
+    private long duracionMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResultadoItem {
+        private int indice;
+        private boolean creada;
+        private Long asignacionId;
+        private String error;
+    }
+}
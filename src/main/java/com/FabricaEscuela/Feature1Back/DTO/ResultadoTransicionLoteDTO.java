@@ -0,0 +1,33 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// ===================================
+// ResultadoTransicionLoteDTO - Resultado por id de un inicio/fin de turnos masivo
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoTransicionLoteDTO {
+    private int total;
+    private int exitosas;
+    private int fallidas;
+    private List<ResultadoId> resultados; // En el orden de los ids recibidos (sin repetidos)
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResultadoId {
+        private Long id;
+        private boolean exitosa;
+        private EstadoAsignacion estado; // Estado final de la asignación (null si no existe)
+        private String error;
+    }
+}
@@ -0,0 +1,27 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// ===================================
+// RolloverEstadoDTO - Resultado de un rollover de flota
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RolloverEstadoDTO {
+    private boolean completado;
+    private int totalRutas;
+    private int rutasProcesadas;
+    private int rutasExitosas;
+    private int turnosCreados;
+    private Map<Long, String> errores; // rutaId -> motivo
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+}
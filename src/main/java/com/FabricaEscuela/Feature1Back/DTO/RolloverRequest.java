@@ -0,0 +1,34 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RolloverRequest {
+
+    @NotNull(message = "La semana origen es obligatoria")
+    @Min(value = 1, message = "El número de semana debe ser al menos 1")
+    @Max(value = 52, message = "El número de semana no puede ser mayor a 52")
+    private Integer semanaOrigen;
+
+    @NotNull(message = "La semana destino es obligatoria")
+    @Min(value = 1, message = "El número de semana debe ser al menos 1")
+    @Max(value = 52, message = "El número de semana no puede ser mayor a 52")
+    private Integer semanaDestino;
+
+    private List<Long> rutaIds; // null o vacío = todas las rutas
+
+    @Min(value = 0, message = "La rotación no puede ser negativa")
+    @Max(value = 6, message = "La rotación no puede ser mayor a 6 días")
+    private int rotacionDias; // Desplaza el día de cada turno copiado (0 = copia exacta)
+}
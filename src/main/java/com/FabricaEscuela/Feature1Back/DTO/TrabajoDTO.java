@@ -0,0 +1,29 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoTrabajo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// ===================================
+// TrabajoDTO - Estado de un trabajo en segundo plano
+// ===================================
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrabajoDTO {
+    private String id;
+    private String tipo;
+    private EstadoTrabajo estado;
+    private int progreso;
+    private int total;
+    private int intentos;
+    private String error;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+}
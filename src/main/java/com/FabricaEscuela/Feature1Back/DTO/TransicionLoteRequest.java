@@ -0,0 +1,21 @@
+package com.FabricaEscuela.Feature1Back.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransicionLoteRequest {
+
+    @NotEmpty(message = "Debe indicar al menos una asignación")
+    @Size(max = 1000, message = "El lote no puede superar las 1000 asignaciones")
+    private List<Long> ids;
+}
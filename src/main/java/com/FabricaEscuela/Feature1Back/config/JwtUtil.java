@@ -2,27 +2,63 @@ package com.FabricaEscuela.Feature1Back.config;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // Token ya verificado y el instante (ms) en que vence
+    private record TokenVerificado(Claims claims, long expira) {
+    }
+
+    // La clave y el parser se construyen una sola vez; el parser es inmutable y seguro entre hilos
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final int capacidadCache;
+    private final LongSupplier reloj;
+
+    // Tokens con firma ya verificada, repartidos en particiones LRU con su propio monitor: las
+    // peticiones con tokens distintos casi nunca compiten por el mismo lock (igual que LimitadorTasa)
+    private final Particion[] verificados;
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.cache.capacidad:10000}") int capacidadCache,
+                   @Value("${jwt.cache.particiones:16}") int particiones) {
+        this(secret, expiration, capacidadCache, particiones, System::currentTimeMillis);
+    }
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    JwtUtil(String secret, Long expiration, int capacidadCache, int particiones, LongSupplier reloj) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.expiration = expiration;
+        this.capacidadCache = capacidadCache;
+        this.reloj = reloj;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> new Date(reloj.getAsLong()))
+                .build();
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        // Potencia de dos para elegir la partición con una máscara
+        int cantidad = particiones <= 1 ? 1 : Integer.highestOneBit(particiones - 1) << 1;
+        int porParticion = Math.max(1, (capacidadCache + cantidad - 1) / cantidad);
+        this.verificados = new Particion[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.verificados[i] = new Particion(porParticion);
+        }
     }
 
     public String generateToken(String correo, String rol) {
-        Date now = new Date();
+        Date now = new Date(reloj.getAsLong());
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
@@ -30,39 +66,87 @@ public class JwtUtil {
                 .claim("rol", rol)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getCorreoFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifica el token una sola vez y devuelve sus claims (solo lectura).
+     * Un token idéntico a uno ya verificado se responde desde el cache hasta su expiración.
+     * Lanza JwtException si la firma no es válida o el token venció.
+     */
+    public Claims getClaimsFromToken(String token) {
+        long ahora = reloj.getAsLong();
+        Particion particion = particion(token);
+        synchronized (particion) {
+            TokenVerificado verificado = particion.get(token);
+            if (verificado != null) {
+                if (ahora < verificado.expira()) {
+                    return verificado.claims();
+                }
+                particion.remove(token);
+            }
+        }
 
-        return claims.getSubject();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        // Sin expiración no se guarda: no habría cuándo sacarlo
+        if (capacidadCache > 0 && claims.getExpiration() != null) {
+            synchronized (particion) {
+                particion.put(token, new TokenVerificado(claims, claims.getExpiration().getTime()));
+            }
+        }
+        return claims;
     }
 
-    public String getRolFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Claims del token, o null si no es válido
+    public Claims getValidClaims(String token) {
+        try {
+            return getClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        return claims.get("rol", String.class);
+    public String getCorreoFromToken(String token) {
+        return getClaimsFromToken(token).getSubject();
+    }
+
+    public String getRolFromToken(String token) {
+        return getClaimsFromToken(token).get("rol", String.class);
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+        return getValidClaims(token) != null;
+    }
+
+    int tamanoCache() {
+        int total = 0;
+        for (Particion particion : verificados) {
+            synchronized (particion) {
+                total += particion.size();
+            }
+        }
+        return total;
+    }
+
+    private Particion particion(String token) {
+        int hash = token.hashCode();
+        return verificados[(hash ^ (hash >>> 16)) & (verificados.length - 1)];
+    }
+
+    // LRU por orden de acceso: al llenarse descarta el token usado hace más tiempo
+    private static final class Particion extends LinkedHashMap<String, TokenVerificado> {
+
+        private final int capacidad;
+
+        private Particion(int capacidad) {
+            super(16, 0.75f, true);
+            this.capacidad = capacidad;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenVerificado> eldest) {
+            return size() > capacidad;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.FabricaEscuela.Feature1Back.config;
+
+import com.FabricaEscuela.Feature1Back.DTO.EstadoBcryptDTO;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt en un pool de hilos propio y acotado, separado de los hilos de Tomcat: en una ola de
+ * logins solo 'hilos' núcleos calculan hashes y el resto de la API sigue respondiendo.
+ * Con la cola llena, o si la espera supera el máximo, se rechaza con RejectedExecutionException
+ * (el controlador responde 503). upgradeEncoding indica los hashes guardados con un costo menor.
+ */
+public class OffloadedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final Pattern COSTO_BCRYPT = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+    private static final String SATURADO = "Demasiadas solicitudes de autenticación en curso, intente más tarde";
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int costo;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMs;
+
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder nanosHash = new LongAdder();
+
+    public OffloadedPasswordEncoder(int costo, int hilos, int capacidadCola, long esperaMaximaMs) {
+        this.costo = costo;
+        this.bcrypt = new BCryptPasswordEncoder(costo);
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), new ThreadPoolExecutor.AbortPolicy());
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    // Mayor costo cuyo hash tarda como mucho objetivoMs en este equipo
+    public static int calibrar(long objetivoMs, int costoMinimo, int costoMaximo) {
+        BCryptPasswordEncoder base = new BCryptPasswordEncoder(costoMinimo);
+        long mejor = Long.MAX_VALUE;
+        // La primera medición incluye el calentamiento del JIT
+        for (int i = 0; i < 3; i++) {
+            long inicio = System.nanoTime();
+            base.encode("calibracion");
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        return costoPara(objetivoMs, costoMinimo, costoMaximo, mejor);
+    }
+
+    // Cada punto de costo duplica el tiempo del hash
+    static int costoPara(long objetivoMs, int costoMinimo, int costoMaximo, long nanosCostoMinimo) {
+        int elegido = costoMinimo;
+        double estimado = nanosCostoMinimo;
+        while (elegido < costoMaximo && estimado * 2 <= objetivoMs * 1_000_000.0) {
+            estimado *= 2;
+            elegido++;
+        }
+        return elegido;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    // true solo si el hash se generó con un costo menor al actual: bajar el costo (p. ej. una calibración
+    // en un equipo más lento) debilitaría hashes ya guardados
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = COSTO_BCRYPT.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < costo;
+    }
+
+    public int getCosto() {
+        return costo;
+    }
+
+    public EstadoBcryptDTO estado() {
+        long total = hashes.sum();
+        return EstadoBcryptDTO.builder()
+                .costo(costo)
+                .hilos(executor.getMaximumPoolSize())
+                .activos(executor.getActiveCount())
+                .enCola(executor.getQueue().size())
+                .capacidadCola(executor.getQueue().size() + executor.getQueue().remainingCapacity())
+                .completados(total)
+                .rechazados(rechazadas.sum())
+                .promedioHashMs(total == 0 ? 0 : nanosHash.sum() / 1_000_000.0 / total)
+                .build();
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return tarea.call();
+                } finally {
+                    nanosHash.add(System.nanoTime() - inicio);
+                    hashes.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            throw new RejectedExecutionException(SATURADO, e);
+        }
+
+        try {
+            return futuro.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Si aún no empezó, el pool la descarta al tomarla
+            futuro.cancel(false);
+            rechazadas.increment();
+            throw new RejectedExecutionException(SATURADO, e);
+        } catch (InterruptedException e) {
+            futuro.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se verificaba la contraseña", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -1,14 +1,14 @@
 package com.FabricaEscuela.Feature1Back.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -19,9 +19,18 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // BCrypt en su propio pool con costo fijo; con costo 0 se calibra al arrancar para la latencia objetivo
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public OffloadedPasswordEncoder passwordEncoder(@Value("${password.bcrypt.costo:12}") int costo,
+                                                    @Value("${password.bcrypt.objetivo-ms:250}") long objetivoMs,
+                                                    @Value("${password.bcrypt.costo-minimo:10}") int costoMinimo,
+                                                    @Value("${password.bcrypt.costo-maximo:14}") int costoMaximo,
+                                                    @Value("${password.hilos:0}") int hilos,
+                                                    @Value("${password.capacidad-cola:64}") int capacidadCola,
+                                                    @Value("${password.espera-maxima-ms:5000}") long esperaMaximaMs) {
+        int costoEfectivo = costo > 0 ? costo : OffloadedPasswordEncoder.calibrar(objetivoMs, costoMinimo, costoMaximo);
+        int hilosEfectivos = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new OffloadedPasswordEncoder(costoEfectivo, hilosEfectivos, capacidadCola, esperaMaximaMs);
     }
 
     @Bean
@@ -34,6 +43,9 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Reanudación de respuestas asíncronas (long-polling); la petición original ya se autenticó
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // H2 Console
                         .requestMatchers("/h2-console/**").permitAll()
 
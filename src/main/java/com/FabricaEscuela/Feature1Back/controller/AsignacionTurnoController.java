@@ -1,14 +1,25 @@
 package com.FabricaEscuela.Feature1Back.controller;
 
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionLoteRequest;
 import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PaginaCursorDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PlanAsignacionDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PlanAsignacionRequest;
+import com.FabricaEscuela.Feature1Back.DTO.TransicionLoteRequest;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
 import com.FabricaEscuela.Feature1Back.service.AsignacionTurnoService;
+import com.FabricaEscuela.Feature1Back.service.PlanAsignacionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/asignaciones")
@@ -18,6 +29,9 @@ public class AsignacionTurnoController {
     @Autowired
     private AsignacionTurnoService asignacionTurnoService;
 
+    @Autowired
+    private PlanAsignacionService planAsignacionService;
+
     @PostMapping
     public ResponseEntity<AsignacionTurnoDTO> asignarConductorATurno(
             @Valid @RequestBody AsignacionTurnoDTO dto) {
@@ -29,12 +43,63 @@ public class AsignacionTurnoController {
         }
     }
 
+    // Asignación masiva: devuelve el resultado de cada elemento en el orden recibido
+    @PostMapping("/lote")
+    public ResponseEntity<?> asignarEnLote(@Valid @RequestBody AsignacionLoteRequest request) {
+        try {
+            return ResponseEntity.ok(asignacionTurnoService.asignarEnLote(request.getAsignaciones()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    // Asignación automática: calcula el plan de la semana sin guardar nada
+    @PostMapping("/plan/vista-previa")
+    public ResponseEntity<?> previsualizarPlan(@Valid @RequestBody PlanAsignacionRequest request) {
+        try {
+            return ResponseEntity.ok(planAsignacionService.previsualizar(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    // Guarda en un solo lote el plan devuelto por la vista previa
+    @PostMapping("/plan/confirmar")
+    public ResponseEntity<?> confirmarPlan(@Valid @RequestBody PlanAsignacionDTO plan) {
+        try {
+            return ResponseEntity.ok(planAsignacionService.confirmar(plan));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
     @GetMapping
     public ResponseEntity<List<AsignacionTurnoDTO>> obtenerTodasAsignaciones() {
         List<AsignacionTurnoDTO> asignaciones = asignacionTurnoService.obtenerTodasAsignaciones();
         return ResponseEntity.ok(asignaciones);
     }
 
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaCursorDTO<AsignacionTurnoDTO>> obtenerAsignacionesPaginadas(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(required = false) Long rutaId,
+            @RequestParam(required = false) Integer numeroSemana,
+            @RequestParam(required = false) DayOfWeek diaSemana,
+            @RequestParam(required = false) EstadoAsignacion estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        PaginaCursorDTO<AsignacionTurnoDTO> pagina = asignacionTurnoService.obtenerAsignacionesPaginadas(
+                cursor, tamano, rutaId, numeroSemana, diaSemana, estado, desde, hasta);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/conductor/{conductorId}")
     public ResponseEntity<List<AsignacionTurnoDTO>> obtenerAsignacionesPorConductor(
             @PathVariable Long conductorId) {
@@ -73,6 +138,29 @@ public class AsignacionTurnoController {
         }
     }
 
+    // Inicio y fin masivos para el cambio de turno: devuelven el resultado de cada id
+    @PatchMapping("/lote/iniciar")
+    public ResponseEntity<?> iniciarTurnosEnLote(@Valid @RequestBody TransicionLoteRequest request) {
+        try {
+            return ResponseEntity.ok(asignacionTurnoService.iniciarTurnosEnLote(request.getIds()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    @PatchMapping("/lote/finalizar")
+    public ResponseEntity<?> finalizarTurnosEnLote(@Valid @RequestBody TransicionLoteRequest request) {
+        try {
+            return ResponseEntity.ok(asignacionTurnoService.finalizarTurnosEnLote(request.getIds()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancelarAsignacion(@PathVariable Long id) {
         try {
@@ -6,12 +6,17 @@ import com.FabricaEscuela.Feature1Back.DTO.MessageResponse;
 import com.FabricaEscuela.Feature1Back.DTO.VerifyCodeRequest;
 import com.FabricaEscuela.Feature1Back.config.JwtUtil;
 import com.FabricaEscuela.Feature1Back.service.AuthService;
+import com.FabricaEscuela.Feature1Back.service.LimitadorAutenticacion;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -23,15 +28,31 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private LimitadorAutenticacion limitadorAutenticacion;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Antes de BCrypt y del envío del correo
+        long espera = limitadorAutenticacion.esperaSegundos(httpRequest.getRemoteAddr(), request.getCorreo());
+        if (espera > 0) {
+            return demasiadasPeticiones(espera);
+        }
         try {
             String mensaje = authService.login(request.getCorreo(), request.getPassword());
             return ResponseEntity.ok(MessageResponse.builder()
                     .mensaje("Código de verificación enviado al correo del usuario")
                     .codigo(mensaje)
                     .build());
+        } catch (RejectedExecutionException e) {
+            // Pool de BCrypt saturado
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .body(MessageResponse.builder()
+                            .mensaje(e.getMessage())
+                            .build());
         } catch (RuntimeException e) {
+            limitadorAutenticacion.registrarFallo(request.getCorreo());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(MessageResponse.builder()
                             .mensaje(e.getMessage())
@@ -40,7 +61,12 @@ public class AuthController {
     }
 
     @PostMapping("/verify")
-    public ResponseEntity<?> verificarCodigo(@Valid @RequestBody VerifyCodeRequest request) {
+    public ResponseEntity<?> verificarCodigo(@Valid @RequestBody VerifyCodeRequest request,
+                                             HttpServletRequest httpRequest) {
+        long espera = limitadorAutenticacion.esperaSegundos(httpRequest.getRemoteAddr(), request.getCorreo());
+        if (espera > 0) {
+            return demasiadasPeticiones(espera);
+        }
         try {
             String token = authService.verificarCodigo(request.getCorreo(), request.getCodigo());
             String rol = jwtUtil.getRolFromToken(token);
@@ -52,6 +78,7 @@ public class AuthController {
                     .mensaje("Autenticación exitosa")
                     .build());
         } catch (RuntimeException e) {
+            limitadorAutenticacion.registrarFallo(request.getCorreo());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(MessageResponse.builder()
                             .mensaje(e.getMessage())
@@ -64,9 +91,10 @@ public class AuthController {
         try {
             String token = authHeader.replace("Bearer ", "");
 
-            if (jwtUtil.validateToken(token)) {
-                String correo = jwtUtil.getCorreoFromToken(token);
-                String rol = jwtUtil.getRolFromToken(token);
+            Claims claims = jwtUtil.getValidClaims(token);
+            if (claims != null) {
+                String correo = claims.getSubject();
+                String rol = claims.get("rol", String.class);
 
                 return ResponseEntity.ok(AuthResponse.builder()
                         .token(token)
@@ -87,4 +115,12 @@ public class AuthController {
                             .build());
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> demasiadasPeticiones(long esperaSegundos) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(esperaSegundos))
+                .body(MessageResponse.builder()
+                        .mensaje("Demasiados intentos, intente de nuevo en " + esperaSegundos + " segundos")
+                        .build());
+    }
+}
@@ -0,0 +1,27 @@
+package com.FabricaEscuela.Feature1Back.controller;
+
+import com.FabricaEscuela.Feature1Back.service.PublicadorCambios;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Canal de cambios de turnos y asignaciones (Server-Sent Events) para que los tableros no tengan que sondear
+@RestController
+@RequestMapping("/api/cambios")
+@CrossOrigin(origins = "*")
+public class CambiosController {
+
+    @Autowired
+    private PublicadorCambios publicadorCambios;
+
+    // El navegador reenvía Last-Event-ID al reconectarse; "desde" permite reanudar en la primera conexión
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(
+            @RequestParam(required = false) Long rutaId,
+            @RequestParam(required = false) Long conductorId,
+            @RequestParam(required = false) Long desde,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoId) {
+        return publicadorCambios.suscribir(rutaId, conductorId, ultimoEventoId != null ? ultimoEventoId : desde);
+    }
+}
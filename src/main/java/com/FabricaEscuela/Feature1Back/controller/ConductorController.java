@@ -3,11 +3,17 @@ package com.FabricaEscuela.Feature1Back.controller;
 import com.FabricaEscuela.Feature1Back.DTO.ConductorDTO;
 import com.FabricaEscuela.Feature1Back.entity.Conductor;
 import com.FabricaEscuela.Feature1Back.service.ConductorService;
+import com.FabricaEscuela.Feature1Back.service.ImportacionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 /*@RestController
 @RequestMapping("/conductores")*/
@@ -18,8 +24,11 @@ public class ConductorController {
 
     private final ConductorService conductorService;
 
-    public ConductorController(ConductorService conductorService) {
+    private final ImportacionService importacionService;
+
+    public ConductorController(ConductorService conductorService, ImportacionService importacionService) {
         this.conductorService = conductorService;
+        this.importacionService = importacionService;
     }
 
     @GetMapping
@@ -38,6 +47,16 @@ public class ConductorController {
         return conductorService.createConductor(dto);
     }
 
+    // Importación masiva desde CSV (columnas: usuarioId, nombreCompleto, licencia, telefono)
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importarConductores(@RequestParam("archivo") MultipartFile archivo) {
+        try (InputStream entrada = archivo.getInputStream()) {
+            return ResponseEntity.ok(importacionService.importarConductores(entrada));
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ConductorDTO> updateConductor(@PathVariable Long id, @RequestBody ConductorDTO dto) {
         ConductorDTO updated = conductorService.updateConductor(id, dto);
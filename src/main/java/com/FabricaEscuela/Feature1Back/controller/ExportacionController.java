@@ -0,0 +1,69 @@
+package com.FabricaEscuela.Feature1Back.controller;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.service.ExportacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Exportaciones masivas (nómina, BI): las filas se envían a medida que se leen de la base de datos
+@RestController
+@RequestMapping("/api/exportaciones")
+@CrossOrigin(origins = "*")
+public class ExportacionController {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @GetMapping("/asignaciones")
+    public ResponseEntity<?> exportarAsignaciones(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) Long rutaId,
+            @RequestParam(required = false) EstadoAsignacion estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        try {
+            ExportacionService.Formato tipo = ExportacionService.Formato.desde(formato);
+            StreamingResponseBody cuerpo = exportacionService.exportarAsignaciones(tipo, rutaId, estado, desde, hasta);
+            return respuesta("asignaciones", tipo, cuerpo);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/turnos")
+    public ResponseEntity<?> exportarTurnos(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) Long rutaId,
+            @RequestParam(required = false) Integer numeroSemana,
+            @RequestParam(required = false) EstadoTurno estado) {
+        try {
+            ExportacionService.Formato tipo = ExportacionService.Formato.desde(formato);
+            StreamingResponseBody cuerpo = exportacionService.exportarTurnos(tipo, rutaId, numeroSemana, estado);
+            return respuesta("turnos", tipo, cuerpo);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> respuesta(String nombre, ExportacionService.Formato formato,
+                                                            StreamingResponseBody cuerpo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + nombre + "." + formato.getExtension() + "\"")
+                .body(cuerpo);
+    }
+}
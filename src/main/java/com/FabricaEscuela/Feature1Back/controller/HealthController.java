@@ -1,5 +1,8 @@
 package com.FabricaEscuela.Feature1Back.controller;
 
+import com.FabricaEscuela.Feature1Back.DTO.EstadoBcryptDTO;
+import com.FabricaEscuela.Feature1Back.config.OffloadedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,8 +14,17 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/health")
 public class HealthController {
 
+    @Autowired
+    private OffloadedPasswordEncoder passwordEncoder;
+
     @GetMapping
     public ResponseEntity<String> getHealth() {
         return ResponseEntity.ok("Health");
     }
+
+    // Cola y tiempos del pool de BCrypt (requiere autenticación)
+    @GetMapping("/bcrypt")
+    public ResponseEntity<EstadoBcryptDTO> getEstadoBcrypt() {
+        return ResponseEntity.ok(passwordEncoder.estado());
+    }
 }
@@ -0,0 +1,75 @@
+package com.FabricaEscuela.Feature1Back.controller;
+
+import com.FabricaEscuela.Feature1Back.DTO.HorasTrabajadasDTO;
+import com.FabricaEscuela.Feature1Back.DTO.TrabajoDTO;
+import com.FabricaEscuela.Feature1Back.service.HorasTrabajadasService;
+import com.FabricaEscuela.Feature1Back.service.ReconstruccionHorasTrabajo;
+import com.FabricaEscuela.Feature1Back.service.TrabajoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/horas")
+@CrossOrigin(origins = "*")
+public class HorasTrabajadasController {
+
+    @Autowired
+    private HorasTrabajadasService horasTrabajadasService;
+
+    @Autowired
+    private TrabajoService trabajoService;
+
+    // Horas de una semana ISO; sin parámetros, la semana actual
+    @GetMapping("/conductor/{conductorId}/semana")
+    public ResponseEntity<?> obtenerHorasSemana(
+            @PathVariable Long conductorId,
+            @RequestParam(required = false) Integer anio,
+            @RequestParam(required = false) Integer semana) {
+        LocalDate hoy = LocalDate.now();
+        try {
+            HorasTrabajadasDTO horas = horasTrabajadasService.obtenerHorasSemana(conductorId,
+                    anio != null ? anio : hoy.get(IsoFields.WEEK_BASED_YEAR),
+                    semana != null ? semana : hoy.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            return ResponseEntity.ok(horas);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Horas de un mes; sin parámetros, el mes actual
+    @GetMapping("/conductor/{conductorId}/mes")
+    public ResponseEntity<?> obtenerHorasMes(
+            @PathVariable Long conductorId,
+            @RequestParam(required = false) Integer anio,
+            @RequestParam(required = false) Integer mes) {
+        LocalDate hoy = LocalDate.now();
+        try {
+            HorasTrabajadasDTO horas = horasTrabajadasService.obtenerHorasMes(conductorId,
+                    anio != null ? anio : hoy.getYear(),
+                    mes != null ? mes : hoy.getMonthValue());
+            return ResponseEntity.ok(horas);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // La reconstrucción se ejecuta como trabajo en segundo plano; el avance se consulta en /api/trabajos/{id}
+    @PostMapping("/reconstruir")
+    public ResponseEntity<?> reconstruir() {
+        try {
+            TrabajoDTO trabajo = trabajoService.enviar(ReconstruccionHorasTrabajo.TIPO, Map.of());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(trabajo);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "30")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.FabricaEscuela.Feature1Back.controller;
+
+import com.FabricaEscuela.Feature1Back.DTO.TrabajoDTO;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTrabajo;
+import com.FabricaEscuela.Feature1Back.service.TrabajoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/trabajos")
+@CrossOrigin(origins = "*")
+public class TrabajoController {
+
+    private static final int ESPERA_MAXIMA_SEGUNDOS = 60;
+
+    @Autowired
+    private TrabajoService trabajoService;
+
+    // Estado del trabajo. Con esperarSegundos > 0 la respuesta se retiene hasta que el
+    // trabajo termine o venza la espera (long-polling), sin ocupar un hilo de Tomcat.
+    @GetMapping("/{id}")
+    public DeferredResult<ResponseEntity<TrabajoDTO>> obtenerTrabajo(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int esperarSegundos) {
+        long espera = Math.min(Math.max(esperarSegundos, 0), ESPERA_MAXIMA_SEGUNDOS) * 1000L;
+        DeferredResult<ResponseEntity<TrabajoDTO>> respuesta = new DeferredResult<>(espera > 0 ? espera : null);
+
+        TrabajoDTO trabajo;
+        try {
+            trabajo = trabajoService.obtenerTrabajo(id);
+        } catch (RuntimeException e) {
+            respuesta.setResult(ResponseEntity.notFound().build());
+            return respuesta;
+        }
+
+        if (espera == 0 || terminado(trabajo)) {
+            respuesta.setResult(ResponseEntity.ok(trabajo));
+            return respuesta;
+        }
+
+        // Al vencer la espera se devuelve el estado actual
+        respuesta.onTimeout(() -> respuesta.setResult(ResponseEntity.ok(trabajoService.obtenerTrabajo(id))));
+        trabajoService.esperarFin(id).thenAccept(fin ->
+                respuesta.setResult(ResponseEntity.ok(fin != null ? fin : trabajoService.obtenerTrabajo(id))));
+        return respuesta;
+    }
+
+    // Resultado en JSON; 202 mientras el trabajo no haya terminado
+    @GetMapping(value = "/{id}/resultado", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> obtenerResultado(@PathVariable String id) {
+        TrabajoDTO trabajo;
+        try {
+            trabajo = trabajoService.obtenerTrabajo(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (trabajo.getEstado() == EstadoTrabajo.FALLIDO) {
+            return ResponseEntity.unprocessableEntity().body(Map.of(
+                    "error", trabajo.getError() != null ? trabajo.getError() : "Error desconocido"
+            ));
+        }
+        if (trabajo.getEstado() != EstadoTrabajo.COMPLETADO) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(trabajo);
+        }
+        return ResponseEntity.ok(trabajoService.obtenerResultado(id));
+    }
+
+    private boolean terminado(TrabajoDTO trabajo) {
+        return trabajo.getEstado() == EstadoTrabajo.COMPLETADO || trabajo.getEstado() == EstadoTrabajo.FALLIDO;
+    }
+}
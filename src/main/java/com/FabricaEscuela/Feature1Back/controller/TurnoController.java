@@ -1,17 +1,33 @@
 package com.FabricaEscuela.Feature1Back.controller;
 
 import com.FabricaEscuela.Feature1Back.DTO.CrearTurnoRequest;
+import com.FabricaEscuela.Feature1Back.DTO.PaginaCursorDTO;
+import com.FabricaEscuela.Feature1Back.DTO.RolloverRequest;
+import com.FabricaEscuela.Feature1Back.DTO.TrabajoDTO;
 import com.FabricaEscuela.Feature1Back.DTO.TurnoDTO;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.service.CopiaSemanaTrabajo;
+import com.FabricaEscuela.Feature1Back.service.ImportacionService;
+import com.FabricaEscuela.Feature1Back.service.RolloverFlotaService;
+import com.FabricaEscuela.Feature1Back.service.RolloverFlotaTrabajo;
+import com.FabricaEscuela.Feature1Back.service.TrabajoService;
 import com.FabricaEscuela.Feature1Back.service.TurnoService;
+import com.FabricaEscuela.Feature1Back.service.TurnosAutomaticosTrabajo;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/turnos")
@@ -21,6 +37,15 @@ public class TurnoController {
     @Autowired
     private TurnoService turnoService;
 
+    @Autowired
+    private RolloverFlotaService rolloverFlotaService;
+
+    @Autowired
+    private TrabajoService trabajoService;
+
+    @Autowired
+    private ImportacionService importacionService;
+
     @PostMapping
     public ResponseEntity<TurnoDTO> crearTurno(@Valid @RequestBody CrearTurnoRequest request) {
         try {
@@ -37,6 +62,37 @@ public class TurnoController {
         return ResponseEntity.ok(turnos);
     }
 
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaCursorDTO<TurnoDTO>> obtenerTurnosPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(required = false) Long rutaId,
+            @RequestParam(required = false) Integer numeroSemana,
+            @RequestParam(required = false) DayOfWeek diaSemana,
+            @RequestParam(required = false) EstadoTurno estado) {
+        PaginaCursorDTO<TurnoDTO> pagina = turnoService.obtenerTurnosPaginados(
+                cursor, tamano, rutaId, numeroSemana, diaSemana, estado);
+        return ResponseEntity.ok(pagina);
+    }
+
+    // Turnos que se cruzan con [desde, hasta) o que están en curso a la hora "desde" si no se envía "hasta"
+    @GetMapping("/ventana")
+    public ResponseEntity<List<TurnoDTO>> obtenerTurnosEnVentana(
+            @RequestParam int numeroSemana,
+            @RequestParam DayOfWeek diaSemana,
+            @RequestParam String desde,
+            @RequestParam(required = false) String hasta,
+            @RequestParam(required = false) Long rutaId) {
+        try {
+            LocalTime inicio = LocalTime.parse(desde);
+            LocalTime fin = hasta != null ? LocalTime.parse(hasta) : null;
+            List<TurnoDTO> turnos = turnoService.obtenerTurnosEnVentana(rutaId, numeroSemana, diaSemana, inicio, fin);
+            return ResponseEntity.ok(turnos);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TurnoDTO> obtenerTurnoPorId(@PathVariable Long id) {
         try {
@@ -91,6 +147,18 @@ public class TurnoController {
         }
     }
 
+    // Importación masiva desde CSV (columnas: rutaId, diaSemana, horaInicio, horaFin, numeroSemana)
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importarTurnos(@RequestParam("archivo") MultipartFile archivo) {
+        try (InputStream entrada = archivo.getInputStream()) {
+            return ResponseEntity.ok(importacionService.importarTurnos(entrada));
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
     @PostMapping("/copiar-semana")
     public ResponseEntity<List<TurnoDTO>> copiarSemanaTurnos(
             @RequestParam Long rutaId,
@@ -104,6 +172,39 @@ public class TurnoController {
         }
     }
 
+    // El rollover se ejecuta como trabajo en segundo plano; el avance se consulta en /api/trabajos/{id}
+    @PostMapping("/rollover")
+    public ResponseEntity<?> iniciarRollover(@Valid @RequestBody RolloverRequest request) {
+        try {
+            rolloverFlotaService.validar(request);
+            TrabajoDTO trabajo = trabajoService.enviar(RolloverFlotaTrabajo.TIPO, request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(trabajo);
+        } catch (RejectedExecutionException e) {
+            return ocupado(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    @PostMapping("/copiar-semana/async")
+    public ResponseEntity<?> copiarSemanaTurnosAsync(
+            @RequestParam Long rutaId,
+            @RequestParam int semanaOrigen,
+            @RequestParam int semanaDestino) {
+        try {
+            TrabajoDTO trabajo = trabajoService.enviar(CopiaSemanaTrabajo.TIPO, Map.of(
+                    "rutaId", rutaId,
+                    "semanaOrigen", semanaOrigen,
+                    "semanaDestino", semanaDestino
+            ));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(trabajo);
+        } catch (RejectedExecutionException e) {
+            return ocupado(e);
+        }
+    }
+
     @PostMapping("/auto")
     public ResponseEntity<?> crearTurnosAutomaticos(
             @RequestParam Long rutaId,
@@ -127,4 +228,37 @@ public class TurnoController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/auto/async")
+    public ResponseEntity<?> crearTurnosAutomaticosAsync(
+            @RequestParam Long rutaId,
+            @RequestParam(required = false) String horaInicio,
+            @RequestParam(required = false) String horaFin,
+            @RequestParam(defaultValue = "1") int numeroSemana) {
+        try {
+            LocalTime inicio = horaInicio != null ? LocalTime.parse(horaInicio) : LocalTime.of(5, 0);
+            LocalTime fin = horaFin != null ? LocalTime.parse(horaFin) : LocalTime.of(23, 0);
+
+            TrabajoDTO trabajo = trabajoService.enviar(TurnosAutomaticosTrabajo.TIPO, Map.of(
+                    "rutaId", rutaId,
+                    "horaInicio", inicio.toString(),
+                    "horaFin", fin.toString(),
+                    "numeroSemana", numeroSemana
+            ));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(trabajo);
+        } catch (RejectedExecutionException e) {
+            return ocupado(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    // Cola de trabajos llena: el cliente debe reintentar más tarde
+    private ResponseEntity<?> ocupado(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(Map.of("error", e.getMessage()));
+    }
+}
@@ -7,22 +7,42 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "asignaciones_turno")
+@Table(name = "asignaciones_turno", indexes = {
+        @Index(name = "idx_asignaciones_estado_id", columnList = "estado, id"),
+        @Index(name = "idx_asignaciones_turno_fechas", columnList = "turno_id, fecha_inicio, fecha_fin"),
+        @Index(name = "idx_asignaciones_conductor_fechas", columnList = "conductor_id, fecha_inicio, fecha_fin"),
+        // Recarga de la rueda de transiciones automáticas
+        @Index(name = "idx_asignaciones_estado_inicio", columnList = "estado, fecha_inicio"),
+        @Index(name = "idx_asignaciones_estado_fin", columnList = "estado, fecha_fin")
+})
+// Plan de carga para listados: turno, ruta, conductor y usuario en una sola consulta
+@NamedEntityGraph(name = AsignacionTurno.GRAFO_DETALLE,
+        attributeNodes = {
+                @NamedAttributeNode(value = "turno", subgraph = "turno"),
+                @NamedAttributeNode(value = "conductor", subgraph = "conductor")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "turno", attributeNodes = @NamedAttributeNode("ruta")),
+                @NamedSubgraph(name = "conductor", attributeNodes = @NamedAttributeNode("usuario"))
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class AsignacionTurno {
 
+    public static final String GRAFO_DETALLE = "AsignacionTurno.detalle";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asignaciones_turno_seq")
+    @SequenceGenerator(name = "asignaciones_turno_seq", sequenceName = "asignaciones_turno_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "turno_id", nullable = false)
     private Turno turno;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conductor_id", nullable = false)
     private Conductor conductor;
 
@@ -42,6 +62,10 @@ public class AsignacionTurno {
     @Column
     private LocalDateTime horaFinReal; // Cuando realmente terminó
 
+    // Control optimista: cada transición de estado la incrementa; un cambio concurrente la invalida
+    @Version
+    private Long version;
+
     // Getters y Setters
     public Long getId() {
         return id;
@@ -106,4 +130,12 @@ public class AsignacionTurno {
     public void setHoraFinReal(LocalDateTime horaFinReal) {
         this.horaFinReal = horaFinReal;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
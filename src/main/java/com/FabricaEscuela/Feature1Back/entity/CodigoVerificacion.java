@@ -33,6 +33,10 @@ public class CodigoVerificacion {
     @Column(nullable = false)
     private boolean usado;
 
+    // Intentos fallidos de verificación
+    @Column(nullable = false)
+    private int intentos;
+
     public Long getId() {
         return id;
     }
@@ -80,4 +84,12 @@ public class CodigoVerificacion {
     public void setUsado(boolean usado) {
         this.usado = usado;
     }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
 }
\ No newline at end of file
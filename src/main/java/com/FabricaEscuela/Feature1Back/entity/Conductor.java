@@ -13,7 +13,8 @@ import lombok.*;
 public class Conductor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conductores_seq")
+    @SequenceGenerator(name = "conductores_seq", sequenceName = "conductores_seq", allocationSize = 50)
     private Long id;
 
     private String nombreCompleto;
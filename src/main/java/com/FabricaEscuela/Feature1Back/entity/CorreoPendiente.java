@@ -0,0 +1,57 @@
+package com.FabricaEscuela.Feature1Back.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+// Bandeja de salida: el correo se registra en la transacción que lo genera y se envía en segundo plano.
+// El cuerpo se borra al terminar (enviado o fallido) y las filas terminadas se purgan tras la retención
+@Entity
+@Table(name = "correos_pendientes", indexes = {
+        @Index(name = "idx_correos_estado_proximo", columnList = "estado, proximo_intento")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CorreoPendiente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String asunto;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column
+    private String cuerpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoCorreo estado;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(nullable = false)
+    private LocalDateTime proximoIntento; // También marca la reserva mientras un hilo lo está enviando
+
+    @Column
+    private LocalDateTime venceEn; // Pasado este instante ya no sirve enviarlo (p. ej. un código vencido)
+
+    @Column(length = 1000)
+    private String ultimoError;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column
+    private LocalDateTime fechaEnvio;
+}
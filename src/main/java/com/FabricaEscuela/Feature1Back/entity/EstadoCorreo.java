@@ -0,0 +1,7 @@
+package com.FabricaEscuela.Feature1Back.entity;
+
+public enum EstadoCorreo {
+    PENDIENTE, // Por enviar o esperando el siguiente reintento
+    ENVIADO,   // El servidor SMTP lo aceptó
+    FALLIDO    // Agotó los reintentos
+}
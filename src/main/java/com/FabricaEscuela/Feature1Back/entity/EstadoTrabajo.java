@@ -0,0 +1,8 @@
+package com.FabricaEscuela.Feature1Back.entity;
+
+public enum EstadoTrabajo {
+    PENDIENTE,     // En cola, aún no inicia
+    EN_EJECUCION,  // Un hilo del pool lo está procesando
+    COMPLETADO,    // Terminó y el resultado está disponible
+    FALLIDO        // Terminó con error
+}
@@ -0,0 +1,46 @@
+package com.FabricaEscuela.Feature1Back.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Libro de horas: minutos trabajados por conductor y semana ISO (según horaInicioReal/horaFinReal).
+// Una semana que cruza de mes se guarda en dos filas, una por mes, para poder sumar también por mes.
+@Entity
+@Table(name = "horas_semana_conductor", indexes = {
+        @Index(name = "idx_horas_conductor_mes", columnList = "conductor_id, mes")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HorasSemanaConductor {
+
+    @EmbeddedId
+    private Clave id;
+
+    @Column(nullable = false)
+    private long minutos;
+
+    @Column(nullable = false)
+    private int turnos; // Asignaciones finalizadas que suman en esta fila
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+
+        // Sin clave foránea: el historial para nómina se conserva aunque el conductor se elimine
+        @Column(name = "conductor_id", nullable = false)
+        private Long conductorId;
+
+        @Column(nullable = false)
+        private LocalDate semana; // Lunes de la semana ISO
+
+        @Column(nullable = false)
+        private LocalDate mes; // Primer día del mes
+    }
+}
@@ -0,0 +1,37 @@
+package com.FabricaEscuela.Feature1Back.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Historial de jornadas trabajadas: una fila por cada ocurrencia del turno que se cerró (la asignación
+// puede seguir vigente en semanas siguientes). Es la fuente para reconstruir el libro de horas.
+@Entity
+@Table(name = "jornadas_asignacion", indexes = {
+        @Index(name = "idx_jornadas_conductor", columnList = "conductor_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JornadaAsignacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jornadas_asignacion_seq")
+    @SequenceGenerator(name = "jornadas_asignacion_seq", sequenceName = "jornadas_asignacion_seq", allocationSize = 50)
+    private Long id;
+
+    // Sin claves foráneas: el historial para nómina se conserva aunque se eliminen la asignación o el conductor
+    @Column(name = "asignacion_id", nullable = false)
+    private Long asignacionId;
+
+    @Column(name = "conductor_id", nullable = false)
+    private Long conductorId;
+
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(nullable = false)
+    private LocalDateTime fin;
+}
@@ -0,0 +1,60 @@
+package com.FabricaEscuela.Feature1Back.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+// Operación de larga duración ejecutada en segundo plano (persistida para sobrevivir reinicios)
+@Entity
+@Table(name = "trabajos", indexes = {
+        @Index(name = "idx_trabajos_estado", columnList = "estado"),
+        // Purga de trabajos terminados
+        @Index(name = "idx_trabajos_estado_fin", columnList = "estado, fecha_fin")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Trabajo {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoTrabajo estado;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String parametros; // JSON con los parámetros de entrada
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String resultado; // JSON con el resultado (si COMPLETADO)
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private int progreso;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column
+    private LocalDateTime fechaInicio;
+
+    @Column
+    private LocalDateTime fechaFin;
+}
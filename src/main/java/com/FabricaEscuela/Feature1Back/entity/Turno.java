@@ -7,7 +7,9 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "turnos")
+@Table(name = "turnos", indexes = {
+        @Index(name = "idx_turnos_ruta_semana_dia", columnList = "ruta_id, numero_semana, dia_semana, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,10 +17,12 @@ import java.time.LocalTime;
 public class Turno {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "turnos_seq")
+    @SequenceGenerator(name = "turnos_seq", sequenceName = "turnos_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // Perezosa: las consultas que necesitan la ruta la traen con un grafo de entidad
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ruta_id", nullable = false)
     private Ruta ruta;
 
@@ -30,5 +30,6 @@ public interface AsignacionTurnoMapper {
     @Mapping(target = "conductor.licencia", ignore = true)
     @Mapping(target = "conductor.telefono", ignore = true)
     @Mapping(target = "conductor.usuario", ignore = true)
+    @Mapping(target = "version", ignore = true)
     AsignacionTurno toEntity(AsignacionTurnoDTO asignacionTurnoDTO);
 }
\ No newline at end of file
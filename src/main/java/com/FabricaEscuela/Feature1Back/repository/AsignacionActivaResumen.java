@@ -0,0 +1,9 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+// Proyección liviana: turno y nombre del conductor de su asignación activa
+public interface AsignacionActivaResumen {
+
+    Long getTurnoId();
+
+    String getConductorNombre();
+}
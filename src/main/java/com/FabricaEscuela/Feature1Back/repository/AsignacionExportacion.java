@@ -0,0 +1,44 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Fila plana de asignación para exportaciones (no se carga como entidad)
+public interface AsignacionExportacion {
+
+    Long getId();
+
+    Long getTurnoId();
+
+    Long getRutaId();
+
+    String getRutaNombre();
+
+    Integer getNumeroSemana();
+
+    DayOfWeek getDiaSemana();
+
+    LocalTime getHoraInicio();
+
+    LocalTime getHoraFin();
+
+    Long getConductorId();
+
+    String getConductorNombre();
+
+    String getConductorLicencia();
+
+    LocalDate getFechaInicio();
+
+    LocalDate getFechaFin();
+
+    EstadoAsignacion getEstado();
+
+    LocalDateTime getHoraInicioReal();
+
+    LocalDateTime getHoraFinReal();
+}
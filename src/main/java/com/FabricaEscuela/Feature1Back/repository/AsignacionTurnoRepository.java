@@ -4,28 +4,74 @@ import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
 import com.FabricaEscuela.Feature1Back.entity.Conductor;
 import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
 import com.FabricaEscuela.Feature1Back.entity.Turno;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AsignacionTurnoRepository extends JpaRepository<AsignacionTurno, Long> {
+public interface AsignacionTurnoRepository extends JpaRepository<AsignacionTurno, Long>,
+        JpaSpecificationExecutor<AsignacionTurno> {
+
+    // Todas las asignaciones con turno, ruta y conductor en una sola consulta
+    @EntityGraph(AsignacionTurno.GRAFO_DETALLE)
+    @Query("SELECT a FROM AsignacionTurno a")
+    List<AsignacionTurno> findAllConDetalle();
+
+    // Una asignación con turno, ruta y conductor (para responder sin consultas adicionales)
+    @EntityGraph(AsignacionTurno.GRAFO_DETALLE)
+    Optional<AsignacionTurno> findConDetalleById(Long id);
+
+    // Varias asignaciones con turno, ruta y conductor en una sola consulta
+    @EntityGraph(AsignacionTurno.GRAFO_DETALLE)
+    List<AsignacionTurno> findConDetalleByIdIn(Collection<Long> ids);
 
     // Buscar asignaciones de un turno específico
     List<AsignacionTurno> findByTurno(Turno turno);
 
     // Buscar asignaciones de un conductor
+    @EntityGraph(AsignacionTurno.GRAFO_DETALLE)
     List<AsignacionTurno> findByConductor(Conductor conductor);
 
+    // Asignaciones en los estados indicados con su turno (carga del índice de ocupación)
+    @EntityGraph(attributePaths = "turno")
+    List<AsignacionTurno> findByEstadoIn(Collection<EstadoAsignacion> estados);
+
+    // Asignaciones con un inicio o fin pendiente hasta la fecha dada (incluye las atrasadas): las programadas
+    // que ya empezaron su rango y todas las que están en curso, tengan o no fecha fin.
+    // Cada rama usa su índice (estado, fecha_inicio) / (estado, id)
+    @EntityGraph(attributePaths = "turno")
+    @Query("SELECT a FROM AsignacionTurno a WHERE " +
+            "(a.estado = 'PROGRAMADA' AND a.fechaInicio <= :hasta) OR a.estado = 'EN_CURSO'")
+    List<AsignacionTurno> findConLimitesHasta(@Param("hasta") LocalDate hasta);
+
     // Buscar asignaciones activas de un conductor
     List<AsignacionTurno> findByConductorAndEstado(Conductor conductor, EstadoAsignacion estado);
 
     // Buscar asignación activa de un turno en una fecha específica
+    @EntityGraph(attributePaths = "conductor")
     @Query("SELECT a FROM AsignacionTurno a WHERE a.turno = :turno " +
             "AND a.fechaInicio <= :fecha " +
             "AND (a.fechaFin IS NULL OR a.fechaFin >= :fecha) " +
@@ -35,16 +81,164 @@ public interface AsignacionTurnoRepository extends JpaRepository<AsignacionTurno
             @Param("fecha") LocalDate fecha
     );
 
-    // Buscar todas las asignaciones EN_CURSO (turnos activos ahora)
-    List<AsignacionTurno> findByEstado(EstadoAsignacion estado);
-
-    // Verificar si un conductor tiene un turno asignado en una fecha específica
-    @Query("SELECT COUNT(a) > 0 FROM AsignacionTurno a WHERE a.conductor = :conductor " +
+    // Asignaciones activas en una fecha para un conjunto de turnos (una sola consulta)
+    @Query("SELECT a.turno.id AS turnoId, c.nombreCompleto AS conductorNombre " +
+            "FROM AsignacionTurno a JOIN a.conductor c " +
+            "WHERE a.turno.id IN :turnoIds " +
             "AND a.fechaInicio <= :fecha " +
             "AND (a.fechaFin IS NULL OR a.fechaFin >= :fecha) " +
             "AND a.estado != 'CANCELADA'")
-    boolean conductorTieneAsignacionEnFecha(
-            @Param("conductor") Conductor conductor,
+    List<AsignacionActivaResumen> findAsignacionesActivasEnFecha(
+            @Param("turnoIds") Collection<Long> turnoIds,
             @Param("fecha") LocalDate fecha
     );
-}
\ No newline at end of file
+
+    // Turnos de una semana que ya tienen un conductor vigente en algún día del rango
+    @Query("SELECT DISTINCT a.turno.id FROM AsignacionTurno a " +
+            "WHERE a.turno.numeroSemana = :numeroSemana " +
+            "AND a.estado IN ('PROGRAMADA', 'EN_CURSO') " +
+            "AND (:hasta IS NULL OR a.fechaInicio <= :hasta) " +
+            "AND (a.fechaFin IS NULL OR a.fechaFin >= :desde)")
+    List<Long> findTurnoIdsCubiertos(
+            @Param("numeroSemana") int numeroSemana,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    // Cuáles de los turnos indicados ya tienen un conductor vigente en algún día del rango
+    @Query("SELECT DISTINCT a.turno.id FROM AsignacionTurno a " +
+            "WHERE a.turno.id IN :turnoIds " +
+            "AND a.estado IN ('PROGRAMADA', 'EN_CURSO') " +
+            "AND (:hasta IS NULL OR a.fechaInicio <= :hasta) " +
+            "AND (a.fechaFin IS NULL OR a.fechaFin >= :desde)")
+    List<Long> findTurnoIdsCubiertosEntre(
+            @Param("turnoIds") Collection<Long> turnoIds,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    // Bloquea las asignaciones indicadas (SELECT ... FOR UPDATE) para decidir la transición de cada una
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT a FROM AsignacionTurno a WHERE a.id IN :ids ORDER BY a.id")
+    List<AsignacionTurno> findAllByIdParaActualizar(@Param("ids") Collection<Long> ids);
+
+    // Transiciones masivas: un solo UPDATE, protegido por el estado de origen
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AsignacionTurno a SET a.estado = :nuevo, a.horaInicioReal = :ahora, a.version = a.version + 1 " +
+            "WHERE a.id IN :ids AND a.estado = :requerido")
+    int iniciarEnLote(@Param("ids") Collection<Long> ids,
+                      @Param("requerido") EstadoAsignacion requerido,
+                      @Param("nuevo") EstadoAsignacion nuevo,
+                      @Param("ahora") LocalDateTime ahora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AsignacionTurno a SET a.estado = :nuevo, a.horaFinReal = :ahora, a.version = a.version + 1 " +
+            "WHERE a.id IN :ids AND a.estado = :requerido")
+    int finalizarEnLote(@Param("ids") Collection<Long> ids,
+                        @Param("requerido") EstadoAsignacion requerido,
+                        @Param("nuevo") EstadoAsignacion nuevo,
+                        @Param("ahora") LocalDateTime ahora);
+
+    // Transiciones individuales: solo se aplican si el estado y la versión leídos siguen vigentes
+    // (0 filas = otra operación cambió la asignación entre la lectura y el UPDATE)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AsignacionTurno a SET a.estado = :nuevo, a.horaInicioReal = :ahora, a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.estado = :requerido AND a.version = :version")
+    int iniciarSiNoCambio(@Param("id") Long id,
+                          @Param("requerido") EstadoAsignacion requerido,
+                          @Param("nuevo") EstadoAsignacion nuevo,
+                          @Param("version") Long version,
+                          @Param("ahora") LocalDateTime ahora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AsignacionTurno a SET a.estado = :nuevo, a.horaFinReal = :ahora, a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.estado = :requerido AND a.version = :version")
+    int finalizarSiNoCambio(@Param("id") Long id,
+                            @Param("requerido") EstadoAsignacion requerido,
+                            @Param("nuevo") EstadoAsignacion nuevo,
+                            @Param("version") Long version,
+                            @Param("ahora") LocalDateTime ahora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AsignacionTurno a SET a.estado = :nuevo, a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.estado = :requerido AND a.version = :version")
+    int cambiarEstadoSiNoCambio(@Param("id") Long id,
+                                @Param("requerido") EstadoAsignacion requerido,
+                                @Param("nuevo") EstadoAsignacion nuevo,
+                                @Param("version") Long version);
+
+    // Buscar todas las asignaciones EN_CURSO (turnos activos ahora)
+    @EntityGraph(AsignacionTurno.GRAFO_DETALLE)
+    List<AsignacionTurno> findByEstado(EstadoAsignacion estado);
+
+    // Página por cursor (id > cursor) con filtros opcionales; el rango de fechas selecciona
+    // asignaciones cuya vigencia se cruza con [desde, hasta]. Solo los filtros presentes entran
+    // en el WHERE, sin predicados "(:x IS NULL OR ...)" que impiden usar los índices
+    default List<AsignacionTurno> findPaginaPorCursor(Long cursor, Long rutaId, Integer numeroSemana,
+                                                      DayOfWeek diaSemana, EstadoAsignacion estado,
+                                                      LocalDate desde, LocalDate hasta, Limit limit) {
+        return findBy(paginaPorCursor(cursor, rutaId, numeroSemana, diaSemana, estado, desde, hasta),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(limit.max()).all());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Specification<AsignacionTurno> paginaPorCursor(Long cursor, Long rutaId, Integer numeroSemana,
+                                                                  DayOfWeek diaSemana, EstadoAsignacion estado,
+                                                                  LocalDate desde, LocalDate hasta) {
+        return (asignacion, consulta, cb) -> {
+            Join<AsignacionTurno, Turno> turno =
+                    (Join<AsignacionTurno, Turno>) asignacion.<AsignacionTurno, Turno>fetch("turno");
+            turno.fetch("ruta");
+            asignacion.fetch("conductor").fetch("usuario");
+
+            List<Predicate> filtros = new ArrayList<>();
+            filtros.add(cb.greaterThan(asignacion.get("id"), cursor));
+            if (rutaId != null) {
+                filtros.add(cb.equal(turno.get("ruta").get("id"), rutaId));
+            }
+            if (numeroSemana != null) {
+                filtros.add(cb.equal(turno.get("numeroSemana"), numeroSemana));
+            }
+            if (diaSemana != null) {
+                filtros.add(cb.equal(turno.get("diaSemana"), diaSemana));
+            }
+            if (estado != null) {
+                filtros.add(cb.equal(asignacion.get("estado"), estado));
+            }
+            if (hasta != null) {
+                filtros.add(cb.lessThanOrEqualTo(asignacion.get("fechaInicio"), hasta));
+            }
+            if (desde != null) {
+                filtros.add(cb.or(cb.isNull(asignacion.get("fechaFin")),
+                        cb.greaterThanOrEqualTo(asignacion.get("fechaFin"), desde)));
+            }
+            return cb.and(filtros.toArray(Predicate[]::new));
+        };
+    }
+
+    // Exportación: filas planas en orden de id, leídas con cursor de solo avance.
+    // Las proyecciones no entran al contexto de persistencia, así que la memoria no crece con el volumen.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id AS id, t.id AS turnoId, r.id AS rutaId, r.nombre AS rutaNombre, " +
+            "t.numeroSemana AS numeroSemana, t.diaSemana AS diaSemana, " +
+            "t.horaInicio AS horaInicio, t.horaFin AS horaFin, " +
+            "c.id AS conductorId, c.nombreCompleto AS conductorNombre, c.licencia AS conductorLicencia, " +
+            "a.fechaInicio AS fechaInicio, a.fechaFin AS fechaFin, a.estado AS estado, " +
+            "a.horaInicioReal AS horaInicioReal, a.horaFinReal AS horaFinReal " +
+            "FROM AsignacionTurno a JOIN a.turno t JOIN t.ruta r JOIN a.conductor c " +
+            "WHERE (:rutaId IS NULL OR r.id = :rutaId) " +
+            "AND (:estado IS NULL OR a.estado = :estado) " +
+            "AND (:hasta IS NULL OR a.fechaInicio <= :hasta) " +
+            "AND (:desde IS NULL OR a.fechaFin IS NULL OR a.fechaFin >= :desde) " +
+            "ORDER BY a.id")
+    Stream<AsignacionExportacion> streamParaExportacion(
+            @Param("rutaId") Long rutaId,
+            @Param("estado") EstadoAsignacion estado,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+}
@@ -2,15 +2,27 @@ package com.FabricaEscuela.Feature1Back.repository;
 
 import com.FabricaEscuela.Feature1Back.entity.CodigoVerificacion;
 import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface CodigoVerificacionRepository extends JpaRepository<CodigoVerificacion, Long> {
 
-    Optional<CodigoVerificacion> findByCodigoAndUsuarioAndUsadoFalse(String codigo, Usuario usuario);
+    // Código vigente del usuario, bloqueado para actualizar sus intentos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CodigoVerificacion> findFirstByUsuarioAndUsadoFalseOrderByIdDesc(Usuario usuario);
 
-    void deleteByUsuario(Usuario usuario);
-}
\ No newline at end of file
+    // Borrado en una sola sentencia (el derivado deleteByUsuario cargaba y borraba fila por fila)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CodigoVerificacion c WHERE c.usuario = :usuario")
+    int eliminarPorUsuario(@Param("usuario") Usuario usuario);
+}
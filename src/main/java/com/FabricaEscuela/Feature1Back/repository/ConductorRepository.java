@@ -1,7 +1,35 @@
 package com.FabricaEscuela.Feature1Back.repository;
 
 import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ConductorRepository extends JpaRepository<Conductor, Long> {
+
+    // Ids de usuarios que ya tienen un conductor vinculado
+    @Query("SELECT c.usuario.id FROM Conductor c")
+    List<Long> findUsuarioIdsVinculados();
+
+    // Bloquea la fila del conductor (SELECT ... FOR UPDATE) hasta el fin de la transacción.
+    // Serializa las asignaciones de un mismo conductor sin bloquear a los demás.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT c FROM Conductor c WHERE c.id = :id")
+    Optional<Conductor> findByIdParaActualizar(@Param("id") Long id);
+
+    // Bloquea varios conductores en una sola consulta, siempre en orden de id para que
+    // dos lotes concurrentes tomen los bloqueos en el mismo orden y no se interbloqueen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT c FROM Conductor c WHERE c.id IN :ids ORDER BY c.id")
+    List<Conductor> findAllByIdParaActualizar(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,64 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+import com.FabricaEscuela.Feature1Back.entity.CorreoPendiente;
+import com.FabricaEscuela.Feature1Back.entity.EstadoCorreo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CorreoPendienteRepository extends JpaRepository<CorreoPendiente, Long> {
+
+    // Correos listos para enviar o reintentar, los más antiguos primero
+    @Query("SELECT c.id FROM CorreoPendiente c " +
+            "WHERE c.estado = 'PENDIENTE' AND c.proximoIntento <= :ahora ORDER BY c.id")
+    List<Long> findIdsListos(@Param("ahora") LocalDateTime ahora, Limit limit);
+
+    // Reserva el correo para un intento: solo un hilo lo obtiene. Si el envío no termina
+    // (p. ej. la aplicación se detiene), la reserva vence y el correo se vuelve a intentar
+    @Modifying
+    @Transactional
+    @Query("UPDATE CorreoPendiente c SET c.proximoIntento = :reservaHasta, c.intentos = c.intentos + 1 " +
+            "WHERE c.id = :id AND c.estado = 'PENDIENTE' AND c.proximoIntento <= :ahora")
+    int reservar(@Param("id") Long id,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("reservaHasta") LocalDateTime reservaHasta);
+
+    // El cuerpo (p. ej. un código de verificación en claro) no se conserva una vez enviado
+    @Modifying
+    @Transactional
+    @Query("UPDATE CorreoPendiente c SET c.estado = :estado, c.fechaEnvio = :fechaEnvio, c.ultimoError = NULL, " +
+            "c.cuerpo = NULL WHERE c.id = :id")
+    int marcarEnviado(@Param("id") Long id,
+                      @Param("estado") EstadoCorreo estado,
+                      @Param("fechaEnvio") LocalDateTime fechaEnvio);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CorreoPendiente c SET c.estado = :estado, c.proximoIntento = :proximoIntento, " +
+            "c.ultimoError = :error WHERE c.id = :id")
+    int registrarFallo(@Param("id") Long id,
+                       @Param("estado") EstadoCorreo estado,
+                       @Param("proximoIntento") LocalDateTime proximoIntento,
+                       @Param("error") String error);
+
+    // Sin más reintentos: el correo queda FALLIDO y sin cuerpo
+    @Modifying
+    @Transactional
+    @Query("UPDATE CorreoPendiente c SET c.estado = 'FALLIDO', c.ultimoError = :error, c.cuerpo = NULL " +
+            "WHERE c.id = :id")
+    int marcarFallido(@Param("id") Long id, @Param("error") String error);
+
+    // Purga los correos terminados (enviados o fallidos) creados antes del límite
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CorreoPendiente c WHERE c.estado IN ('ENVIADO', 'FALLIDO') AND c.fechaCreacion < :limite")
+    int eliminarTerminados(@Param("limite") LocalDateTime limite);
+}
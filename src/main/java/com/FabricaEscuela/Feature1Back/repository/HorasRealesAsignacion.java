@@ -0,0 +1,13 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+import java.time.LocalDateTime;
+
+// Proyección liviana para reconstruir el libro de horas: conductor y horario real de una jornada trabajada
+public interface HorasRealesAsignacion {
+
+    Long getConductorId();
+
+    LocalDateTime getHoraInicioReal();
+
+    LocalDateTime getHoraFinReal();
+}
@@ -0,0 +1,35 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+import com.FabricaEscuela.Feature1Back.entity.HorasSemanaConductor;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HorasSemanaConductorRepository extends JpaRepository<HorasSemanaConductor, HorasSemanaConductor.Clave> {
+
+    // Bloquea las filas que se van a sumar para que dos finalizaciones del mismo conductor no se pisen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT h FROM HorasSemanaConductor h " +
+            "WHERE h.id.conductorId IN :conductorIds AND h.id.semana IN :semanas")
+    List<HorasSemanaConductor> findParaActualizar(@Param("conductorIds") Collection<Long> conductorIds,
+                                                  @Param("semanas") Collection<LocalDate> semanas);
+
+    @Query("SELECT DISTINCT h.id.conductorId FROM HorasSemanaConductor h")
+    List<Long> findConductorIds();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM HorasSemanaConductor h WHERE h.id.conductorId IN :conductorIds")
+    int deleteByConductorIdIn(@Param("conductorIds") Collection<Long> conductorIds);
+}
@@ -0,0 +1,40 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+import com.FabricaEscuela.Feature1Back.entity.JornadaAsignacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JornadaAsignacionRepository extends JpaRepository<JornadaAsignacion, Long> {
+
+    // Reconstrucción del libro de horas
+    @Query("SELECT DISTINCT j.conductorId FROM JornadaAsignacion j")
+    List<Long> findConductorIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT j.conductorId AS conductorId, j.inicio AS horaInicioReal, j.fin AS horaFinReal " +
+            "FROM JornadaAsignacion j WHERE j.conductorId IN :conductorIds")
+    List<HorasRealesAsignacion> findHorasReales(@Param("conductorIds") Collection<Long> conductorIds);
+
+    // Asignaciones finalizadas antes de que existiera el historial: cuentan con su propio horario real
+    String FINALIZADAS_SIN_JORNADA = "FROM AsignacionTurno a " +
+            "WHERE a.estado = com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion.FINALIZADA " +
+            "AND a.horaInicioReal IS NOT NULL AND a.horaFinReal IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM JornadaAsignacion j WHERE j.asignacionId = a.id)";
+
+    @Query("SELECT DISTINCT a.conductor.id " + FINALIZADAS_SIN_JORNADA)
+    List<Long> findConductorIdsSinJornada();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT a.conductor.id AS conductorId, a.horaInicioReal AS horaInicioReal, " +
+            "a.horaFinReal AS horaFinReal " + FINALIZADAS_SIN_JORNADA + " AND a.conductor.id IN :conductorIds")
+    List<HorasRealesAsignacion> findHorasRealesSinJornada(@Param("conductorIds") Collection<Long> conductorIds);
+}
@@ -1,7 +1,33 @@
 package com.FabricaEscuela.Feature1Back.repository;
 
 import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface RutaRepository extends JpaRepository<Ruta, Long> {}
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
+public interface RutaRepository extends JpaRepository<Ruta, Long> {
+
+    // Solo los ids, sin cargar las entidades
+    @Query("SELECT r.id FROM Ruta r ORDER BY r.id")
+    List<Long> findAllIds();
+
+    // Bloquea la ruta hasta el commit: serializa las altas y cambios de turnos de la ruta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT r FROM Ruta r WHERE r.id = :id")
+    Optional<Ruta> findByIdParaActualizar(@Param("id") Long id);
+
+    // Bloquea varias rutas siempre en el mismo orden (por id) para evitar interbloqueos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT r FROM Ruta r WHERE r.id IN :ids ORDER BY r.id")
+    List<Ruta> findAllByIdParaActualizar(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,34 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoTrabajo;
+import com.FabricaEscuela.Feature1Back.entity.Trabajo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TrabajoRepository extends JpaRepository<Trabajo, String> {
+
+    // Trabajos que quedaron sin terminar (p. ej. tras un reinicio)
+    List<Trabajo> findByEstadoInOrderByFechaCreacion(Collection<EstadoTrabajo> estados);
+
+    // Actualiza solo el avance, sin cargar la entidad
+    @Modifying
+    @Transactional
+    @Query("UPDATE Trabajo t SET t.progreso = :progreso, t.total = :total WHERE t.id = :id")
+    int actualizarProgreso(@Param("id") String id, @Param("progreso") int progreso, @Param("total") int total);
+
+    // Purga de trabajos terminados
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Trabajo t WHERE t.estado IN :estados AND t.fechaFin < :limite")
+    int eliminarTerminadosAntesDe(@Param("estados") Collection<EstadoTrabajo> estados,
+                                  @Param("limite") LocalDateTime limite);
+}
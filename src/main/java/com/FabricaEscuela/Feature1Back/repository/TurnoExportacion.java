@@ -0,0 +1,28 @@
+package com.FabricaEscuela.Feature1Back.repository;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// Fila plana de turno para exportaciones (no se carga como entidad)
+public interface TurnoExportacion {
+
+    Long getId();
+
+    Long getRutaId();
+
+    String getRutaNombre();
+
+    Integer getNumeroSemana();
+
+    DayOfWeek getDiaSemana();
+
+    LocalTime getHoraInicio();
+
+    LocalTime getHoraFin();
+
+    Integer getDuracionHoras();
+
+    EstadoTurno getEstado();
+}
@@ -1,20 +1,59 @@
 package com.FabricaEscuela.Feature1Back.repository;
 
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
 import com.FabricaEscuela.Feature1Back.entity.Ruta;
 import com.FabricaEscuela.Feature1Back.entity.Turno;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TurnoRepository extends JpaRepository<Turno, Long> {
+public interface TurnoRepository extends JpaRepository<Turno, Long>, JpaSpecificationExecutor<Turno> {
+
+    // Todos los turnos con su ruta en una sola consulta
+    @EntityGraph(attributePaths = "ruta")
+    @Query("SELECT t FROM Turno t")
+    List<Turno> findAllConRuta();
+
+    // Bloquea varios turnos siempre en el mismo orden (por id) para evitar interbloqueos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT t FROM Turno t WHERE t.id IN :ids ORDER BY t.id")
+    List<Turno> findAllByIdParaActualizar(@Param("ids") Collection<Long> ids);
+
+    // Turnos por id con su ruta
+    @EntityGraph(attributePaths = "ruta")
+    List<Turno> findByIdIn(Collection<Long> ids);
+
+    // Un turno con su ruta
+    @EntityGraph(attributePaths = "ruta")
+    Optional<Turno> findConRutaById(Long id);
 
     // Buscar todos los turnos de una ruta
+    @EntityGraph(attributePaths = "ruta")
     List<Turno> findByRuta(Ruta ruta);
 
     // Buscar turnos de una ruta en una semana específica
+    @EntityGraph(attributePaths = "ruta")
     List<Turno> findByRutaAndNumeroSemana(Ruta ruta, int numeroSemana);
 
     // Buscar turnos de una ruta en un día específico
@@ -22,4 +61,67 @@ public interface TurnoRepository extends JpaRepository<Turno, Long> {
 
     // Buscar turnos de una ruta, día y semana específicos
     List<Turno> findByRutaAndDiaSemanaAndNumeroSemana(Ruta ruta, DayOfWeek diaSemana, int numeroSemana);
-}
\ No newline at end of file
+
+    // Turnos de una semana para un conjunto de rutas (una sola consulta)
+    List<Turno> findByRutaIdInAndNumeroSemana(Collection<Long> rutaIds, int numeroSemana);
+
+    // Turnos de varias semanas de una ruta o de un conjunto de rutas (validación con las rutas bloqueadas)
+    List<Turno> findByRutaIdAndNumeroSemanaIn(Long rutaId, Collection<Integer> semanas);
+
+    List<Turno> findByRutaIdInAndNumeroSemanaIn(Collection<Long> rutaIds, Collection<Integer> semanas);
+
+    // Turnos de una semana en un estado, para toda la flota o para un conjunto de rutas (planificación)
+    List<Turno> findByNumeroSemanaAndEstado(int numeroSemana, EstadoTurno estado);
+
+    List<Turno> findByNumeroSemanaAndEstadoAndRutaIdIn(int numeroSemana, EstadoTurno estado, Collection<Long> rutaIds);
+
+    // Página por cursor (id > cursor): solo los filtros presentes entran en el WHERE, sin
+    // predicados "(:x IS NULL OR ...)" que impiden usar idx_turnos_ruta_semana_dia
+    default List<Turno> findPaginaPorCursor(Long cursor, Long rutaId, Integer numeroSemana,
+                                            DayOfWeek diaSemana, EstadoTurno estado, Limit limit) {
+        return findBy(paginaPorCursor(cursor, rutaId, numeroSemana, diaSemana, estado),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(limit.max()).all());
+    }
+
+    private static Specification<Turno> paginaPorCursor(Long cursor, Long rutaId, Integer numeroSemana,
+                                                        DayOfWeek diaSemana, EstadoTurno estado) {
+        return (turno, consulta, cb) -> {
+            turno.fetch("ruta");
+            List<Predicate> filtros = new ArrayList<>();
+            filtros.add(cb.greaterThan(turno.get("id"), cursor));
+            if (rutaId != null) {
+                filtros.add(cb.equal(turno.get("ruta").get("id"), rutaId));
+            }
+            if (numeroSemana != null) {
+                filtros.add(cb.equal(turno.get("numeroSemana"), numeroSemana));
+            }
+            if (diaSemana != null) {
+                filtros.add(cb.equal(turno.get("diaSemana"), diaSemana));
+            }
+            if (estado != null) {
+                filtros.add(cb.equal(turno.get("estado"), estado));
+            }
+            return cb.and(filtros.toArray(Predicate[]::new));
+        };
+    }
+
+    // Exportación: filas planas en orden de id, leídas con cursor de solo avance
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id AS id, r.id AS rutaId, r.nombre AS rutaNombre, " +
+            "t.numeroSemana AS numeroSemana, t.diaSemana AS diaSemana, " +
+            "t.horaInicio AS horaInicio, t.horaFin AS horaFin, " +
+            "t.duracionHoras AS duracionHoras, t.estado AS estado " +
+            "FROM Turno t JOIN t.ruta r " +
+            "WHERE (:rutaId IS NULL OR r.id = :rutaId) " +
+            "AND (:numeroSemana IS NULL OR t.numeroSemana = :numeroSemana) " +
+            "AND (:estado IS NULL OR t.estado = :estado) " +
+            "ORDER BY t.id")
+    Stream<TurnoExportacion> streamParaExportacion(
+            @Param("rutaId") Long rutaId,
+            @Param("numeroSemana") Integer numeroSemana,
+            @Param("estado") EstadoTurno estado
+    );
+}
@@ -1,10 +1,18 @@
 package com.FabricaEscuela.Feature1Back.repository;
 
+import com.FabricaEscuela.Feature1Back.entity.Rol;
 import com.FabricaEscuela.Feature1Back.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByCorreo(String correo);
+
+    // Solo los ids de los usuarios con un rol (validación masiva sin cargar entidades)
+    @Query("SELECT u.id FROM Usuario u WHERE u.rol = :rol")
+    List<Long> findIdsByRol(@Param("rol") Rol rol);
 }
@@ -1,17 +1,42 @@
 package com.FabricaEscuela.Feature1Back.service;
 
 import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.EventoCambioDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PaginaCursorDTO;
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoLoteAsignacionesDTO;
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoTransicionLoteDTO;
 import com.FabricaEscuela.Feature1Back.entity.*;
 import com.FabricaEscuela.Feature1Back.mapper.AsignacionTurnoMapper;
 import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
 import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
 import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.FabricaEscuela.Feature1Back.util.TransaccionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,40 +54,221 @@ public class AsignacionTurnoService {
     @Autowired
     private AsignacionTurnoMapper asignacionTurnoMapper;
 
+    @Autowired
+    private ConductorOcupacionIndex conductorOcupacionIndex;
+
+    @Autowired
+    private TurnosEnCursoRegistry turnosEnCursoRegistry;
+
+    @Autowired
+    private PublicadorCambios publicadorCambios;
+
+    @Autowired
+    private RuedaTransiciones ruedaTransiciones;
+
+    @Autowired
+    private HorasTrabajadasService horasTrabajadasService;
+
+    // Intentos de una transición de estado cuando otra operación concurrente se adelanta
+    @Value("${asignacion.transiciones.reintentos:3}")
+    private int reintentosTransicion;
+
+    // Tope semanal que respeta el planificador; se vuelve a comprobar al confirmar un plan
+    @Value("${asignacion.horas-maximas-semana:48}")
+    private int horasMaximasSemana;
+
+    // Elementos máximos por asignación masiva
+    static final int TAMANO_LOTE_MAXIMO = 1000;
+
     @Transactional
     public AsignacionTurnoDTO asignarConductorATurno(AsignacionTurnoDTO dto) {
         // Validar que el turno existe
         Turno turno = turnoRepository.findById(dto.getTurnoId())
                 .orElseThrow(() -> new RuntimeException("Turno no encontrado"));
 
-        // Validar que el conductor existe
-        Conductor conductor = conductorRepository.findById(dto.getConductorId())
+        // Validar que el conductor existe y bloquear su fila: dos asignaciones simultáneas
+        // del mismo conductor se ejecutan una tras otra, así la verificación y el guardado son atómicos
+        Conductor conductor = conductorRepository.findByIdParaActualizar(dto.getConductorId())
                 .orElseThrow(() -> new RuntimeException("Conductor no encontrado"));
 
-        // Verificar que el conductor no tenga otro turno en esa fecha/hora
-        if (asignacionTurnoRepository.conductorTieneAsignacionEnFecha(conductor, dto.getFechaInicio())) {
-            throw new RuntimeException("El conductor ya tiene un turno asignado en esa fecha");
-        }
+        validarRangoFechas(turno, dto.getFechaInicio(), dto.getFechaFin());
+        validarDisponibilidad(conductor, turno, dto.getFechaInicio(), dto.getFechaFin());
 
         // Crear la asignación
-        AsignacionTurno asignacion = AsignacionTurno.builder()
-                .turno(turno)
-                .conductor(conductor)
-                .fechaInicio(dto.getFechaInicio())
-                .fechaFin(dto.getFechaFin())
-                .estado(EstadoAsignacion.PROGRAMADA)
+        AsignacionTurno asignacion = asignacionTurnoRepository.save(nuevaAsignacion(turno, conductor, dto));
+
+        // Se registra antes del commit, con el bloqueo del conductor aún tomado, para que la
+        // siguiente asignación del mismo conductor ya la vea; si la transacción se revierte se retira
+        conductorOcupacionIndex.registrar(asignacion);
+        Long asignacionId = asignacion.getId();
+        TransaccionUtil.siSeRevierte(() -> conductorOcupacionIndex.eliminar(asignacionId));
+        TransaccionUtil.despuesDelCommit(() -> ruedaTransiciones.programar(asignacion));
+        AsignacionTurnoDTO creada = enrichAsignacionDTO(asignacion);
+        publicarDespuesDelCommit(List.of(evento(EventoCambioDTO.Tipo.ASIGNACION_CREADA, asignacion, creada)));
+        return creada;
+    }
+
+    // Asigna un lote completo en una transacción: turnos y conductores se cargan en dos consultas
+    // (los conductores bloqueados en orden de id) y cada elemento se valida contra el índice de
+    // ocupación, que ya incluye los elementos aceptados antes en el mismo lote.
+    // Los elementos inválidos se reportan sin impedir que se creen los demás.
+    @Transactional
+    public ResultadoLoteAsignacionesDTO asignarEnLote(List<AsignacionTurnoDTO> solicitudes) {
+        if (solicitudes.size() > TAMANO_LOTE_MAXIMO) {
+            throw new RuntimeException("El lote no puede superar las " + TAMANO_LOTE_MAXIMO + " asignaciones");
+        }
+        return procesarLote(solicitudes, false);
+    }
+
+    // Confirma un plan del planificador automático: mismo camino y mismo límite que el lote, revalidando
+    // cada propuesta bajo los bloqueos (el turno sigue sin conductor en el rango y el tope de horas
+    // semanales) por si algo cambió desde la vista previa
+    @Transactional
+    public ResultadoLoteAsignacionesDTO confirmarPlan(List<AsignacionTurnoDTO> propuestas) {
+        if (propuestas.size() > TAMANO_LOTE_MAXIMO) {
+            throw new RuntimeException("El plan no puede superar las " + TAMANO_LOTE_MAXIMO
+                    + " asignaciones; confírmelo por partes");
+        }
+        return procesarLote(propuestas, true);
+    }
+
+    private ResultadoLoteAsignacionesDTO procesarLote(List<AsignacionTurnoDTO> solicitudes,
+                                                      boolean confirmandoPlan) {
+        long inicio = System.nanoTime();
+
+        Set<Long> turnoIds = solicitudes.stream()
+                .map(AsignacionTurnoDTO::getTurnoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> conductorIds = solicitudes.stream()
+                .map(AsignacionTurnoDTO::getConductorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // Un plan solo propone turnos sin conductor: se bloquean para que otra confirmación
+        // no los cubra entre la revisión y el commit
+        List<Turno> encontrados = !confirmandoPlan ? turnoRepository.findAllById(turnoIds)
+                : turnoIds.isEmpty() ? List.of() : turnoRepository.findAllByIdParaActualizar(turnoIds);
+        Map<Long, Turno> turnos = encontrados.stream()
+                .collect(Collectors.toMap(Turno::getId, Function.identity()));
+        Map<Long, Conductor> conductores = conductorIds.isEmpty() ? Map.of()
+                : conductorRepository.findAllByIdParaActualizar(conductorIds).stream()
+                .collect(Collectors.toMap(Conductor::getId, Function.identity()));
+
+        List<ResultadoLoteAsignacionesDTO.ResultadoItem> resultados = new ArrayList<>(solicitudes.size());
+        List<Long> registradas = new ArrayList<>();
+        List<AsignacionTurno> creadas = new ArrayList<>();
+        List<EventoCambioDTO> eventos = new ArrayList<>();
+        // Turnos ya cubiertos por rango de fechas, incluidos los aceptados antes en este lote
+        Map<RangoFechas, Set<Long>> cubiertos = new HashMap<>();
+        // Si la transacción se revierte, el índice vuelve a su estado anterior
+        TransaccionUtil.siSeRevierte(() -> registradas.forEach(conductorOcupacionIndex::eliminar));
+
+        for (int i = 0; i < solicitudes.size(); i++) {
+            AsignacionTurnoDTO dto = solicitudes.get(i);
+            try {
+                Turno turno = turnos.get(dto.getTurnoId());
+                if (turno == null) {
+                    throw new RuntimeException("Turno no encontrado");
+                }
+                Conductor conductor = conductores.get(dto.getConductorId());
+                if (conductor == null) {
+                    throw new RuntimeException("Conductor no encontrado");
+                }
+                validarRangoFechas(turno, dto.getFechaInicio(), dto.getFechaFin());
+                validarDisponibilidad(conductor, turno, dto.getFechaInicio(), dto.getFechaFin());
+                Set<Long> cubiertosEnRango = null;
+                if (confirmandoPlan) {
+                    cubiertosEnRango = cubiertos.computeIfAbsent(
+                            new RangoFechas(dto.getFechaInicio(), dto.getFechaFin()),
+                            rango -> new HashSet<>(asignacionTurnoRepository.findTurnoIdsCubiertosEntre(
+                                    turnoIds, rango.desde(), rango.hasta())));
+                    if (cubiertosEnRango.contains(turno.getId())) {
+                        throw new RuntimeException("El turno ya tiene un conductor asignado en el rango de fechas");
+                    }
+                    validarHorasSemana(conductor, turno, dto.getFechaInicio(), dto.getFechaFin());
+                }
+
+                // persist solo reserva el id; los INSERT se envían en lotes JDBC al hacer flush
+                AsignacionTurno asignacion = asignacionTurnoRepository.save(nuevaAsignacion(turno, conductor, dto));
+                conductorOcupacionIndex.registrar(asignacion);
+                registradas.add(asignacion.getId());
+                creadas.add(asignacion);
+                if (cubiertosEnRango != null) {
+                    cubiertosEnRango.add(turno.getId());
+                }
+                eventos.add(evento(EventoCambioDTO.Tipo.ASIGNACION_CREADA, asignacion, enrichAsignacionDTO(asignacion)));
+                resultados.add(new ResultadoLoteAsignacionesDTO.ResultadoItem(i, true, asignacion.getId(), null));
+            } catch (RuntimeException e) {
+                resultados.add(new ResultadoLoteAsignacionesDTO.ResultadoItem(i, false, null, e.getMessage()));
+            }
+        }
+        asignacionTurnoRepository.flush();
+        TransaccionUtil.despuesDelCommit(() -> ruedaTransiciones.programarTodas(creadas));
+        publicarDespuesDelCommit(eventos);
+
+        return ResultadoLoteAsignacionesDTO.builder()
+                .total(solicitudes.size())
+                .creadas(registradas.size())
+                .rechazadas(solicitudes.size() - registradas.size())
+                .resultados(resultados)
+                .duracionMs((System.nanoTime() - inicio) / 1_000_000)
                 .build();
+    }
 
-        asignacion = asignacionTurnoRepository.save(asignacion);
-        return enrichAsignacionDTO(asignacion);
+    // Cargar el índice de ocupación de conductores al arrancar la aplicación (antes de reencolar trabajos)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void inicializarIndiceOcupacion() {
+        conductorOcupacionIndex.reconstruir(asignacionTurnoRepository.findByEstadoIn(
+                List.of(EstadoAsignacion.PROGRAMADA, EstadoAsignacion.EN_CURSO)));
+    }
+
+    // Cargar el registro de turnos en curso al arrancar la aplicación
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void inicializarTurnosEnCurso() {
+        turnosEnCursoRegistry.registrarTodos(asignacionTurnoRepository.findByEstado(EstadoAsignacion.EN_CURSO).stream()
+                .map(this::enrichAsignacionDTO)
+                .collect(Collectors.toList()));
     }
 
+    @Transactional(readOnly = true)
     public List<AsignacionTurnoDTO> obtenerTodasAsignaciones() {
-        return asignacionTurnoRepository.findAll().stream()
+        return asignacionTurnoRepository.findAllConDetalle().stream()
                 .map(this::enrichAsignacionDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<AsignacionTurnoDTO> obtenerAsignacionesPaginadas(Long cursor, int tamano, Long rutaId,
+                                                                        Integer numeroSemana, DayOfWeek diaSemana,
+                                                                        EstadoAsignacion estado,
+                                                                        LocalDate desde, LocalDate hasta) {
+        int tamanoPagina = Math.max(1, Math.min(tamano, PaginaCursorDTO.TAMANO_PAGINA_MAXIMO));
+
+        // Se pide un elemento extra para saber si hay más páginas
+        List<AsignacionTurno> asignaciones = asignacionTurnoRepository.findPaginaPorCursor(
+                cursor != null ? cursor : 0L, rutaId, numeroSemana, diaSemana, estado, desde, hasta,
+                Limit.of(tamanoPagina + 1));
+
+        boolean hayMas = asignaciones.size() > tamanoPagina;
+        if (hayMas) {
+            asignaciones = asignaciones.subList(0, tamanoPagina);
+        }
+
+        return PaginaCursorDTO.<AsignacionTurnoDTO>builder()
+                .contenido(asignaciones.stream()
+                        .map(this::enrichAsignacionDTO)
+                        .collect(Collectors.toList()))
+                .tamano(asignaciones.size())
+                .hayMas(hayMas)
+                .siguienteCursor(hayMas ? asignaciones.get(asignaciones.size() - 1).getId() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public List<AsignacionTurnoDTO> obtenerAsignacionesPorConductor(Long conductorId) {
         Conductor conductor = conductorRepository.findById(conductorId)
                 .orElseThrow(() -> new RuntimeException("Conductor no encontrado"));
@@ -72,55 +278,301 @@ public class AsignacionTurnoService {
                 .collect(Collectors.toList());
     }
 
+    // Se responde desde el registro en memoria, sin consultar la base de datos
     public List<AsignacionTurnoDTO> obtenerAsignacionesActivas() {
-        return asignacionTurnoRepository.findByEstado(EstadoAsignacion.EN_CURSO).stream()
-                .map(this::enrichAsignacionDTO)
-                .collect(Collectors.toList());
+        return turnosEnCursoRegistry.listar();
     }
 
     @Transactional
     public AsignacionTurnoDTO iniciarTurno(Long asignacionId) {
-        AsignacionTurno asignacion = asignacionTurnoRepository.findById(asignacionId)
-                .orElseThrow(() -> new RuntimeException("Asignación no encontrada"));
+        AsignacionTurno asignacion = transicionar(asignacionId, EstadoAsignacion.EN_CURSO,
+                estado -> estado == EstadoAsignacion.PROGRAMADA,
+                "Solo se pueden iniciar turnos en estado PROGRAMADA",
+                (actual, ahora) -> {
+                    int filas = asignacionTurnoRepository.iniciarSiNoCambio(actual.getId(), actual.getEstado(),
+                            EstadoAsignacion.EN_CURSO, actual.getVersion(), ahora);
+                    actual.setHoraInicioReal(ahora);
+                    return filas;
+                });
+        AsignacionTurnoDTO dto = enrichAsignacionDTO(asignacion);
+        TransaccionUtil.despuesDelCommit(() -> turnosEnCursoRegistry.registrar(dto));
+        publicarDespuesDelCommit(List.of(evento(EventoCambioDTO.Tipo.ASIGNACION_INICIADA, asignacion, dto)));
+        return dto;
+    }
 
-        if (asignacion.getEstado() != EstadoAsignacion.PROGRAMADA) {
-            throw new RuntimeException("Solo se pueden iniciar turnos en estado PROGRAMADA");
-        }
+    @Transactional
+    public AsignacionTurnoDTO finalizarTurno(Long asignacionId) {
+        AsignacionTurno asignacion = transicionar(asignacionId, EstadoAsignacion.FINALIZADA,
+                estado -> estado == EstadoAsignacion.EN_CURSO,
+                "Solo se pueden finalizar turnos en estado EN_CURSO",
+                (actual, ahora) -> {
+                    int filas = asignacionTurnoRepository.finalizarSiNoCambio(actual.getId(), actual.getEstado(),
+                            EstadoAsignacion.FINALIZADA, actual.getVersion(), ahora);
+                    actual.setHoraFinReal(ahora);
+                    return filas;
+                });
+        TransaccionUtil.despuesDelCommit(() -> {
+            conductorOcupacionIndex.eliminar(asignacionId);
+            turnosEnCursoRegistry.retirar(asignacionId);
+            ruedaTransiciones.retirar(asignacionId);
+        });
+        AsignacionTurnoDTO dto = enrichAsignacionDTO(asignacion);
+        horasTrabajadasService.registrarJornadas(List.of(dto));
+        publicarDespuesDelCommit(List.of(evento(EventoCambioDTO.Tipo.ASIGNACION_FINALIZADA, asignacion, dto)));
+        return dto;
+    }
 
-        asignacion.setEstado(EstadoAsignacion.EN_CURSO);
-        asignacion.setHoraInicioReal(LocalDateTime.now());
+    // Inicio masivo (cambio de turno): bloquea las filas, decide cada id y aplica un solo UPDATE
+    @Transactional
+    public ResultadoTransicionLoteDTO iniciarTurnosEnLote(List<Long> ids) {
+        ResultadoTransicionLoteDTO resultado = transicionEnLote(ids, EstadoAsignacion.PROGRAMADA,
+                "Solo se pueden iniciar turnos en estado PROGRAMADA",
+                (elegibles, ahora) -> asignacionTurnoRepository.iniciarEnLote(elegibles,
+                        EstadoAsignacion.PROGRAMADA, EstadoAsignacion.EN_CURSO, ahora),
+                EstadoAsignacion.EN_CURSO);
 
-        asignacion = asignacionTurnoRepository.save(asignacion);
-        return enrichAsignacionDTO(asignacion);
+        // Una consulta más para llevar las iniciadas (ya actualizadas) al registro de turnos en curso
+        // y al canal de cambios
+        List<AsignacionTurnoDTO> enCurso = publicarTransicionEnLote(idsExitosos(resultado),
+                EventoCambioDTO.Tipo.ASIGNACION_INICIADA).dtos();
+        TransaccionUtil.despuesDelCommit(() -> turnosEnCursoRegistry.registrarTodos(enCurso));
+        return resultado;
     }
 
     @Transactional
-    public AsignacionTurnoDTO finalizarTurno(Long asignacionId) {
-        AsignacionTurno asignacion = asignacionTurnoRepository.findById(asignacionId)
-                .orElseThrow(() -> new RuntimeException("Asignación no encontrada"));
+    public ResultadoTransicionLoteDTO finalizarTurnosEnLote(List<Long> ids) {
+        ResultadoTransicionLoteDTO resultado = transicionEnLote(ids, EstadoAsignacion.EN_CURSO,
+                "Solo se pueden finalizar turnos en estado EN_CURSO",
+                (elegibles, ahora) -> asignacionTurnoRepository.finalizarEnLote(elegibles,
+                        EstadoAsignacion.EN_CURSO, EstadoAsignacion.FINALIZADA, ahora),
+                EstadoAsignacion.FINALIZADA);
+
+        List<Long> finalizadas = idsExitosos(resultado);
+        TransaccionUtil.despuesDelCommit(() -> {
+            finalizadas.forEach(conductorOcupacionIndex::eliminar);
+            turnosEnCursoRegistry.retirarTodas(finalizadas);
+            ruedaTransiciones.retirarTodas(finalizadas);
+        });
+        // La relectura trae la hora real de fin con la que se suma el libro de horas
+        horasTrabajadasService.registrarJornadas(
+                publicarTransicionEnLote(finalizadas, EventoCambioDTO.Tipo.ASIGNACION_FINALIZADA).dtos());
+        return resultado;
+    }
 
-        if (asignacion.getEstado() != EstadoAsignacion.EN_CURSO) {
-            throw new RuntimeException("Solo se pueden finalizar turnos en estado EN_CURSO");
+    // Fin de una jornada a la que le siguen otras: la asignación vuelve a PROGRAMADA (conserva la ocupación
+    // del conductor), la jornada suma en el libro de horas y la rueda programa la siguiente ocurrencia
+    @Transactional
+    public ResultadoTransicionLoteDTO cerrarJornadasEnLote(List<Long> ids) {
+        ResultadoTransicionLoteDTO resultado = transicionEnLote(ids, EstadoAsignacion.EN_CURSO,
+                "Solo se pueden cerrar jornadas en estado EN_CURSO",
+                (elegibles, ahora) -> asignacionTurnoRepository.finalizarEnLote(elegibles,
+                        EstadoAsignacion.EN_CURSO, EstadoAsignacion.PROGRAMADA, ahora),
+                EstadoAsignacion.PROGRAMADA);
+
+        List<Long> cerradas = idsExitosos(resultado);
+        Releidas releidas = publicarTransicionEnLote(cerradas, EventoCambioDTO.Tipo.ASIGNACION_JORNADA_CERRADA);
+        TransaccionUtil.despuesDelCommit(() -> {
+            turnosEnCursoRegistry.retirarTodas(cerradas);
+            ruedaTransiciones.programarTodas(releidas.asignaciones());
+        });
+        horasTrabajadasService.registrarJornadas(releidas.dtos());
+        return resultado;
+    }
+
+    private record Releidas(List<AsignacionTurno> asignaciones, List<AsignacionTurnoDTO> dtos) {
+    }
+
+    private record RangoFechas(LocalDate desde, LocalDate hasta) {
+    }
+
+    // Relee con detalle las asignaciones que cambiaron en un lote y publica un evento por cada una
+    private Releidas publicarTransicionEnLote(List<Long> ids, EventoCambioDTO.Tipo tipo) {
+        if (ids.isEmpty()) {
+            return new Releidas(List.of(), List.of());
+        }
+        List<AsignacionTurno> asignaciones = asignacionTurnoRepository.findConDetalleByIdIn(ids);
+        List<AsignacionTurnoDTO> dtos = new ArrayList<>(ids.size());
+        List<EventoCambioDTO> eventos = new ArrayList<>(ids.size());
+        for (AsignacionTurno asignacion : asignaciones) {
+            AsignacionTurnoDTO dto = enrichAsignacionDTO(asignacion);
+            dtos.add(dto);
+            eventos.add(evento(tipo, asignacion, dto));
         }
+        publicarDespuesDelCommit(eventos);
+        return new Releidas(asignaciones, dtos);
+    }
 
-        asignacion.setEstado(EstadoAsignacion.FINALIZADA);
-        asignacion.setHoraFinReal(LocalDateTime.now());
+    private static List<Long> idsExitosos(ResultadoTransicionLoteDTO resultado) {
+        return resultado.getResultados().stream()
+                .filter(ResultadoTransicionLoteDTO.ResultadoId::isExitosa)
+                .map(ResultadoTransicionLoteDTO.ResultadoId::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Dos sentencias sin importar el tamaño del lote: SELECT ... FOR UPDATE y un UPDATE protegido por estado.
+    // El bloqueo garantiza que el resultado informado por id coincide con lo que hizo el UPDATE.
+    private ResultadoTransicionLoteDTO transicionEnLote(List<Long> ids, EstadoAsignacion requerido, String error,
+                                                       BiFunction<Collection<Long>, LocalDateTime, Integer> actualizar,
+                                                       EstadoAsignacion nuevo) {
+        List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distintos.size() > TAMANO_LOTE_MAXIMO) {
+            throw new RuntimeException("El lote no puede superar las " + TAMANO_LOTE_MAXIMO + " asignaciones");
+        }
+
+        Map<Long, EstadoAsignacion> estados = distintos.isEmpty() ? Map.of()
+                : asignacionTurnoRepository.findAllByIdParaActualizar(distintos).stream()
+                .collect(Collectors.toMap(AsignacionTurno::getId, AsignacionTurno::getEstado));
+        List<Long> elegibles = distintos.stream()
+                .filter(id -> estados.get(id) == requerido)
+                .collect(Collectors.toList());
+
+        if (!elegibles.isEmpty()) {
+            int actualizadas = actualizar.apply(elegibles, LocalDateTime.now());
+            if (actualizadas != elegibles.size()) {
+                throw new RuntimeException("Las asignaciones cambiaron durante la actualización; intente de nuevo");
+            }
+        }
+
+        List<ResultadoTransicionLoteDTO.ResultadoId> resultados = distintos.stream()
+                .map(id -> {
+                    EstadoAsignacion actual = estados.get(id);
+                    if (actual == null) {
+                        return new ResultadoTransicionLoteDTO.ResultadoId(id, false, null, "Asignación no encontrada");
+                    }
+                    return actual == requerido
+                            ? new ResultadoTransicionLoteDTO.ResultadoId(id, true, nuevo, null)
+                            : new ResultadoTransicionLoteDTO.ResultadoId(id, false, actual, error);
+                })
+                .collect(Collectors.toList());
 
-        asignacion = asignacionTurnoRepository.save(asignacion);
-        return enrichAsignacionDTO(asignacion);
+        return ResultadoTransicionLoteDTO.builder()
+                .total(distintos.size())
+                .exitosas(elegibles.size())
+                .fallidas(distintos.size() - elegibles.size())
+                .resultados(resultados)
+                .build();
     }
 
     @Transactional
     public void cancelarAsignacion(Long asignacionId) {
-        AsignacionTurno asignacion = asignacionTurnoRepository.findById(asignacionId)
-                .orElseThrow(() -> new RuntimeException("Asignación no encontrada"));
+        // Cancelar una asignación ya cancelada no falla, pero tampoco toca los índices ni publica
+        AtomicBoolean cancelada = new AtomicBoolean();
+        AsignacionTurno asignacion = transicionar(asignacionId, EstadoAsignacion.CANCELADA,
+                estado -> estado != EstadoAsignacion.FINALIZADA,
+                "No se puede cancelar una asignación finalizada",
+                (actual, ahora) -> {
+                    if (actual.getEstado() == EstadoAsignacion.CANCELADA) {
+                        return 1;
+                    }
+                    int filas = asignacionTurnoRepository.cambiarEstadoSiNoCambio(actual.getId(),
+                            actual.getEstado(), EstadoAsignacion.CANCELADA, actual.getVersion());
+                    cancelada.set(filas == 1);
+                    return filas;
+                });
+        if (!cancelada.get()) {
+            return;
+        }
+        TransaccionUtil.despuesDelCommit(() -> {
+            conductorOcupacionIndex.eliminar(asignacionId);
+            turnosEnCursoRegistry.retirar(asignacionId);
+            ruedaTransiciones.retirar(asignacionId);
+        });
+        publicarDespuesDelCommit(List.of(evento(EventoCambioDTO.Tipo.ASIGNACION_CANCELADA, asignacion,
+                enrichAsignacionDTO(asignacion))));
+    }
+
+    // Transición optimista: lee estado y versión, valida en Java y aplica un UPDATE condicionado a ambos.
+    // Si otra operación se adelantó (0 filas) se vuelve a leer y validar, hasta un número acotado de intentos;
+    // ningún hilo queda bloqueado esperando a otro más allá de lo que dura su UPDATE.
+    private AsignacionTurno transicionar(Long asignacionId, EstadoAsignacion destino,
+                                         Predicate<EstadoAsignacion> origenValido, String error,
+                                         ToIntBiFunction<AsignacionTurno, LocalDateTime> actualizar) {
+        for (int intento = 1; ; intento++) {
+            AsignacionTurno actual = asignacionTurnoRepository.findConDetalleById(asignacionId)
+                    .orElseThrow(() -> new RuntimeException("Asignación no encontrada"));
+            if (!origenValido.test(actual.getEstado())) {
+                throw new RuntimeException(error);
+            }
+            boolean cambia = actual.getEstado() != destino;
+            if (actualizar.applyAsInt(actual, LocalDateTime.now()) == 1) {
+                // El UPDATE ya se aplicó (y desasoció la entidad); se refleja en la copia leída
+                // para responder sin otra consulta
+                if (cambia) {
+                    actual.setEstado(destino);
+                    actual.setVersion(actual.getVersion() + 1);
+                }
+                return actual;
+            }
+            if (intento >= Math.max(1, reintentosTransicion)) {
+                throw new RuntimeException("La asignación fue modificada por otra operación; intente de nuevo");
+            }
+        }
+    }
+
+    // Verifica contra el índice de ocupación que no choque con otro turno del conductor
+    // (día, horario y rango de fechas) ni le quite el descanso mínimo
+    private void validarDisponibilidad(Conductor conductor, Turno turno, LocalDate fechaInicio, LocalDate fechaFin) {
+        conductorOcupacionIndex.buscarConflicto(conductor.getId(), turno, fechaInicio, fechaFin, null)
+                .ifPresent(conflicto -> {
+                    throw new RuntimeException(conflicto.solapa()
+                            ? "El conductor ya tiene un turno asignado que se cruza con ese horario"
+                            : String.format("El conductor ya tiene un turno asignado sin el descanso mínimo de %d minutos",
+                                    conductorOcupacionIndex.getDescansoMinimo()));
+                });
+    }
+
+    // Mismo criterio que el planificador: minutos semanales vigentes del conductor (incluye lo ya aceptado
+    // en este lote, que está en el índice) más la duración del turno
+    private void validarHorasSemana(Conductor conductor, Turno turno, LocalDate fechaInicio, LocalDate fechaFin) {
+        int duracion = ConductorOcupacionIndex.finSemanal(turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin())
+                - ConductorOcupacionIndex.inicioSemanal(turno.getDiaSemana(), turno.getHoraInicio());
+        if (conductorOcupacionIndex.minutosSemanales(conductor.getId(), fechaInicio, fechaFin) + duracion
+                > horasMaximasSemana * 60) {
+            throw new RuntimeException(String.format("El conductor superaría el máximo de %d horas semanales",
+                    horasMaximasSemana));
+        }
+    }
+
+    private AsignacionTurno nuevaAsignacion(Turno turno, Conductor conductor, AsignacionTurnoDTO dto) {
+        return AsignacionTurno.builder()
+                .turno(turno)
+                .conductor(conductor)
+                .fechaInicio(dto.getFechaInicio())
+                .fechaFin(dto.getFechaFin())
+                .estado(EstadoAsignacion.PROGRAMADA)
+                .build();
+    }
 
-        if (asignacion.getEstado() == EstadoAsignacion.FINALIZADA) {
-            throw new RuntimeException("No se puede cancelar una asignación finalizada");
+    private void validarRangoFechas(Turno turno, LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null) {
+            throw new RuntimeException("La fecha de inicio es obligatoria");
+        }
+        if (fechaFin != null && fechaFin.isBefore(fechaInicio)) {
+            throw new RuntimeException("La fecha fin no puede ser anterior a la fecha de inicio");
         }
+        if (!ConductorOcupacionIndex.incluyeDia(turno.getDiaSemana(), fechaInicio, fechaFin)) {
+            throw new RuntimeException("El rango de fechas no incluye ningún " + turno.getDiaSemana() + " del turno");
+        }
+    }
+
+    // Los tableros solo ven cambios confirmados
+    private void publicarDespuesDelCommit(List<EventoCambioDTO> eventos) {
+        if (!eventos.isEmpty()) {
+            TransaccionUtil.despuesDelCommit(() -> publicadorCambios.publicarTodos(eventos));
+        }
+    }
 
-        asignacion.setEstado(EstadoAsignacion.CANCELADA);
-        asignacionTurnoRepository.save(asignacion);
+    private static EventoCambioDTO evento(EventoCambioDTO.Tipo tipo, AsignacionTurno asignacion,
+                                          AsignacionTurnoDTO dto) {
+        Turno turno = asignacion.getTurno();
+        return EventoCambioDTO.builder()
+                .tipo(tipo)
+                .rutaId(turno.getRuta() != null ? turno.getRuta().getId() : null)
+                .turnoId(turno.getId())
+                .asignacionId(asignacion.getId())
+                .conductorId(asignacion.getConductor().getId())
+                .datos(dto)
+                .build();
     }
 
     // Método auxiliar para enriquecer el DTO
@@ -1,17 +1,14 @@
 package com.FabricaEscuela.Feature1Back.service;
 
 import com.FabricaEscuela.Feature1Back.config.JwtUtil;
-import com.FabricaEscuela.Feature1Back.entity.CodigoVerificacion;
 import com.FabricaEscuela.Feature1Back.entity.Usuario;
-import com.FabricaEscuela.Feature1Back.repository.CodigoVerificacionRepository;
 import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
 import java.util.Random;
 
 @Service
@@ -21,7 +18,7 @@ public class AuthService {
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private CodigoVerificacionRepository codigoVerificacionRepository;
+    private VerificationCodeStore verificationCodeStore;
 
     @Autowired
     private EmailService emailService;
@@ -32,10 +29,14 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Value("${verification.code.expiration}")
     private Long codeExpiration;
 
-    @Transactional
+    // BCrypt corre fuera de toda transacción, sin retener una conexión del pool mientras espera;
+    // la transacción se abre solo para las escrituras (rehash, código y bandeja de salida)
     public String login(String correo, String password) {
         // Buscar usuario
         Usuario usuario = usuarioRepository.findByCorreo(correo)
@@ -46,49 +47,44 @@ public class AuthService {
             throw new RuntimeException("Credenciales inválidas");
         }
 
-        // Eliminar códigos anteriores
-        codigoVerificacionRepository.deleteByUsuario(usuario);
+        // Rehash transparente si el hash guardado tiene un costo menor al actual
+        String nuevoHash = passwordEncoder.upgradeEncoding(usuario.getPassword())
+                ? passwordEncoder.encode(password) : null;
 
         // Generar código de 6 dígitos
         String codigo = generarCodigoAleatorio();
 
-        // Crear y guardar código de verificación
-        CodigoVerificacion codigoVerificacion = CodigoVerificacion.builder()
-                .codigo(codigo)
-                .usuario(usuario)
-                .fechaCreacion(LocalDateTime.now())
-                .fechaExpiracion(LocalDateTime.now().plusSeconds(codeExpiration / 1000))
-                .usado(false)
-                .build();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (nuevoHash != null) {
+                usuario.setPassword(nuevoHash);
+                usuarioRepository.save(usuario);
+            }
 
-        codigoVerificacionRepository.save(codigoVerificacion);
+            // Guardar código de verificación (reemplaza al anterior)
+            verificationCodeStore.guardar(usuario, codigo, codeExpiration);
 
-        // Enviar email
-        emailService.enviarCodigoVerificacion(correo, codigo);
+            // Enviar email
+            emailService.enviarCodigoVerificacion(correo, codigo);
+        });
 
         return codigo;
     }
 
-    @Transactional
+    // Sin transacción propia: el almacén de códigos maneja la suya, y un intento fallido
+    // debe quedar contado aunque se responda con error
     public String verificarCodigo(String correo, String codigo) {
         // Buscar usuario
         Usuario usuario = usuarioRepository.findByCorreo(correo)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        // Buscar código válido
-        CodigoVerificacion codigoVerificacion = codigoVerificacionRepository
-                .findByCodigoAndUsuarioAndUsadoFalse(codigo, usuario)
-                .orElseThrow(() -> new RuntimeException("Código inválido o ya usado"));
-
-        // Verificar expiración
-        if (LocalDateTime.now().isAfter(codigoVerificacion.getFechaExpiracion())) {
-            throw new RuntimeException("El código ha expirado");
+        // Verificar y consumir el código
+        switch (verificationCodeStore.verificar(usuario, codigo)) {
+            case INVALIDO -> throw new RuntimeException("Código inválido o ya usado");
+            case EXPIRADO -> throw new RuntimeException("El código ha expirado");
+            case BLOQUEADO -> throw new RuntimeException("Demasiados intentos fallidos, solicite un nuevo código");
+            case VALIDO -> { }
         }
 
-        // Marcar código como usado
-        codigoVerificacion.setUsado(true);
-        codigoVerificacionRepository.save(codigoVerificacion);
-
         // Generar JWT
         return jwtUtil.generateToken(usuario.getCorreo(), usuario.getRol().name());
     }
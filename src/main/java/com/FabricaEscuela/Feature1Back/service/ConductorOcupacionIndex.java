@@ -0,0 +1,285 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de la ocupación semanal de cada conductor.
+ * Cada asignación vigente (PROGRAMADA o EN_CURSO) ocupa un intervalo de minutos dentro de la
+ * semana (día + horario del turno, los turnos nocturnos cruzan la medianoche) durante su rango
+ * de fechas. Un conflicto exige que los intervalos, ampliados con el descanso mínimo, se crucen
+ * y que además exista una fecha real en la que ambas asignaciones ocurren.
+ * Las lecturas no bloquean; las escrituras reemplazan el arreglo del conductor (copy-on-write).
+ */
+@Component
+public class ConductorOcupacionIndex {
+
+    static final int MINUTOS_DIA = 24 * 60;
+    static final int MINUTOS_SEMANA = 7 * MINUTOS_DIA;
+
+    // Sustituye a las asignaciones sin fecha fin; deja margen para desplazar días sin desbordar
+    private static final LocalDate SIN_FIN = LocalDate.of(9999, 12, 31);
+
+    private static final Comparator<Ocupacion> POR_INICIO =
+            Comparator.comparingInt(Ocupacion::inicio).thenComparingLong(Ocupacion::asignacionId);
+
+    private final int descansoMinimo;
+
+    private final Map<Long, Ocupacion[]> porConductor = new ConcurrentHashMap<>();
+    private final Map<Long, Long> conductorPorAsignacion = new ConcurrentHashMap<>();
+
+    public ConductorOcupacionIndex(@Value("${asignacion.descanso.minimo-minutos:480}") int descansoMinimo) {
+        this.descansoMinimo = descansoMinimo;
+    }
+
+    // Conflicto encontrado: solapa = los horarios se cruzan; si no, solo falta descanso entre ellos
+    public record Conflicto(long asignacionId, boolean solapa) {
+    }
+
+    // Reemplaza todo el contenido del índice (carga inicial)
+    public synchronized void reconstruir(Collection<AsignacionTurno> asignaciones) {
+        Map<Long, List<Ocupacion>> conductores = new HashMap<>();
+        Map<Long, Long> asignacionesIndexadas = new HashMap<>();
+
+        for (AsignacionTurno asignacion : asignaciones) {
+            if (!ocupa(asignacion)) {
+                continue;
+            }
+            Long conductorId = asignacion.getConductor().getId();
+            conductores.computeIfAbsent(conductorId, k -> new ArrayList<>()).add(aOcupacion(asignacion));
+            asignacionesIndexadas.put(asignacion.getId(), conductorId);
+        }
+
+        porConductor.clear();
+        conductorPorAsignacion.clear();
+        conductores.forEach((conductorId, lista) -> {
+            Ocupacion[] ocupaciones = lista.toArray(Ocupacion[]::new);
+            Arrays.sort(ocupaciones, POR_INICIO);
+            porConductor.put(conductorId, ocupaciones);
+        });
+        conductorPorAsignacion.putAll(asignacionesIndexadas);
+    }
+
+    // Agrega o actualiza una asignación; las canceladas o finalizadas se retiran del índice
+    public synchronized void registrar(AsignacionTurno asignacion) {
+        eliminar(asignacion.getId());
+        if (!ocupa(asignacion)) {
+            return;
+        }
+        Long conductorId = asignacion.getConductor().getId();
+        Ocupacion[] actuales = porConductor.getOrDefault(conductorId, new Ocupacion[0]);
+        Ocupacion[] nuevas = Arrays.copyOf(actuales, actuales.length + 1);
+        nuevas[actuales.length] = aOcupacion(asignacion);
+        Arrays.sort(nuevas, POR_INICIO);
+        porConductor.put(conductorId, nuevas);
+        conductorPorAsignacion.put(asignacion.getId(), conductorId);
+    }
+
+    public synchronized void registrarTodos(Collection<AsignacionTurno> asignaciones) {
+        asignaciones.forEach(this::registrar);
+    }
+
+    public synchronized void eliminar(Long asignacionId) {
+        if (asignacionId == null) {
+            return;
+        }
+        Long conductorId = conductorPorAsignacion.remove(asignacionId);
+        if (conductorId == null) {
+            return;
+        }
+        Ocupacion[] restantes = Arrays.stream(porConductor.getOrDefault(conductorId, new Ocupacion[0]))
+                .filter(o -> o.asignacionId() != asignacionId)
+                .toArray(Ocupacion[]::new);
+        if (restantes.length == 0) {
+            porConductor.remove(conductorId);
+        } else {
+            porConductor.put(conductorId, restantes);
+        }
+    }
+
+    // Busca una asignación del conductor que choque con el turno en el rango de fechas indicado
+    public Optional<Conflicto> buscarConflicto(Long conductorId, Turno turno, LocalDate fechaInicio,
+                                               LocalDate fechaFin, Long asignacionExcluidaId) {
+        return buscarConflictoExcluyendo(conductorId, turno, fechaInicio, fechaFin,
+                asignacionExcluidaId != null ? Set.of(asignacionExcluidaId) : Set.of());
+    }
+
+    // Igual, pero ignorando varias asignaciones (las de un turno que cambia de horario se mueven juntas)
+    public Optional<Conflicto> buscarConflictoExcluyendo(Long conductorId, Turno turno, LocalDate fechaInicio,
+                                                         LocalDate fechaFin, Set<Long> asignacionesExcluidas) {
+        Ocupacion[] ocupaciones = porConductor.get(conductorId);
+        if (ocupaciones == null) {
+            return Optional.empty();
+        }
+        Ocupacion candidata = new Ocupacion(-1L, turno.getDiaSemana(),
+                inicioSemanal(turno.getDiaSemana(), turno.getHoraInicio()),
+                finSemanal(turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin()),
+                fechaInicio, fechaFin != null ? fechaFin : SIN_FIN);
+
+        for (Ocupacion existente : ocupaciones) {
+            if (asignacionesExcluidas.contains(existente.asignacionId())) {
+                continue;
+            }
+            Conflicto conflicto = conflicto(candidata, existente);
+            if (conflicto != null) {
+                return Optional.of(conflicto);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int getDescansoMinimo() {
+        return descansoMinimo;
+    }
+
+    public int tamano() {
+        return conductorPorAsignacion.size();
+    }
+
+    public boolean tieneOcupacion(Long conductorId) {
+        return porConductor.containsKey(conductorId);
+    }
+
+    /**
+     * Minutos ya ocupados por el conductor en la semana real (de lunes a domingo) más cargada de las
+     * que se cruzan con el rango. Cada asignación suma en las semanas en que su día cae dentro de su
+     * propio rango de fechas; esas semanas forman un tramo, así que basta un barrido por sus extremos.
+     */
+    public int minutosSemanales(Long conductorId, LocalDate fechaInicio, LocalDate fechaFin) {
+        Ocupacion[] ocupaciones = porConductor.get(conductorId);
+        if (ocupaciones == null) {
+            return 0;
+        }
+        long primeraSemana = lunes(fechaInicio);
+        long ultimaSemana = lunes(fechaFin != null ? fechaFin : SIN_FIN);
+
+        // Cambios de carga por semana (en días epoch del lunes): suma al entrar y resta al salir
+        TreeMap<Long, Integer> cambios = new TreeMap<>();
+        for (Ocupacion ocupacion : ocupaciones) {
+            long desde = Math.max(primeraSemana,
+                    lunes(ocupacion.desde().with(TemporalAdjusters.nextOrSame(ocupacion.dia()))));
+            long hasta = Math.min(ultimaSemana,
+                    lunes(ocupacion.hasta().with(TemporalAdjusters.previousOrSame(ocupacion.dia()))));
+            if (desde > hasta) {
+                continue;
+            }
+            int minutos = ocupacion.fin() - ocupacion.inicio();
+            cambios.merge(desde, minutos, Integer::sum);
+            cambios.merge(hasta + 7, -minutos, Integer::sum);
+        }
+
+        int carga = 0;
+        int maxima = 0;
+        for (int cambio : cambios.values()) {
+            carga += cambio;
+            maxima = Math.max(maxima, carga);
+        }
+        return maxima;
+    }
+
+    private static long lunes(LocalDate fecha) {
+        return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+    }
+
+    // Dos intervalos semanales (en minutos) chocan si entre ellos queda menos que el descanso indicado
+    static boolean chocan(int inicioA, int finA, int inicioB, int finB, int descanso) {
+        for (int semana = -1; semana <= 1; semana++) {
+            int desplazamiento = semana * MINUTOS_SEMANA;
+            if (inicioB + desplazamiento < finA + descanso && inicioA - descanso < finB + desplazamiento) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Indica si el rango de fechas contiene al menos un día de la semana indicado
+    public static boolean incluyeDia(DayOfWeek dia, LocalDate fechaInicio, LocalDate fechaFin) {
+        LocalDate primera = fechaInicio.with(TemporalAdjusters.nextOrSame(dia));
+        return fechaFin == null || !primera.isAfter(fechaFin);
+    }
+
+    private Conflicto conflicto(Ocupacion candidata, Ocupacion existente) {
+        // La semana es circular: la existente se compara también desplazada una semana atrás y adelante
+        for (int semana = -1; semana <= 1; semana++) {
+            int inicio = existente.inicio() + semana * MINUTOS_SEMANA;
+            int fin = existente.fin() + semana * MINUTOS_SEMANA;
+            if (inicio >= candidata.fin() + descansoMinimo || candidata.inicio() - descansoMinimo >= fin) {
+                continue;
+            }
+            // Días entre una ocurrencia de la candidata y la ocurrencia de la existente con la que choca
+            int desfaseDias = Math.floorDiv(inicio, MINUTOS_DIA) - candidata.inicio() / MINUTOS_DIA;
+            if (coincidenEnFechas(candidata, existente, desfaseDias)) {
+                boolean solapa = inicio < candidata.fin() && candidata.inicio() < fin;
+                return new Conflicto(existente.asignacionId(), solapa);
+            }
+        }
+        return null;
+    }
+
+    // Existe una fecha d de la candidata (su día de la semana, dentro de su rango)
+    // tal que d + desfase cae dentro del rango de la existente
+    private static boolean coincidenEnFechas(Ocupacion candidata, Ocupacion existente, int desfaseDias) {
+        LocalDate desde = max(candidata.desde(), existente.desde().minusDays(desfaseDias));
+        LocalDate hasta = min(candidata.hasta(), existente.hasta().minusDays(desfaseDias));
+        if (desde.isAfter(hasta)) {
+            return false;
+        }
+        return !desde.with(TemporalAdjusters.nextOrSame(candidata.dia())).isAfter(hasta);
+    }
+
+    private static boolean ocupa(AsignacionTurno asignacion) {
+        return asignacion.getEstado() == EstadoAsignacion.PROGRAMADA
+                || asignacion.getEstado() == EstadoAsignacion.EN_CURSO;
+    }
+
+    private static Ocupacion aOcupacion(AsignacionTurno asignacion) {
+        Turno turno = asignacion.getTurno();
+        return new Ocupacion(asignacion.getId(), turno.getDiaSemana(),
+                inicioSemanal(turno.getDiaSemana(), turno.getHoraInicio()),
+                finSemanal(turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin()),
+                asignacion.getFechaInicio(),
+                asignacion.getFechaFin() != null ? asignacion.getFechaFin() : SIN_FIN);
+    }
+
+    // Minuto de la semana (lunes 00:00 = 0) en que empieza el turno
+    static int inicioSemanal(DayOfWeek dia, LocalTime horaInicio) {
+        return (dia.getValue() - 1) * MINUTOS_DIA + horaInicio.toSecondOfDay() / 60;
+    }
+
+    // Los turnos que terminan a una hora menor o igual a la de inicio acaban al día siguiente
+    static int finSemanal(DayOfWeek dia, LocalTime horaInicio, LocalTime horaFin) {
+        int fin = (dia.getValue() - 1) * MINUTOS_DIA + horaFin.toSecondOfDay() / 60;
+        return horaFin.isAfter(horaInicio) ? fin : fin + MINUTOS_DIA;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private record Ocupacion(long asignacionId, DayOfWeek dia, int inicio, int fin,
+                             LocalDate desde, LocalDate hasta) {
+    }
+}
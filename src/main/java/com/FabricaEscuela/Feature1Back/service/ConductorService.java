@@ -17,13 +17,16 @@ public class ConductorService {
     private final ConductorRepository conductorRepository;
     private final UsuarioRepository usuarioRepository;
     private final ConductorMapper conductorMapper;
+    private final TurnosEnCursoRegistry turnosEnCursoRegistry;
 
     public ConductorService(ConductorRepository conductorRepository,
                             UsuarioRepository usuarioRepository,
-                            ConductorMapper conductorMapper) {
+                            ConductorMapper conductorMapper,
+                            TurnosEnCursoRegistry turnosEnCursoRegistry) {
         this.conductorRepository = conductorRepository;
         this.usuarioRepository = usuarioRepository;
         this.conductorMapper = conductorMapper;
+        this.turnosEnCursoRegistry = turnosEnCursoRegistry;
     }
     public List<ConductorDTO> getAllConductores() {
         return conductorRepository.findAll()
@@ -61,7 +64,10 @@ public class ConductorService {
         existente.setTelefono(dto.getTelefono());
         // Usuario normalmente no se cambia
 
-        return conductorMapper.toDTO(conductorRepository.save(existente));
+        Conductor guardado = conductorRepository.save(existente);
+        // El nombre también se muestra en los turnos en curso
+        turnosEnCursoRegistry.actualizarConductor(guardado.getId(), guardado.getNombreCompleto());
+        return conductorMapper.toDTO(guardado);
     }
 
     public void deleteConductor(Long id) {
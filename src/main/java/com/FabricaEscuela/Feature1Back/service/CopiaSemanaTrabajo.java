@@ -0,0 +1,33 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+
+// Copia de la semana de turnos de una ruta en segundo plano
+@Component
+public class CopiaSemanaTrabajo implements TrabajoHandler {
+
+    public static final String TIPO = "COPIA_SEMANA";
+
+    private final TurnoService turnoService;
+
+    public CopiaSemanaTrabajo(TurnoService turnoService) {
+        this.turnoService = turnoService;
+    }
+
+    @Override
+    public String tipo() {
+        return TIPO;
+    }
+
+    @Override
+    public Object ejecutar(JsonNode parametros, AvanceTrabajo avance) {
+        avance.actualizar(0, 1);
+        Object turnos = turnoService.copiarSemanaTurnos(
+                parametros.get("rutaId").asLong(),
+                parametros.get("semanaOrigen").asInt(),
+                parametros.get("semanaDestino").asInt());
+        avance.actualizar(1, 1);
+        return turnos;
+    }
+}
@@ -0,0 +1,229 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.CorreoPendiente;
+import com.FabricaEscuela.Feature1Back.entity.EstadoCorreo;
+import com.FabricaEscuela.Feature1Back.repository.CorreoPendienteRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envía los correos de la bandeja de salida en un pool de hilos acotado.
+ * Cada hilo mantiene abierta su propia conexión SMTP y la reutiliza entre envíos (sin un handshake
+ * TLS + AUTH por correo); se renueva si pasó demasiado tiempo inactiva o si el servidor la cerró.
+ * Un envío fallido se reintenta con espera exponencial; el sondeo periódico recoge los reintentos,
+ * lo que no cupo en la cola y lo que quedó pendiente tras un reinicio.
+ * Un correo con vencimiento (un código de verificación) no se reintenta más allá de él, y las filas
+ * terminadas se purgan pasada la retención.
+ */
+@Component
+public class DespachadorCorreos {
+
+    private final CorreoPendienteRepository correoPendienteRepository;
+    private final JavaMailSenderImpl mailSender;
+    private final ThreadPoolExecutor executor;
+    private final int maxIntentos;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+    private final long reservaMs;
+    private final long inactividadMaximaMs;
+    private final long retencionMs;
+    private final String remitente;
+
+    // Conexión de cada hilo del pool; se guardan también aquí para cerrarlas al detener la aplicación
+    private final ThreadLocal<ConexionSmtp> conexiones = ThreadLocal.withInitial(ConexionSmtp::new);
+    private final Set<ConexionSmtp> abiertas = ConcurrentHashMap.newKeySet();
+
+    public DespachadorCorreos(CorreoPendienteRepository correoPendienteRepository,
+                              JavaMailSenderImpl mailSender,
+                              @Value("${correo.hilos:2}") int hilos,
+                              @Value("${correo.capacidad-cola:500}") int capacidadCola,
+                              @Value("${correo.max-intentos:6}") int maxIntentos,
+                              @Value("${correo.espera-inicial-ms:5000}") long esperaInicialMs,
+                              @Value("${correo.espera-maxima-ms:600000}") long esperaMaximaMs,
+                              @Value("${correo.reserva-ms:120000}") long reservaMs,
+                              @Value("${correo.inactividad-maxima-ms:60000}") long inactividadMaximaMs,
+                              @Value("${correo.retencion-ms:604800000}") long retencionMs,
+                              @Value("${correo.remitente:${spring.mail.username:}}") String remitente) {
+        this.correoPendienteRepository = correoPendienteRepository;
+        this.mailSender = mailSender;
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), new ThreadPoolExecutor.AbortPolicy());
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.esperaInicialMs = esperaInicialMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.reservaMs = reservaMs;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.retencionMs = retencionMs;
+        this.remitente = remitente;
+    }
+
+    // Encola el envío; si la cola está llena el correo sigue pendiente y lo recoge el sondeo
+    public void despachar(Long correoId) {
+        try {
+            executor.execute(() -> enviar(correoId));
+        } catch (RejectedExecutionException e) {
+            // Queda para el siguiente sondeo
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${correo.sondeo-ms:10000}", initialDelayString = "${correo.sondeo-ms:10000}")
+    public void sondear() {
+        int libres = executor.getQueue().remainingCapacity();
+        if (libres > 0) {
+            correoPendienteRepository.findIdsListos(LocalDateTime.now(), Limit.of(libres)).forEach(this::despachar);
+        }
+    }
+
+    void enviar(Long correoId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        // Otro hilo ya lo tomó, ya se envió o aún no toca reintentarlo
+        if (correoPendienteRepository.reservar(correoId, ahora, ahora.plus(reservaMs, ChronoUnit.MILLIS)) == 0) {
+            return;
+        }
+        CorreoPendiente correo = correoPendienteRepository.findById(correoId).orElse(null);
+        if (correo == null) {
+            return;
+        }
+        if (vencido(correo, ahora)) {
+            correoPendienteRepository.marcarFallido(correoId, "Venció antes de poder enviarse");
+            return;
+        }
+
+        try {
+            conexiones.get().enviar(mensaje(correo));
+            correoPendienteRepository.marcarEnviado(correoId, EstadoCorreo.ENVIADO, LocalDateTime.now());
+        } catch (MessagingException | RuntimeException e) {
+            registrarFallo(correo, e);
+        }
+    }
+
+    private void registrarFallo(CorreoPendiente correo, Exception e) {
+        String error = e.getMessage() != null && e.getMessage().length() > 1000
+                ? e.getMessage().substring(0, 1000) : e.getMessage();
+        LocalDateTime proximoIntento = LocalDateTime.now().plus(espera(correo.getIntentos()), ChronoUnit.MILLIS);
+        if (correo.getIntentos() >= maxIntentos || vencido(correo, proximoIntento)) {
+            correoPendienteRepository.marcarFallido(correo.getId(), error);
+            return;
+        }
+        correoPendienteRepository.registrarFallo(correo.getId(), EstadoCorreo.PENDIENTE, proximoIntento, error);
+    }
+
+    private boolean vencido(CorreoPendiente correo, LocalDateTime instante) {
+        return correo.getVenceEn() != null && !instante.isBefore(correo.getVenceEn());
+    }
+
+    @Scheduled(fixedDelayString = "${correo.limpieza-ms:3600000}", initialDelayString = "${correo.limpieza-ms:3600000}")
+    public void purgar() {
+        correoPendienteRepository.eliminarTerminados(LocalDateTime.now().minus(retencionMs, ChronoUnit.MILLIS));
+    }
+
+    // Espera antes del siguiente intento: se duplica en cada fallo, hasta el máximo
+    long espera(int intentos) {
+        long espera = esperaInicialMs;
+        for (int i = 1; i < intentos && espera < esperaMaximaMs; i++) {
+            espera *= 2;
+        }
+        return Math.min(espera, esperaMaximaMs);
+    }
+
+    private MimeMessage mensaje(CorreoPendiente correo) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensaje, "UTF-8");
+        if (remitente != null && !remitente.isBlank()) {
+            helper.setFrom(remitente);
+        }
+        helper.setTo(correo.getDestinatario());
+        helper.setSubject(correo.getAsunto());
+        helper.setText(correo.getCuerpo());
+        mensaje.saveChanges();
+        return mensaje;
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        abiertas.forEach(ConexionSmtp::cerrar);
+    }
+
+    // Conexión SMTP de un hilo del pool (solo la usa ese hilo)
+    private final class ConexionSmtp {
+
+        private Transport transport;
+        private long ultimoUso;
+
+        private void enviar(MimeMessage mensaje) throws MessagingException {
+            boolean reutilizada = abrirSiHaceFalta();
+            try {
+                transport.sendMessage(mensaje, mensaje.getAllRecipients());
+            } catch (MessagingException e) {
+                // Si el servidor cerró la conexión, el EOF también llega como SendFailedException
+                boolean rechazo = e instanceof SendFailedException && transport.isConnected();
+                cerrar();
+                // Un rechazo del servidor no se arregla reconectando; una conexión reutilizada
+                // que el servidor cerró sí: se intenta una vez con una nueva
+                if (!reutilizada || rechazo) {
+                    throw e;
+                }
+                abrirSiHaceFalta();
+                try {
+                    transport.sendMessage(mensaje, mensaje.getAllRecipients());
+                } catch (MessagingException otra) {
+                    cerrar();
+                    throw otra;
+                }
+            }
+            ultimoUso = System.currentTimeMillis();
+        }
+
+        // Devuelve true si se reutiliza la conexión abierta
+        private boolean abrirSiHaceFalta() throws MessagingException {
+            if (transport != null && System.currentTimeMillis() - ultimoUso < inactividadMaximaMs) {
+                return true;
+            }
+            cerrar();
+            String protocolo = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+            Transport nuevo = mailSender.getSession().getTransport(protocolo);
+            nuevo.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                    mailSender.getPassword());
+            transport = nuevo;
+            ultimoUso = System.currentTimeMillis();
+            abiertas.add(this);
+            return false;
+        }
+
+        private void cerrar() {
+            abiertas.remove(this);
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    // La conexión ya no sirve; no hay nada más que hacer
+                }
+                transport = null;
+            }
+        }
+    }
+}
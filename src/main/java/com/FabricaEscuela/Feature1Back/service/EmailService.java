@@ -1,37 +1,60 @@
 package com.FabricaEscuela.Feature1Back.service;
 
+import com.FabricaEscuela.Feature1Back.entity.CorreoPendiente;
+import com.FabricaEscuela.Feature1Back.entity.EstadoCorreo;
+import com.FabricaEscuela.Feature1Back.repository.CorreoPendienteRepository;
+import com.FabricaEscuela.Feature1Back.util.TransaccionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private CorreoPendienteRepository correoPendienteRepository;
+
+    @Autowired
+    private DespachadorCorreos despachadorCorreos;
 
+    @Value("${verification.code.expiration}")
+    private Long codeExpiration;
+
+    // El correo queda en la bandeja de salida dentro de la transacción de quien lo pide y se envía
+    // en segundo plano después del commit: quien llama no espera al servidor SMTP, y si la
+    // transacción se revierte no se envía nada. Deja de reintentarse cuando el código vence
     public void enviarCodigoVerificacion(String destinatario, String codigo) {
-        SimpleMailMessage mensaje = new SimpleMailMessage();
-        mensaje.setTo(destinatario);
-        mensaje.setSubject("FleetGuard360 - Código de Verificación");
-        mensaje.setText(
+        LocalDateTime venceEn = LocalDateTime.now().plus(codeExpiration, ChronoUnit.MILLIS);
+        encolar(destinatario,
+                "FleetGuard360 - Código de Verificación",
                 "¡Hola!\n\n" +
                         "Tu código de verificación para iniciar sesión en FleetGuard360 es:\n\n" +
                         codigo + "\n\n" +
                         "Este código es válido por 5 minutos.\n\n" +
                         "Si no solicitaste este código, ignora este mensaje.\n\n" +
                         "Saludos,\n" +
-                        "Equipo FleetGuard360"
+                        "Equipo FleetGuard360",
+                venceEn
         );
+    }
+
+    private void encolar(String destinatario, String asunto, String cuerpo, LocalDateTime venceEn) {
+        LocalDateTime ahora = LocalDateTime.now();
+        CorreoPendiente correo = correoPendienteRepository.save(CorreoPendiente.builder()
+                .destinatario(destinatario)
+                .asunto(asunto)
+                .cuerpo(cuerpo)
+                .estado(EstadoCorreo.PENDIENTE)
+                .intentos(0)
+                .proximoIntento(ahora)
+                .venceEn(venceEn)
+                .fechaCreacion(ahora)
+                .build());
 
-        try {
-            mailSender.send(mensaje);
-            System.out.println("✅ Email enviado a: " + destinatario + " con código: " + codigo);
-        } catch (Exception e) {
-            System.err.println("❌ Error al enviar email: " + e.getMessage());
-            // En desarrollo, puedes mostrar el código en consola
-            System.out.println("📧 CÓDIGO DE VERIFICACIÓN (consola): " + codigo);
-        }
+        Long correoId = correo.getId();
+        TransaccionUtil.despuesDelCommit(() -> despachadorCorreos.despachar(correoId));
     }
-}
\ No newline at end of file
+}
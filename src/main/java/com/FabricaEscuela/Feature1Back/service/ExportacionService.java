@@ -0,0 +1,209 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionExportacion;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoExportacion;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exportaciones de turnos y asignaciones en NDJSON o CSV.
+ * Las filas se leen con un cursor de solo avance y se escriben directamente en la respuesta,
+ * de modo que la memoria usada no depende de la cantidad de filas.
+ */
+@Service
+public class ExportacionService {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Formato desde(String valor) {
+            for (Formato formato : values()) {
+                if (formato.name().equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new RuntimeException("Formato no soportado: " + valor);
+        }
+    }
+
+    private record Columna<T>(String nombre, Function<T, Object> valor) {
+    }
+
+    private static final List<Columna<AsignacionExportacion>> COLUMNAS_ASIGNACION = List.of(
+            new Columna<>("id", AsignacionExportacion::getId),
+            new Columna<>("turnoId", AsignacionExportacion::getTurnoId),
+            new Columna<>("rutaId", AsignacionExportacion::getRutaId),
+            new Columna<>("rutaNombre", AsignacionExportacion::getRutaNombre),
+            new Columna<>("numeroSemana", AsignacionExportacion::getNumeroSemana),
+            new Columna<>("diaSemana", AsignacionExportacion::getDiaSemana),
+            new Columna<>("horaInicio", AsignacionExportacion::getHoraInicio),
+            new Columna<>("horaFin", AsignacionExportacion::getHoraFin),
+            new Columna<>("conductorId", AsignacionExportacion::getConductorId),
+            new Columna<>("conductorNombre", AsignacionExportacion::getConductorNombre),
+            new Columna<>("conductorLicencia", AsignacionExportacion::getConductorLicencia),
+            new Columna<>("fechaInicio", AsignacionExportacion::getFechaInicio),
+            new Columna<>("fechaFin", AsignacionExportacion::getFechaFin),
+            new Columna<>("estado", AsignacionExportacion::getEstado),
+            new Columna<>("horaInicioReal", AsignacionExportacion::getHoraInicioReal),
+            new Columna<>("horaFinReal", AsignacionExportacion::getHoraFinReal)
+    );
+
+    private static final List<Columna<TurnoExportacion>> COLUMNAS_TURNO = List.of(
+            new Columna<>("id", TurnoExportacion::getId),
+            new Columna<>("rutaId", TurnoExportacion::getRutaId),
+            new Columna<>("rutaNombre", TurnoExportacion::getRutaNombre),
+            new Columna<>("numeroSemana", TurnoExportacion::getNumeroSemana),
+            new Columna<>("diaSemana", TurnoExportacion::getDiaSemana),
+            new Columna<>("horaInicio", TurnoExportacion::getHoraInicio),
+            new Columna<>("horaFin", TurnoExportacion::getHoraFin),
+            new Columna<>("duracionHoras", TurnoExportacion::getDuracionHoras),
+            new Columna<>("estado", TurnoExportacion::getEstado)
+    );
+
+    private final AsignacionTurnoRepository asignacionTurnoRepository;
+    private final TurnoRepository turnoRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaccionLectura;
+
+    public ExportacionService(AsignacionTurnoRepository asignacionTurnoRepository,
+                              TurnoRepository turnoRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.asignacionTurnoRepository = asignacionTurnoRepository;
+        this.turnoRepository = turnoRepository;
+        this.objectMapper = objectMapper;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportarAsignaciones(Formato formato, Long rutaId, EstadoAsignacion estado,
+                                                      LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new RuntimeException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+        return salida -> exportar(salida, formato, COLUMNAS_ASIGNACION,
+                () -> asignacionTurnoRepository.streamParaExportacion(rutaId, estado, desde, hasta));
+    }
+
+    public StreamingResponseBody exportarTurnos(Formato formato, Long rutaId, Integer numeroSemana,
+                                                EstadoTurno estado) {
+        return salida -> exportar(salida, formato, COLUMNAS_TURNO,
+                () -> turnoRepository.streamParaExportacion(rutaId, numeroSemana, estado));
+    }
+
+    // El Stream del repositorio necesita una transacción abierta mientras se recorre
+    private <T> void exportar(OutputStream salida, Formato formato, List<Columna<T>> columnas,
+                              Supplier<Stream<T>> consulta) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        try {
+            transaccionLectura.executeWithoutResult(status -> {
+                try (Stream<T> filas = consulta.get()) {
+                    if (formato == Formato.CSV) {
+                        escribirCsv(filas, columnas, writer);
+                    } else {
+                        escribirNdjson(filas, columnas, writer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private <T> void escribirNdjson(Stream<T> filas, List<Columna<T>> columnas, Writer writer) throws IOException {
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(writer);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generador.setRootValueSeparator(null);
+
+        for (T fila : (Iterable<T>) filas::iterator) {
+            generador.writeStartObject();
+            for (Columna<T> columna : columnas) {
+                Object valor = columna.valor().apply(fila);
+                if (valor == null) {
+                    generador.writeNullField(columna.nombre());
+                } else if (valor instanceof Number numero) {
+                    generador.writeNumberField(columna.nombre(), numero.longValue());
+                } else {
+                    generador.writeStringField(columna.nombre(), valor.toString());
+                }
+            }
+            generador.writeEndObject();
+            generador.writeRaw('\n');
+        }
+        generador.flush();
+    }
+
+    private <T> void escribirCsv(Stream<T> filas, List<Columna<T>> columnas, Writer writer) throws IOException {
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columnas.get(i).nombre());
+        }
+        writer.write("\r\n");
+
+        for (T fila : (Iterable<T>) filas::iterator) {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object valor = columnas.get(i).valor().apply(fila);
+                if (valor != null) {
+                    writer.write(escaparCsv(valor.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    // RFC 4180: comillas si hay separador, comillas o saltos de línea
+    static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
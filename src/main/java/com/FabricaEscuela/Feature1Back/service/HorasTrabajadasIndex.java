@@ -0,0 +1,60 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.HorasSemanaConductor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copia en memoria del libro de horas, agregada por semana y por mes.
+ * Cada consulta es una búsqueda en un mapa; solo se escribe con cambios ya confirmados.
+ */
+@Component
+public class HorasTrabajadasIndex {
+
+    // Total de un conductor en un periodo (lunes de la semana ISO o primer día del mes)
+    public record Acumulado(long minutos, int turnos) {
+
+        public static final Acumulado VACIO = new Acumulado(0, 0);
+
+        Acumulado sumar(Acumulado otro) {
+            return new Acumulado(minutos + otro.minutos, turnos + otro.turnos);
+        }
+    }
+
+    private record Clave(Long conductorId, LocalDate periodo) {
+    }
+
+    private final Map<Clave, Acumulado> semanas = new ConcurrentHashMap<>();
+    private final Map<Clave, Acumulado> meses = new ConcurrentHashMap<>();
+
+    public Acumulado semana(Long conductorId, LocalDate lunes) {
+        return semanas.getOrDefault(new Clave(conductorId, lunes), Acumulado.VACIO);
+    }
+
+    public Acumulado mes(Long conductorId, LocalDate primerDia) {
+        return meses.getOrDefault(new Clave(conductorId, primerDia), Acumulado.VACIO);
+    }
+
+    public void sumar(HorasSemanaConductor.Clave clave, Acumulado delta) {
+        semanas.merge(new Clave(clave.getConductorId(), clave.getSemana()), delta, Acumulado::sumar);
+        meses.merge(new Clave(clave.getConductorId(), clave.getMes()), delta, Acumulado::sumar);
+    }
+
+    public void reconstruir(Collection<HorasSemanaConductor> filas) {
+        semanas.clear();
+        meses.clear();
+        filas.forEach(fila -> sumar(fila.getId(), new Acumulado(fila.getMinutos(), fila.getTurnos())));
+    }
+
+    // Reemplaza los totales de los conductores indicados por las filas recalculadas
+    public void reemplazar(Set<Long> conductorIds, Collection<HorasSemanaConductor> filas) {
+        semanas.keySet().removeIf(clave -> conductorIds.contains(clave.conductorId()));
+        meses.keySet().removeIf(clave -> conductorIds.contains(clave.conductorId()));
+        filas.forEach(fila -> sumar(fila.getId(), new Acumulado(fila.getMinutos(), fila.getTurnos())));
+    }
+}
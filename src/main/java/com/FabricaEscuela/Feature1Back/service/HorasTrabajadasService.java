@@ -0,0 +1,352 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.HorasTrabajadasDTO;
+import com.FabricaEscuela.Feature1Back.DTO.ReconstruccionHorasDTO;
+import com.FabricaEscuela.Feature1Back.entity.HorasSemanaConductor;
+import com.FabricaEscuela.Feature1Back.entity.JornadaAsignacion;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.HorasRealesAsignacion;
+import com.FabricaEscuela.Feature1Back.repository.HorasSemanaConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.JornadaAsignacionRepository;
+import com.FabricaEscuela.Feature1Back.util.TransaccionUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Libro de horas trabajadas por conductor. Cada jornada cerrada (una ocurrencia del turno) se guarda
+ * en el historial y suma su duración real en la fila de su semana ISO (dentro de la misma transacción)
+ * y, tras el commit, en el índice en memoria, desde donde se responden las consultas semanales y mensuales.
+ * La reconstrucción recalcula el libro desde el historial de jornadas (más las asignaciones finalizadas antes
+ * de existir el historial) repartiendo los conductores en bloques que se procesan en paralelo, con una
+ * transacción por bloque.
+ */
+@Service
+public class HorasTrabajadasService {
+
+    private static final String SEMANA = "SEMANA";
+    private static final String MES = "MES";
+
+    private final HorasSemanaConductorRepository horasRepository;
+    private final JornadaAsignacionRepository jornadaAsignacionRepository;
+    private final ConductorRepository conductorRepository;
+    private final HorasTrabajadasIndex horasTrabajadasIndex;
+    private final PersistenciaPorLotes persistenciaPorLotes;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int tamanoBloque;
+    private final int horasMaximasSemana;
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    @Autowired
+    public HorasTrabajadasService(HorasSemanaConductorRepository horasRepository,
+                                  JornadaAsignacionRepository jornadaAsignacionRepository,
+                                  ConductorRepository conductorRepository,
+                                  HorasTrabajadasIndex horasTrabajadasIndex,
+                                  PersistenciaPorLotes persistenciaPorLotes,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${horas.reconstruccion.hilos:4}") int hilos,
+                                  @Value("${horas.reconstruccion.tamano-bloque:50}") int tamanoBloque,
+                                  @Value("${asignacion.horas-maximas-semana:48}") int horasMaximasSemana) {
+        this(horasRepository, jornadaAsignacionRepository, conductorRepository, horasTrabajadasIndex,
+                persistenciaPorLotes,
+                transactionTemplate, Executors.newFixedThreadPool(Math.max(1, hilos)), tamanoBloque,
+                horasMaximasSemana);
+    }
+
+    HorasTrabajadasService(HorasSemanaConductorRepository horasRepository,
+                           JornadaAsignacionRepository jornadaAsignacionRepository,
+                           ConductorRepository conductorRepository,
+                           HorasTrabajadasIndex horasTrabajadasIndex,
+                           PersistenciaPorLotes persistenciaPorLotes,
+                           TransactionTemplate transactionTemplate,
+                           ExecutorService executor,
+                           int tamanoBloque,
+                           int horasMaximasSemana) {
+        this.horasRepository = horasRepository;
+        this.jornadaAsignacionRepository = jornadaAsignacionRepository;
+        this.conductorRepository = conductorRepository;
+        this.horasTrabajadasIndex = horasTrabajadasIndex;
+        this.persistenciaPorLotes = persistenciaPorLotes;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.tamanoBloque = Math.max(1, tamanoBloque);
+        this.horasMaximasSemana = horasMaximasSemana;
+    }
+
+    // Cargar el índice desde el libro al arrancar la aplicación (antes de reencolar una reconstrucción)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void inicializar() {
+        horasTrabajadasIndex.reconstruir(horasRepository.findAll());
+    }
+
+    /**
+     * Registra las jornadas recién cerradas (asignaciones finalizadas o que vuelven a PROGRAMADA hasta
+     * su siguiente ocurrencia). Se llama dentro de la transacción que las cierra, así el historial,
+     * el libro y el estado se confirman o se revierten juntos. Una fila que aún no existe no se
+     * puede bloquear, así que primero se bloquean los conductores (en orden de id): dos finalizaciones
+     * del mismo conductor se ejecutan una tras otra y la segunda ya ve la fila que insertó la primera.
+     */
+    public void registrarJornadas(Collection<AsignacionTurnoDTO> cerradas) {
+        Map<HorasSemanaConductor.Clave, HorasTrabajadasIndex.Acumulado> deltas = new HashMap<>();
+        List<JornadaAsignacion> jornadas = new ArrayList<>();
+        for (AsignacionTurnoDTO asignacion : cerradas) {
+            if (acumular(deltas, asignacion.getConductorId(), asignacion.getHoraInicioReal(),
+                    asignacion.getHoraFinReal())) {
+                jornadas.add(JornadaAsignacion.builder()
+                        .asignacionId(asignacion.getId())
+                        .conductorId(asignacion.getConductorId())
+                        .inicio(asignacion.getHoraInicioReal())
+                        .fin(asignacion.getHoraFinReal())
+                        .build());
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Set<Long> conductorIds = new HashSet<>();
+        Set<LocalDate> semanas = new HashSet<>();
+        deltas.keySet().forEach(clave -> {
+            conductorIds.add(clave.getConductorId());
+            semanas.add(clave.getSemana());
+        });
+
+        conductorRepository.findAllByIdParaActualizar(conductorIds);
+
+        Map<HorasSemanaConductor.Clave, HorasTrabajadasIndex.Acumulado> nuevas = new HashMap<>(deltas);
+        for (HorasSemanaConductor fila : horasRepository.findParaActualizar(conductorIds, semanas)) {
+            HorasTrabajadasIndex.Acumulado delta = nuevas.remove(fila.getId());
+            if (delta != null) {
+                fila.setMinutos(fila.getMinutos() + delta.minutos());
+                fila.setTurnos(fila.getTurnos() + delta.turnos());
+            }
+        }
+        List<Object> inserciones = new ArrayList<>(jornadas);
+        inserciones.addAll(filas(nuevas));
+        persistenciaPorLotes.insertarEnLotes(inserciones);
+
+        TransaccionUtil.despuesDelCommit(() -> deltas.forEach(horasTrabajadasIndex::sumar));
+    }
+
+    public HorasTrabajadasDTO obtenerHorasSemana(Long conductorId, int anio, int semana) {
+        // Junio siempre cae en la semana ISO del mismo año
+        LocalDate referencia = LocalDate.of(anio, 6, 1);
+        long semanasDelAnio = referencia.range(IsoFields.WEEK_OF_WEEK_BASED_YEAR).getMaximum();
+        if (semana < 1 || semana > semanasDelAnio) {
+            throw new RuntimeException("La semana debe estar entre 1 y " + semanasDelAnio);
+        }
+        LocalDate lunes = referencia.with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, semana).with(DayOfWeek.MONDAY);
+        return horas(conductorId, SEMANA, lunes, lunes.plusDays(6),
+                horasTrabajadasIndex.semana(conductorId, lunes), horasMaximasSemana);
+    }
+
+    // El máximo mensual es proporcional al semanal según los días del mes
+    public HorasTrabajadasDTO obtenerHorasMes(Long conductorId, int anio, int mes) {
+        if (mes < 1 || mes > 12) {
+            throw new RuntimeException("El mes debe estar entre 1 y 12");
+        }
+        YearMonth periodo = YearMonth.of(anio, mes);
+        return horas(conductorId, MES, periodo.atDay(1), periodo.atEndOfMonth(),
+                horasTrabajadasIndex.mes(conductorId, periodo.atDay(1)),
+                horasMaximasSemana * periodo.lengthOfMonth() / 7.0);
+    }
+
+    /**
+     * Recalcula el libro desde el historial de jornadas y espera a que terminen todos los bloques.
+     * Se invoca desde el trabajo RECONSTRUIR_HORAS, por lo que no ocupa un hilo de Tomcat.
+     * Cada bloque borra primero las filas de sus conductores (bloqueándolas) y luego lee el historial,
+     * para no perder una finalización que se confirme mientras tanto.
+     */
+    public ReconstruccionHorasDTO reconstruir(TrabajoHandler.AvanceTrabajo avance) {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            throw new RuntimeException("Ya hay una reconstrucción del libro de horas en curso");
+        }
+        try {
+            // Incluye a quien tenga filas en el libro sin historial, para borrarlas
+            Set<Long> ids = new TreeSet<>(jornadaAsignacionRepository.findConductorIds());
+            ids.addAll(jornadaAsignacionRepository.findConductorIdsSinJornada());
+            ids.addAll(horasRepository.findConductorIds());
+            List<Long> conductorIds = new ArrayList<>(ids);
+
+            Progreso progreso = new Progreso(conductorIds.size(), avance);
+            avance.actualizar(0, conductorIds.size());
+
+            List<CompletableFuture<Void>> bloques = new ArrayList<>();
+            for (int i = 0; i < conductorIds.size(); i += tamanoBloque) {
+                List<Long> bloque = conductorIds.subList(i, Math.min(i + tamanoBloque, conductorIds.size()));
+                bloques.add(CompletableFuture.runAsync(() -> procesarBloque(progreso, bloque), executor));
+            }
+            CompletableFuture.allOf(bloques.toArray(new CompletableFuture[0])).join();
+            return progreso.aDTO();
+        } finally {
+            reconstruyendo.set(false);
+        }
+    }
+
+    private void procesarBloque(Progreso progreso, List<Long> conductorIds) {
+        int[] asignaciones = new int[1];
+        List<HorasSemanaConductor> filas;
+        try {
+            filas = transactionTemplate.execute(status -> {
+                horasRepository.deleteByConductorIdIn(conductorIds);
+                Map<HorasSemanaConductor.Clave, HorasTrabajadasIndex.Acumulado> totales = new HashMap<>();
+                List<HorasRealesAsignacion> historial = new ArrayList<>(
+                        jornadaAsignacionRepository.findHorasReales(conductorIds));
+                historial.addAll(jornadaAsignacionRepository.findHorasRealesSinJornada(conductorIds));
+                historial.forEach(jornada -> {
+                    asignaciones[0]++;
+                    acumular(totales, jornada.getConductorId(), jornada.getHoraInicioReal(),
+                            jornada.getHoraFinReal());
+                });
+                return persistenciaPorLotes.insertarEnLotes(filas(totales));
+            });
+        } catch (RuntimeException e) {
+            conductorIds.forEach(id -> progreso.errores.put(id, "Error al recalcular el bloque: " + e.getMessage()));
+            progreso.bloqueTerminado(conductorIds.size());
+            return;
+        }
+
+        // El índice se actualiza solo con lo confirmado
+        horasTrabajadasIndex.reemplazar(new HashSet<>(conductorIds), filas);
+        progreso.conductoresExitosos.addAndGet(conductorIds.size());
+        progreso.asignaciones.addAndGet(asignaciones[0]);
+        progreso.filas.addAndGet(filas.size());
+        progreso.bloqueTerminado(conductorIds.size());
+    }
+
+    // Reparte la duración entre las semanas ISO (y los meses) que cruza, cortando en la medianoche
+    // del lunes o del día 1; el turno cuenta en el periodo en que inició. Devuelve false si no hay horario real
+    static boolean acumular(Map<HorasSemanaConductor.Clave, HorasTrabajadasIndex.Acumulado> totales,
+                         Long conductorId, LocalDateTime inicio, LocalDateTime fin) {
+        if (conductorId == null || inicio == null || fin == null || fin.isBefore(inicio)) {
+            return false;
+        }
+        LocalDateTime desde = inicio;
+        long minutosPrevios = 0;
+        int turnos = 1;
+        do {
+            LocalDate dia = desde.toLocalDate();
+            LocalDate siguienteLunes = dia.with(DayOfWeek.MONDAY).plusWeeks(1);
+            LocalDate siguienteMes = dia.withDayOfMonth(1).plusMonths(1);
+            LocalDateTime corte = (siguienteLunes.isBefore(siguienteMes) ? siguienteLunes : siguienteMes).atStartOfDay();
+            LocalDateTime hasta = fin.isBefore(corte) ? fin : corte;
+
+            // Minutos acumulados desde el inicio, para no perder segundos al cortar
+            long minutosHasta = Duration.between(inicio, hasta).toMinutes();
+            HorasSemanaConductor.Clave clave = new HorasSemanaConductor.Clave(
+                    conductorId, dia.with(DayOfWeek.MONDAY), dia.withDayOfMonth(1));
+            totales.merge(clave, new HorasTrabajadasIndex.Acumulado(minutosHasta - minutosPrevios, turnos),
+                    HorasTrabajadasIndex.Acumulado::sumar);
+
+            minutosPrevios = minutosHasta;
+            turnos = 0;
+            desde = hasta;
+        } while (desde.isBefore(fin));
+        return true;
+    }
+
+    private static List<HorasSemanaConductor> filas(
+            Map<HorasSemanaConductor.Clave, HorasTrabajadasIndex.Acumulado> totales) {
+        return totales.entrySet().stream()
+                .map(entrada -> HorasSemanaConductor.builder()
+                        .id(entrada.getKey())
+                        .minutos(entrada.getValue().minutos())
+                        .turnos(entrada.getValue().turnos())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static HorasTrabajadasDTO horas(Long conductorId, String periodo, LocalDate desde, LocalDate hasta,
+                                            HorasTrabajadasIndex.Acumulado acumulado, double horasMaximas) {
+        double horas = redondear(acumulado.minutos() / 60.0);
+        double maximas = redondear(horasMaximas);
+        return HorasTrabajadasDTO.builder()
+                .conductorId(conductorId)
+                .periodo(periodo)
+                .desde(desde)
+                .hasta(hasta)
+                .minutos(acumulado.minutos())
+                .horas(horas)
+                .turnos(acumulado.turnos())
+                .horasMaximas(maximas)
+                .horasExtra(redondear(Math.max(0, horas - maximas)))
+                .conHorasExtra(horas > maximas)
+                .build();
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+    }
+
+    // Estado mutable compartido entre los hilos del pool
+    private static final class Progreso {
+        private final int totalConductores;
+        private final AtomicInteger conductoresProcesados = new AtomicInteger();
+        private final AtomicInteger conductoresExitosos = new AtomicInteger();
+        private final AtomicInteger asignaciones = new AtomicInteger();
+        private final AtomicInteger filas = new AtomicInteger();
+        private final Map<Long, String> errores = new ConcurrentSkipListMap<>();
+        private final TrabajoHandler.AvanceTrabajo avance;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+
+        private Progreso(int totalConductores, TrabajoHandler.AvanceTrabajo avance) {
+            this.totalConductores = totalConductores;
+            this.avance = avance;
+        }
+
+        private void bloqueTerminado(int conductores) {
+            avance.actualizar(conductoresProcesados.addAndGet(conductores), totalConductores);
+        }
+
+        private ReconstruccionHorasDTO aDTO() {
+            return ReconstruccionHorasDTO.builder()
+                    .totalConductores(totalConductores)
+                    .conductoresExitosos(conductoresExitosos.get())
+                    .asignaciones(asignaciones.get())
+                    .filas(filas.get())
+                    .errores(new LinkedHashMap<>(errores))
+                    .fechaInicio(fechaInicio)
+                    .fechaFin(LocalDateTime.now())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoImportacionDTO;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Rol;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import com.FabricaEscuela.Feature1Back.util.LectorCsv;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Importación masiva de turnos y conductores desde CSV.
+ * El archivo se lee fila a fila; cada fila se valida contra datos precargados una sola vez
+ * (ids de rutas, usuarios CONDUCTOR, usuarios ya vinculados) y las filas válidas se guardan
+ * en bloques con lotes JDBC, una transacción por bloque. Los solapamientos de turnos se
+ * validan dentro de esa transacción, con las rutas del bloque bloqueadas y contra la base.
+ * Las filas inválidas se reportan con su número de línea sin detener la importación.
+ */
+@Service
+public class ImportacionService {
+
+    // Límite de errores detallados en la respuesta; el total siempre se informa
+    static final int MAXIMO_ERRORES_REPORTADOS = 1000;
+
+    private final RutaRepository rutaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ConductorRepository conductorRepository;
+    private final TurnoRepository turnoRepository;
+    private final TurnoService turnoService;
+    private final TurnoScheduleIndex turnoScheduleIndex;
+    private final PersistenciaPorLotes persistenciaPorLotes;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoBloque;
+
+    public ImportacionService(RutaRepository rutaRepository,
+                              UsuarioRepository usuarioRepository,
+                              ConductorRepository conductorRepository,
+                              TurnoRepository turnoRepository,
+                              TurnoService turnoService,
+                              TurnoScheduleIndex turnoScheduleIndex,
+                              PersistenciaPorLotes persistenciaPorLotes,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${importacion.tamano-bloque:1000}") int tamanoBloque) {
+        this.rutaRepository = rutaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.conductorRepository = conductorRepository;
+        this.turnoRepository = turnoRepository;
+        this.turnoService = turnoService;
+        this.turnoScheduleIndex = turnoScheduleIndex;
+        this.persistenciaPorLotes = persistenciaPorLotes;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    // Columnas: rutaId, diaSemana, horaInicio, horaFin, numeroSemana
+    public ResultadoImportacionDTO importarTurnos(InputStream entrada) {
+        long inicio = System.nanoTime();
+
+        // Referencias a rutas existentes (solo el id), compartidas por todas las filas
+        Map<Long, Ruta> rutas = new HashMap<>();
+        for (Long rutaId : rutaRepository.findAllIds()) {
+            Ruta ruta = new Ruta();
+            ruta.setId(rutaId);
+            rutas.put(rutaId, ruta);
+        }
+
+        Informe informe = new Informe();
+        // Tras el commit de cada bloque: índice y un solo lote de eventos TURNO_CREADO
+        Bloque<Turno> bloque = new Bloque<>(informe, this::validarSolapamientos, guardados -> {
+            turnoScheduleIndex.registrarTodos(guardados);
+            turnoService.publicarCreados(guardados);
+        });
+
+        try (LectorCsv lector = new LectorCsv(entrada)) {
+            lector.exigirColumnas("rutaId", "diaSemana", "horaInicio", "horaFin", "numeroSemana");
+
+            List<String> fila;
+            while ((fila = lector.siguiente()) != null) {
+                informe.totalFilas++;
+                try {
+                    bloque.agregar(validarTurno(lector, fila, rutas), lector.getNumeroLinea());
+                } catch (RuntimeException e) {
+                    informe.error(lector.getNumeroLinea(), e.getMessage());
+                }
+            }
+        }
+        bloque.guardar();
+
+        return informe.aDTO(inicio);
+    }
+
+    // Columnas: usuarioId, nombreCompleto, licencia y opcionalmente telefono
+    public ResultadoImportacionDTO importarConductores(InputStream entrada) {
+        long inicio = System.nanoTime();
+
+        Set<Long> usuariosConductor = new HashSet<>(usuarioRepository.findIdsByRol(Rol.CONDUCTOR));
+        Set<Long> usuariosVinculados = new HashSet<>(conductorRepository.findUsuarioIdsVinculados());
+
+        Informe informe = new Informe();
+        Bloque<Conductor> bloque = new Bloque<>(informe, (conductores, rechazos) -> conductores, guardados -> { });
+
+        try (LectorCsv lector = new LectorCsv(entrada)) {
+            lector.exigirColumnas("usuarioId", "nombreCompleto", "licencia");
+
+            List<String> fila;
+            while ((fila = lector.siguiente()) != null) {
+                informe.totalFilas++;
+                try {
+                    Conductor conductor = validarConductor(lector, fila, usuariosConductor, usuariosVinculados);
+                    bloque.agregar(conductor, lector.getNumeroLinea());
+                } catch (RuntimeException e) {
+                    informe.error(lector.getNumeroLinea(), e.getMessage());
+                }
+            }
+        }
+        bloque.guardar();
+
+        return informe.aDTO(inicio);
+    }
+
+    // Validaciones propias de la fila; los solapamientos se revisan al guardar el bloque
+    private Turno validarTurno(LectorCsv lector, List<String> fila, Map<Long, Ruta> rutas) {
+        Ruta ruta = rutas.get(leerLong(lector, fila, "rutaId"));
+        if (ruta == null) {
+            throw new RuntimeException("Ruta no encontrada");
+        }
+
+        DayOfWeek diaSemana;
+        try {
+            diaSemana = DayOfWeek.valueOf(obligatorio(lector, fila, "diaSemana").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Día de la semana inválido");
+        }
+
+        LocalTime horaInicio = leerHora(lector, fila, "horaInicio");
+        LocalTime horaFin = leerHora(lector, fila, "horaFin");
+
+        int numeroSemana = (int) leerLong(lector, fila, "numeroSemana");
+        if (numeroSemana < 1 || numeroSemana > 52) {
+            throw new RuntimeException("El número de semana debe estar entre 1 y 52");
+        }
+
+        // Mismas reglas que la creación individual
+        int duracionMinutos = TurnoScheduleIndex.validarDuracion(horaInicio, horaFin);
+
+        return Turno.builder()
+                .ruta(ruta)
+                .diaSemana(diaSemana)
+                .horaInicio(horaInicio)
+                .horaFin(horaFin)
+                .duracionHoras(duracionMinutos / 60)
+                .numeroSemana(numeroSemana)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+    }
+
+    /**
+     * Se ejecuta dentro de la transacción del bloque, igual que la copia de semanas del rollover:
+     * las rutas quedan bloqueadas hasta el commit y los turnos se comparan con lo confirmado en la
+     * base (incluidos los bloques anteriores), con las semanas vecinas por los turnos nocturnos.
+     */
+    private List<Turno> validarSolapamientos(List<Turno> turnos, Map<Integer, String> rechazos) {
+        Set<Long> rutaIds = new TreeSet<>();
+        Set<Integer> semanas = new HashSet<>();
+        for (Turno turno : turnos) {
+            rutaIds.add(turno.getRuta().getId());
+            semanas.addAll(TurnoScheduleIndex.semanasVecinas(turno.getNumeroSemana()));
+        }
+        rutaRepository.findAllByIdParaActualizar(rutaIds);
+
+        TurnoScheduleIndex.Agenda existentes =
+                new TurnoScheduleIndex.Agenda(turnoRepository.findByRutaIdInAndNumeroSemanaIn(rutaIds, semanas));
+        TurnoScheduleIndex.Agenda archivo = new TurnoScheduleIndex.Agenda(List.of());
+
+        List<Turno> aceptados = new ArrayList<>();
+        for (int i = 0; i < turnos.size(); i++) {
+            Turno turno = turnos.get(i);
+            if (existentes.haySolapamiento(turno)) {
+                rechazos.put(i, "El turno se solapa con otro turno de la misma ruta y día");
+            } else if (archivo.haySolapamiento(turno)) {
+                rechazos.put(i, "El turno se solapa con otra fila del archivo");
+            } else {
+                archivo.agregar(turno);
+                aceptados.add(turno);
+            }
+        }
+        return aceptados;
+    }
+
+    private Conductor validarConductor(LectorCsv lector, List<String> fila,
+                                       Set<Long> usuariosConductor, Set<Long> usuariosVinculados) {
+        long usuarioId = leerLong(lector, fila, "usuarioId");
+        if (!usuariosConductor.contains(usuarioId)) {
+            throw new RuntimeException("El usuario no existe o no tiene rol CONDUCTOR");
+        }
+        String nombreCompleto = obligatorio(lector, fila, "nombreCompleto");
+        String licencia = obligatorio(lector, fila, "licencia");
+
+        // Se marca como vinculado al aceptarlo para rechazar usuarios repetidos en el archivo
+        if (!usuariosVinculados.add(usuarioId)) {
+            throw new RuntimeException("El usuario ya tiene un conductor vinculado");
+        }
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+        return Conductor.builder()
+                .usuario(usuario)
+                .nombreCompleto(nombreCompleto)
+                .licencia(licencia)
+                .telefono(lector.valor(fila, "telefono"))
+                .build();
+    }
+
+    private static String obligatorio(LectorCsv lector, List<String> fila, String columna) {
+        String valor = lector.valor(fila, columna);
+        if (valor == null) {
+            throw new RuntimeException("El campo " + columna + " es obligatorio");
+        }
+        return valor;
+    }
+
+    private static long leerLong(LectorCsv lector, List<String> fila, String columna) {
+        try {
+            return Long.parseLong(obligatorio(lector, fila, columna));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("El campo " + columna + " debe ser numérico");
+        }
+    }
+
+    private static LocalTime leerHora(LectorCsv lector, List<String> fila, String columna) {
+        try {
+            return LocalTime.parse(obligatorio(lector, fila, columna));
+        } catch (DateTimeException e) {
+            throw new RuntimeException("El campo " + columna + " debe tener formato HH:mm");
+        }
+    }
+
+    // Validación de un bloque dentro de su transacción; anota las filas rechazadas por posición
+    private interface ValidacionBloque<T> {
+        List<T> aceptados(List<T> entidades, Map<Integer, String> rechazos);
+    }
+
+    // Filas válidas pendientes de guardar; se persisten al llenarse el bloque
+    private final class Bloque<T> {
+
+        private final Informe informe;
+        private final ValidacionBloque<T> validacion;
+        private final Consumer<List<T>> despuesDeGuardar;
+        private final List<T> entidades = new ArrayList<>();
+        private final List<Integer> lineas = new ArrayList<>();
+
+        private Bloque(Informe informe, ValidacionBloque<T> validacion, Consumer<List<T>> despuesDeGuardar) {
+            this.informe = informe;
+            this.validacion = validacion;
+            this.despuesDeGuardar = despuesDeGuardar;
+        }
+
+        private void agregar(T entidad, int linea) {
+            entidades.add(entidad);
+            lineas.add(linea);
+            if (entidades.size() >= tamanoBloque) {
+                guardar();
+            }
+        }
+
+        private void guardar() {
+            if (entidades.isEmpty()) {
+                return;
+            }
+            Map<Integer, String> rechazos = new TreeMap<>();
+            try {
+                // Una transacción por bloque: al volver, el bloque ya está confirmado
+                List<T> guardados = transactionTemplate.execute(status -> persistenciaPorLotes.insertarEnLotes(
+                        validacion.aceptados(new ArrayList<>(entidades), rechazos)));
+                despuesDeGuardar.accept(guardados);
+                informe.filasImportadas += guardados.size();
+                rechazos.forEach((posicion, mensaje) -> informe.error(lineas.get(posicion), mensaje));
+            } catch (RuntimeException e) {
+                lineas.forEach(linea -> informe.error(linea, "Error al guardar: " + e.getMessage()));
+            }
+            entidades.clear();
+            lineas.clear();
+        }
+    }
+
+    private static final class Informe {
+
+        private int totalFilas;
+        private int filasImportadas;
+        private int filasConError;
+        private final List<ResultadoImportacionDTO.ErrorFila> errores = new ArrayList<>();
+
+        private void error(int linea, String mensaje) {
+            filasConError++;
+            if (errores.size() < MAXIMO_ERRORES_REPORTADOS) {
+                errores.add(new ResultadoImportacionDTO.ErrorFila(linea, mensaje));
+            }
+        }
+
+        private ResultadoImportacionDTO aDTO(long inicioNanos) {
+            // Los solapamientos se reportan al guardar cada bloque, después de errores de filas posteriores
+            errores.sort(Comparator.comparingInt(ResultadoImportacionDTO.ErrorFila::getLinea));
+            return ResultadoImportacionDTO.builder()
+                    .totalFilas(totalFilas)
+                    .filasImportadas(filasImportadas)
+                    .filasConError(filasConError)
+                    .errores(errores)
+                    .duracionMs((System.nanoTime() - inicioNanos) / 1_000_000)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Códigos de verificación en memoria, sin escrituras en la base en login ni en /verify.
+ * Cada código es inmutable y se reemplaza con operaciones condicionales del mapa
+ * (replace/remove con el valor leído), así dos verificaciones simultáneas no consumen el mismo
+ * código ni pierden un intento. Los expirados se purgan periódicamente.
+ * Solo sirve con una instancia de la aplicación; con varias usar verification.code.store=jpa.
+ */
+@Component
+@ConditionalOnProperty(name = "verification.code.store", havingValue = "memoria", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private final ConcurrentHashMap<Long, CodigoPendiente> codigos = new ConcurrentHashMap<>();
+    private final int maxIntentos;
+    private final LongSupplier reloj;
+
+    @Autowired
+    public InMemoryVerificationCodeStore(@Value("${verification.code.max-intentos:5}") int maxIntentos) {
+        this(maxIntentos, System::currentTimeMillis);
+    }
+
+    InMemoryVerificationCodeStore(int maxIntentos, LongSupplier reloj) {
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.reloj = reloj;
+    }
+
+    @Override
+    public void guardar(Usuario usuario, String codigo, long vigenciaMs) {
+        codigos.put(usuario.getId(), new CodigoPendiente(codigo, reloj.getAsLong() + vigenciaMs, 0));
+    }
+
+    @Override
+    public ResultadoVerificacion verificar(Usuario usuario, String codigo) {
+        Long usuarioId = usuario.getId();
+        while (true) {
+            CodigoPendiente actual = codigos.get(usuarioId);
+            if (actual == null) {
+                return ResultadoVerificacion.INVALIDO;
+            }
+            if (actual.expira() <= reloj.getAsLong()) {
+                codigos.remove(usuarioId, actual);
+                return actual.coincide(codigo) ? ResultadoVerificacion.EXPIRADO : ResultadoVerificacion.INVALIDO;
+            }
+            if (actual.coincide(codigo)) {
+                if (codigos.remove(usuarioId, actual)) {
+                    return ResultadoVerificacion.VALIDO;
+                }
+                continue;
+            }
+            int intentos = actual.intentos() + 1;
+            if (intentos >= maxIntentos) {
+                if (codigos.remove(usuarioId, actual)) {
+                    return ResultadoVerificacion.BLOQUEADO;
+                }
+            } else if (codigos.replace(usuarioId, actual, actual.conIntentos(intentos))) {
+                return ResultadoVerificacion.INVALIDO;
+            }
+            // Otro hilo cambió el código entre la lectura y la escritura: se vuelve a leer
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${verification.code.limpieza-ms:60000}")
+    public void purgarExpirados() {
+        long ahora = reloj.getAsLong();
+        // removeIf de la vista del mapa solo elimina si el valor no cambió entretanto
+        codigos.values().removeIf(codigo -> codigo.expira() <= ahora);
+    }
+
+    int tamano() {
+        return codigos.size();
+    }
+
+    private record CodigoPendiente(String codigo, long expira, int intentos) {
+
+        // Comparación en tiempo constante
+        boolean coincide(String otro) {
+            return otro != null && MessageDigest.isEqual(
+                    codigo.getBytes(StandardCharsets.UTF_8), otro.getBytes(StandardCharsets.UTF_8));
+        }
+
+        CodigoPendiente conIntentos(int nuevosIntentos) {
+            return new CodigoPendiente(codigo, expira, nuevosIntentos);
+        }
+    }
+}
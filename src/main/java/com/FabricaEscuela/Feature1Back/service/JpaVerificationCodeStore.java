@@ -0,0 +1,82 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.CodigoVerificacion;
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.repository.CodigoVerificacionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Códigos de verificación en la tabla codigos_verificacion, para despliegues con varias
+ * instancias que no comparten memoria (verification.code.store=jpa).
+ */
+@Component
+@ConditionalOnProperty(name = "verification.code.store", havingValue = "jpa")
+public class JpaVerificationCodeStore implements VerificationCodeStore {
+
+    private final CodigoVerificacionRepository codigoVerificacionRepository;
+    private final int maxIntentos;
+
+    public JpaVerificationCodeStore(CodigoVerificacionRepository codigoVerificacionRepository,
+                                    @Value("${verification.code.max-intentos:5}") int maxIntentos) {
+        this.codigoVerificacionRepository = codigoVerificacionRepository;
+        this.maxIntentos = Math.max(1, maxIntentos);
+    }
+
+    @Override
+    @Transactional
+    public void guardar(Usuario usuario, String codigo, long vigenciaMs) {
+        codigoVerificacionRepository.eliminarPorUsuario(usuario);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        codigoVerificacionRepository.save(CodigoVerificacion.builder()
+                .codigo(codigo)
+                .usuario(usuario)
+                .fechaCreacion(ahora)
+                .fechaExpiracion(ahora.plus(vigenciaMs, ChronoUnit.MILLIS))
+                .usado(false)
+                .intentos(0)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public ResultadoVerificacion verificar(Usuario usuario, String codigo) {
+        // Bloquea la fila: dos verificaciones simultáneas no consumen el mismo código
+        CodigoVerificacion codigoVerificacion = codigoVerificacionRepository
+                .findFirstByUsuarioAndUsadoFalseOrderByIdDesc(usuario)
+                .orElse(null);
+        if (codigoVerificacion == null) {
+            return ResultadoVerificacion.INVALIDO;
+        }
+
+        if (!coincide(codigoVerificacion.getCodigo(), codigo)) {
+            codigoVerificacion.setIntentos(codigoVerificacion.getIntentos() + 1);
+            if (codigoVerificacion.getIntentos() >= maxIntentos) {
+                codigoVerificacion.setUsado(true);
+                return ResultadoVerificacion.BLOQUEADO;
+            }
+            return ResultadoVerificacion.INVALIDO;
+        }
+
+        if (LocalDateTime.now().isAfter(codigoVerificacion.getFechaExpiracion())) {
+            return ResultadoVerificacion.EXPIRADO;
+        }
+
+        codigoVerificacion.setUsado(true);
+        return ResultadoVerificacion.VALIDO;
+    }
+
+    // Comparación en tiempo constante
+    private static boolean coincide(String esperado, String recibido) {
+        return recibido != null && MessageDigest.isEqual(
+                esperado.getBytes(StandardCharsets.UTF_8), recibido.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.util.LimitadorTasa;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Limita /api/auth/login y /api/auth/verify por IP y por correo antes de comparar contraseñas
+ * con BCrypt o de tocar códigos: un cliente abusivo no puede acaparar la CPU ni probar códigos
+ * a ciegas. Ambos endpoints comparten los mismos cubos.
+ * La IP se cobra en cada petición; el cubo del correo solo lo gastan los intentos fallidos,
+ * así quien conoce un correo no puede dejar a su dueño sin acceso con peticiones correctas
+ * ni el dueño se bloquea a sí mismo al entrar varias veces.
+ */
+@Component
+public class LimitadorAutenticacion {
+
+    private final LimitadorTasa porIp;
+    private final LimitadorTasa porCorreo;
+
+    public LimitadorAutenticacion(@Value("${auth.limite.ip.capacidad:30}") int capacidadIp,
+                                  @Value("${auth.limite.ip.intervalo-ms:2000}") long intervaloIpMs,
+                                  @Value("${auth.limite.correo.capacidad:10}") int capacidadCorreo,
+                                  @Value("${auth.limite.correo.intervalo-ms:30000}") long intervaloCorreoMs,
+                                  @Value("${auth.limite.max-claves:100000}") int maxClaves,
+                                  @Value("${auth.limite.particiones:64}") int particiones) {
+        this.porIp = new LimitadorTasa(capacidadIp, intervaloIpMs, maxClaves, particiones, System::currentTimeMillis);
+        this.porCorreo = new LimitadorTasa(capacidadCorreo, intervaloCorreoMs, maxClaves, particiones,
+                System::currentTimeMillis);
+    }
+
+    // 0 si se permite la petición; si no, los segundos que el cliente debe esperar.
+    // Cobra la IP y solo consulta el correo
+    public long esperaSegundos(String ip, String correo) {
+        long espera = porIp.intentar(ip);
+        if (espera == 0 && correo != null) {
+            espera = porCorreo.espera(normalizar(correo));
+        }
+        return (espera + 999) / 1000;
+    }
+
+    // Cobra un intento fallido (contraseña o código incorrectos) al cubo del correo
+    public void registrarFallo(String correo) {
+        if (correo != null) {
+            porCorreo.intentar(normalizar(correo));
+        }
+    }
+
+    private String normalizar(String correo) {
+        return correo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.limite.limpieza-ms:60000}")
+    public void purgar() {
+        porIp.purgar();
+        porCorreo.purgar();
+    }
+}
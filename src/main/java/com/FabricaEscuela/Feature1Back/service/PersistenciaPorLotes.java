@@ -0,0 +1,44 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Inserción masiva de entidades nuevas en lotes JDBC con memoria acotada
+@Component
+public class PersistenciaPorLotes {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanoLote;
+
+    // Persiste las entidades y desasocia cada lote tras el flush para no acumularlas en memoria.
+    // Solo se desasocian las entidades insertadas: lo que el llamador ya tenía cargado en su
+    // transacción sigue gestionado. Las insertadas quedan detached pero con su id asignado.
+    @Transactional
+    public <T> List<T> insertarEnLotes(List<T> entidades) {
+        int inicioLote = 0;
+        for (int i = 0; i < entidades.size(); i++) {
+            entityManager.persist(entidades.get(i));
+            if ((i + 1) % tamanoLote == 0) {
+                desasociar(entidades, inicioLote, i + 1);
+                inicioLote = i + 1;
+            }
+        }
+        desasociar(entidades, inicioLote, entidades.size());
+        return entidades;
+    }
+
+    private <T> void desasociar(List<T> entidades, int desde, int hasta) {
+        entityManager.flush();
+        for (int i = desde; i < hasta; i++) {
+            entityManager.detach(entidades.get(i));
+        }
+    }
+}
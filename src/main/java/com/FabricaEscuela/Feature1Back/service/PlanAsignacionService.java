@@ -0,0 +1,142 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PlanAsignacionDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PlanAsignacionRequest;
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoLoteAsignacionesDTO;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asignación automática de conductores a los turnos de una semana.
+ * La vista previa calcula el plan sin guardar nada; la confirmación lo guarda en un solo lote.
+ */
+@Service
+public class PlanAsignacionService {
+
+    private final TurnoRepository turnoRepository;
+    private final ConductorRepository conductorRepository;
+    private final AsignacionTurnoRepository asignacionTurnoRepository;
+    private final AsignacionTurnoService asignacionTurnoService;
+    private final PlanificadorAsignaciones planificadorAsignaciones;
+
+    @Autowired
+    public PlanAsignacionService(TurnoRepository turnoRepository,
+                                 ConductorRepository conductorRepository,
+                                 AsignacionTurnoRepository asignacionTurnoRepository,
+                                 AsignacionTurnoService asignacionTurnoService,
+                                 PlanificadorAsignaciones planificadorAsignaciones) {
+        this.turnoRepository = turnoRepository;
+        this.conductorRepository = conductorRepository;
+        this.asignacionTurnoRepository = asignacionTurnoRepository;
+        this.asignacionTurnoService = asignacionTurnoService;
+        this.planificadorAsignaciones = planificadorAsignaciones;
+    }
+
+    @Transactional(readOnly = true)
+    public PlanAsignacionDTO previsualizar(PlanAsignacionRequest request) {
+        long inicio = System.nanoTime();
+        if (request.getFechaFin() != null && request.getFechaFin().isBefore(request.getFechaInicio())) {
+            throw new RuntimeException("La fecha fin no puede ser anterior a la fecha de inicio");
+        }
+
+        // Turnos activos de la semana que aún no tienen conductor y que ocurren dentro del rango
+        List<Turno> turnos = request.getRutaIds() == null || request.getRutaIds().isEmpty()
+                ? turnoRepository.findByNumeroSemanaAndEstado(request.getNumeroSemana(), EstadoTurno.ACTIVO)
+                : turnoRepository.findByNumeroSemanaAndEstadoAndRutaIdIn(request.getNumeroSemana(),
+                        EstadoTurno.ACTIVO, request.getRutaIds());
+        Set<Long> cubiertos = new HashSet<>(asignacionTurnoRepository.findTurnoIdsCubiertos(
+                request.getNumeroSemana(), request.getFechaInicio(), request.getFechaFin()));
+        List<Turno> pendientes = turnos.stream()
+                .filter(turno -> !cubiertos.contains(turno.getId()))
+                .filter(turno -> ConductorOcupacionIndex.incluyeDia(turno.getDiaSemana(),
+                        request.getFechaInicio(), request.getFechaFin()))
+                .sorted(Comparator.comparing(Turno::getId))
+                .collect(Collectors.toList());
+
+        List<Conductor> conductores = request.getConductorIds() == null || request.getConductorIds().isEmpty()
+                ? conductorRepository.findAll()
+                : conductorRepository.findAllById(request.getConductorIds());
+        Map<Long, Conductor> conductoresPorId = conductores.stream()
+                .collect(Collectors.toMap(Conductor::getId, Function.identity()));
+
+        PlanificadorAsignaciones.Plan plan = planificadorAsignaciones.planificar(pendientes,
+                conductores.stream().map(Conductor::getId).sorted().collect(Collectors.toList()),
+                request.getFechaInicio(), request.getFechaFin());
+
+        Map<Long, Turno> turnosPorId = pendientes.stream()
+                .collect(Collectors.toMap(Turno::getId, Function.identity()));
+        List<PlanAsignacionDTO.Propuesta> propuestas = plan.conductorPorTurno().entrySet().stream()
+                .map(entrada -> {
+                    Turno turno = turnosPorId.get(entrada.getKey());
+                    return PlanAsignacionDTO.Propuesta.builder()
+                            .turnoId(turno.getId())
+                            .conductorId(entrada.getValue())
+                            .conductorNombre(conductoresPorId.get(entrada.getValue()).getNombreCompleto())
+                            .diaSemana(turno.getDiaSemana())
+                            .horarioTurno(String.format("%s - %s", turno.getHoraInicio(), turno.getHoraFin()))
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        DoubleSummaryStatistics horas = plan.minutosPorConductor().values().stream()
+                .mapToDouble(minutos -> minutos / 60.0)
+                .summaryStatistics();
+        double varianza = plan.minutosPorConductor().values().stream()
+                .mapToDouble(minutos -> Math.pow(minutos / 60.0 - horas.getAverage(), 2))
+                .average()
+                .orElse(0);
+
+        return PlanAsignacionDTO.builder()
+                .numeroSemana(request.getNumeroSemana())
+                .fechaInicio(request.getFechaInicio())
+                .fechaFin(request.getFechaFin())
+                .propuestas(propuestas)
+                .turnosSinAsignar(plan.turnosSinAsignar())
+                .totalTurnos(pendientes.size())
+                .turnosAsignados(propuestas.size())
+                .conductoresUsados((int) plan.conductorPorTurno().values().stream().distinct().count())
+                .horasPromedio(redondear(horas.getAverage()))
+                .horasMinimas(conductores.isEmpty() ? 0 : redondear(horas.getMin()))
+                .horasMaximas(conductores.isEmpty() ? 0 : redondear(horas.getMax()))
+                .desviacionHoras(redondear(Math.sqrt(varianza)))
+                .movimientosBusquedaLocal(plan.movimientos())
+                .duracionMs((System.nanoTime() - inicio) / 1_000_000)
+                .build();
+    }
+
+    // Guarda las propuestas de una vista previa; cada una se revalida al insertarla
+    public ResultadoLoteAsignacionesDTO confirmar(PlanAsignacionDTO plan) {
+        List<AsignacionTurnoDTO> asignaciones = plan.getPropuestas().stream()
+                .map(propuesta -> AsignacionTurnoDTO.builder()
+                        .turnoId(propuesta.getTurnoId())
+                        .conductorId(propuesta.getConductorId())
+                        .fechaInicio(plan.getFechaInicio())
+                        .fechaFin(plan.getFechaFin())
+                        .estado(EstadoAsignacion.PROGRAMADA)
+                        .build())
+                .collect(Collectors.toList());
+        return asignacionTurnoService.confirmarPlan(asignaciones);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
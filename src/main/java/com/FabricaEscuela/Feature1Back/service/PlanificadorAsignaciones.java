@@ -0,0 +1,337 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Planificador automático de asignaciones conductor-turno para una semana.
+ * 1) Carga en paralelo la ocupación vigente de cada conductor (índice de ocupación).
+ * 2) Voraz: los turnos, de mayor a menor duración, van al conductor factible con menos horas.
+ * 3) Búsqueda local por rondas: se evalúan en paralelo movimientos de turnos desde conductores
+ *    por encima del promedio hacia conductores con menos horas; luego se aplican en serie,
+ *    revalidando cada uno. Cada movimiento reduce la suma de cuadrados de las cargas.
+ * 4) Los turnos sin conductor se reintentan, liberando hueco si basta con mover un turno del plan.
+ * Restricciones: sin solapamientos, descanso mínimo entre turnos y horas máximas por semana.
+ */
+@Component
+public class PlanificadorAsignaciones {
+
+    // Conductores que se prueban como destino al intentar liberar hueco para un turno sin asignar
+    private static final int CANDIDATOS_REUBICACION = 64;
+
+    private final ConductorOcupacionIndex conductorOcupacionIndex;
+    private final int minutosMaximosSemana;
+    private final int rondasMaximas;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public PlanificadorAsignaciones(ConductorOcupacionIndex conductorOcupacionIndex,
+                                    @Value("${asignacion.horas-maximas-semana:48}") int horasMaximasSemana,
+                                    @Value("${asignacion.planificador.hilos:0}") int hilos,
+                                    @Value("${asignacion.planificador.rondas:20}") int rondasMaximas) {
+        this.conductorOcupacionIndex = conductorOcupacionIndex;
+        this.minutosMaximosSemana = horasMaximasSemana * 60;
+        this.rondasMaximas = rondasMaximas;
+        this.pool = new ForkJoinPool(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Resultado: turno -> conductor (en el orden de los turnos recibidos) y minutos semanales por conductor
+    public record Plan(Map<Long, Long> conductorPorTurno, List<Long> turnosSinAsignar,
+                       Map<Long, Integer> minutosPorConductor, int movimientos) {
+    }
+
+    public Plan planificar(List<Turno> turnos, List<Long> conductorIds, LocalDate fechaInicio, LocalDate fechaFin) {
+        Estado estado = new Estado(turnos, conductorIds);
+        pool.submit(() -> estado.cargarOcupacionVigente(fechaInicio, fechaFin)).join();
+
+        estado.asignarVoraz();
+
+        int movimientos = 0;
+        for (int ronda = 0; ronda < rondasMaximas; ronda++) {
+            List<Movimiento> propuestos = pool.submit(estado::proponerMovimientos).join();
+            int aplicados = estado.aplicar(propuestos);
+            movimientos += aplicados;
+            if (aplicados == 0) {
+                break;
+            }
+        }
+        movimientos += estado.reintentarSinAsignar();
+        return estado.aPlan(movimientos);
+    }
+
+    public int getMinutosMaximosSemana() {
+        return minutosMaximosSemana;
+    }
+
+    @PreDestroy
+    public void detener() {
+        pool.shutdown();
+    }
+
+    private record Movimiento(int turno, int origen, int destino, int ganancia) {
+    }
+
+    // Estado mutable de una planificación. Las fases paralelas solo leen; las escrituras son en serie.
+    private final class Estado {
+
+        private final List<Turno> turnos;
+        private final long[] conductores;
+        private final int[] inicio;
+        private final int[] fin;
+        private final int[] duracion;
+        private final BitSet[] bloqueados;
+        private final int[] carga;
+        private final int[] asignado;
+        private final List<List<Integer>> turnosDe;
+        private final int descanso = conductorOcupacionIndex.getDescansoMinimo();
+
+        private Estado(List<Turno> turnos, List<Long> conductorIds) {
+            this.turnos = turnos;
+            this.conductores = conductorIds.stream().mapToLong(Long::longValue).toArray();
+            int n = turnos.size();
+            inicio = new int[n];
+            fin = new int[n];
+            duracion = new int[n];
+            for (int i = 0; i < n; i++) {
+                Turno turno = turnos.get(i);
+                inicio[i] = ConductorOcupacionIndex.inicioSemanal(turno.getDiaSemana(), turno.getHoraInicio());
+                fin[i] = ConductorOcupacionIndex.finSemanal(turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin());
+                duracion[i] = fin[i] - inicio[i];
+            }
+            bloqueados = new BitSet[n];
+            carga = new int[conductores.length];
+            asignado = new int[n];
+            Arrays.fill(asignado, -1);
+            turnosDe = new ArrayList<>(conductores.length);
+            for (int j = 0; j < conductores.length; j++) {
+                turnosDe.add(new ArrayList<>());
+            }
+        }
+
+        // Horas ya asignadas y turnos que chocan con asignaciones vigentes (solo conductores con ocupación)
+        private void cargarOcupacionVigente(LocalDate fechaInicio, LocalDate fechaFin) {
+            IntStream.range(0, conductores.length).parallel().forEach(j ->
+                    carga[j] = conductorOcupacionIndex.minutosSemanales(conductores[j], fechaInicio, fechaFin));
+            int[] ocupados = IntStream.range(0, conductores.length)
+                    .filter(j -> conductorOcupacionIndex.tieneOcupacion(conductores[j]))
+                    .toArray();
+            IntStream.range(0, turnos.size()).parallel().forEach(i -> {
+                BitSet bloqueo = null;
+                for (int j : ocupados) {
+                    if (conductorOcupacionIndex.buscarConflicto(conductores[j], turnos.get(i),
+                            fechaInicio, fechaFin, null).isPresent()) {
+                        if (bloqueo == null) {
+                            bloqueo = new BitSet(conductores.length);
+                        }
+                        bloqueo.set(j);
+                    }
+                }
+                bloqueados[i] = bloqueo;
+            });
+        }
+
+        private void asignarVoraz() {
+            TreeSet<Integer> porCarga = new TreeSet<>(Comparator.<Integer>comparingInt(j -> carga[j])
+                    .thenComparingInt(j -> j));
+            IntStream.range(0, conductores.length).forEach(porCarga::add);
+
+            for (int i : ordenVoraz()) {
+                Integer elegido = null;
+                for (Integer j : porCarga) {
+                    if (factible(i, j)) {
+                        elegido = j;
+                        break;
+                    }
+                }
+                if (elegido != null) {
+                    // El conductor se reubica en el árbol con su nueva carga
+                    porCarga.remove(elegido);
+                    asignar(i, elegido);
+                    porCarga.add(elegido);
+                }
+            }
+        }
+
+        // Evalúa en paralelo, sin modificar el estado, el mejor destino para cada turno de un conductor sobrecargado
+        private List<Movimiento> proponerMovimientos() {
+            double promedio = IntStream.of(carga).average().orElse(0);
+            int[] orden = ordenPorCarga();
+            return IntStream.range(0, turnos.size()).parallel()
+                    .filter(i -> asignado[i] >= 0 && carga[asignado[i]] > promedio)
+                    .mapToObj(i -> mejorDestino(i, orden))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        private Movimiento mejorDestino(int i, int[] orden) {
+            int origen = asignado[i];
+            for (int j : orden) {
+                // Solo mejora si el destino queda por debajo de lo que tenía el origen
+                if (carga[j] + duracion[i] >= carga[origen]) {
+                    return null;
+                }
+                if (j != origen && factible(i, j)) {
+                    return new Movimiento(i, origen, j, carga[origen] - carga[j] - duracion[i]);
+                }
+            }
+            return null;
+        }
+
+        // Aplica en serie los movimientos de mayor ganancia, revalidando contra el estado actual
+        private int aplicar(List<Movimiento> movimientos) {
+            movimientos.sort(Comparator.comparingInt(Movimiento::ganancia).reversed()
+                    .thenComparingInt(Movimiento::turno));
+            int aplicados = 0;
+            for (Movimiento movimiento : movimientos) {
+                int i = movimiento.turno();
+                int destino = movimiento.destino();
+                if (asignado[i] == movimiento.origen()
+                        && carga[destino] + duracion[i] < carga[movimiento.origen()]
+                        && factible(i, destino)) {
+                    quitar(i);
+                    asignar(i, destino);
+                    aplicados++;
+                }
+            }
+            return aplicados;
+        }
+
+        // Reintenta los turnos sin conductor; si un conductor solo choca con un turno del plan,
+        // mueve ese turno a otro conductor para dejarle hueco
+        private int reintentarSinAsignar() {
+            int movimientos = 0;
+            for (int i : ordenVoraz()) {
+                if (asignado[i] >= 0) {
+                    continue;
+                }
+                int[] orden = ordenPorCarga();
+                boolean colocado = false;
+                for (int j : orden) {
+                    if (factible(i, j)) {
+                        asignar(i, j);
+                        colocado = true;
+                        break;
+                    }
+                }
+                for (int c = 0; !colocado && c < Math.min(CANDIDATOS_REUBICACION, orden.length); c++) {
+                    colocado = colocarLiberandoHueco(i, orden[c], orden);
+                }
+                if (colocado) {
+                    movimientos++;
+                }
+            }
+            return movimientos;
+        }
+
+        private boolean colocarLiberandoHueco(int i, int j, int[] orden) {
+            if (bloqueados[i] != null && bloqueados[i].get(j)) {
+                return false;
+            }
+            int choque = -1;
+            for (int k : turnosDe.get(j)) {
+                if (ConductorOcupacionIndex.chocan(inicio[i], fin[i], inicio[k], fin[k], descanso)) {
+                    if (choque >= 0) {
+                        return false;
+                    }
+                    choque = k;
+                }
+            }
+            if (choque < 0 || carga[j] - duracion[choque] + duracion[i] > minutosMaximosSemana) {
+                return false;
+            }
+            for (int destino : orden) {
+                if (destino != j && factible(choque, destino)) {
+                    quitar(choque);
+                    asignar(choque, destino);
+                    if (factible(i, j)) {
+                        asignar(i, j);
+                        return true;
+                    }
+                    quitar(choque);
+                    asignar(choque, j);
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private boolean factible(int i, int j) {
+            if (bloqueados[i] != null && bloqueados[i].get(j)) {
+                return false;
+            }
+            if (carga[j] + duracion[i] > minutosMaximosSemana) {
+                return false;
+            }
+            for (int k : turnosDe.get(j)) {
+                if (k != i && ConductorOcupacionIndex.chocan(inicio[i], fin[i], inicio[k], fin[k], descanso)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void asignar(int i, int j) {
+            asignado[i] = j;
+            carga[j] += duracion[i];
+            turnosDe.get(j).add(i);
+        }
+
+        private void quitar(int i) {
+            int j = asignado[i];
+            carga[j] -= duracion[i];
+            turnosDe.get(j).remove(Integer.valueOf(i));
+            asignado[i] = -1;
+        }
+
+        // Turnos largos primero (reparto más parejo), luego por hora de inicio en la semana
+        private int[] ordenVoraz() {
+            return IntStream.range(0, turnos.size()).boxed()
+                    .sorted(Comparator.<Integer>comparingInt(i -> -duracion[i])
+                            .thenComparingInt(i -> inicio[i])
+                            .thenComparingInt(i -> i))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private int[] ordenPorCarga() {
+            return IntStream.range(0, conductores.length).boxed()
+                    .sorted(Comparator.<Integer>comparingInt(j -> carga[j]).thenComparingInt(j -> j))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private Plan aPlan(int movimientos) {
+            Map<Long, Long> conductorPorTurno = new LinkedHashMap<>();
+            List<Long> sinAsignar = new ArrayList<>();
+            for (int i = 0; i < turnos.size(); i++) {
+                if (asignado[i] >= 0) {
+                    conductorPorTurno.put(turnos.get(i).getId(), conductores[asignado[i]]);
+                } else {
+                    sinAsignar.add(turnos.get(i).getId());
+                }
+            }
+            Map<Long, Integer> minutos = new LinkedHashMap<>();
+            for (int j = 0; j < conductores.length; j++) {
+                minutos.put(conductores[j], carga[j]);
+            }
+            return new Plan(conductorPorTurno, sinAsignar, minutos, movimientos);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.EventoCambioDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canal de cambios de turnos y asignaciones para los tableros (Server-Sent Events).
+ * Los servicios publican después del commit; cada evento recibe un id creciente y se guarda en un
+ * historial circular, así un cliente que se reconecta con Last-Event-ID recibe lo que se perdió.
+ * Cada suscriptor tiene un buffer acotado: si no lee a tiempo se descartan sus eventos más antiguos
+ * (y se le avisa cuántos) sin frenar a quien publica ni a los demás suscriptores.
+ */
+@Component
+public class PublicadorCambios {
+
+    // Destino de los eventos de una suscripción (la conexión SSE o, en pruebas, una lista)
+    interface Salida {
+        void enviar(EventoCambioDTO evento) throws IOException;
+
+        void latido() throws IOException;
+
+        void cerrar();
+    }
+
+    // Criterios opcionales de una suscripción; si hay ambos deben cumplirse los dos
+    public record Filtro(Long rutaId, Long conductorId) {
+        boolean acepta(EventoCambioDTO evento) {
+            return (rutaId == null || rutaId.equals(evento.getRutaId()))
+                    && (conductorId == null || conductorId.equals(evento.getConductorId())
+                    || (evento.getConductorIds() != null && evento.getConductorIds().contains(conductorId)));
+        }
+    }
+
+    private final int capacidadBuffer;
+    private final long tiempoConexionMs;
+    private final Executor executor;
+    private final Set<Suscripcion> suscripciones = ConcurrentHashMap.newKeySet();
+
+    // Protegidos por el monitor de la instancia
+    private final EventoCambioDTO[] historial;
+    // Los ids parten del instante de arranque: un Last-Event-ID de una ejecución anterior
+    // siempre queda por debajo del historial y provoca un REINICIO en vez de un hueco silencioso
+    private final long primerId = System.currentTimeMillis() * 1000 + 1;
+    private long ultimoId = primerId - 1;
+
+    @Autowired
+    public PublicadorCambios(@Value("${cambios.historial:1024}") int capacidadHistorial,
+                             @Value("${cambios.buffer-suscriptor:256}") int capacidadBuffer,
+                             @Value("${cambios.hilos:2}") int hilos,
+                             @Value("${cambios.tiempo-conexion-ms:1800000}") long tiempoConexionMs) {
+        // Cada suscripción tiene a lo sumo una tarea de envío en cola: la cola queda acotada por los suscriptores
+        this(capacidadHistorial, capacidadBuffer, tiempoConexionMs,
+                new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()));
+    }
+
+    PublicadorCambios(int capacidadHistorial, int capacidadBuffer, long tiempoConexionMs, Executor executor) {
+        this.historial = new EventoCambioDTO[Math.max(1, capacidadHistorial)];
+        this.capacidadBuffer = Math.max(1, capacidadBuffer);
+        this.tiempoConexionMs = tiempoConexionMs;
+        this.executor = executor;
+    }
+
+    public SseEmitter suscribir(Long rutaId, Long conductorId, Long ultimoIdRecibido) {
+        SseEmitter emitter = new SseEmitter(tiempoConexionMs);
+        Suscripcion suscripcion = suscribir(new Filtro(rutaId, conductorId), ultimoIdRecibido, new SalidaSse(emitter));
+        emitter.onCompletion(suscripcion::cerrar);
+        emitter.onTimeout(suscripcion::cerrar);
+        emitter.onError(error -> suscripcion.cerrar());
+        return emitter;
+    }
+
+    // Registra la suscripción y le encola, en la misma sección crítica, lo que se perdió desde ultimoIdRecibido:
+    // ningún evento publicado en paralelo queda fuera ni se entrega dos veces
+    synchronized Suscripcion suscribir(Filtro filtro, Long ultimoIdRecibido, Salida salida) {
+        Suscripcion suscripcion = new Suscripcion(filtro, salida);
+        if (ultimoIdRecibido != null) {
+            long masAntiguo = Math.max(ultimoId - historial.length + 1, primerId);
+            if (ultimoIdRecibido < masAntiguo - 1 || ultimoIdRecibido > ultimoId) {
+                suscripcion.encolar(control(EventoCambioDTO.Tipo.REINICIO, null));
+            } else {
+                for (long id = ultimoIdRecibido + 1; id <= ultimoId; id++) {
+                    EventoCambioDTO evento = historial[posicion(id)];
+                    if (filtro.acepta(evento)) {
+                        suscripcion.encolar(evento);
+                    }
+                }
+            }
+        }
+        suscripciones.add(suscripcion);
+        return suscripcion;
+    }
+
+    public void publicar(EventoCambioDTO evento) {
+        publicarTodos(List.of(evento));
+    }
+
+    public synchronized void publicarTodos(Collection<EventoCambioDTO> eventos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (EventoCambioDTO evento : eventos) {
+            evento.setId(++ultimoId);
+            if (evento.getInstante() == null) {
+                evento.setInstante(ahora);
+            }
+            historial[posicion(ultimoId)] = evento;
+            for (Suscripcion suscripcion : suscripciones) {
+                if (suscripcion.filtro.acepta(evento)) {
+                    suscripcion.encolar(evento);
+                }
+            }
+        }
+    }
+
+    // Comentario periódico para que proxies y navegadores no den la conexión por muerta
+    @Scheduled(fixedRateString = "${cambios.latido-ms:15000}", initialDelayString = "${cambios.latido-ms:15000}")
+    public void enviarLatidos() {
+        suscripciones.forEach(Suscripcion::pedirLatido);
+    }
+
+    public int suscriptores() {
+        return suscripciones.size();
+    }
+
+    @PreDestroy
+    public void detener() {
+        List.copyOf(suscripciones).forEach(Suscripcion::cerrar);
+        if (executor instanceof ExecutorService servicio) {
+            servicio.shutdownNow();
+        }
+    }
+
+    private int posicion(long id) {
+        return (int) Math.floorMod(id, (long) historial.length);
+    }
+
+    private static EventoCambioDTO control(EventoCambioDTO.Tipo tipo, Object datos) {
+        return EventoCambioDTO.builder()
+                .tipo(tipo)
+                .instante(LocalDateTime.now())
+                .datos(datos)
+                .build();
+    }
+
+    final class Suscripcion {
+
+        private final Filtro filtro;
+        private final Salida salida;
+
+        // Protegidos por el monitor de la suscripción
+        private final ArrayDeque<EventoCambioDTO> pendientes = new ArrayDeque<>();
+        private long descartados;
+        private boolean latidoPendiente;
+        private boolean programada;
+        private boolean cerrada;
+
+        private Suscripcion(Filtro filtro, Salida salida) {
+            this.filtro = filtro;
+            this.salida = salida;
+        }
+
+        private void encolar(EventoCambioDTO evento) {
+            synchronized (this) {
+                if (cerrada) {
+                    return;
+                }
+                if (pendientes.size() == capacidadBuffer) {
+                    pendientes.pollFirst();
+                    descartados++;
+                }
+                pendientes.addLast(evento);
+            }
+            programar();
+        }
+
+        private void pedirLatido() {
+            synchronized (this) {
+                latidoPendiente = true;
+            }
+            programar();
+        }
+
+        private void programar() {
+            synchronized (this) {
+                if (programada || cerrada) {
+                    return;
+                }
+                programada = true;
+            }
+            try {
+                executor.execute(this::drenar);
+            } catch (RejectedExecutionException e) {
+                cerrar();
+            }
+        }
+
+        // Envía lo pendiente; tras un buffer completo cede el hilo a las demás suscripciones
+        private void drenar() {
+            for (int enviados = 0; enviados < capacidadBuffer; enviados++) {
+                EventoCambioDTO evento;
+                long perdidos;
+                boolean latido;
+                synchronized (this) {
+                    if (cerrada) {
+                        return;
+                    }
+                    evento = pendientes.pollFirst();
+                    // Si hay eventos el latido sobra
+                    latido = latidoPendiente && evento == null;
+                    latidoPendiente = false;
+                    if (evento == null && !latido) {
+                        programada = false;
+                        return;
+                    }
+                    perdidos = descartados;
+                    descartados = 0;
+                }
+                try {
+                    if (perdidos > 0) {
+                        salida.enviar(control(EventoCambioDTO.Tipo.DESCARTADOS, perdidos));
+                    }
+                    if (evento != null) {
+                        salida.enviar(evento);
+                    } else {
+                        salida.latido();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Cliente desconectado
+                    cerrar();
+                    return;
+                }
+            }
+            synchronized (this) {
+                programada = false;
+            }
+            programar();
+        }
+
+        void cerrar() {
+            synchronized (this) {
+                if (cerrada) {
+                    return;
+                }
+                cerrada = true;
+                pendientes.clear();
+            }
+            suscripciones.remove(this);
+            try {
+                salida.cerrar();
+            } catch (RuntimeException e) {
+                // La conexión ya estaba cerrada
+            }
+        }
+    }
+
+    private record SalidaSse(SseEmitter emitter) implements Salida {
+
+        @Override
+        public void enviar(EventoCambioDTO evento) throws IOException {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                    .name(evento.getTipo().name())
+                    .data(evento, MediaType.APPLICATION_JSON);
+            if (evento.getId() != null) {
+                builder.id(String.valueOf(evento.getId()));
+            }
+            emitter.send(builder);
+        }
+
+        @Override
+        public void latido() throws IOException {
+            emitter.send(SseEmitter.event().comment("latido"));
+        }
+
+        @Override
+        public void cerrar() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+
+// Reconstrucción del libro de horas desde el historial, en segundo plano
+@Component
+public class ReconstruccionHorasTrabajo implements TrabajoHandler {
+
+    public static final String TIPO = "RECONSTRUIR_HORAS";
+
+    private final HorasTrabajadasService horasTrabajadasService;
+
+    public ReconstruccionHorasTrabajo(HorasTrabajadasService horasTrabajadasService) {
+        this.horasTrabajadasService = horasTrabajadasService;
+    }
+
+    @Override
+    public String tipo() {
+        return TIPO;
+    }
+
+    @Override
+    public Object ejecutar(JsonNode parametros, AvanceTrabajo avance) {
+        return horasTrabajadasService.reconstruir(avance);
+    }
+}
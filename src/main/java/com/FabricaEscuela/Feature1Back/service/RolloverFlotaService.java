@@ -0,0 +1,244 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.RolloverEstadoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.RolloverRequest;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Copia la semana origen a la semana destino (con rotación opcional de días) para toda la
+ * flota o un conjunto de rutas. Las rutas se reparten en bloques que se procesan en un pool
+ * de hilos acotado, con una transacción por bloque.
+ */
+@Service
+public class RolloverFlotaService {
+
+    private final RutaRepository rutaRepository;
+    private final TurnoRepository turnoRepository;
+    private final TurnoService turnoService;
+    private final TurnoScheduleIndex turnoScheduleIndex;
+    private final PersistenciaPorLotes persistenciaPorLotes;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int tamanoBloque;
+
+    @Autowired
+    public RolloverFlotaService(RutaRepository rutaRepository,
+                                TurnoRepository turnoRepository,
+                                TurnoService turnoService,
+                                TurnoScheduleIndex turnoScheduleIndex,
+                                PersistenciaPorLotes persistenciaPorLotes,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${rollover.hilos:4}") int hilos,
+                                @Value("${rollover.capacidad-cola:1000}") int capacidadCola,
+                                @Value("${rollover.tamano-bloque:25}") int tamanoBloque) {
+        this(rutaRepository, turnoRepository, turnoService, turnoScheduleIndex, persistenciaPorLotes,
+                transactionTemplate,
+                new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(capacidadCola), new ThreadPoolExecutor.AbortPolicy()),
+                tamanoBloque);
+    }
+
+    RolloverFlotaService(RutaRepository rutaRepository,
+                         TurnoRepository turnoRepository,
+                         TurnoService turnoService,
+                         TurnoScheduleIndex turnoScheduleIndex,
+                         PersistenciaPorLotes persistenciaPorLotes,
+                         TransactionTemplate transactionTemplate,
+                         ExecutorService executor,
+                         int tamanoBloque) {
+        this.rutaRepository = rutaRepository;
+        this.turnoRepository = turnoRepository;
+        this.turnoService = turnoService;
+        this.turnoScheduleIndex = turnoScheduleIndex;
+        this.persistenciaPorLotes = persistenciaPorLotes;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    // Validaciones que se hacen antes de encolar el trabajo, para responder 400 de inmediato
+    public void validar(RolloverRequest request) {
+        if (request.getSemanaOrigen().equals(request.getSemanaDestino()) && request.getRotacionDias() == 0) {
+            throw new RuntimeException("La semana destino debe ser distinta a la semana origen");
+        }
+    }
+
+    /**
+     * Ejecuta el rollover repartiendo los bloques de rutas en el pool y espera a que terminen.
+     * Se invoca desde el trabajo ROLLOVER_FLOTA, por lo que no ocupa un hilo de Tomcat.
+     */
+    public RolloverEstadoDTO ejecutarRollover(RolloverRequest request, TrabajoHandler.AvanceTrabajo avance) {
+        validar(request);
+
+        List<Long> rutaIds = request.getRutaIds() == null || request.getRutaIds().isEmpty()
+                ? rutaRepository.findAllIds()
+                : request.getRutaIds().stream().distinct().collect(Collectors.toList());
+
+        if (rutaIds.isEmpty()) {
+            throw new RuntimeException("No hay rutas para procesar");
+        }
+
+        List<List<Long>> bloques = new ArrayList<>();
+        for (int i = 0; i < rutaIds.size(); i += tamanoBloque) {
+            bloques.add(rutaIds.subList(i, Math.min(i + tamanoBloque, rutaIds.size())));
+        }
+
+        Progreso progreso = new Progreso(rutaIds.size(), bloques.size(), avance);
+        avance.actualizar(0, rutaIds.size());
+
+        for (List<Long> bloque : bloques) {
+            try {
+                executor.execute(() -> procesarBloque(progreso, bloque, request));
+            } catch (RejectedExecutionException e) {
+                registrarErrores(progreso, bloque, "Sistema ocupado, bloque no procesado");
+                progreso.bloqueTerminado(bloque.size());
+            }
+        }
+
+        try {
+            progreso.bloquesPendientes.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rollover interrumpido");
+        }
+        return progreso.aDTO();
+    }
+
+    private void procesarBloque(Progreso progreso, List<Long> rutaIds, RolloverRequest request) {
+        Map<Long, String> erroresBloque = new LinkedHashMap<>();
+        try {
+            List<Turno> creados;
+            try {
+                creados = transactionTemplate.execute(status -> copiarBloque(rutaIds, request, erroresBloque));
+            } catch (RuntimeException e) {
+                registrarErrores(progreso, rutaIds, "Error al guardar el bloque: " + e.getMessage());
+                return;
+            } catch (Error e) {
+                registrarErrores(progreso, rutaIds, "Error al procesar el bloque: " + e);
+                throw e;
+            }
+
+            // El índice se actualiza solo con lo confirmado
+            turnoScheduleIndex.registrarTodos(creados);
+
+            progreso.turnosCreados.addAndGet(creados.size());
+            progreso.rutasExitosas.addAndGet(rutaIds.size() - erroresBloque.size());
+            progreso.errores.putAll(erroresBloque);
+        } finally {
+            // Pase lo que pase el bloque se descuenta; si no, ejecutarRollover esperaría para siempre
+            progreso.bloqueTerminado(rutaIds.size());
+        }
+    }
+
+    // Se ejecuta dentro de la transacción del bloque
+    private List<Turno> copiarBloque(List<Long> rutaIds, RolloverRequest request, Map<Long, String> errores) {
+        // Las rutas quedan bloqueadas hasta el commit: dos rollovers (o una copia y un rollover) hacia la
+        // misma semana se serializan por ruta y cada uno ve en la base lo que el otro confirmó
+        rutaRepository.findAllByIdParaActualizar(rutaIds);
+
+        Map<Long, List<Turno>> origenPorRuta = turnoRepository
+                .findByRutaIdInAndNumeroSemana(rutaIds, request.getSemanaOrigen()).stream()
+                .collect(Collectors.groupingBy(turno -> turno.getRuta().getId()));
+        Map<Long, List<Turno>> vecinosPorRuta = turnoRepository
+                .findByRutaIdInAndNumeroSemanaIn(rutaIds, TurnoScheduleIndex.semanasVecinas(request.getSemanaDestino()))
+                .stream()
+                .collect(Collectors.groupingBy(turno -> turno.getRuta().getId()));
+
+        List<Turno> nuevos = new ArrayList<>();
+        for (Long rutaId : rutaIds) {
+            List<Turno> origen = origenPorRuta.get(rutaId);
+            if (origen == null || origen.isEmpty()) {
+                errores.put(rutaId, "No hay turnos en la semana origen");
+                continue;
+            }
+            List<Turno> copia = turnoService.construirCopiaSemana(
+                    origen, request.getSemanaDestino(), request.getRotacionDias());
+            List<Turno> vecinos = vecinosPorRuta.getOrDefault(rutaId, List.of());
+            List<Turno> destino = vecinos.stream()
+                    .filter(turno -> turno.getNumeroSemana() == request.getSemanaDestino())
+                    .collect(Collectors.toList());
+            // Ruta ya copiada por un intento anterior del trabajo (reinicio después del commit del bloque)
+            if (!TurnoService.yaAplicados(copia, destino).isEmpty()) {
+                continue;
+            }
+            try {
+                TurnoScheduleIndex.validarSinSolapamientos(copia, vecinos);
+                nuevos.addAll(copia);
+            } catch (RuntimeException e) {
+                errores.put(rutaId, e.getMessage());
+            }
+        }
+
+        List<Turno> creados = persistenciaPorLotes.insertarEnLotes(nuevos);
+        // Se arman con la sesión abierta y se publican cuando el bloque confirma
+        turnoService.publicarCreados(creados);
+        return creados;
+    }
+
+    private void registrarErrores(Progreso progreso, List<Long> rutaIds, String motivo) {
+        rutaIds.forEach(rutaId -> progreso.errores.put(rutaId, motivo));
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+    }
+
+    // Estado mutable compartido entre los hilos del pool
+    private static final class Progreso {
+        private final int totalRutas;
+        private final AtomicInteger rutasProcesadas = new AtomicInteger();
+        private final AtomicInteger rutasExitosas = new AtomicInteger();
+        private final AtomicInteger turnosCreados = new AtomicInteger();
+        private final CountDownLatch bloquesPendientes;
+        private final Map<Long, String> errores = new ConcurrentSkipListMap<>();
+        private final TrabajoHandler.AvanceTrabajo avance;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+
+        private Progreso(int totalRutas, int bloques, TrabajoHandler.AvanceTrabajo avance) {
+            this.totalRutas = totalRutas;
+            this.bloquesPendientes = new CountDownLatch(bloques);
+            this.avance = avance;
+        }
+
+        private void bloqueTerminado(int rutas) {
+            avance.actualizar(rutasProcesadas.addAndGet(rutas), totalRutas);
+            bloquesPendientes.countDown();
+        }
+
+        private RolloverEstadoDTO aDTO() {
+            return RolloverEstadoDTO.builder()
+                    .completado(bloquesPendientes.getCount() == 0)
+                    .totalRutas(totalRutas)
+                    .rutasProcesadas(rutasProcesadas.get())
+                    .rutasExitosas(rutasExitosas.get())
+                    .turnosCreados(turnosCreados.get())
+                    .errores(new LinkedHashMap<>(errores))
+                    .fechaInicio(fechaInicio)
+                    .fechaFin(LocalDateTime.now())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.RolloverRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+// Rollover de semana de toda la flota (o de un conjunto de rutas) en segundo plano
+@Component
+public class RolloverFlotaTrabajo implements TrabajoHandler {
+
+    public static final String TIPO = "ROLLOVER_FLOTA";
+
+    private final RolloverFlotaService rolloverFlotaService;
+    private final ObjectMapper objectMapper;
+
+    public RolloverFlotaTrabajo(RolloverFlotaService rolloverFlotaService, ObjectMapper objectMapper) {
+        this.rolloverFlotaService = rolloverFlotaService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String tipo() {
+        return TIPO;
+    }
+
+    @Override
+    public Object ejecutar(JsonNode parametros, AvanceTrabajo avance) {
+        try {
+            RolloverRequest request = objectMapper.treeToValue(parametros, RolloverRequest.class);
+            return rolloverFlotaService.ejecutarRollover(request, avance);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Parámetros de rollover inválidos: " + e.getMessage());
+        }
+    }
+}
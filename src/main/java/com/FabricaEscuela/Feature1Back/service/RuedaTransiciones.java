@@ -0,0 +1,248 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de tiempo con los próximos límites (inicio y fin) de las asignaciones activas.
+ * Cada asignación se programa por jornada (una ocurrencia de su turno dentro del rango de fechas):
+ * al cerrar una jornada que no es la última, la asignación vuelve a programarse para la siguiente.
+ * Tiene una ranura por minuto del horizonte: cada avance revisa solo las ranuras de los minutos
+ * transcurridos, sin recorrer todas las asignaciones. Los límites más allá del horizonte no se guardan;
+ * la recarga periódica de TransicionesAutomaticas los agrega cuando se acercan.
+ * Las entradas obsoletas (asignación retirada o reprogramada) se descartan al llegar a su ranura.
+ */
+@Component
+public class RuedaTransiciones {
+
+    // CIERRE es el fin de una jornada a la que le siguen otras; FIN, el de la última
+    public enum Limite { INICIO, FIN, CIERRE }
+
+    // Asignaciones cuyo inicio o fin ya llegó, en orden de vencimiento
+    public record Vencidas(List<Long> aIniciar, List<Long> aCerrar, List<Long> aFinalizar) {
+        public boolean vacia() {
+            return aIniciar.isEmpty() && aCerrar.isEmpty() && aFinalizar.isEmpty();
+        }
+    }
+
+    // Una ocurrencia del turno: de la hora de inicio a la de fin (al día siguiente si cruza la medianoche)
+    record Jornada(LocalDateTime inicio, LocalDateTime fin, boolean ultima) {
+    }
+
+    private record Entrada(long asignacionId, long minuto, Limite limite) {
+    }
+
+    private static final long SIN_LIMITE = Long.MIN_VALUE;
+
+    private final int horizonteMinutos;
+
+    // Protegidos por el monitor de la instancia
+    private final List<List<Entrada>> ranuras;
+    // Minuto de inicio, minuto de fin (SIN_LIMITE si no hay que programarlo) y tipo de fin por asignación
+    private final Map<Long, long[]> programadas = new HashMap<>();
+    private long ultimoMinuto;
+
+    @Autowired
+    public RuedaTransiciones(@Value("${asignacion.transiciones.horizonte-horas:48}") int horizonteHoras) {
+        this(horizonteHoras, LocalDateTime.now());
+    }
+
+    RuedaTransiciones(int horizonteHoras, LocalDateTime inicio) {
+        this.horizonteMinutos = Math.max(1, horizonteHoras) * 60;
+        this.ranuras = new ArrayList<>(horizonteMinutos);
+        for (int i = 0; i < horizonteMinutos; i++) {
+            ranuras.add(new ArrayList<>());
+        }
+        this.ultimoMinuto = minuto(inicio);
+    }
+
+    public int getHorizonteHoras() {
+        return horizonteMinutos / 60;
+    }
+
+    public synchronized void programarTodas(Collection<AsignacionTurno> asignaciones) {
+        asignaciones.forEach(this::programar);
+    }
+
+    // Agrega o actualiza los límites de la jornada vigente de una asignación (p. ej. tras cambiar el horario
+    // de su turno o tras cerrar su jornada anterior). Una asignación EN_CURSO está en la jornada que
+    // termina después de su inicio real; una PROGRAMADA espera la primera que aún no terminó
+    public synchronized void programar(AsignacionTurno asignacion) {
+        Long id = asignacion.getId();
+        EstadoAsignacion estado = asignacion.getEstado();
+        if (estado != EstadoAsignacion.PROGRAMADA && estado != EstadoAsignacion.EN_CURSO) {
+            programadas.remove(id);
+            return;
+        }
+        LocalDateTime referencia = estado == EstadoAsignacion.EN_CURSO && asignacion.getHoraInicioReal() != null
+                ? asignacion.getHoraInicioReal() : instante(ultimoMinuto);
+        Jornada jornada = jornada(asignacion, referencia);
+        if (jornada == null) {
+            programadas.remove(id);
+            return;
+        }
+        long inicio = estado == EstadoAsignacion.PROGRAMADA ? enHorizonte(jornada.inicio()) : SIN_LIMITE;
+        long fin = enHorizonte(jornada.fin());
+        Limite tipoFin = jornada.ultima() ? Limite.FIN : Limite.CIERRE;
+        if (inicio == SIN_LIMITE && fin == SIN_LIMITE) {
+            programadas.remove(id);
+            return;
+        }
+
+        long[] anterior = programadas.put(id, new long[]{inicio, fin, tipoFin.ordinal()});
+        if (inicio != SIN_LIMITE && (anterior == null || anterior[0] != inicio)) {
+            insertar(new Entrada(id, inicio, Limite.INICIO));
+        }
+        if (fin != SIN_LIMITE && (anterior == null || anterior[1] != fin || anterior[2] != tipoFin.ordinal())) {
+            insertar(new Entrada(id, fin, tipoFin));
+        }
+    }
+
+    public synchronized void retirar(Long asignacionId) {
+        programadas.remove(asignacionId);
+    }
+
+    public synchronized void retirarTodas(Collection<Long> asignacionIds) {
+        asignacionIds.forEach(programadas::remove);
+    }
+
+    // Vuelve a programar como vencidos límites que no se pudieron aplicar; se intentan en el siguiente avance
+    public synchronized void reintentar(Limite limite, Collection<Long> asignacionIds) {
+        for (Long id : asignacionIds) {
+            long[] limites = programadas.computeIfAbsent(id,
+                    clave -> new long[]{SIN_LIMITE, SIN_LIMITE, Limite.FIN.ordinal()});
+            if (limite == Limite.INICIO) {
+                limites[0] = ultimoMinuto;
+            } else {
+                limites[1] = ultimoMinuto;
+                limites[2] = limite.ordinal();
+            }
+            insertar(new Entrada(id, ultimoMinuto, limite));
+        }
+    }
+
+    // Extrae los límites alcanzados hasta "ahora"; un fin cuyo inicio sigue pendiente espera al siguiente avance
+    public synchronized Vencidas avanzar(LocalDateTime ahora) {
+        long actual = minuto(ahora);
+        List<Long> aIniciar = new ArrayList<>();
+        List<Long> aCerrar = new ArrayList<>();
+        List<Long> aFinalizar = new ArrayList<>();
+        List<Entrada> pospuestas = new ArrayList<>();
+
+        // Si pasó más de una vuelta (proceso suspendido, reloj ajustado) basta revisar cada ranura una vez
+        for (long m = Math.max(ultimoMinuto + 1, actual - horizonteMinutos + 1); m <= actual; m++) {
+            Iterator<Entrada> iterador = ranuras.get(indice(m)).iterator();
+            while (iterador.hasNext()) {
+                Entrada entrada = iterador.next();
+                if (entrada.minuto() > actual) {
+                    continue;
+                }
+                iterador.remove();
+                long[] limites = programadas.get(entrada.asignacionId());
+                if (limites == null || obsoleta(entrada, limites)) {
+                    continue;
+                }
+                if (entrada.limite() == Limite.INICIO) {
+                    limites[0] = SIN_LIMITE;
+                    aIniciar.add(entrada.asignacionId());
+                    if (limites[1] == SIN_LIMITE) {
+                        programadas.remove(entrada.asignacionId());
+                    }
+                } else if (limites[0] != SIN_LIMITE) {
+                    pospuestas.add(entrada);
+                } else {
+                    (entrada.limite() == Limite.FIN ? aFinalizar : aCerrar).add(entrada.asignacionId());
+                    programadas.remove(entrada.asignacionId());
+                }
+            }
+        }
+        ultimoMinuto = Math.max(ultimoMinuto, actual);
+        pospuestas.forEach(this::insertar);
+        return new Vencidas(aIniciar, aCerrar, aFinalizar);
+    }
+
+    // Asignaciones con algún límite programado
+    public synchronized int tamano() {
+        return programadas.size();
+    }
+
+    /**
+     * Jornada del turno dentro del rango de la asignación que sigue vigente en "referencia": la primera que
+     * aún no terminó o, si ya terminaron todas, la última (para aplicar sus límites atrasados).
+     * Sin fecha fin las jornadas no se acaban; null si el rango no incluye ningún día del turno.
+     */
+    static Jornada jornada(AsignacionTurno asignacion, LocalDateTime referencia) {
+        Turno turno = asignacion.getTurno();
+        LocalDate primera = asignacion.getFechaInicio().with(TemporalAdjusters.nextOrSame(turno.getDiaSemana()));
+        LocalDate fechaFin = asignacion.getFechaFin();
+        if (fechaFin != null && primera.isAfter(fechaFin)) {
+            return null;
+        }
+        // Las jornadas de dos días antes ya terminaron aunque crucen la medianoche
+        LocalDate dia = referencia.toLocalDate().minusDays(1).with(TemporalAdjusters.nextOrSame(turno.getDiaSemana()));
+        if (dia.isBefore(primera)) {
+            dia = primera;
+        }
+        if (!finJornada(turno, dia).isAfter(referencia)) {
+            dia = dia.plusWeeks(1);
+        }
+        if (fechaFin != null && dia.isAfter(fechaFin)) {
+            dia = fechaFin.with(TemporalAdjusters.previousOrSame(turno.getDiaSemana()));
+        }
+        boolean ultima = fechaFin != null && dia.plusWeeks(1).isAfter(fechaFin);
+        return new Jornada(dia.atTime(turno.getHoraInicio()), finJornada(turno, dia), ultima);
+    }
+
+    private static LocalDateTime finJornada(Turno turno, LocalDate dia) {
+        LocalDateTime fin = dia.atTime(turno.getHoraFin());
+        return turno.getHoraFin().isAfter(turno.getHoraInicio()) ? fin : fin.plusDays(1);
+    }
+
+    // Una entrada de una jornada anterior o de un horario anterior ya no corresponde a los límites vigentes
+    private static boolean obsoleta(Entrada entrada, long[] limites) {
+        if (entrada.limite() == Limite.INICIO) {
+            return limites[0] != entrada.minuto();
+        }
+        return limites[1] != entrada.minuto() || limites[2] != entrada.limite().ordinal();
+    }
+
+    private long enHorizonte(LocalDateTime instante) {
+        if (instante == null) {
+            return SIN_LIMITE;
+        }
+        long minuto = minuto(instante);
+        return minuto > ultimoMinuto + horizonteMinutos ? SIN_LIMITE : minuto;
+    }
+
+    // Los límites ya vencidos van a la ranura del próximo minuto a revisar
+    private void insertar(Entrada entrada) {
+        ranuras.get(indice(Math.max(entrada.minuto(), ultimoMinuto + 1))).add(entrada);
+    }
+
+    private int indice(long minuto) {
+        return (int) Math.floorMod(minuto, (long) horizonteMinutos);
+    }
+
+    private static long minuto(LocalDateTime instante) {
+        return Math.floorDiv(instante.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime instante(long minuto) {
+        return LocalDateTime.ofEpochSecond(minuto * 60, 0, ZoneOffset.UTC);
+    }
+}
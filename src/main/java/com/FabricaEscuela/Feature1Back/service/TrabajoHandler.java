@@ -0,0 +1,18 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// Implementación de un tipo de trabajo en segundo plano.
+// Debe poder reintentarse a partir de sus parámetros si la aplicación se reinicia, incluso si el
+// intento anterior alcanzó a confirmar (idempotente: repetirlo no duplica ni falla por lo ya hecho).
+public interface TrabajoHandler {
+
+    String tipo();
+
+    Object ejecutar(JsonNode parametros, AvanceTrabajo avance);
+
+    // Permite al trabajo informar cuánto lleva hecho
+    interface AvanceTrabajo {
+        void actualizar(int progreso, int total);
+    }
+}
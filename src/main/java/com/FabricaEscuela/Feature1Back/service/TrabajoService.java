@@ -0,0 +1,270 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.TrabajoDTO;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTrabajo;
+import com.FabricaEscuela.Feature1Back.entity.Trabajo;
+import com.FabricaEscuela.Feature1Back.repository.TrabajoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ejecuta operaciones largas en un pool de hilos dedicado y acotado.
+ * El estado de cada trabajo se guarda en la tabla "trabajos"; al arrancar se reencolan
+ * los que quedaron pendientes o en ejecución (después de cargar los índices en memoria) y
+ * los terminados se borran pasada la retención.
+ */
+@Service
+public class TrabajoService {
+
+    // Intervalo mínimo entre escrituras de avance en la base de datos
+    private static final long INTERVALO_PROGRESO_MS = 500;
+
+    private final TrabajoRepository trabajoRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TrabajoHandler> handlers;
+    private final ThreadPoolExecutor executor;
+    private final int retencionHoras;
+
+    // Trabajos en curso en esta instancia, para esperar su fin sin sondear la base de datos
+    private final Map<String, CompletableFuture<TrabajoDTO>> enCurso = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TrabajoService(TrabajoRepository trabajoRepository,
+                          ObjectMapper objectMapper,
+                          List<TrabajoHandler> handlers,
+                          @Value("${trabajos.hilos:2}") int hilos,
+                          @Value("${trabajos.capacidad-cola:100}") int capacidadCola,
+                          @Value("${trabajos.retencion-horas:168}") int retencionHoras) {
+        this(trabajoRepository, objectMapper, handlers,
+                new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(capacidadCola), new ThreadPoolExecutor.AbortPolicy()),
+                retencionHoras);
+    }
+
+    TrabajoService(TrabajoRepository trabajoRepository,
+                   ObjectMapper objectMapper,
+                   List<TrabajoHandler> handlers,
+                   ThreadPoolExecutor executor,
+                   int retencionHoras) {
+        this.trabajoRepository = trabajoRepository;
+        this.objectMapper = objectMapper;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(TrabajoHandler::tipo, Function.identity()));
+        this.executor = executor;
+        this.retencionHoras = retencionHoras;
+    }
+
+    /**
+     * Registra el trabajo y lo encola. Si la cola está llena lanza RejectedExecutionException
+     * sin registrar nada, para que el cliente reintente más tarde.
+     */
+    public TrabajoDTO enviar(String tipo, Object parametros) {
+        if (!handlers.containsKey(tipo)) {
+            throw new RuntimeException("Tipo de trabajo no soportado: " + tipo);
+        }
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Sistema ocupado, intente más tarde");
+        }
+
+        Trabajo trabajo = Trabajo.builder()
+                .id(UUID.randomUUID().toString())
+                .tipo(tipo)
+                .estado(EstadoTrabajo.PENDIENTE)
+                .parametros(aJson(parametros))
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+        trabajo = trabajoRepository.save(trabajo);
+
+        encolar(trabajo);
+        return toDTO(trabajo);
+    }
+
+    public TrabajoDTO obtenerTrabajo(String id) {
+        return toDTO(buscar(id));
+    }
+
+    // JSON del resultado; solo disponible cuando el trabajo terminó correctamente
+    public String obtenerResultado(String id) {
+        Trabajo trabajo = buscar(id);
+        if (trabajo.getEstado() != EstadoTrabajo.COMPLETADO) {
+            throw new IllegalStateException("El trabajo no ha terminado: " + trabajo.getEstado());
+        }
+        return trabajo.getResultado();
+    }
+
+    // Futuro que se completa cuando el trabajo termina en esta instancia (o ya terminó)
+    public CompletableFuture<TrabajoDTO> esperarFin(String id) {
+        CompletableFuture<TrabajoDTO> futuro = enCurso.get(id);
+        if (futuro != null) {
+            return futuro;
+        }
+        return CompletableFuture.completedFuture(obtenerTrabajo(id));
+    }
+
+    // Reencolar los trabajos interrumpidos por un reinicio. Va después de los demás listeners de arranque:
+    // los trabajos validan contra los índices en memoria, que deben estar cargados
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void recuperarTrabajosPendientes() {
+        List<Trabajo> pendientes = trabajoRepository.findByEstadoInOrderByFechaCreacion(
+                EnumSet.of(EstadoTrabajo.PENDIENTE, EstadoTrabajo.EN_EJECUCION));
+
+        for (Trabajo trabajo : pendientes) {
+            trabajo.setEstado(EstadoTrabajo.PENDIENTE);
+            trabajo.setProgreso(0);
+            trabajoRepository.save(trabajo);
+            try {
+                encolar(trabajo);
+            } catch (RejectedExecutionException e) {
+                finalizarConError(trabajo, "No se pudo reencolar tras el reinicio");
+            }
+        }
+    }
+
+    // Los trabajos terminados solo se guardan para consultar su estado y resultado durante la retención
+    @Scheduled(fixedRateString = "${trabajos.purga-ms:3600000}", initialDelayString = "${trabajos.purga-ms:3600000}")
+    public int purgarTerminados() {
+        return trabajoRepository.eliminarTerminadosAntesDe(
+                EnumSet.of(EstadoTrabajo.COMPLETADO, EstadoTrabajo.FALLIDO),
+                LocalDateTime.now().minusHours(retencionHoras));
+    }
+
+    private void encolar(Trabajo trabajo) {
+        CompletableFuture<TrabajoDTO> futuro = new CompletableFuture<>();
+        enCurso.put(trabajo.getId(), futuro);
+        try {
+            executor.execute(() -> ejecutar(trabajo.getId()));
+        } catch (RejectedExecutionException e) {
+            enCurso.remove(trabajo.getId());
+            finalizarConError(trabajo, "Sistema ocupado, trabajo no encolado");
+            throw e;
+        }
+    }
+
+    private void ejecutar(String id) {
+        Trabajo trabajo = trabajoRepository.findById(id).orElse(null);
+        if (trabajo == null) {
+            completarFuturo(id, null);
+            return;
+        }
+
+        TrabajoHandler handler = handlers.get(trabajo.getTipo());
+        if (handler == null) {
+            finalizarConError(trabajo, "Tipo de trabajo no soportado: " + trabajo.getTipo());
+            return;
+        }
+
+        trabajo.setEstado(EstadoTrabajo.EN_EJECUCION);
+        trabajo.setIntentos(trabajo.getIntentos() + 1);
+        trabajo.setFechaInicio(LocalDateTime.now());
+        trabajo = trabajoRepository.save(trabajo);
+
+        try {
+            JsonNode parametros = objectMapper.readTree(trabajo.getParametros());
+            Object resultado = handler.ejecutar(parametros, new AvanceLimitado(id));
+
+            // Recargar para no pisar el avance escrito durante la ejecución
+            trabajo = trabajoRepository.findById(id).orElse(trabajo);
+            trabajo.setEstado(EstadoTrabajo.COMPLETADO);
+            trabajo.setResultado(aJson(resultado));
+            trabajo.setFechaFin(LocalDateTime.now());
+            trabajo = trabajoRepository.save(trabajo);
+            completarFuturo(id, toDTO(trabajo));
+        } catch (Exception e) {
+            finalizarConError(trabajo, e.getMessage());
+        }
+    }
+
+    private void finalizarConError(Trabajo trabajo, String error) {
+        trabajo = trabajoRepository.findById(trabajo.getId()).orElse(trabajo);
+        trabajo.setEstado(EstadoTrabajo.FALLIDO);
+        trabajo.setError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        trabajo.setFechaFin(LocalDateTime.now());
+        trabajo = trabajoRepository.save(trabajo);
+        completarFuturo(trabajo.getId(), toDTO(trabajo));
+    }
+
+    private void completarFuturo(String id, TrabajoDTO dto) {
+        CompletableFuture<TrabajoDTO> futuro = enCurso.remove(id);
+        if (futuro != null) {
+            futuro.complete(dto);
+        }
+    }
+
+    private Trabajo buscar(String id) {
+        return trabajoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Trabajo no encontrado"));
+    }
+
+    private String aJson(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo serializar a JSON: " + e.getMessage());
+        }
+    }
+
+    private TrabajoDTO toDTO(Trabajo trabajo) {
+        return TrabajoDTO.builder()
+                .id(trabajo.getId())
+                .tipo(trabajo.getTipo())
+                .estado(trabajo.getEstado())
+                .progreso(trabajo.getProgreso())
+                .total(trabajo.getTotal())
+                .intentos(trabajo.getIntentos())
+                .error(trabajo.getError())
+                .fechaCreacion(trabajo.getFechaCreacion())
+                .fechaInicio(trabajo.getFechaInicio())
+                .fechaFin(trabajo.getFechaFin())
+                .build();
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+    }
+
+    // Guarda el avance como mucho cada INTERVALO_PROGRESO_MS (y siempre al completar)
+    private final class AvanceLimitado implements TrabajoHandler.AvanceTrabajo {
+
+        private final String id;
+        private long ultimaEscritura;
+
+        private AvanceLimitado(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public synchronized void actualizar(int progreso, int total) {
+            long ahora = System.currentTimeMillis();
+            if (progreso >= total || ahora - ultimaEscritura >= INTERVALO_PROGRESO_MS) {
+                ultimaEscritura = ahora;
+                trabajoRepository.actualizarProgreso(id, progreso, total);
+            }
+        }
+    }
+}
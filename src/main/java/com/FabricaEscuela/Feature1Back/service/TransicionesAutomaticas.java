@@ -0,0 +1,109 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoTransicionLoteDTO;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Inicia y finaliza asignaciones cuando llega la hora de su turno.
+ * Cada minuto avanza la rueda de transiciones y aplica lo vencido con los UPDATE masivos del servicio
+ * (primero los inicios, luego los fines): el fin de una jornada a la que le siguen otras la cierra y la
+ * asignación queda programada para la siguiente; el de la última la finaliza.
+ * La base de datos solo se consulta para recargar la rueda.
+ */
+@Component
+public class TransicionesAutomaticas {
+
+    // === Resultado de un avance ===
+    public record Resultado(int iniciadas, int cerradas, int finalizadas) {
+    }
+
+    private final RuedaTransiciones ruedaTransiciones;
+    private final AsignacionTurnoService asignacionTurnoService;
+    private final AsignacionTurnoRepository asignacionTurnoRepository;
+
+    public TransicionesAutomaticas(RuedaTransiciones ruedaTransiciones,
+                                   AsignacionTurnoService asignacionTurnoService,
+                                   AsignacionTurnoRepository asignacionTurnoRepository) {
+        this.ruedaTransiciones = ruedaTransiciones;
+        this.asignacionTurnoService = asignacionTurnoService;
+        this.asignacionTurnoRepository = asignacionTurnoRepository;
+    }
+
+    // Carga los límites que caen dentro del horizonte de la rueda (y los atrasados, p. ej. tras un reinicio).
+    // La recarga periódica debe ser más frecuente que el horizonte. Al arrancar va después de los índices
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Scheduled(fixedRateString = "${asignacion.transiciones.recarga-ms:21600000}",
+            initialDelayString = "${asignacion.transiciones.recarga-ms:21600000}")
+    @Transactional(readOnly = true)
+    public void recargar() {
+        LocalDate hasta = LocalDate.now().plusDays(ruedaTransiciones.getHorizonteHoras() / 24 + 1);
+        ruedaTransiciones.programarTodas(asignacionTurnoRepository.findConLimitesHasta(hasta));
+    }
+
+    @Scheduled(fixedRateString = "${asignacion.transiciones.intervalo-ms:60000}",
+            initialDelayString = "${asignacion.transiciones.intervalo-ms:60000}")
+    public void ejecutar() {
+        avanzar(LocalDateTime.now());
+    }
+
+    Resultado avanzar(LocalDateTime ahora) {
+        RuedaTransiciones.Vencidas vencidas = ruedaTransiciones.avanzar(ahora);
+        if (vencidas.vacia()) {
+            return new Resultado(0, 0, 0);
+        }
+
+        // Si un inicio falla, su fin (si también venció) se reintenta junto con él
+        Set<Long> sinIniciar = new HashSet<>();
+        int iniciadas = aplicar(vencidas.aIniciar(), asignacionTurnoService::iniciarTurnosEnLote,
+                RuedaTransiciones.Limite.INICIO, sinIniciar);
+        int cerradas = aplicar(sinPostergar(vencidas.aCerrar(), sinIniciar, RuedaTransiciones.Limite.CIERRE),
+                asignacionTurnoService::cerrarJornadasEnLote, RuedaTransiciones.Limite.CIERRE, new HashSet<>());
+        int finalizadas = aplicar(sinPostergar(vencidas.aFinalizar(), sinIniciar, RuedaTransiciones.Limite.FIN),
+                asignacionTurnoService::finalizarTurnosEnLote, RuedaTransiciones.Limite.FIN, new HashSet<>());
+        return new Resultado(iniciadas, cerradas, finalizadas);
+    }
+
+    // Los fines de asignaciones cuyo inicio falló vuelven a la rueda; devuelve los que se aplican ahora
+    private List<Long> sinPostergar(List<Long> ids, Set<Long> sinIniciar, RuedaTransiciones.Limite limite) {
+        List<Long> aplicables = new ArrayList<>();
+        List<Long> postergadas = new ArrayList<>();
+        for (Long id : ids) {
+            (sinIniciar.contains(id) ? postergadas : aplicables).add(id);
+        }
+        ruedaTransiciones.reintentar(limite, postergadas);
+        return aplicables;
+    }
+
+    // Aplica la transición en bloques del tamaño máximo de lote. Los ids que no estaban en el estado
+    // de origen (iniciados o cancelados a mano) se ignoran; un bloque que falla se reintenta en el próximo avance
+    private int aplicar(List<Long> ids, Function<List<Long>, ResultadoTransicionLoteDTO> transicion,
+                        RuedaTransiciones.Limite limite, Set<Long> fallidas) {
+        int exitosas = 0;
+        for (int i = 0; i < ids.size(); i += AsignacionTurnoService.TAMANO_LOTE_MAXIMO) {
+            List<Long> bloque = ids.subList(i, Math.min(i + AsignacionTurnoService.TAMANO_LOTE_MAXIMO, ids.size()));
+            try {
+                exitosas += transicion.apply(bloque).getExitosas();
+            } catch (RuntimeException e) {
+                fallidas.addAll(bloque);
+                ruedaTransiciones.reintentar(limite, bloque);
+            }
+        }
+        return exitosas;
+    }
+}
@@ -0,0 +1,404 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Índice en memoria de turnos por (ruta, semana, día) y por (semana, día) para toda la flota.
+ * Cada cubeta es un árbol de intervalos implícito: intervalos ordenados por inicio con el
+ * máximo fin acumulado. Una búsqueda binaria acota los candidatos y el máximo acumulado
+ * corta el recorrido en cuanto ningún intervalo anterior puede solaparse.
+ * Un turno que cruza la medianoche ocupa también la cubeta del día siguiente (con inicio negativo).
+ * Las lecturas no bloquean; las escrituras reemplazan la cubeta completa (copy-on-write).
+ */
+@Component
+public class TurnoScheduleIndex {
+
+    static final int MINUTOS_DIA = 24 * 60;
+
+    // Duración máxima de un turno: 8 horas
+    static final int DURACION_MAXIMA_MINUTOS = 480;
+
+    // Las semanas de la rotación van de 1 a 52; después de la 52 sigue la 1
+    static final int SEMANAS = 52;
+
+    // Identificador para turnos aún no persistidos
+    private static final long SIN_ID = -1L;
+
+    private final Map<ClaveRuta, Cubeta> porRuta = new ConcurrentHashMap<>();
+    private final Map<ClaveFlota, Cubeta> porFlota = new ConcurrentHashMap<>();
+    private final Map<Long, Entrada> porTurno = new ConcurrentHashMap<>();
+
+    // Reemplaza todo el contenido del índice (carga inicial)
+    public synchronized void reconstruir(Collection<Turno> turnos) {
+        Map<ClaveRuta, List<Intervalo>> rutas = new HashMap<>();
+        Map<ClaveFlota, List<Intervalo>> flota = new HashMap<>();
+        Map<Long, Entrada> entradas = new HashMap<>();
+
+        for (Turno turno : turnos) {
+            if (!indexable(turno)) {
+                continue;
+            }
+            Entrada entrada = aEntrada(turno);
+            entradas.put(turno.getId(), entrada);
+            for (Tramo tramo : entrada.tramos()) {
+                rutas.computeIfAbsent(tramo.claveRuta(), k -> new ArrayList<>()).add(tramo.intervalo());
+                flota.computeIfAbsent(tramo.claveRuta().flota(), k -> new ArrayList<>()).add(tramo.intervalo());
+            }
+        }
+
+        porRuta.clear();
+        porFlota.clear();
+        porTurno.clear();
+        rutas.forEach((clave, lista) -> porRuta.put(clave, Cubeta.de(lista)));
+        flota.forEach((clave, lista) -> porFlota.put(clave, Cubeta.de(lista)));
+        porTurno.putAll(entradas);
+    }
+
+    /**
+     * Agrega o actualiza un lote de turnos; los cancelados se retiran del índice.
+     * Cada cubeta se fusiona una sola vez (evita una copia por turno).
+     */
+    public synchronized void registrarTodos(Collection<Turno> turnos) {
+        Map<ClaveRuta, List<Intervalo>> rutas = new HashMap<>();
+        Map<ClaveFlota, List<Intervalo>> flota = new HashMap<>();
+
+        for (Turno turno : turnos) {
+            eliminar(turno.getId());
+            if (!indexable(turno)) {
+                continue;
+            }
+            Entrada entrada = aEntrada(turno);
+            porTurno.put(turno.getId(), entrada);
+            for (Tramo tramo : entrada.tramos()) {
+                rutas.computeIfAbsent(tramo.claveRuta(), k -> new ArrayList<>()).add(tramo.intervalo());
+                flota.computeIfAbsent(tramo.claveRuta().flota(), k -> new ArrayList<>()).add(tramo.intervalo());
+            }
+        }
+
+        rutas.forEach((clave, lista) -> porRuta.merge(clave, Cubeta.de(lista), Cubeta::unir));
+        flota.forEach((clave, lista) -> porFlota.merge(clave, Cubeta.de(lista), Cubeta::unir));
+    }
+
+    public synchronized void eliminar(Long turnoId) {
+        if (turnoId == null) {
+            return;
+        }
+        Entrada entrada = porTurno.remove(turnoId);
+        if (entrada == null) {
+            return;
+        }
+        for (Tramo tramo : entrada.tramos()) {
+            porRuta.computeIfPresent(tramo.claveRuta(), (clave, cubeta) -> cubeta.sin(turnoId));
+            porFlota.computeIfPresent(tramo.claveRuta().flota(), (clave, cubeta) -> cubeta.sin(turnoId));
+        }
+    }
+
+    /**
+     * Turnos que se cruzan con la franja [desde, hasta). Si rutaId es null se consulta toda la flota.
+     * Si hasta no es posterior a desde, la franja se extiende hasta el día siguiente.
+     */
+    public List<Long> buscarSolapados(Long rutaId, int numeroSemana, DayOfWeek diaSemana,
+                                      LocalTime desde, LocalTime hasta) {
+        Set<Long> resultado = new LinkedHashSet<>();
+        for (Tramo tramo : aTramos(rutaId, numeroSemana, diaSemana, aIntervalo(SIN_ID, desde, hasta))) {
+            Cubeta cubeta = cubeta(tramo.claveRuta());
+            if (cubeta != null) {
+                resultado.addAll(cubeta.solapados(tramo.intervalo().inicio(), tramo.intervalo().fin()));
+            }
+        }
+        return new ArrayList<>(resultado);
+    }
+
+    // Turnos en curso a una hora puntual (incluye los del día anterior que cruzan la medianoche)
+    public List<Long> buscarEnHora(Long rutaId, int numeroSemana, DayOfWeek diaSemana, LocalTime hora) {
+        int minuto = aMinutos(hora);
+        Cubeta cubeta = cubeta(new ClaveRuta(rutaId, numeroSemana, diaSemana));
+        return cubeta != null ? cubeta.solapados(minuto, minuto + 1) : List.of();
+    }
+
+    /**
+     * Valida un lote de turnos nuevos en una sola pasada de barrido: se ordenan por
+     * (ruta, semana, día, inicio) y cada turno se compara con el máximo fin de su grupo.
+     * Además, cada turno se contrasta con los existentes, leídos de la base con la ruta bloqueada:
+     * el índice solo refleja un turno después del commit que lo crea.
+     */
+    public static void validarSinSolapamientos(Collection<Turno> nuevos, Collection<Turno> existentes) {
+        validar(nuevos, cubetasDe(existentes)::get);
+    }
+
+    // Verifica un turno (nuevo o modificado) contra turnos leídos de la base, ignorando su propia versión
+    public static boolean haySolapamiento(Turno turno, Collection<Turno> existentes) {
+        Map<ClaveRuta, Cubeta> cubetas = cubetasDe(existentes);
+        return aEntrada(turno).tramos().stream().anyMatch(tramo -> chocaConExistente(tramo, cubetas::get));
+    }
+
+    /**
+     * Turnos leídos de la base agrupados una sola vez para consultar fila a fila; los turnos
+     * aceptados se agregan para que las filas siguientes choquen también con ellos.
+     */
+    public static final class Agenda {
+
+        private final Map<ClaveRuta, Cubeta> cubetas;
+
+        public Agenda(Collection<Turno> existentes) {
+            this.cubetas = cubetasDe(existentes);
+        }
+
+        public boolean haySolapamiento(Turno turno) {
+            return aEntrada(turno).tramos().stream().anyMatch(tramo -> {
+                Cubeta cubeta = cubetas.get(tramo.claveRuta());
+                return cubeta != null
+                        && !cubeta.solapados(tramo.intervalo().inicio(), tramo.intervalo().fin()).isEmpty();
+            });
+        }
+
+        public void agregar(Turno turno) {
+            for (Tramo tramo : aEntrada(turno).tramos()) {
+                cubetas.merge(tramo.claveRuta(), Cubeta.de(List.of(tramo.intervalo())),
+                        (actual, nueva) -> actual.con(tramo.intervalo()));
+            }
+        }
+    }
+
+    // Semanas cuyos turnos pueden cruzarse con los de la semana dada (por los que cruzan la medianoche)
+    public static List<Integer> semanasVecinas(int numeroSemana) {
+        return List.of(semanaAnterior(numeroSemana), numeroSemana, semanaSiguiente(numeroSemana));
+    }
+
+    private static void validar(Collection<Turno> nuevos, Function<ClaveRuta, Cubeta> existentes) {
+        List<TramoNuevo> tramos = new ArrayList<>();
+        for (Turno turno : nuevos) {
+            if (turno.getEstado() != EstadoTurno.CANCELADO) {
+                aEntrada(turno).tramos().forEach(tramo -> tramos.add(new TramoNuevo(turno, tramo)));
+            }
+        }
+        tramos.sort(Comparator
+                .comparing((TramoNuevo t) -> t.tramo().claveRuta().rutaId())
+                .thenComparingInt(t -> t.tramo().claveRuta().numeroSemana())
+                .thenComparing(t -> t.tramo().claveRuta().diaSemana())
+                .thenComparingInt(t -> t.tramo().intervalo().inicio()));
+
+        ClaveRuta grupoActual = null;
+        int maxFin = Integer.MIN_VALUE;
+        for (TramoNuevo nuevo : tramos) {
+            Tramo tramo = nuevo.tramo();
+            if (!tramo.claveRuta().equals(grupoActual)) {
+                grupoActual = tramo.claveRuta();
+                maxFin = Integer.MIN_VALUE;
+            }
+            if (tramo.intervalo().inicio() < maxFin) {
+                throw new RuntimeException("Los turnos se solapan entre sí: " + describir(nuevo.turno()));
+            }
+            maxFin = Math.max(maxFin, tramo.intervalo().fin());
+
+            if (chocaConExistente(tramo, existentes)) {
+                throw new RuntimeException("El turno se solapa con un turno existente: " + describir(nuevo.turno()));
+            }
+        }
+    }
+
+    private static boolean chocaConExistente(Tramo tramo, Function<ClaveRuta, Cubeta> existentes) {
+        Cubeta cubeta = existentes.apply(tramo.claveRuta());
+        return cubeta != null && cubeta.solapados(tramo.intervalo().inicio(), tramo.intervalo().fin())
+                .stream().anyMatch(id -> id != tramo.intervalo().turnoId());
+    }
+
+    private static Map<ClaveRuta, Cubeta> cubetasDe(Collection<Turno> turnos) {
+        Map<ClaveRuta, List<Intervalo>> rutas = new HashMap<>();
+        for (Turno turno : turnos) {
+            if (turno.getRuta() == null || turno.getEstado() == EstadoTurno.CANCELADO) {
+                continue;
+            }
+            for (Tramo tramo : aEntrada(turno).tramos()) {
+                rutas.computeIfAbsent(tramo.claveRuta(), k -> new ArrayList<>()).add(tramo.intervalo());
+            }
+        }
+        Map<ClaveRuta, Cubeta> cubetas = new HashMap<>();
+        rutas.forEach((clave, lista) -> cubetas.put(clave, Cubeta.de(lista)));
+        return cubetas;
+    }
+
+    public int tamano() {
+        return porTurno.size();
+    }
+
+    private static boolean indexable(Turno turno) {
+        return turno.getId() != null
+                && turno.getRuta() != null
+                && turno.getEstado() != EstadoTurno.CANCELADO;
+    }
+
+    private Cubeta cubeta(ClaveRuta clave) {
+        return clave.rutaId() != null ? porRuta.get(clave) : porFlota.get(clave.flota());
+    }
+
+    private static String describir(Turno turno) {
+        return String.format("ruta %d, semana %d, %s %02d:%02d",
+                turno.getRuta().getId(), turno.getNumeroSemana(), turno.getDiaSemana(),
+                turno.getHoraInicio().getHour(), turno.getHoraInicio().getMinute());
+    }
+
+    private static Entrada aEntrada(Turno turno) {
+        Intervalo intervalo = aIntervalo(turno.getId() != null ? turno.getId() : SIN_ID,
+                turno.getHoraInicio(), turno.getHoraFin());
+        return new Entrada(aTramos(turno.getRuta().getId(), turno.getNumeroSemana(), turno.getDiaSemana(), intervalo));
+    }
+
+    // La parte posterior a la medianoche se registra también en el día siguiente, desplazada un día
+    private static List<Tramo> aTramos(Long rutaId, int numeroSemana, DayOfWeek diaSemana, Intervalo intervalo) {
+        Tramo tramo = new Tramo(new ClaveRuta(rutaId, numeroSemana, diaSemana), intervalo);
+        if (intervalo.fin() <= MINUTOS_DIA) {
+            return List.of(tramo);
+        }
+        ClaveRuta siguiente = diaSemana == DayOfWeek.SUNDAY
+                ? new ClaveRuta(rutaId, semanaSiguiente(numeroSemana), DayOfWeek.MONDAY)
+                : new ClaveRuta(rutaId, numeroSemana, diaSemana.plus(1));
+        return List.of(tramo, new Tramo(siguiente, new Intervalo(intervalo.turnoId(),
+                intervalo.inicio() - MINUTOS_DIA, intervalo.fin() - MINUTOS_DIA)));
+    }
+
+    static int semanaSiguiente(int numeroSemana) {
+        return numeroSemana % SEMANAS + 1;
+    }
+
+    static int semanaAnterior(int numeroSemana) {
+        return (numeroSemana + SEMANAS - 2) % SEMANAS + 1;
+    }
+
+    private static Intervalo aIntervalo(long turnoId, LocalTime horaInicio, LocalTime horaFin) {
+        int inicio = aMinutos(horaInicio);
+        return new Intervalo(turnoId, inicio, inicio + duracionMinutos(horaInicio, horaFin));
+    }
+
+    // Duración en minutos: un turno que termina a la misma hora o antes de iniciar cruza la medianoche
+    static int duracionMinutos(LocalTime horaInicio, LocalTime horaFin) {
+        int duracion = aMinutos(horaFin) - aMinutos(horaInicio);
+        return duracion > 0 ? duracion : duracion + MINUTOS_DIA;
+    }
+
+    // Regla común de creación, edición e importación; devuelve la duración en minutos
+    static int validarDuracion(LocalTime horaInicio, LocalTime horaFin) {
+        if (aMinutos(horaInicio) == aMinutos(horaFin)) {
+            throw new RuntimeException("La hora de fin debe ser distinta de la hora de inicio");
+        }
+        int duracion = duracionMinutos(horaInicio, horaFin);
+        if (duracion > DURACION_MAXIMA_MINUTOS) {
+            throw new RuntimeException("El turno no puede exceder las 8 horas");
+        }
+        return duracion;
+    }
+
+    private static int aMinutos(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    record ClaveRuta(Long rutaId, int numeroSemana, DayOfWeek diaSemana) {
+        ClaveFlota flota() {
+            return new ClaveFlota(numeroSemana, diaSemana);
+        }
+    }
+
+    record ClaveFlota(int numeroSemana, DayOfWeek diaSemana) {
+    }
+
+    // Franja de un turno en minutos del día, semiabierta [inicio, fin)
+    record Intervalo(long turnoId, int inicio, int fin) {
+    }
+
+    // Parte de un turno dentro de un día: la franja del propio día o la continuación tras la medianoche
+    private record Tramo(ClaveRuta claveRuta, Intervalo intervalo) {
+    }
+
+    private record Entrada(List<Tramo> tramos) {
+    }
+
+    private record TramoNuevo(Turno turno, Tramo tramo) {
+    }
+
+    // Cubeta inmutable: intervalos ordenados por inicio con el máximo fin acumulado
+    static final class Cubeta {
+
+        private final Intervalo[] intervalos;
+        private final int[] maxFin;
+
+        private Cubeta(Intervalo[] ordenados) {
+            this.intervalos = ordenados;
+            this.maxFin = new int[ordenados.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ordenados.length; i++) {
+                max = Math.max(max, ordenados[i].fin());
+                maxFin[i] = max;
+            }
+        }
+
+        static Cubeta de(Collection<Intervalo> intervalos) {
+            Intervalo[] ordenados = intervalos.toArray(new Intervalo[0]);
+            Arrays.sort(ordenados, Comparator.comparingInt(Intervalo::inicio));
+            return new Cubeta(ordenados);
+        }
+
+        Cubeta con(Intervalo nuevo) {
+            int pos = primeroConInicioMayorOIgual(nuevo.inicio());
+            Intervalo[] copia = new Intervalo[intervalos.length + 1];
+            System.arraycopy(intervalos, 0, copia, 0, pos);
+            copia[pos] = nuevo;
+            System.arraycopy(intervalos, pos, copia, pos + 1, intervalos.length - pos);
+            return new Cubeta(copia);
+        }
+
+        Cubeta unir(Cubeta otra) {
+            Intervalo[] todos = Arrays.copyOf(intervalos, intervalos.length + otra.intervalos.length);
+            System.arraycopy(otra.intervalos, 0, todos, intervalos.length, otra.intervalos.length);
+            Arrays.sort(todos, Comparator.comparingInt(Intervalo::inicio));
+            return new Cubeta(todos);
+        }
+
+        Cubeta sin(long turnoId) {
+            return new Cubeta(Arrays.stream(intervalos)
+                    .filter(intervalo -> intervalo.turnoId() != turnoId)
+                    .toArray(Intervalo[]::new));
+        }
+
+        // Intervalos con inicio < fin consultado y fin > inicio consultado
+        List<Long> solapados(int inicio, int fin) {
+            List<Long> resultado = new ArrayList<>();
+            int limite = primeroConInicioMayorOIgual(fin);
+            for (int i = limite - 1; i >= 0 && maxFin[i] > inicio; i--) {
+                if (intervalos[i].fin() > inicio) {
+                    resultado.add(intervalos[i].turnoId());
+                }
+            }
+            return resultado;
+        }
+
+        private int primeroConInicioMayorOIgual(int minuto) {
+            int bajo = 0;
+            int alto = intervalos.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (intervalos[medio].inicio() < minuto) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+}
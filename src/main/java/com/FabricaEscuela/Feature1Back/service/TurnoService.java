@@ -1,13 +1,22 @@
 package com.FabricaEscuela.Feature1Back.service;
 
 import com.FabricaEscuela.Feature1Back.DTO.CrearTurnoRequest;
+import com.FabricaEscuela.Feature1Back.DTO.EventoCambioDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PaginaCursorDTO;
 import com.FabricaEscuela.Feature1Back.DTO.TurnoDTO;
 import com.FabricaEscuela.Feature1Back.entity.*;
 import com.FabricaEscuela.Feature1Back.mapper.TurnoMapper;
 import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
 import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
 import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.FabricaEscuela.Feature1Back.util.TransaccionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,8 +24,15 @@ import java.time.Duration;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,20 +47,41 @@ public class TurnoService {
     @Autowired
     private AsignacionTurnoRepository asignacionTurnoRepository;
 
+    @Autowired
+    private ConductorRepository conductorRepository;
+
     @Autowired
     private TurnoMapper turnoMapper;
 
+    @Autowired
+    private TurnoScheduleIndex turnoScheduleIndex;
+
+    @Autowired
+    private PersistenciaPorLotes persistenciaPorLotes;
+
+    @Autowired
+    private ConductorOcupacionIndex conductorOcupacionIndex;
+
+    @Autowired
+    private TurnosEnCursoRegistry turnosEnCursoRegistry;
+
+    @Autowired
+    private PublicadorCambios publicadorCambios;
+
+    @Autowired
+    private RuedaTransiciones ruedaTransiciones;
+
+    // Máximo de ids por cláusula IN al enriquecer listas de turnos
+    static final int TAMANO_BLOQUE_CONSULTA = 1000;
+
     @Transactional
     public TurnoDTO crearTurno(CrearTurnoRequest request) {
-        // Validar que la ruta existe
-        Ruta ruta = rutaRepository.findById(request.getRutaId())
+        // Validar que la ruta existe y bloquearla hasta el commit
+        Ruta ruta = rutaRepository.findByIdParaActualizar(request.getRutaId())
                 .orElseThrow(() -> new RuntimeException("Ruta no encontrada"));
 
-        // Validar que el turno no exceda 8 horas
-        long duracionMinutos = Duration.between(request.getHoraInicio(), request.getHoraFin()).toMinutes();
-        if (duracionMinutos > 480) { // 8 horas = 480 minutos
-            throw new RuntimeException("El turno no puede exceder las 8 horas");
-        }
+        // Validar que el turno no exceda 8 horas (los nocturnos terminan al día siguiente)
+        int duracionMinutos = TurnoScheduleIndex.validarDuracion(request.getHoraInicio(), request.getHoraFin());
 
         // Crear el turno
         Turno turno = Turno.builder()
@@ -52,41 +89,97 @@ public class TurnoService {
                 .diaSemana(request.getDiaSemana())
                 .horaInicio(request.getHoraInicio())
                 .horaFin(request.getHoraFin())
-                .duracionHoras((int) (duracionMinutos / 60))
+                .duracionHoras(duracionMinutos / 60)
                 .numeroSemana(request.getNumeroSemana())
                 .estado(EstadoTurno.ACTIVO)
                 .build();
 
+        // Validar que no se solape con otro turno de la ruta (incluidos los que cruzan la medianoche)
+        if (TurnoScheduleIndex.haySolapamiento(turno, turnosVecinos(ruta.getId(), request.getNumeroSemana()))) {
+            throw new RuntimeException("El turno se solapa con otro turno de la misma ruta y día");
+        }
+
         turno = turnoRepository.save(turno);
-        return turnoMapper.toDTO(turno);
+        registrarEnIndiceDespuesDelCommit(List.of(turno));
+        TurnoDTO creado = turnoMapper.toDTO(turno);
+        publicarDespuesDelCommit(EventoCambioDTO.Tipo.TURNO_CREADO, List.of(creado));
+        return creado;
     }
 
+    // Cargar el índice de horarios al arrancar la aplicación (antes de reencolar trabajos que lo usan)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void inicializarIndiceHorarios() {
+        turnoScheduleIndex.reconstruir(turnoRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
     public List<TurnoDTO> obtenerTodosTurnos() {
-        return turnoRepository.findAll().stream()
-                .map(this::enrichTurnoDTO)
-                .collect(Collectors.toList());
+        return enrichTurnoDTOs(turnoRepository.findAllConRuta());
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<TurnoDTO> obtenerTurnosPaginados(Long cursor, int tamano, Long rutaId,
+                                                             Integer numeroSemana, DayOfWeek diaSemana,
+                                                             EstadoTurno estado) {
+        int tamanoPagina = Math.max(1, Math.min(tamano, PaginaCursorDTO.TAMANO_PAGINA_MAXIMO));
+
+        // Se pide un elemento extra para saber si hay más páginas
+        List<Turno> turnos = turnoRepository.findPaginaPorCursor(
+                cursor != null ? cursor : 0L, rutaId, numeroSemana, diaSemana, estado,
+                Limit.of(tamanoPagina + 1));
+
+        boolean hayMas = turnos.size() > tamanoPagina;
+        if (hayMas) {
+            turnos = turnos.subList(0, tamanoPagina);
+        }
+
+        return PaginaCursorDTO.<TurnoDTO>builder()
+                .contenido(enrichTurnoDTOs(turnos))
+                .tamano(turnos.size())
+                .hayMas(hayMas)
+                .siguienteCursor(hayMas ? turnos.get(turnos.size() - 1).getId() : null)
+                .build();
     }
 
+    @Transactional(readOnly = true)
     public List<TurnoDTO> obtenerTurnosPorRuta(Long rutaId) {
         Ruta ruta = rutaRepository.findById(rutaId)
                 .orElseThrow(() -> new RuntimeException("Ruta no encontrada"));
 
-        return turnoRepository.findByRuta(ruta).stream()
-                .map(this::enrichTurnoDTO)
-                .collect(Collectors.toList());
+        return enrichTurnoDTOs(turnoRepository.findByRuta(ruta));
     }
 
+    @Transactional(readOnly = true)
     public List<TurnoDTO> obtenerTurnosPorRutaYSemana(Long rutaId, int numeroSemana) {
         Ruta ruta = rutaRepository.findById(rutaId)
                 .orElseThrow(() -> new RuntimeException("Ruta no encontrada"));
 
-        return turnoRepository.findByRutaAndNumeroSemana(ruta, numeroSemana).stream()
-                .map(this::enrichTurnoDTO)
-                .collect(Collectors.toList());
+        return enrichTurnoDTOs(turnoRepository.findByRutaAndNumeroSemana(ruta, numeroSemana));
     }
 
+    // Turnos que se cruzan con una franja horaria (o una hora puntual si hasta es null).
+    // Sin rutaId la consulta abarca toda la flota.
+    @Transactional(readOnly = true)
+    public List<TurnoDTO> obtenerTurnosEnVentana(Long rutaId, int numeroSemana, DayOfWeek diaSemana,
+                                                 LocalTime desde, LocalTime hasta) {
+        List<Long> ids = hasta != null
+                ? turnoScheduleIndex.buscarSolapados(rutaId, numeroSemana, diaSemana, desde, hasta)
+                : turnoScheduleIndex.buscarEnHora(rutaId, numeroSemana, diaSemana, desde);
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Turno> turnos = new ArrayList<>(turnoRepository.findByIdIn(ids));
+        turnos.sort(Comparator.comparing(Turno::getHoraInicio).thenComparing(Turno::getId));
+        return enrichTurnoDTOs(turnos);
+    }
+
+    @Transactional(readOnly = true)
     public TurnoDTO obtenerTurnoPorId(Long id) {
-        Turno turno = turnoRepository.findById(id)
+        Turno turno = turnoRepository.findConRutaById(id)
                 .orElseThrow(() -> new RuntimeException("Turno no encontrado"));
         return enrichTurnoDTO(turno);
     }
@@ -97,19 +190,105 @@ public class TurnoService {
                 .orElseThrow(() -> new RuntimeException("Turno no encontrado"));
 
         // Validar duración
-        long duracionMinutos = Duration.between(request.getHoraInicio(), request.getHoraFin()).toMinutes();
-        if (duracionMinutos > 480) {
-            throw new RuntimeException("El turno no puede exceder las 8 horas");
+        int duracionMinutos = TurnoScheduleIndex.validarDuracion(request.getHoraInicio(), request.getHoraFin());
+
+        // Validar solapamiento con la ruta bloqueada, ignorando el propio turno
+        Long rutaId = turno.getRuta().getId();
+        rutaRepository.findByIdParaActualizar(rutaId)
+                .orElseThrow(() -> new RuntimeException("Ruta no encontrada"));
+        Turno nuevoHorario = Turno.builder()
+                .id(turno.getId())
+                .ruta(turno.getRuta())
+                .diaSemana(request.getDiaSemana())
+                .horaInicio(request.getHoraInicio())
+                .horaFin(request.getHoraFin())
+                .numeroSemana(request.getNumeroSemana())
+                .estado(turno.getEstado())
+                .build();
+        if (TurnoScheduleIndex.haySolapamiento(nuevoHorario, turnosVecinos(rutaId, request.getNumeroSemana()))) {
+            throw new RuntimeException("El turno se solapa con otro turno de la misma ruta y día");
         }
 
+        // Los conductores asignados al turno pasan a ocupar el nuevo horario: se bloquean (en orden de id,
+        // como en las asignaciones) y se valida que el nuevo horario no choque con sus otros turnos
+        List<AsignacionTurno> asignaciones = asignacionTurnoRepository.findByTurno(turno);
+        validarOcupacionConductores(asignaciones, nuevoHorario);
+        Turno horarioAnterior = Turno.builder()
+                .id(turno.getId())
+                .ruta(turno.getRuta())
+                .diaSemana(turno.getDiaSemana())
+                .horaInicio(turno.getHoraInicio())
+                .horaFin(turno.getHoraFin())
+                .numeroSemana(turno.getNumeroSemana())
+                .estado(turno.getEstado())
+                .build();
+
         turno.setDiaSemana(request.getDiaSemana());
         turno.setHoraInicio(request.getHoraInicio());
         turno.setHoraFin(request.getHoraFin());
-        turno.setDuracionHoras((int) (duracionMinutos / 60));
+        turno.setDuracionHoras(duracionMinutos / 60);
         turno.setNumeroSemana(request.getNumeroSemana());
 
         turno = turnoRepository.save(turno);
-        return turnoMapper.toDTO(turno);
+        registrarEnIndiceDespuesDelCommit(List.of(turno));
+
+        // Igual que al asignar: el índice de ocupación se actualiza antes del commit, con los conductores
+        // aún bloqueados, y vuelve al horario anterior si la transacción se revierte
+        conductorOcupacionIndex.registrarTodos(asignaciones);
+        TransaccionUtil.siSeRevierte(() ->
+                conductorOcupacionIndex.registrarTodos(conHorario(asignaciones, horarioAnterior)));
+        TransaccionUtil.despuesDelCommit(() -> ruedaTransiciones.programarTodas(asignaciones));
+        Turno actualizado = turno;
+        TransaccionUtil.despuesDelCommit(() -> turnosEnCursoRegistry.actualizarTurno(actualizado));
+        TurnoDTO dto = turnoMapper.toDTO(turno);
+        // El cambio de horario llega también a quienes siguen solo a sus conductores
+        publicarDespuesDelCommit(EventoCambioDTO.Tipo.TURNO_ACTUALIZADO, List.of(dto), asignaciones.stream()
+                .filter(asignacion -> asignacion.getEstado() == EstadoAsignacion.PROGRAMADA
+                        || asignacion.getEstado() == EstadoAsignacion.EN_CURSO)
+                .map(asignacion -> asignacion.getConductor().getId())
+                .distinct()
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private void validarOcupacionConductores(List<AsignacionTurno> asignaciones, Turno nuevoHorario) {
+        Set<Long> conductorIds = asignaciones.stream()
+                .map(asignacion -> asignacion.getConductor().getId())
+                .collect(Collectors.toSet());
+        if (conductorIds.isEmpty()) {
+            return;
+        }
+        conductorRepository.findAllByIdParaActualizar(conductorIds);
+
+        Set<Long> delTurno = asignaciones.stream().map(AsignacionTurno::getId).collect(Collectors.toSet());
+        for (AsignacionTurno asignacion : asignaciones) {
+            if (asignacion.getEstado() != EstadoAsignacion.PROGRAMADA
+                    && asignacion.getEstado() != EstadoAsignacion.EN_CURSO) {
+                continue;
+            }
+            conductorOcupacionIndex.buscarConflictoExcluyendo(asignacion.getConductor().getId(), nuevoHorario,
+                            asignacion.getFechaInicio(), asignacion.getFechaFin(), delTurno)
+                    .ifPresent(conflicto -> {
+                        throw new RuntimeException(String.format(conflicto.solapa()
+                                        ? "El nuevo horario se cruza con otro turno del conductor %d"
+                                        : "El nuevo horario deja al conductor %d sin el descanso mínimo entre turnos",
+                                asignacion.getConductor().getId()));
+                    });
+        }
+    }
+
+    // Copias sin persistir de las asignaciones con otro horario del turno (para restaurar el índice de ocupación)
+    private static List<AsignacionTurno> conHorario(List<AsignacionTurno> asignaciones, Turno horario) {
+        return asignaciones.stream()
+                .map(asignacion -> AsignacionTurno.builder()
+                        .id(asignacion.getId())
+                        .turno(horario)
+                        .conductor(asignacion.getConductor())
+                        .fechaInicio(asignacion.getFechaInicio())
+                        .fechaFin(asignacion.getFechaFin())
+                        .estado(asignacion.getEstado())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -123,12 +302,15 @@ public class TurnoService {
             throw new RuntimeException("No se puede eliminar un turno con asignaciones activas");
         }
 
+        TurnoDTO eliminado = turnoMapper.toDTO(turno);
         turnoRepository.delete(turno);
+        TransaccionUtil.despuesDelCommit(() -> turnoScheduleIndex.eliminar(id));
+        publicarDespuesDelCommit(EventoCambioDTO.Tipo.TURNO_ELIMINADO, List.of(eliminado));
     }
 
     @Transactional
     public List<TurnoDTO> copiarSemanaTurnos(Long rutaId, int semanaOrigen, int semanaDestino) {
-        Ruta ruta = rutaRepository.findById(rutaId)
+        Ruta ruta = rutaRepository.findByIdParaActualizar(rutaId)
                 .orElseThrow(() -> new RuntimeException("Ruta no encontrada"));
 
         List<Turno> turnosOrigen = turnoRepository.findByRutaAndNumeroSemana(ruta, semanaOrigen);
@@ -137,10 +319,32 @@ public class TurnoService {
             throw new RuntimeException("No hay turnos en la semana origen");
         }
 
-        List<Turno> turnosDestino = turnosOrigen.stream()
+        List<Turno> turnosDestino = construirCopiaSemana(turnosOrigen, semanaDestino, 0);
+        List<Turno> vecinos = turnosVecinos(rutaId, semanaDestino);
+
+        // Reintento del trabajo COPIA_SEMANA cuyo intento anterior ya confirmó: se devuelve la copia existente
+        List<Turno> aplicados = yaAplicados(turnosDestino, deSemana(vecinos, semanaDestino));
+        if (!aplicados.isEmpty()) {
+            return enrichTurnoDTOs(aplicados);
+        }
+
+        // Validar el lote completo contra sí mismo y contra la semana destino y sus vecinas
+        TurnoScheduleIndex.validarSinSolapamientos(turnosDestino, vecinos);
+
+        turnosDestino = persistenciaPorLotes.insertarEnLotes(turnosDestino);
+        registrarEnIndiceDespuesDelCommit(turnosDestino);
+
+        List<TurnoDTO> creados = enrichTurnoDTOs(turnosDestino);
+        publicarDespuesDelCommit(EventoCambioDTO.Tipo.TURNO_CREADO, creados);
+        return creados;
+    }
+
+    // Copia (sin guardar) los turnos a otra semana, desplazando el día si se aplica una rotación
+    public List<Turno> construirCopiaSemana(List<Turno> turnosOrigen, int semanaDestino, int rotacionDias) {
+        return turnosOrigen.stream()
                 .map(turno -> Turno.builder()
                         .ruta(turno.getRuta())
-                        .diaSemana(turno.getDiaSemana())
+                        .diaSemana(turno.getDiaSemana().plus(rotacionDias))
                         .horaInicio(turno.getHoraInicio())
                         .horaFin(turno.getHoraFin())
                         .duracionHoras(turno.getDuracionHoras())
@@ -148,14 +352,90 @@ public class TurnoService {
                         .estado(turno.getEstado())
                         .build())
                 .collect(Collectors.toList());
+    }
+
+    /**
+     * Turnos ya guardados que coinciden uno a uno (ruta, semana, día y horario) con los que se van a crear;
+     * vacío si falta alguno. Los lotes se confirman completos, así que si están todos el lote ya se aplicó
+     * y repetirlo debe devolverlos en vez de fallar por solapamiento.
+     */
+    static List<Turno> yaAplicados(List<Turno> nuevos, List<Turno> existentes) {
+        if (nuevos.isEmpty() || existentes.size() < nuevos.size()) {
+            return List.of();
+        }
+        Map<ClaveHorario, Deque<Turno>> porHorario = new HashMap<>();
+        for (Turno existente : existentes) {
+            porHorario.computeIfAbsent(ClaveHorario.de(existente), clave -> new ArrayDeque<>()).add(existente);
+        }
+        List<Turno> aplicados = new ArrayList<>(nuevos.size());
+        for (Turno nuevo : nuevos) {
+            Deque<Turno> iguales = porHorario.get(ClaveHorario.de(nuevo));
+            if (iguales == null || iguales.isEmpty()) {
+                return List.of();
+            }
+            aplicados.add(iguales.poll());
+        }
+        return aplicados;
+    }
 
-        turnosDestino = turnoRepository.saveAll(turnosDestino);
+    private record ClaveHorario(Long rutaId, int numeroSemana, DayOfWeek diaSemana,
+                                LocalTime horaInicio, LocalTime horaFin) {
+        static ClaveHorario de(Turno turno) {
+            return new ClaveHorario(turno.getRuta() != null ? turno.getRuta().getId() : null,
+                    turno.getNumeroSemana(), turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin());
+        }
+    }
 
-        return turnosDestino.stream()
-                .map(this::enrichTurnoDTO)
+    /**
+     * Turnos guardados de la ruta en la semana y sus vecinas, leídos de la base. Se consulta con la
+     * ruta bloqueada: el índice se actualiza después del commit y podría no reflejar aún un turno
+     * que otra transacción acaba de confirmar.
+     */
+    private List<Turno> turnosVecinos(Long rutaId, int numeroSemana) {
+        return turnoRepository.findByRutaIdAndNumeroSemanaIn(rutaId, TurnoScheduleIndex.semanasVecinas(numeroSemana));
+    }
+
+    private static List<Turno> deSemana(List<Turno> turnos, int numeroSemana) {
+        return turnos.stream()
+                .filter(turno -> turno.getNumeroSemana() == numeroSemana)
                 .collect(Collectors.toList());
     }
 
+    // El índice solo refleja cambios confirmados
+    private void registrarEnIndiceDespuesDelCommit(List<Turno> turnos) {
+        List<Turno> confirmados = List.copyOf(turnos);
+        TransaccionUtil.despuesDelCommit(() -> turnoScheduleIndex.registrarTodos(confirmados));
+    }
+
+    // Los tableros solo ven cambios confirmados
+    // Un lote de TURNO_CREADO para turnos insertados por un proceso masivo (rollover, importación):
+    // los DTO se arman al llamar y los eventos salen tras el commit de la transacción en curso
+    public void publicarCreados(List<Turno> creados) {
+        publicarDespuesDelCommit(EventoCambioDTO.Tipo.TURNO_CREADO, creados.stream()
+                .map(turnoMapper::toDTO)
+                .collect(Collectors.toList()));
+    }
+
+    private void publicarDespuesDelCommit(EventoCambioDTO.Tipo tipo, List<TurnoDTO> turnos) {
+        publicarDespuesDelCommit(tipo, turnos, null);
+    }
+
+    private void publicarDespuesDelCommit(EventoCambioDTO.Tipo tipo, List<TurnoDTO> turnos, List<Long> conductorIds) {
+        List<EventoCambioDTO> eventos = turnos.stream()
+                .filter(Objects::nonNull)
+                .map(turno -> EventoCambioDTO.builder()
+                        .tipo(tipo)
+                        .rutaId(turno.getRutaId())
+                        .turnoId(turno.getId())
+                        .conductorIds(conductorIds)
+                        .datos(turno)
+                        .build())
+                .collect(Collectors.toList());
+        if (!eventos.isEmpty()) {
+            TransaccionUtil.despuesDelCommit(() -> publicadorCambios.publicarTodos(eventos));
+        }
+    }
+
     // Método auxiliar para enriquecer el DTO con información de asignación
     private TurnoDTO enrichTurnoDTO(Turno turno) {
         TurnoDTO dto = turnoMapper.toDTO(turno);
@@ -171,12 +451,71 @@ public class TurnoService {
         return dto;
     }
 
+    // Enriquecer una colección de turnos con una consulta por bloque de ids (evita N+1)
+    private List<TurnoDTO> enrichTurnoDTOs(List<Turno> turnos) {
+        List<TurnoDTO> dtos = turnos.stream()
+                .map(turnoMapper::toDTO)
+                .collect(Collectors.toList());
+
+        List<Long> turnoIds = turnos.stream()
+                .map(Turno::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (turnoIds.isEmpty()) {
+            return dtos;
+        }
+
+        // Conductor asignado hoy por turno (si hay varias, se conserva la primera)
+        LocalDate hoy = LocalDate.now();
+        Map<Long, String> conductorPorTurno = new HashMap<>();
+        for (int i = 0; i < turnoIds.size(); i += TAMANO_BLOQUE_CONSULTA) {
+            List<Long> bloque = turnoIds.subList(i, Math.min(i + TAMANO_BLOQUE_CONSULTA, turnoIds.size()));
+            asignacionTurnoRepository.findAsignacionesActivasEnFecha(bloque, hoy)
+                    .forEach(resumen -> conductorPorTurno.putIfAbsent(
+                            resumen.getTurnoId(), resumen.getConductorNombre()));
+        }
+
+        for (TurnoDTO dto : dtos) {
+            if (dto != null && conductorPorTurno.containsKey(dto.getId())) {
+                dto.setTieneAsignacion(true);
+                dto.setConductorAsignado(conductorPorTurno.get(dto.getId()));
+            }
+        }
+
+        return dtos;
+    }
+
     @Transactional
     public List<TurnoDTO> crearTurnosAutomaticos(Long rutaId, LocalTime horaInicio, LocalTime horaFin, int numeroSemana) {
-        // Validar que la ruta existe
-        Ruta ruta = rutaRepository.findById(rutaId)
+        // Validar que la ruta existe y bloquearla hasta el commit
+        Ruta ruta = rutaRepository.findByIdParaActualizar(rutaId)
                 .orElseThrow(() -> new RuntimeException("Ruta no encontrada"));
 
+        List<Turno> turnosCreados = construirTurnosAutomaticos(ruta, horaInicio, horaFin, numeroSemana);
+        List<Turno> vecinos = turnosVecinos(rutaId, numeroSemana);
+
+        // Reintento del trabajo TURNOS_AUTOMATICOS cuyo intento anterior ya confirmó
+        List<Turno> aplicados = yaAplicados(turnosCreados, deSemana(vecinos, numeroSemana));
+        if (!aplicados.isEmpty()) {
+            return enrichTurnoDTOs(aplicados);
+        }
+
+        // Validar que los turnos generados no choquen con los existentes
+        TurnoScheduleIndex.validarSinSolapamientos(turnosCreados, vecinos);
+
+        // Guardar todos los turnos en lotes JDBC
+        turnosCreados = persistenciaPorLotes.insertarEnLotes(turnosCreados);
+        registrarEnIndiceDespuesDelCommit(turnosCreados);
+
+        List<TurnoDTO> creados = enrichTurnoDTOs(turnosCreados);
+        publicarDespuesDelCommit(EventoCambioDTO.Tipo.TURNO_CREADO, creados);
+        return creados;
+    }
+
+    // Genera (sin guardar) los turnos de lunes a domingo en bloques de máximo 8 horas
+    public List<Turno> construirTurnosAutomaticos(Ruta ruta, LocalTime horaInicio, LocalTime horaFin, int numeroSemana) {
         // Validar horarios
         if (horaInicio.isAfter(horaFin) || horaInicio.equals(horaFin)) {
             throw new RuntimeException("Horario inválido: inicio debe ser antes que fin");
@@ -241,11 +580,6 @@ public class TurnoService {
             throw new RuntimeException("No se pudieron crear turnos con el horario especificado");
         }
 
-        // Guardar todos los turnos
-        turnosCreados = turnoRepository.saveAll(turnosCreados);
-
-        return turnosCreados.stream()
-                .map(this::enrichTurnoDTO)
-                .collect(Collectors.toList());
+        return turnosCreados;
     }
 }
\ No newline at end of file
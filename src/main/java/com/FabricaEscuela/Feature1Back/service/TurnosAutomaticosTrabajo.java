@@ -0,0 +1,44 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.TurnoDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+// Generación automática de turnos de una ruta en segundo plano
+@Component
+public class TurnosAutomaticosTrabajo implements TrabajoHandler {
+
+    public static final String TIPO = "TURNOS_AUTOMATICOS";
+
+    private final TurnoService turnoService;
+
+    public TurnosAutomaticosTrabajo(TurnoService turnoService) {
+        this.turnoService = turnoService;
+    }
+
+    @Override
+    public String tipo() {
+        return TIPO;
+    }
+
+    @Override
+    public Object ejecutar(JsonNode parametros, AvanceTrabajo avance) {
+        Long rutaId = parametros.get("rutaId").asLong();
+        LocalTime inicio = LocalTime.parse(parametros.get("horaInicio").asText());
+        LocalTime fin = LocalTime.parse(parametros.get("horaFin").asText());
+        int numeroSemana = parametros.get("numeroSemana").asInt();
+
+        avance.actualizar(0, 1);
+        List<TurnoDTO> turnos = turnoService.crearTurnosAutomaticos(rutaId, inicio, fin, numeroSemana);
+        avance.actualizar(1, 1);
+
+        return Map.of(
+                "mensaje", "Se crearon " + turnos.size() + " turnos automáticamente",
+                "turnos", turnos
+        );
+    }
+}
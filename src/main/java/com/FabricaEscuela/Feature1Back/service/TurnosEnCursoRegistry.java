@@ -0,0 +1,135 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Registro en memoria de las asignaciones EN_CURSO, listo para responder sin consultar la base.
+ * Las lecturas devuelven una lista inmutable ya ordenada (copy-on-write); las escrituras,
+ * que solo ocurren al iniciar/terminar turnos, la reconstruyen.
+ * FINALIZADA y CANCELADA son estados terminales: al retirar una asignación se recuerda un
+ * tiempo para ignorar un registro que llegue tarde (callbacks de commit fuera de orden).
+ */
+@Component
+public class TurnosEnCursoRegistry {
+
+    private static final long RETENCION_RETIRADAS_MS = 60_000;
+
+    private static final Comparator<AsignacionTurnoDTO> POR_ID = Comparator.comparing(AsignacionTurnoDTO::getId);
+
+    // Protegidos por el monitor de la instancia
+    private final Map<Long, AsignacionTurnoDTO> enCurso = new HashMap<>();
+    private final Map<Long, Long> retiradas = new HashMap<>();
+
+    private volatile List<AsignacionTurnoDTO> instantanea = List.of();
+
+    // Lista ordenada por id; los elementos son compartidos y no deben modificarse
+    public List<AsignacionTurnoDTO> listar() {
+        return instantanea;
+    }
+
+    public int tamano() {
+        return instantanea.size();
+    }
+
+    public synchronized void registrar(AsignacionTurnoDTO asignacion) {
+        if (registrarSinPublicar(asignacion)) {
+            publicar();
+        }
+    }
+
+    public synchronized void registrarTodos(Collection<AsignacionTurnoDTO> asignaciones) {
+        asignaciones.forEach(this::registrarSinPublicar);
+        publicar();
+    }
+
+    public synchronized void retirar(Long asignacionId) {
+        retiradas.put(asignacionId, System.currentTimeMillis());
+        if (enCurso.remove(asignacionId) != null) {
+            publicar();
+        }
+    }
+
+    public synchronized void retirarTodas(Collection<Long> asignacionIds) {
+        long ahora = System.currentTimeMillis();
+        asignacionIds.forEach(id -> {
+            retiradas.put(id, ahora);
+            enCurso.remove(id);
+        });
+        publicar();
+    }
+
+    // Refleja un cambio de día/horario del turno en las asignaciones en curso que lo usan
+    public synchronized void actualizarTurno(Turno turno) {
+        String horario = String.format("%s - %s", turno.getHoraInicio(), turno.getHoraFin());
+        actualizarSi(dto -> turno.getId().equals(dto.getTurnoId()), dto -> {
+            dto.setDiaSemanaNombre(turno.getDiaSemana().name());
+            dto.setHorarioTurno(horario);
+            dto.setNumeroSemana(turno.getNumeroSemana());
+            return dto;
+        });
+    }
+
+    public synchronized void actualizarConductor(Long conductorId, String nombreCompleto) {
+        actualizarSi(dto -> conductorId.equals(dto.getConductorId()), dto -> {
+            dto.setConductorNombre(nombreCompleto);
+            return dto;
+        });
+    }
+
+    private void actualizarSi(Predicate<AsignacionTurnoDTO> condicion,
+                              UnaryOperator<AsignacionTurnoDTO> cambio) {
+        boolean cambiado = false;
+        for (Map.Entry<Long, AsignacionTurnoDTO> entrada : enCurso.entrySet()) {
+            if (condicion.test(entrada.getValue())) {
+                // Se modifica una copia: la instantánea publicada sigue siendo inmutable
+                entrada.setValue(cambio.apply(copiar(entrada.getValue())));
+                cambiado = true;
+            }
+        }
+        if (cambiado) {
+            publicar();
+        }
+    }
+
+    private boolean registrarSinPublicar(AsignacionTurnoDTO asignacion) {
+        if (retiradas.containsKey(asignacion.getId())) {
+            return false;
+        }
+        enCurso.put(asignacion.getId(), copiar(asignacion));
+        return true;
+    }
+
+    private void publicar() {
+        long limite = System.currentTimeMillis() - RETENCION_RETIRADAS_MS;
+        retiradas.values().removeIf(instante -> instante < limite);
+        instantanea = enCurso.values().stream().sorted(POR_ID).toList();
+    }
+
+    private static AsignacionTurnoDTO copiar(AsignacionTurnoDTO origen) {
+        return AsignacionTurnoDTO.builder()
+                .id(origen.getId())
+                .turnoId(origen.getTurnoId())
+                .conductorId(origen.getConductorId())
+                .fechaInicio(origen.getFechaInicio())
+                .fechaFin(origen.getFechaFin())
+                .estado(origen.getEstado())
+                .horaInicioReal(origen.getHoraInicioReal())
+                .horaFinReal(origen.getHoraFinReal())
+                .conductorNombre(origen.getConductorNombre())
+                .rutaNombre(origen.getRutaNombre())
+                .diaSemanaNombre(origen.getDiaSemanaNombre())
+                .horarioTurno(origen.getHorarioTurno())
+                .numeroSemana(origen.getNumeroSemana())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+
+/**
+ * Almacén de los códigos de verificación del segundo paso del login.
+ * Cada usuario tiene como máximo un código vigente: guardar uno nuevo reemplaza al anterior.
+ * La implementación se elige con verification.code.store (memoria por defecto, jpa).
+ */
+public interface VerificationCodeStore {
+
+    void guardar(Usuario usuario, String codigo, long vigenciaMs);
+
+    // Un código VALIDO queda consumido; tras demasiados intentos fallidos se descarta (BLOQUEADO)
+    ResultadoVerificacion verificar(Usuario usuario, String codigo);
+
+    enum ResultadoVerificacion {
+        VALIDO,
+        INVALIDO,
+        EXPIRADO,
+        BLOQUEADO
+    }
+}
@@ -0,0 +1,107 @@
+package com.FabricaEscuela.Feature1Back.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lector CSV de una fila a la vez (RFC 4180 sin saltos de línea dentro de campos)
+public final class LectorCsv implements AutoCloseable {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columnas = new HashMap<>();
+    private int numeroLinea;
+
+    public LectorCsv(InputStream entrada) {
+        this.reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> encabezado = siguiente();
+        if (encabezado == null) {
+            throw new RuntimeException("El archivo está vacío");
+        }
+        for (int i = 0; i < encabezado.size(); i++) {
+            // El BOM de UTF-8 aparece en archivos exportados desde Excel
+            columnas.put(encabezado.get(i).replace("\uFEFF", "").trim(), i);
+        }
+    }
+
+    public void exigirColumnas(String... nombres) {
+        for (String nombre : nombres) {
+            if (!columnas.containsKey(nombre)) {
+                throw new RuntimeException("Falta la columna obligatoria: " + nombre);
+            }
+        }
+    }
+
+    // Campos de la siguiente fila con contenido, o null al final del archivo
+    public List<String> siguiente() {
+        try {
+            String linea;
+            do {
+                linea = reader.readLine();
+                numeroLinea++;
+            } while (linea != null && linea.isBlank());
+            return linea != null ? separar(linea) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Valor de una columna en la fila, sin espacios; null si está vacío o la fila es más corta
+    public String valor(List<String> fila, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= fila.size()) {
+            return null;
+        }
+        String valor = fila.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // Número de línea de la última fila leída (1 = encabezado)
+    public int getNumeroLinea() {
+        return numeroLinea;
+    }
+
+    static List<String> separar(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.FabricaEscuela.Feature1Back.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de tasa por clave equivalente a un token bucket (algoritmo GCRA): por clave solo se
+ * guarda el instante teórico en que el cubo vuelve a estar lleno, sin hilos ni tareas de recarga.
+ * Las claves se reparten en particiones, cada una un LRU acotado con su propio monitor, así las
+ * peticiones de claves distintas casi nunca compiten por el mismo lock y la memoria queda acotada.
+ * Una clave con el cubo lleno no aporta nada: purgar() las elimina.
+ */
+public class LimitadorTasa {
+
+    private final long intervaloMs;
+    private final long toleranciaMs;
+    private final Particion[] particiones;
+    private final LongSupplier reloj;
+
+    // Ráfaga de 'capacidad' peticiones y luego una cada 'intervaloMs'
+    public LimitadorTasa(int capacidad, long intervaloMs, int maxClaves, int particiones, LongSupplier reloj) {
+        this.intervaloMs = Math.max(1, intervaloMs);
+        this.toleranciaMs = this.intervaloMs * (Math.max(1, capacidad) - 1);
+        this.reloj = reloj;
+
+        int cantidad = Integer.highestOneBit(Math.max(1, particiones - 1)) << 1;
+        int porParticion = Math.max(1, (maxClaves + cantidad - 1) / cantidad);
+        this.particiones = new Particion[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.particiones[i] = new Particion(porParticion);
+        }
+    }
+
+    // Consume un token y devuelve 0, o devuelve los ms que faltan para el siguiente sin consumir nada
+    public long intentar(String clave) {
+        Particion particion = particion(clave);
+        long ahora = reloj.getAsLong();
+        synchronized (particion) {
+            Cubo cubo = particion.get(clave);
+            long llegada = cubo == null ? ahora : Math.max(cubo.llegada, ahora);
+            long espera = llegada - toleranciaMs - ahora;
+            if (espera > 0) {
+                return espera;
+            }
+            if (cubo == null) {
+                particion.put(clave, new Cubo(llegada + intervaloMs));
+            } else {
+                cubo.llegada = llegada + intervaloMs;
+            }
+            return 0;
+        }
+    }
+
+    // Los ms que faltan para el siguiente token (0 si hay alguno), sin consumir nada
+    public long espera(String clave) {
+        Particion particion = particion(clave);
+        long ahora = reloj.getAsLong();
+        synchronized (particion) {
+            Cubo cubo = particion.get(clave);
+            return cubo == null ? 0 : Math.max(0, cubo.llegada - toleranciaMs - ahora);
+        }
+    }
+
+    // Elimina las claves cuyo cubo ya se recargó por completo
+    public void purgar() {
+        long ahora = reloj.getAsLong();
+        for (Particion particion : particiones) {
+            synchronized (particion) {
+                particion.values().removeIf(cubo -> cubo.llegada <= ahora);
+            }
+        }
+    }
+
+    public int tamano() {
+        int total = 0;
+        for (Particion particion : particiones) {
+            synchronized (particion) {
+                total += particion.size();
+            }
+        }
+        return total;
+    }
+
+    private Particion particion(String clave) {
+        int hash = clave.hashCode();
+        return particiones[(hash ^ (hash >>> 16)) & (particiones.length - 1)];
+    }
+
+    private static final class Cubo {
+
+        private long llegada;
+
+        private Cubo(long llegada) {
+            this.llegada = llegada;
+        }
+    }
+
+    // LRU por orden de acceso: al llenarse descarta la clave usada hace más tiempo
+    private static final class Particion extends LinkedHashMap<String, Cubo> {
+
+        private final int capacidad;
+
+        private Particion(int capacidad) {
+            super(16, 0.75f, true);
+            this.capacidad = capacidad;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cubo> eldest) {
+            return size() > capacidad;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.FabricaEscuela.Feature1Back.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransaccionUtil {
+
+    private TransaccionUtil() {
+    }
+
+    // Ejecuta la acción después del commit de la transacción actual.
+    // Si no hay transacción activa (p. ej. en pruebas unitarias) se ejecuta de inmediato.
+    public static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // Ejecuta la acción si la transacción actual se revierte (compensa cambios hechos antes del commit).
+    // Sin transacción activa no hay nada que revertir.
+    public static void siSeRevierte(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        accion.run();
+                    }
+                }
+            });
+        }
+    }
+}
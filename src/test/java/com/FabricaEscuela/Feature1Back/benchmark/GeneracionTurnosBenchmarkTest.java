@@ -0,0 +1,84 @@
+package com.FabricaEscuela.Feature1Back.benchmark;
+
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.FabricaEscuela.Feature1Back.service.PersistenciaPorLotes;
+import com.FabricaEscuela.Feature1Back.service.TurnoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de inserción masiva: rol de 52 semanas para 500 rutas.
+ * Ejecutar con: mvn test -Dtest=GeneracionTurnosBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - Generación masiva de turnos")
+class GeneracionTurnosBenchmarkTest {
+
+    private static final int RUTAS = Integer.getInteger("benchmark.rutas", 500);
+    private static final int SEMANAS = 52;
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private PersistenciaPorLotes persistenciaPorLotes;
+
+    @Autowired
+    private RutaRepository rutaRepository;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Test
+    @DisplayName("Rol de 52 semanas x 500 rutas - filas por segundo")
+    void generarRolAnual() {
+        // Arrange
+        List<Ruta> rutas = new ArrayList<>();
+        for (int i = 0; i < RUTAS; i++) {
+            Ruta ruta = new Ruta();
+            ruta.setNombre("Ruta " + i);
+            ruta.setOrigen("Origen " + i);
+            ruta.setDestino("Destino " + i);
+            ruta.setDuracionEnMinutos(60);
+            rutas.add(ruta);
+        }
+        rutas = rutaRepository.saveAll(rutas);
+        long turnosPrevios = turnoRepository.count();
+
+        // Act: una transacción por ruta con sus 52 semanas
+        long inicio = System.nanoTime();
+        long filas = 0;
+        for (Ruta ruta : rutas) {
+            List<Turno> turnos = new ArrayList<>();
+            for (int semana = 1; semana <= SEMANAS; semana++) {
+                turnos.addAll(turnoService.construirTurnosAutomaticos(
+                        ruta, LocalTime.of(5, 0), LocalTime.of(23, 0), semana));
+            }
+            persistenciaPorLotes.insertarEnLotes(turnos);
+            filas += turnos.size();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        // Assert
+        assertEquals(turnosPrevios + filas, turnoRepository.count());
+        System.out.printf("Generación de turnos: %d filas en %.2f s -> %.0f filas/s%n",
+                filas, segundos, filas / segundos);
+    }
+}
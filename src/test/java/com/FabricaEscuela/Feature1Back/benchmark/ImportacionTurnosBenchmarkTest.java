@@ -0,0 +1,80 @@
+package com.FabricaEscuela.Feature1Back.benchmark;
+
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoImportacionDTO;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.service.ImportacionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de importación CSV: 100.000 turnos (400 rutas x 50 semanas x 5 días).
+ * Ejecutar con: mvn test -Dtest=ImportacionTurnosBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - Importación masiva de turnos")
+class ImportacionTurnosBenchmarkTest {
+
+    private static final int RUTAS = 400;
+    private static final int SEMANAS = 50;
+    private static final DayOfWeek[] DIAS = {
+            DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY
+    };
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private RutaRepository rutaRepository;
+
+    @Test
+    @DisplayName("CSV de 100.000 turnos - filas por segundo")
+    void importarCienMilTurnos() {
+        // Arrange
+        List<Ruta> rutas = new ArrayList<>();
+        for (int i = 0; i < RUTAS; i++) {
+            Ruta ruta = new Ruta();
+            ruta.setNombre("Depósito " + i);
+            ruta.setOrigen("Origen " + i);
+            ruta.setDestino("Destino " + i);
+            ruta.setDuracionEnMinutos(60);
+            rutas.add(ruta);
+        }
+        rutas = rutaRepository.saveAll(rutas);
+
+        StringBuilder csv = new StringBuilder("rutaId,diaSemana,horaInicio,horaFin,numeroSemana\n");
+        for (Ruta ruta : rutas) {
+            for (int semana = 1; semana <= SEMANAS; semana++) {
+                for (DayOfWeek dia : DIAS) {
+                    csv.append(ruta.getId()).append(',').append(dia).append(",06:00,14:00,").append(semana).append('\n');
+                }
+            }
+        }
+        byte[] archivo = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        ResultadoImportacionDTO resultado = importacionService.importarTurnos(new ByteArrayInputStream(archivo));
+
+        // Assert
+        int filas = RUTAS * SEMANAS * DIAS.length;
+        assertEquals(filas, resultado.getFilasImportadas());
+        System.out.printf("Importación CSV: %d filas en %d ms -> %.0f filas/s%n",
+                filas, resultado.getDuracionMs(), filas * 1000.0 / Math.max(1, resultado.getDuracionMs()));
+    }
+}
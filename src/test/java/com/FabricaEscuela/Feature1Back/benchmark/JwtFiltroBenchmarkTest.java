@@ -0,0 +1,127 @@
+package com.FabricaEscuela.Feature1Back.benchmark;
+
+import com.FabricaEscuela.Feature1Back.config.JwtAuthenticationFilter;
+import com.FabricaEscuela.Feature1Back.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark JMH del filtro JWT: peticiones autenticadas por milisegundo con el filtro anterior
+ * (tres verificaciones HS512 reconstruyendo clave y parser) y con el actual, sin y con cache.
+ * Ejecutar con: mvn test -Dtest=JwtFiltroBenchmarkTest -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - Filtro JWT")
+public class JwtFiltroBenchmarkTest {
+
+    private static final String SECRETO =
+            "CLAVE_DE_PRUEBA_PARA_EL_BENCHMARK_DEL_FILTRO_JWT_DE_MAS_DE_64_CARACTERES_0123456789";
+    private static final FilterChain CADENA = (peticion, respuesta) -> { };
+
+    private JwtAuthenticationFilter filtroSinCache;
+    private JwtAuthenticationFilter filtroConCache;
+    private MockHttpServletRequest peticion;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        JwtUtil sinCache = new JwtUtil(SECRETO, 3_600_000L, 0, 16);
+        filtroSinCache = new JwtAuthenticationFilter(sinCache);
+        filtroConCache = new JwtAuthenticationFilter(new JwtUtil(SECRETO, 3_600_000L, 10_000, 16));
+        token = sinCache.generateToken("conductor@fleetguard.com", "CONDUCTOR");
+        peticion = new MockHttpServletRequest("GET", "/api/asignaciones/activas");
+        peticion.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Object antes() {
+        return filtrarComoAntes(token);
+    }
+
+    @Benchmark
+    public Object despuesSinCache() throws Exception {
+        return filtrar(filtroSinCache);
+    }
+
+    @Benchmark
+    public Object despuesConCache() throws Exception {
+        return filtrar(filtroConCache);
+    }
+
+    @Test
+    @DisplayName("Filtro JWT - peticiones por milisegundo antes y después")
+    void compararThroughput() throws RunnerException {
+        // Arrange
+        Options opciones = new OptionsBuilder()
+                .include(JwtFiltroBenchmarkTest.class.getName() + "\\.")
+                .build();
+
+        // Act
+        Collection<RunResult> resultados = new Runner(opciones).run();
+
+        // Assert
+        Map<String, Double> porBenchmark = resultados.stream().collect(Collectors.toMap(
+                resultado -> resultado.getParams().getBenchmark()
+                        .substring(resultado.getParams().getBenchmark().lastIndexOf('.') + 1),
+                resultado -> resultado.getPrimaryResult().getScore()));
+        porBenchmark.forEach((nombre, score) -> System.out.printf("%-16s %,12.1f ops/ms%n", nombre, score));
+        assertTrue(porBenchmark.get("despuesSinCache") > porBenchmark.get("antes"));
+        assertTrue(porBenchmark.get("despuesConCache") > porBenchmark.get("despuesSinCache"));
+    }
+
+    private Authentication filtrar(JwtAuthenticationFilter filtro) throws Exception {
+        try {
+            filtro.doFilter(peticion, new MockHttpServletResponse(), CADENA);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // Lógica del filtro antes del cambio: validar, leer correo y leer rol, cada uno con su propio parser
+    private static Authentication filtrarComoAntes(String token) {
+        try {
+            Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRETO.getBytes())).build().parseClaimsJws(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Claims conCorreo = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRETO.getBytes())).build()
+                .parseClaimsJws(token).getBody();
+        Claims conRol = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRETO.getBytes())).build()
+                .parseClaimsJws(token).getBody();
+        return new UsernamePasswordAuthenticationToken(conCorreo.getSubject(), null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + conRol.get("rol", String.class))));
+    }
+}
@@ -0,0 +1,96 @@
+package com.FabricaEscuela.Feature1Back.benchmark;
+
+import com.FabricaEscuela.Feature1Back.util.LimitadorTasa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark JMH del limitador de /api/auth: costo por petición en nanosegundos con una sola clave
+ * y con 50.000 IPs distintas, con un hilo por procesador.
+ * Ejecutar con: mvn test -Dtest=LimitadorTasaBenchmarkTest -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - Limitador de tasa")
+public class LimitadorTasaBenchmarkTest {
+
+    private static final int CLAVES = 50_000;
+
+    private LimitadorTasa limitador;
+    private String[] ips;
+
+    // Cada hilo recorre las IPs desde un punto distinto, como clientes independientes
+    @State(Scope.Thread)
+    public static class Cursor {
+        int siguiente;
+
+        @Setup
+        public void preparar(ThreadParams hilo) {
+            siguiente = (int) ((long) CLAVES * hilo.getThreadIndex() / hilo.getThreadCount());
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        // Configuración de producción (ráfaga de 30, una cada 2 s) con capacidad para todas las claves
+        limitador = new LimitadorTasa(30, 2_000L, 100_000, 64, System::currentTimeMillis);
+        ips = new String[CLAVES];
+        for (int i = 0; i < CLAVES; i++) {
+            ips[i] = "10." + (i >> 16) + "." + ((i >> 8) & 255) + "." + (i & 255);
+        }
+    }
+
+    @Benchmark
+    public long mismaClave() {
+        return limitador.intentar("10.0.0.1");
+    }
+
+    @Benchmark
+    public long clavesDistintas(Cursor cursor) {
+        int i = cursor.siguiente;
+        cursor.siguiente = i + 1 == CLAVES ? 0 : i + 1;
+        return limitador.intentar(ips[i]);
+    }
+
+    @Test
+    @DisplayName("Limitador - nanosegundos por petición")
+    void medirCosto() throws RunnerException {
+        // Arrange
+        Options opciones = new OptionsBuilder()
+                .include(LimitadorTasaBenchmarkTest.class.getName() + "\\.")
+                .build();
+
+        // Act
+        Collection<RunResult> resultados = new Runner(opciones).run();
+
+        // Assert: muy por debajo de una comparación BCrypt (decenas de milisegundos)
+        Map<String, Double> porBenchmark = resultados.stream().collect(Collectors.toMap(
+                resultado -> resultado.getParams().getBenchmark()
+                        .substring(resultado.getParams().getBenchmark().lastIndexOf('.') + 1),
+                resultado -> resultado.getPrimaryResult().getScore()));
+        porBenchmark.forEach((nombre, score) -> System.out.printf("%-16s %,10.1f ns/op%n", nombre, score));
+        assertTrue(porBenchmark.get("mismaClave") < 1_000);
+        assertTrue(porBenchmark.get("clavesDistintas") < 1_000);
+    }
+}
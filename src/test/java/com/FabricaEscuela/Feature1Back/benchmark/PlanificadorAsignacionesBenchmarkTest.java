@@ -0,0 +1,103 @@
+package com.FabricaEscuela.Feature1Back.benchmark;
+
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.service.ConductorOcupacionIndex;
+import com.FabricaEscuela.Feature1Back.service.PlanificadorAsignaciones;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark del planificador automático: 2.000 conductores y 10.000 turnos en una semana,
+ * con un 10 % de conductores que ya tienen asignaciones vigentes.
+ * Ejecutar con: mvn test -Dtest=PlanificadorAsignacionesBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - Planificador automático de asignaciones")
+class PlanificadorAsignacionesBenchmarkTest {
+
+    private static final int CONDUCTORES = Integer.getInteger("benchmark.conductores", 2000);
+    private static final int TURNOS = Integer.getInteger("benchmark.turnos", 10000);
+    private static final int[][] HORARIOS = {{6, 14}, {14, 22}, {22, 6}, {8, 12}, {16, 20}};
+
+    // 2030-01-07 es lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    @Test
+    @DisplayName("2.000 conductores x 10.000 turnos - tiempo y calidad del reparto")
+    void planificarSemanaCompleta() {
+        // Arrange
+        Random aleatorio = new Random(3);
+        List<Turno> turnos = new ArrayList<>();
+        for (long i = 1; i <= TURNOS; i++) {
+            int[] horario = HORARIOS[aleatorio.nextInt(HORARIOS.length)];
+            turnos.add(turno(i, DayOfWeek.of(1 + aleatorio.nextInt(7)), horario[0], horario[1]));
+        }
+        List<Long> conductores = LongStream.rangeClosed(1, CONDUCTORES).boxed().collect(Collectors.toList());
+
+        ConductorOcupacionIndex index = new ConductorOcupacionIndex(480);
+        List<AsignacionTurno> vigentes = new ArrayList<>();
+        for (long c = 1; c <= CONDUCTORES / 10; c++) {
+            Conductor conductor = new Conductor();
+            conductor.setId(c * 10);
+            vigentes.add(AsignacionTurno.builder()
+                    .id(c)
+                    .turno(turno(-c, DayOfWeek.of(1 + aleatorio.nextInt(7)), 6, 14))
+                    .conductor(conductor)
+                    .fechaInicio(LUNES)
+                    .estado(EstadoAsignacion.PROGRAMADA)
+                    .build());
+        }
+        index.reconstruir(vigentes);
+        PlanificadorAsignaciones planificador = new PlanificadorAsignaciones(index, 48,
+                Runtime.getRuntime().availableProcessors(), 20);
+
+        // Calentamiento
+        planificador.planificar(turnos, conductores, LUNES, LUNES.plusDays(6));
+
+        // Act
+        long inicio = System.nanoTime();
+        PlanificadorAsignaciones.Plan plan = planificador.planificar(turnos, conductores, LUNES, LUNES.plusDays(6));
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        planificador.detener();
+
+        // Assert
+        IntSummaryStatistics minutos = plan.minutosPorConductor().values().stream()
+                .mapToInt(Integer::intValue)
+                .summaryStatistics();
+        System.out.printf("Planificador: %d turnos, %d conductores en %d ms; asignados %d, sin asignar %d, " +
+                        "horas min %.1f / prom %.1f / max %.1f, movimientos %d%n",
+                TURNOS, CONDUCTORES, duracionMs, plan.conductorPorTurno().size(), plan.turnosSinAsignar().size(),
+                minutos.getMin() / 60.0, minutos.getAverage() / 60.0, minutos.getMax() / 60.0, plan.movimientos());
+        assertTrue(plan.turnosSinAsignar().size() <= TURNOS / 20, "Demasiados turnos sin asignar");
+        assertTrue(minutos.getMax() <= 48 * 60);
+    }
+
+    private Turno turno(Long id, DayOfWeek dia, int horaInicio, int horaFin) {
+        Turno turno = Turno.builder()
+                .diaSemana(dia)
+                .horaInicio(LocalTime.of(horaInicio, 0))
+                .horaFin(LocalTime.of(horaFin, 0))
+                .numeroSemana(1)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+        turno.setId(id);
+        return turno;
+    }
+}
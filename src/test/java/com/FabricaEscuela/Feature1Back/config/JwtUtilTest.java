@@ -0,0 +1,137 @@
+package com.FabricaEscuela.Feature1Back.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para JwtUtil
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("JwtUtil - Pruebas Unitarias")
+class JwtUtilTest {
+
+    private static final String SECRETO =
+            "CLAVE_DE_PRUEBA_PARA_JWT_UTIL_CON_MAS_DE_64_CARACTERES_PARA_HS512_0123456789_ABCDEF";
+    private static final long EXPIRACION = 60_000L;
+
+    // Reloj controlado por la prueba (ms)
+    private final AtomicLong ahora = new AtomicLong(1_900_000_000_000L);
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        // Una sola partición: el LRU es exacto
+        jwtUtil = new JwtUtil(SECRETO, EXPIRACION, 2, 1, ahora::get);
+    }
+
+    @Test
+    @DisplayName("Claims - Una sola verificación devuelve correo y rol")
+    void testClaims_CorreoYRol() {
+        // Arrange
+        String token = jwtUtil.generateToken("admin@fleetguard.com", "ADMIN");
+
+        // Act
+        Claims claims = jwtUtil.getValidClaims(token);
+
+        // Assert
+        assertEquals("admin@fleetguard.com", claims.getSubject());
+        assertEquals("ADMIN", claims.get("rol", String.class));
+        assertEquals("ADMIN", jwtUtil.getRolFromToken(token));
+        assertTrue(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("Firma - Un token firmado con otra clave o alterado no es válido")
+    void testFirma_TokenInvalido() {
+        // Arrange
+        String ajeno = new JwtUtil(SECRETO.replace('A', 'B'), EXPIRACION, 2, 1, ahora::get)
+                .generateToken("admin@fleetguard.com", "ADMIN");
+        String valido = jwtUtil.generateToken("conductor@fleetguard.com", "CONDUCTOR");
+        jwtUtil.getValidClaims(valido);
+        String alterado = valido.substring(0, valido.length() - 2) + "xx";
+
+        // Act & Assert
+        assertNull(jwtUtil.getValidClaims(ajeno));
+        assertNull(jwtUtil.getValidClaims(alterado));
+        assertFalse(jwtUtil.validateToken("no-es-un-token"));
+    }
+
+    @Test
+    @DisplayName("Cache - Un token ya verificado deja de aceptarse al llegar su expiración")
+    void testCache_ExpiraConElToken() {
+        // Arrange: el token queda en el cache
+        String token = jwtUtil.generateToken("admin@fleetguard.com", "ADMIN");
+        assertNotNull(jwtUtil.getValidClaims(token));
+
+        // Act
+        ahora.addAndGet(EXPIRACION - 1);
+        Claims antesDeVencer = jwtUtil.getValidClaims(token);
+        ahora.addAndGet(2);
+
+        // Assert
+        assertNotNull(antesDeVencer);
+        assertNull(jwtUtil.getValidClaims(token));
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.getCorreoFromToken(token));
+    }
+
+    @Test
+    @DisplayName("Cache - Con capacidad llena se descarta el menos usado y se vuelve a verificar")
+    void testCache_Acotado() {
+        // Arrange: capacidad 2
+        String primero = jwtUtil.generateToken("uno@fleetguard.com", "ADMIN");
+        String segundo = jwtUtil.generateToken("dos@fleetguard.com", "ADMIN");
+        String tercero = jwtUtil.generateToken("tres@fleetguard.com", "ADMIN");
+
+        // Act
+        jwtUtil.getValidClaims(primero);
+        jwtUtil.getValidClaims(segundo);
+        jwtUtil.getValidClaims(tercero);
+
+        // Assert: el descartado se verifica de nuevo sin problema
+        assertEquals(2, jwtUtil.tamanoCache());
+        assertEquals("uno@fleetguard.com", jwtUtil.getCorreoFromToken(primero));
+        assertEquals("tres@fleetguard.com", jwtUtil.getCorreoFromToken(tercero));
+    }
+
+    @Test
+    @DisplayName("Cache - Repartido en particiones, el total no supera la capacidad configurada")
+    void testCache_ParticionesAcotadas() throws Exception {
+        // Arrange: 64 tokens en 8 hilos, capacidad 16 en 4 particiones
+        JwtUtil particionado = new JwtUtil(SECRETO, EXPIRACION, 16, 4, ahora::get);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            tokens.add(particionado.generateToken("conductor" + i + "@fleetguard.com", "CONDUCTOR"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        try {
+            List<Callable<String>> tareas = new ArrayList<>();
+            for (String token : tokens) {
+                tareas.add(() -> particionado.getCorreoFromToken(token));
+            }
+            List<Future<String>> correos = executor.invokeAll(tareas);
+
+            // Assert
+            for (int i = 0; i < tokens.size(); i++) {
+                assertEquals("conductor" + i + "@fleetguard.com", correos.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(particionado.tamanoCache() <= 16);
+    }
+}
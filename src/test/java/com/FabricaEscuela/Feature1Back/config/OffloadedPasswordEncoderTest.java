@@ -0,0 +1,101 @@
+package com.FabricaEscuela.Feature1Back.config;
+
+import com.FabricaEscuela.Feature1Back.DTO.EstadoBcryptDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para OffloadedPasswordEncoder
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("OffloadedPasswordEncoder - Pruebas Unitarias")
+class OffloadedPasswordEncoderTest {
+
+    private OffloadedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        // Costo mínimo para que las pruebas sean rápidas
+        encoder = new OffloadedPasswordEncoder(4, 2, 8, 5_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    @DisplayName("Encode/Matches - El hash se calcula en el pool y verifica la contraseña")
+    void testEncodeYMatches() {
+        // Act
+        String hash = encoder.encode("admin123");
+
+        // Assert
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("admin123", hash));
+        assertFalse(encoder.matches("otra", hash));
+        EstadoBcryptDTO estado = encoder.estado();
+        assertEquals(3, estado.getCompletados());
+        assertEquals(0, estado.getRechazados());
+        assertEquals(8, estado.getCapacidadCola());
+    }
+
+    @Test
+    @DisplayName("UpgradeEncoding - Solo los hashes con un costo menor se regeneran")
+    void testUpgradeEncoding_CostoMenor() {
+        // Arrange: el encoder usa costo 5
+        encoder.close();
+        encoder = new OffloadedPasswordEncoder(5, 2, 8, 5_000L);
+        String costoMenor = new BCryptPasswordEncoder(4).encode("admin123");
+        String mismoCosto = new BCryptPasswordEncoder(5).encode("admin123");
+        String costoMayor = new BCryptPasswordEncoder(6).encode("admin123");
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(costoMenor));
+        assertFalse(encoder.upgradeEncoding(mismoCosto));
+        assertFalse(encoder.upgradeEncoding(costoMayor));
+        assertFalse(encoder.upgradeEncoding("no-es-bcrypt"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    @DisplayName("Saturación - Superada la espera máxima se rechaza en lugar de bloquear")
+    void testSaturacion_EsperaMaxima() {
+        // Arrange: un hash de costo 12 tarda bastante más de 1 ms
+        try (OffloadedPasswordEncoder lento = new OffloadedPasswordEncoder(12, 1, 1, 1L)) {
+
+            // Act & Assert
+            assertThrows(RejectedExecutionException.class, () -> lento.encode("admin123"));
+            assertEquals(1, lento.estado().getRechazados());
+        }
+    }
+
+    @Test
+    @DisplayName("Calibración - Sube el costo mientras el tiempo estimado no pase del objetivo")
+    void testCostoPara_Objetivo() {
+        // Arrange: costo 10 tarda 60 ms
+        long nanosCosto10 = 60_000_000L;
+
+        // Act & Assert: 60 -> 120 -> 240 ms
+        assertEquals(12, OffloadedPasswordEncoder.costoPara(250, 10, 14, nanosCosto10));
+        assertEquals(10, OffloadedPasswordEncoder.costoPara(50, 10, 14, nanosCosto10));
+        assertEquals(14, OffloadedPasswordEncoder.costoPara(10_000, 10, 14, nanosCosto10));
+    }
+
+    @Test
+    @DisplayName("Calibración - El costo medido queda dentro de los límites")
+    void testCalibrar_DentroDeLimites() {
+        // Act
+        int costo = OffloadedPasswordEncoder.calibrar(5, 4, 6);
+
+        // Assert
+        assertTrue(costo >= 4 && costo <= 6);
+    }
+}
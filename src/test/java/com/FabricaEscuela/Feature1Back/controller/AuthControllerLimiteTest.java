@@ -0,0 +1,115 @@
+package com.FabricaEscuela.Feature1Back.controller;
+
+import com.FabricaEscuela.Feature1Back.config.OffloadedPasswordEncoder;
+import com.FabricaEscuela.Feature1Back.entity.Rol;
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Límite de peticiones de /api/auth: un cliente limitado recibe 429 con Retry-After sin llegar
+ * a BCrypt, y el cubo del correo solo lo gastan los intentos fallidos.
+ * Cada prueba usa sus propias IPs y correos porque el contexto (y los cubos) se comparte.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth_limite;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "spring.mail.host=127.0.0.1",
+        "spring.mail.port=1",
+        "password.bcrypt.costo=4",
+        "auth.limite.ip.capacidad=3",
+        "auth.limite.ip.intervalo-ms=60000",
+        "auth.limite.correo.capacidad=2",
+        "auth.limite.correo.intervalo-ms=60000"
+})
+@AutoConfigureMockMvc
+@DisplayName("AuthController - Límite de peticiones")
+class AuthControllerLimiteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @MockitoSpyBean
+    private OffloadedPasswordEncoder passwordEncoder;
+
+    private ResultActions login(String ip, String correo, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(peticion -> {
+                    peticion.setRemoteAddr(ip);
+                    return peticion;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"correo\":\"" + correo + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private void crearUsuario(String correo, String password) {
+        Usuario usuario = new Usuario();
+        usuario.setCorreo(correo);
+        usuario.setPassword(passwordEncoder.encode(password));
+        usuario.setRol(Rol.CONDUCTOR);
+        usuarioRepository.save(usuario);
+    }
+
+    @Test
+    @DisplayName("Login - Con la IP agotada responde 429 con Retry-After sin invocar BCrypt")
+    void testLogin_IpAgotada() throws Exception {
+        // Arrange: la ráfaga de la IP se gasta con correos inexistentes
+        for (int i = 0; i < 3; i++) {
+            login("10.0.1.1", "nadie" + i + "@fleetguard.com", "clave").andExpect(status().isUnauthorized());
+        }
+        clearInvocations(passwordEncoder);
+
+        // Act & Assert
+        login("10.0.1.1", "user-admin-test@yopmail.com", "admin123")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"));
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("Login - Los intentos fallidos agotan el correo desde cualquier IP")
+    void testLogin_CorreoAgotadoPorFallos() throws Exception {
+        // Arrange
+        crearUsuario("fallos@fleetguard.com", "correcta");
+        login("10.0.2.1", "fallos@fleetguard.com", "incorrecta").andExpect(status().isUnauthorized());
+        login("10.0.2.2", "fallos@fleetguard.com", "incorrecta").andExpect(status().isUnauthorized());
+        clearInvocations(passwordEncoder);
+
+        // Act & Assert: ni la contraseña correcta desde otra IP llega a BCrypt
+        login("10.0.2.3", "FALLOS@fleetguard.com", "correcta")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("Login - Los ingresos correctos no gastan el cubo del correo")
+    void testLogin_ExitososNoGastanCorreo() throws Exception {
+        // Arrange
+        crearUsuario("exitos@fleetguard.com", "correcta");
+
+        // Act & Assert: más ingresos que la capacidad del correo, cada uno desde su IP
+        for (int i = 0; i < 4; i++) {
+            login("10.0.3." + i, "exitos@fleetguard.com", "correcta").andExpect(status().isOk());
+        }
+        verify(passwordEncoder, times(4)).matches(eq("correcta"), anyString());
+    }
+}
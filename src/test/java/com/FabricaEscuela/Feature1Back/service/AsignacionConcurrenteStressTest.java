@@ -0,0 +1,294 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Rol;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga concurrente de asignaciones: muchos despachadores asignando a la vez
+ * los mismos conductores no deben producir dobles reservas, y toques simultáneos sobre
+ * una misma asignación deben resolverse con una sola transición ganadora.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:asignacion_concurrente;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("AsignacionTurnoService - Asignaciones concurrentes")
+class AsignacionConcurrenteStressTest {
+
+    private static final int CONDUCTORES = 40;
+    private static final int HILOS = 8;
+    private static final int INTENTOS = 2000;
+    private static final int SEMANAS = 20;
+
+    // Rechazos esperados de quien pierde una transición concurrente
+    private static final Set<String> ERRORES_DE_TRANSICION = Set.of(
+            "Solo se pueden iniciar turnos en estado PROGRAMADA",
+            "Solo se pueden finalizar turnos en estado EN_CURSO",
+            "No se puede cancelar una asignación finalizada",
+            "La asignación fue modificada por otra operación; intente de nuevo");
+
+    @Autowired
+    private AsignacionTurnoService asignacionTurnoService;
+
+    @Autowired
+    private RutaRepository rutaRepository;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ConductorRepository conductorRepository;
+
+    @Autowired
+    private AsignacionTurnoRepository asignacionTurnoRepository;
+
+    private final List<Long> conductorIds = new ArrayList<>();
+    private final List<Long> turnoIds = new ArrayList<>();
+
+    @BeforeAll
+    void prepararDatos() {
+        Ruta ruta = new Ruta();
+        ruta.setNombre("Ruta carga");
+        ruta.setOrigen("Origen");
+        ruta.setDestino("Destino");
+        ruta.setDuracionEnMinutos(60);
+        ruta = rutaRepository.save(ruta);
+        for (int t = 0; t < 3; t++) {
+            turnoIds.add(turnoRepository.save(Turno.builder()
+                    .ruta(ruta)
+                    .diaSemana(DayOfWeek.MONDAY)
+                    .horaInicio(LocalTime.of(6 + t * 6, 0))
+                    .horaFin(LocalTime.of(11 + t * 6, 0))
+                    .duracionHoras(5)
+                    .numeroSemana(1)
+                    .estado(EstadoTurno.ACTIVO)
+                    .build()).getId());
+        }
+        for (int i = 0; i < CONDUCTORES; i++) {
+            Usuario usuario = usuarioRepository.save(Usuario.builder()
+                    .correo("carga" + i + "@asignacion.test")
+                    .password("x")
+                    .rol(Rol.CONDUCTOR)
+                    .build());
+            conductorIds.add(conductorRepository.save(Conductor.builder()
+                    .nombreCompleto("Conductor " + i)
+                    .licencia("L-" + i)
+                    .usuario(usuario)
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("2000 asignaciones concurrentes - Ninguna doble reserva")
+    void testAsignacionesConcurrentes() throws Exception {
+        // Arrange: los turnos son de lunes
+        LocalDate base = LocalDate.of(2030, 1, 7);
+
+        // Act: 8 hilos sobre 40 conductores x 20 lunes = 800 combinaciones para 2000 intentos.
+        // Los tres turnos del lunes están separados por menos que el descanso mínimo: un conductor
+        // solo puede tener uno por fecha
+        Resultado concurrente = ejecutar(HILOS, INTENTOS, base, new Random(42));
+
+        // Assert: cada combinación (conductor, fecha) se asignó exactamente una vez
+        assertEquals(0, concurrente.errores.get(), "Errores inesperados: " + concurrente.mensajes);
+        assertEquals(concurrente.combinaciones.size(), concurrente.exitosas.get());
+        assertEquals(INTENTOS - concurrente.exitosas.get(), concurrente.rechazadas.get());
+
+        Map<String, Long> porConductorYFecha = asignacionTurnoRepository.findAll().stream()
+                .filter(a -> a.getEstado() != EstadoAsignacion.CANCELADA)
+                .filter(a -> a.getFechaInicio().getYear() == base.getYear())
+                .collect(Collectors.groupingBy(this::clave, Collectors.counting()));
+        assertEquals(concurrente.combinaciones.size(), porConductorYFecha.size());
+        assertTrue(porConductorYFecha.values().stream().allMatch(total -> total == 1),
+                "Hay conductores con más de una asignación en la misma fecha");
+    }
+
+    // Solo con -Dbenchmark=true: depende del hardware y de la carga de la máquina
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Rendimiento - La concurrencia no colapsa frente a la referencia secuencial")
+    void testRendimientoConcurrente() throws Exception {
+        // Arrange: fechas propias (2031-2032), sin cruzarse con la prueba de corrección
+        LocalDate base = LocalDate.of(2030, 1, 7);
+        double secuencial = ejecutar(1, INTENTOS / 4, base.plusWeeks(60), new Random(7)).porSegundo;
+
+        // Act
+        Resultado concurrente = ejecutar(HILOS, INTENTOS, base.plusWeeks(120), new Random(42));
+
+        // Assert: el bloqueo es por conductor, la concurrencia no debe quedar por debajo de la secuencial
+        System.out.printf("Asignaciones: secuencial %.0f/s, %d hilos %.0f/s%n",
+                secuencial, HILOS, concurrente.porSegundo);
+        assertEquals(0, concurrente.errores.get(), "Errores inesperados: " + concurrente.mensajes);
+        assertTrue(concurrente.porSegundo >= secuencial * 0.5,
+                "El rendimiento concurrente colapsó frente a la referencia secuencial");
+    }
+
+    @Test
+    @DisplayName("Transiciones concurrentes - Exactamente una gana en cada asignación")
+    void testTransicionesConcurrentes() throws Exception {
+        // Arrange: asignaciones programadas en un año que no usa la otra prueba
+        List<AsignacionTurno> asignaciones = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            asignaciones.add(AsignacionTurno.builder()
+                    .turno(turnoRepository.getReferenceById(turnoIds.get(i % turnoIds.size())))
+                    .conductor(conductorRepository.getReferenceById(conductorIds.get(i % conductorIds.size())))
+                    .fechaInicio(LocalDate.of(2040, 1, 2))
+                    .fechaFin(LocalDate.of(2040, 1, 2))
+                    .estado(EstadoAsignacion.PROGRAMADA)
+                    .build());
+        }
+        List<Long> ids = asignacionTurnoRepository.saveAll(asignaciones).stream()
+                .map(AsignacionTurno::getId)
+                .collect(Collectors.toList());
+
+        for (Long id : ids) {
+            // Act: seis toques simultáneos de "iniciar" sobre la misma asignación
+            List<Runnable> inicios = Collections.nCopies(6, () -> asignacionTurnoService.iniciarTurno(id));
+            int iniciosGanadores = competir(inicios);
+
+            // ... y luego "finalizar" contra "cancelar"
+            int cierresGanadores = competir(List.of(
+                    () -> asignacionTurnoService.finalizarTurno(id),
+                    () -> asignacionTurnoService.cancelarAsignacion(id)));
+
+            // Assert
+            assertEquals(1, iniciosGanadores, "Más de un inicio ganó en la asignación " + id);
+            assertEquals(1, cierresGanadores, "Finalizar y cancelar ganaron a la vez en la asignación " + id);
+            AsignacionTurno asignacion = asignacionTurnoRepository.findById(id).orElseThrow();
+            assertTrue(asignacion.getEstado() == EstadoAsignacion.FINALIZADA
+                    || asignacion.getEstado() == EstadoAsignacion.CANCELADA);
+            assertNotNull(asignacion.getHoraInicioReal());
+            assertEquals(2L, asignacion.getVersion(), "Cada transición ganadora incrementa la versión una vez");
+        }
+    }
+
+    // Lanza las operaciones a la vez y devuelve cuántas terminaron sin error
+    private int competir(List<Runnable> operaciones) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(operaciones.size());
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger ganadoras = new AtomicInteger();
+        Set<String> inesperados = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        for (Runnable operacion : operaciones) {
+            executor.execute(() -> {
+                try {
+                    salida.await();
+                    operacion.run();
+                    ganadoras.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (!ERRORES_DE_TRANSICION.contains(e.getMessage())) {
+                        inesperados.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        salida.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertTrue(inesperados.isEmpty(), "Errores inesperados: " + inesperados);
+        return ganadoras.get();
+    }
+
+    private Resultado ejecutar(int hilos, int intentos, LocalDate base, Random aleatorio) throws InterruptedException {
+        List<AsignacionTurnoDTO> solicitudes = new ArrayList<>();
+        Resultado resultado = new Resultado();
+        for (int i = 0; i < intentos; i++) {
+            Long conductorId = conductorIds.get(aleatorio.nextInt(conductorIds.size()));
+            LocalDate fecha = base.plusWeeks(aleatorio.nextInt(SEMANAS));
+            solicitudes.add(AsignacionTurnoDTO.builder()
+                    .turnoId(turnoIds.get(aleatorio.nextInt(turnoIds.size())))
+                    .conductorId(conductorId)
+                    .fechaInicio(fecha)
+                    .fechaFin(fecha)
+                    .estado(EstadoAsignacion.PROGRAMADA)
+                    .build());
+            resultado.combinaciones.add(conductorId + "|" + fecha);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch salida = new CountDownLatch(1);
+        long inicio = System.nanoTime();
+        for (AsignacionTurnoDTO solicitud : solicitudes) {
+            executor.execute(() -> {
+                try {
+                    salida.await();
+                    asignacionTurnoService.asignarConductorATurno(solicitud);
+                    resultado.exitosas.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (String.valueOf(e.getMessage()).startsWith("El conductor ya tiene un turno asignado")) {
+                        resultado.rechazadas.incrementAndGet();
+                    } else {
+                        resultado.errores.incrementAndGet();
+                        resultado.mensajes.add(String.valueOf(e.getMessage()));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        salida.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        resultado.porSegundo = intentos / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+        return resultado;
+    }
+
+    private String clave(AsignacionTurno asignacion) {
+        return asignacion.getConductor().getId() + "|" + asignacion.getFechaInicio();
+    }
+
+    private static final class Resultado {
+        private final Set<String> combinaciones = new HashSet<>();
+        private final AtomicInteger exitosas = new AtomicInteger();
+        private final AtomicInteger rechazadas = new AtomicInteger();
+        private final AtomicInteger errores = new AtomicInteger();
+        private final Set<String> mensajes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        private double porSegundo;
+    }
+}
@@ -0,0 +1,352 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.EventoCambioDTO;
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoLoteAsignacionesDTO;
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.mapper.AsignacionTurnoMapper;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para AsignacionTurnoService
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsignacionTurnoService - Pruebas Unitarias")
+class AsignacionTurnoServiceTest {
+
+    // 2030-01-07 es lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private AsignacionTurnoRepository asignacionTurnoRepository;
+
+    @Mock
+    private TurnoRepository turnoRepository;
+
+    @Mock
+    private ConductorRepository conductorRepository;
+
+    @Mock
+    private AsignacionTurnoMapper asignacionTurnoMapper;
+
+    @Spy
+    private ConductorOcupacionIndex conductorOcupacionIndex = new ConductorOcupacionIndex(480);
+
+    @Spy
+    private TurnosEnCursoRegistry turnosEnCursoRegistry = new TurnosEnCursoRegistry();
+
+    @Mock
+    private PublicadorCambios publicadorCambios;
+
+    @Mock
+    private RuedaTransiciones ruedaTransiciones;
+
+    @Mock
+    private HorasTrabajadasService horasTrabajadasService;
+
+    @InjectMocks
+    private AsignacionTurnoService asignacionTurnoService;
+
+    private Turno turnoManana;
+    private Turno turnoTarde;
+    private Conductor conductorA;
+    private Conductor conductorB;
+    private final AtomicLong secuencia = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        turnoManana = turno(1L, 6, 12);
+        turnoTarde = turno(2L, 13, 19);
+        conductorA = conductor(10L);
+        conductorB = conductor(20L);
+    }
+
+    @Test
+    @DisplayName("Asignar en lote - Dos consultas de carga y todos los elementos válidos creados")
+    void testAsignarEnLote_Exitoso() {
+        // Arrange
+        prepararRepositorios();
+        List<AsignacionTurnoDTO> lote = List.of(
+                solicitud(1L, 10L, LUNES),
+                solicitud(1L, 20L, LUNES.plusWeeks(1)),
+                solicitud(2L, 20L, LUNES.plusWeeks(2)));
+
+        // Act
+        ResultadoLoteAsignacionesDTO resultado = asignacionTurnoService.asignarEnLote(lote);
+
+        // Assert
+        assertEquals(3, resultado.getCreadas());
+        assertEquals(0, resultado.getRechazadas());
+        assertTrue(resultado.getResultados().stream().allMatch(r -> r.getAsignacionId() != null));
+        assertEquals(3, conductorOcupacionIndex.tamano());
+        verify(turnoRepository, times(1)).findAllById(anyCollection());
+        verify(conductorRepository, times(1)).findAllByIdParaActualizar(anyCollection());
+        verify(conductorRepository, never()).findByIdParaActualizar(any());
+        verify(asignacionTurnoRepository, times(1)).flush();
+        // Un solo envío al canal de cambios con un evento por asignación creada
+        verify(publicadorCambios, times(1)).publicarTodos(argThat(eventos -> eventos.size() == 3));
+    }
+
+    @Test
+    @DisplayName("Asignar en lote - Los elementos del mismo lote se validan entre sí")
+    void testAsignarEnLote_ConflictoDentroDelLote() {
+        // Arrange: el turno de la tarde empieza 1 h después del de la mañana (menos que el descanso)
+        prepararRepositorios();
+        List<AsignacionTurnoDTO> lote = List.of(
+                solicitud(1L, 10L, LUNES),
+                solicitud(2L, 10L, LUNES),
+                solicitud(2L, 20L, LUNES));
+
+        // Act
+        ResultadoLoteAsignacionesDTO resultado = asignacionTurnoService.asignarEnLote(lote);
+
+        // Assert
+        assertEquals(2, resultado.getCreadas());
+        ResultadoLoteAsignacionesDTO.ResultadoItem rechazado = resultado.getResultados().get(1);
+        assertFalse(rechazado.isCreada());
+        assertEquals(1, rechazado.getIndice());
+        assertTrue(rechazado.getError().startsWith("El conductor ya tiene un turno asignado"));
+    }
+
+    @Test
+    @DisplayName("Asignar en lote - Referencias inexistentes y fechas inválidas se reportan por elemento")
+    void testAsignarEnLote_ErroresPorElemento() {
+        // Arrange
+        prepararRepositorios();
+        List<AsignacionTurnoDTO> lote = List.of(
+                solicitud(99L, 10L, LUNES),
+                solicitud(1L, 99L, LUNES),
+                solicitud(1L, 10L, null),
+                solicitud(1L, 20L, LUNES));
+
+        // Act
+        ResultadoLoteAsignacionesDTO resultado = asignacionTurnoService.asignarEnLote(lote);
+
+        // Assert
+        assertEquals(1, resultado.getCreadas());
+        assertEquals(3, resultado.getRechazadas());
+        assertEquals("Turno no encontrado", resultado.getResultados().get(0).getError());
+        assertEquals("Conductor no encontrado", resultado.getResultados().get(1).getError());
+        assertEquals("La fecha de inicio es obligatoria", resultado.getResultados().get(2).getError());
+        assertTrue(resultado.getResultados().get(3).isCreada());
+    }
+
+    @Test
+    @DisplayName("Asignar en lote - Error si supera el tamaño máximo")
+    void testAsignarEnLote_DemasiadoGrande() {
+        // Arrange
+        List<AsignacionTurnoDTO> lote = Collections.nCopies(AsignacionTurnoService.TAMANO_LOTE_MAXIMO + 1,
+                solicitud(1L, 10L, LUNES));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> asignacionTurnoService.asignarEnLote(lote));
+        verifyNoInteractions(turnoRepository, conductorRepository);
+    }
+
+    @Test
+    @DisplayName("Confirmar plan - Se revalida el tope de horas semanales bajo los bloqueos")
+    void testConfirmarPlan_SuperaHorasSemana() {
+        // Arrange: tope de 10 h; cada turno dura 6 h (lunes y martes, sin problema de descanso)
+        ReflectionTestUtils.setField(asignacionTurnoService, "horasMaximasSemana", 10);
+        turnoTarde.setDiaSemana(DayOfWeek.TUESDAY);
+        turnoTarde.setHoraInicio(LocalTime.of(6, 0));
+        turnoTarde.setHoraFin(LocalTime.of(12, 0));
+        prepararRepositorios();
+        List<AsignacionTurnoDTO> plan = List.of(
+                semana(1L, 10L),
+                semana(2L, 10L),
+                semana(2L, 20L));
+
+        // Act
+        ResultadoLoteAsignacionesDTO resultado = asignacionTurnoService.confirmarPlan(plan);
+
+        // Assert
+        assertEquals(2, resultado.getCreadas());
+        assertEquals("El conductor superaría el máximo de 10 horas semanales",
+                resultado.getResultados().get(1).getError());
+        assertTrue(resultado.getResultados().get(2).isCreada());
+    }
+
+    @Test
+    @DisplayName("Confirmar plan - Rechaza turnos que ya tienen conductor en el rango")
+    void testConfirmarPlan_TurnoYaCubierto() {
+        // Arrange: el turno 1 se cubrió después de la vista previa; el 2 viene propuesto dos veces
+        ReflectionTestUtils.setField(asignacionTurnoService, "horasMaximasSemana", 48);
+        turnoTarde.setDiaSemana(DayOfWeek.TUESDAY);
+        prepararRepositorios();
+        when(asignacionTurnoRepository.findTurnoIdsCubiertosEntre(anyCollection(), eq(LUNES), eq(LUNES.plusDays(6))))
+                .thenReturn(List.of(1L));
+        List<AsignacionTurnoDTO> plan = List.of(
+                semana(1L, 10L),
+                semana(2L, 10L),
+                semana(2L, 20L));
+
+        // Act
+        ResultadoLoteAsignacionesDTO resultado = asignacionTurnoService.confirmarPlan(plan);
+
+        // Assert
+        assertEquals(1, resultado.getCreadas());
+        assertEquals("El turno ya tiene un conductor asignado en el rango de fechas",
+                resultado.getResultados().get(0).getError());
+        assertTrue(resultado.getResultados().get(1).isCreada());
+        assertEquals("El turno ya tiene un conductor asignado en el rango de fechas",
+                resultado.getResultados().get(2).getError());
+        verify(turnoRepository).findAllByIdParaActualizar(anyCollection());
+        verify(turnoRepository, never()).findAllById(anyCollection());
+        verify(asignacionTurnoRepository, times(1)).findTurnoIdsCubiertosEntre(anyCollection(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Confirmar plan - Error si supera el tamaño máximo de lote")
+    void testConfirmarPlan_DemasiadoGrande() {
+        // Arrange
+        List<AsignacionTurnoDTO> plan = Collections.nCopies(AsignacionTurnoService.TAMANO_LOTE_MAXIMO + 1,
+                solicitud(1L, 10L, LUNES));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> asignacionTurnoService.confirmarPlan(plan));
+        verifyNoInteractions(turnoRepository, conductorRepository);
+    }
+
+    private AsignacionTurnoDTO semana(Long turnoId, Long conductorId) {
+        return AsignacionTurnoDTO.builder()
+                .turnoId(turnoId)
+                .conductorId(conductorId)
+                .fechaInicio(LUNES)
+                .fechaFin(LUNES.plusDays(6))
+                .build();
+    }
+
+    private void prepararRepositorios() {
+        // El lote los lee sin bloqueo; la confirmación de un plan los bloquea
+        Answer<List<Turno>> turnosPorId = inv -> {
+            List<Turno> encontrados = new ArrayList<>();
+            for (Turno turno : List.of(turnoManana, turnoTarde)) {
+                if (inv.<Collection<Long>>getArgument(0).contains(turno.getId())) {
+                    encontrados.add(turno);
+                }
+            }
+            return encontrados;
+        };
+        lenient().when(turnoRepository.findAllById(anyCollection())).thenAnswer(turnosPorId);
+        lenient().when(turnoRepository.findAllByIdParaActualizar(anyCollection())).thenAnswer(turnosPorId);
+        when(conductorRepository.findAllByIdParaActualizar(anyCollection())).thenReturn(List.of(conductorA, conductorB));
+        lenient().when(asignacionTurnoRepository.save(any(AsignacionTurno.class))).thenAnswer(inv -> {
+            AsignacionTurno asignacion = inv.getArgument(0);
+            asignacion.setId(secuencia.incrementAndGet());
+            return asignacion;
+        });
+        lenient().when(asignacionTurnoMapper.toDTO(any(AsignacionTurno.class))).thenAnswer(inv ->
+                AsignacionTurnoDTO.builder().id(inv.<AsignacionTurno>getArgument(0).getId()).build());
+    }
+
+    private AsignacionTurnoDTO solicitud(Long turnoId, Long conductorId, LocalDate fecha) {
+        return AsignacionTurnoDTO.builder()
+                .turnoId(turnoId)
+                .conductorId(conductorId)
+                .fechaInicio(fecha)
+                .fechaFin(fecha)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Cancelar - Solo publica y actualiza los índices si la asignación cambió")
+    void testCancelarAsignacion_YaCancelada() {
+        // Arrange
+        AsignacionTurno asignacion = AsignacionTurno.builder()
+                .id(50L)
+                .turno(turnoManana)
+                .conductor(conductorA)
+                .fechaInicio(LUNES)
+                .estado(EstadoAsignacion.CANCELADA)
+                .version(1L)
+                .build();
+        when(asignacionTurnoRepository.findConDetalleById(50L)).thenReturn(Optional.of(asignacion));
+
+        // Act
+        asignacionTurnoService.cancelarAsignacion(50L);
+
+        // Assert
+        verify(asignacionTurnoRepository, never()).cambiarEstadoSiNoCambio(any(), any(), any(), any());
+        verify(conductorOcupacionIndex, never()).eliminar(any());
+        verify(ruedaTransiciones, never()).retirar(any());
+        verifyNoInteractions(publicadorCambios);
+    }
+
+    @Test
+    @DisplayName("Cancelar - Una asignación programada se cancela, sale de los índices y se publica")
+    void testCancelarAsignacion_Programada() {
+        // Arrange
+        AsignacionTurno asignacion = AsignacionTurno.builder()
+                .id(50L)
+                .turno(turnoManana)
+                .conductor(conductorA)
+                .fechaInicio(LUNES)
+                .estado(EstadoAsignacion.PROGRAMADA)
+                .version(1L)
+                .build();
+        when(asignacionTurnoRepository.findConDetalleById(50L)).thenReturn(Optional.of(asignacion));
+        when(asignacionTurnoRepository.cambiarEstadoSiNoCambio(50L, EstadoAsignacion.PROGRAMADA,
+                EstadoAsignacion.CANCELADA, 1L)).thenReturn(1);
+        when(asignacionTurnoMapper.toDTO(asignacion)).thenReturn(new AsignacionTurnoDTO());
+
+        // Act
+        asignacionTurnoService.cancelarAsignacion(50L);
+
+        // Assert
+        verify(conductorOcupacionIndex).eliminar(50L);
+        verify(ruedaTransiciones).retirar(50L);
+        verify(publicadorCambios).publicarTodos(argThat(eventos -> eventos.size() == 1
+                && eventos.iterator().next().getTipo() == EventoCambioDTO.Tipo.ASIGNACION_CANCELADA));
+    }
+
+    private Turno turno(Long id, int horaInicio, int horaFin) {
+        Turno turno = Turno.builder()
+                .diaSemana(DayOfWeek.MONDAY)
+                .horaInicio(LocalTime.of(horaInicio, 0))
+                .horaFin(LocalTime.of(horaFin, 0))
+                .numeroSemana(1)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+        turno.setId(id);
+        return turno;
+    }
+
+    private Conductor conductor(Long id) {
+        Conductor conductor = new Conductor();
+        conductor.setId(id);
+        return conductor;
+    }
+}
@@ -1,26 +1,29 @@
 package com.FabricaEscuela.Feature1Back.service;
 
 import com.FabricaEscuela.Feature1Back.config.JwtUtil;
-import com.FabricaEscuela.Feature1Back.entity.CodigoVerificacion;
 import com.FabricaEscuela.Feature1Back.entity.Rol;
 import com.FabricaEscuela.Feature1Back.entity.Usuario;
-import com.FabricaEscuela.Feature1Back.repository.CodigoVerificacionRepository;
 import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import com.FabricaEscuela.Feature1Back.service.VerificationCodeStore.ResultadoVerificacion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -36,7 +39,7 @@ class AuthServiceTest {
     private UsuarioRepository usuarioRepository;
 
     @Mock
-    private CodigoVerificacionRepository codigoVerificacionRepository;
+    private VerificationCodeStore verificationCodeStore;
 
     @Mock
     private EmailService emailService;
@@ -47,30 +50,31 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private AuthService authService;
 
     private Usuario usuarioMock;
-    private CodigoVerificacion codigoMock;
 
     @BeforeEach
     void setUp() {
         // Arrange común para todas las pruebas
         // Inyectar el valor de codeExpiration (tiempo de expiración en milisegundos)
         ReflectionTestUtils.setField(authService, "codeExpiration", 300000L); // 5 minutos
+
+        // La transacción de las escrituras ejecuta el callback directamente
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
         
         usuarioMock = new Usuario();
         usuarioMock.setId(1L);
         usuarioMock.setCorreo("test@example.com");
         usuarioMock.setPassword("encodedPassword");
         usuarioMock.setRol(Rol.CONDUCTOR);
-
-        codigoMock = new CodigoVerificacion();
-        codigoMock.setId(1L);
-        codigoMock.setCodigo("123456");
-        codigoMock.setUsuario(usuarioMock);
-        codigoMock.setFechaExpiracion(LocalDateTime.now().plusMinutes(5));
-        codigoMock.setUsado(false);
     }
 
     @Test
@@ -82,7 +86,6 @@ class AuthServiceTest {
         
         when(usuarioRepository.findByCorreo(correo)).thenReturn(Optional.of(usuarioMock));
         when(passwordEncoder.matches(password, usuarioMock.getPassword())).thenReturn(true);
-        when(codigoVerificacionRepository.save(any(CodigoVerificacion.class))).thenReturn(codigoMock);
         doNothing().when(emailService).enviarCodigoVerificacion(anyString(), anyString());
 
         // Act
@@ -93,7 +96,7 @@ class AuthServiceTest {
         assertEquals(6, resultado.length());
         verify(usuarioRepository, times(1)).findByCorreo(correo);
         verify(passwordEncoder, times(1)).matches(password, usuarioMock.getPassword());
-        verify(codigoVerificacionRepository, times(1)).save(any(CodigoVerificacion.class));
+        verify(verificationCodeStore, times(1)).guardar(usuarioMock, resultado, 300000L);
         verify(emailService, times(1)).enviarCodigoVerificacion(eq(correo), anyString());
     }
 
@@ -134,7 +137,7 @@ class AuthServiceTest {
         assertEquals("Credenciales inválidas", exception.getMessage());
         verify(usuarioRepository, times(1)).findByCorreo(correo);
         verify(passwordEncoder, times(1)).matches(password, usuarioMock.getPassword());
-        verify(codigoVerificacionRepository, never()).save(any());
+        verify(verificationCodeStore, never()).guardar(any(), anyString(), anyLong());
     }
 
     @Test
@@ -146,10 +149,8 @@ class AuthServiceTest {
         String tokenEsperado = "jwt.token.test";
         
         when(usuarioRepository.findByCorreo(correo)).thenReturn(Optional.of(usuarioMock));
-        when(codigoVerificacionRepository.findByCodigoAndUsuarioAndUsadoFalse(codigo, usuarioMock))
-                .thenReturn(Optional.of(codigoMock));
+        when(verificationCodeStore.verificar(usuarioMock, codigo)).thenReturn(ResultadoVerificacion.VALIDO);
         when(jwtUtil.generateToken(correo, usuarioMock.getRol().name())).thenReturn(tokenEsperado);
-        when(codigoVerificacionRepository.save(any(CodigoVerificacion.class))).thenReturn(codigoMock);
 
         // Act
         String token = authService.verificarCodigo(correo, codigo);
@@ -157,10 +158,8 @@ class AuthServiceTest {
         // Assert
         assertNotNull(token);
         assertEquals(tokenEsperado, token);
-        assertTrue(codigoMock.isUsado());
         verify(usuarioRepository, times(1)).findByCorreo(correo);
-        verify(codigoVerificacionRepository, times(1))
-                .findByCodigoAndUsuarioAndUsadoFalse(codigo, usuarioMock);
+        verify(verificationCodeStore, times(1)).verificar(usuarioMock, codigo);
         verify(jwtUtil, times(1)).generateToken(correo, usuarioMock.getRol().name());
     }
 
@@ -172,8 +171,7 @@ class AuthServiceTest {
         String codigo = "999999";
         
         when(usuarioRepository.findByCorreo(correo)).thenReturn(Optional.of(usuarioMock));
-        when(codigoVerificacionRepository.findByCodigoAndUsuarioAndUsadoFalse(codigo, usuarioMock))
-                .thenReturn(Optional.empty());
+        when(verificationCodeStore.verificar(usuarioMock, codigo)).thenReturn(ResultadoVerificacion.INVALIDO);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -190,11 +188,9 @@ class AuthServiceTest {
         // Arrange
         String correo = "test@example.com";
         String codigo = "123456";
-        codigoMock.setFechaExpiracion(LocalDateTime.now().minusMinutes(5));
         
         when(usuarioRepository.findByCorreo(correo)).thenReturn(Optional.of(usuarioMock));
-        when(codigoVerificacionRepository.findByCodigoAndUsuarioAndUsadoFalse(codigo, usuarioMock))
-                .thenReturn(Optional.of(codigoMock));
+        when(verificationCodeStore.verificar(usuarioMock, codigo)).thenReturn(ResultadoVerificacion.EXPIRADO);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -204,4 +200,47 @@ class AuthServiceTest {
         assertEquals("El código ha expirado", exception.getMessage());
         verify(jwtUtil, never()).generateToken(anyString(), anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Verificar código - Demasiados intentos fallidos")
+    void testVerificarCodigo_Bloqueado() {
+        // Arrange
+        String correo = "test@example.com";
+        String codigo = "000000";
+
+        when(usuarioRepository.findByCorreo(correo)).thenReturn(Optional.of(usuarioMock));
+        when(verificationCodeStore.verificar(usuarioMock, codigo)).thenReturn(ResultadoVerificacion.BLOQUEADO);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            authService.verificarCodigo(correo, codigo);
+        });
+
+        assertEquals("Demasiados intentos fallidos, solicite un nuevo código", exception.getMessage());
+        verify(jwtUtil, never()).generateToken(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Login exitoso - Regenera el hash de costo menor; BCrypt corre antes de abrir la transacción")
+    void testLogin_RehashCostoMenor() {
+        // Arrange
+        String correo = "test@example.com";
+        String password = "password123";
+
+        when(usuarioRepository.findByCorreo(correo)).thenReturn(Optional.of(usuarioMock));
+        when(passwordEncoder.matches(password, "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode(password)).thenReturn("nuevoHash");
+
+        // Act
+        authService.login(correo, password);
+
+        // Assert
+        assertEquals("nuevoHash", usuarioMock.getPassword());
+        InOrder orden = inOrder(passwordEncoder, transactionTemplate, usuarioRepository);
+        orden.verify(passwordEncoder).matches(password, "encodedPassword");
+        orden.verify(passwordEncoder).encode(password);
+        orden.verify(transactionTemplate).executeWithoutResult(any());
+        orden.verify(usuarioRepository).save(usuarioMock);
+    }
+}
@@ -0,0 +1,223 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para ConductorOcupacionIndex
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("ConductorOcupacionIndex - Pruebas Unitarias")
+class ConductorOcupacionIndexTest {
+
+    private static final Long CONDUCTOR = 1L;
+
+    // 2030-01-07 es lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    private ConductorOcupacionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ConductorOcupacionIndex(480);
+    }
+
+    @Test
+    @DisplayName("Mismo día - Turnos separados por el descanso mínimo no chocan")
+    void testMismoDia_DescansoExacto() {
+        // Arrange
+        index.registrar(asignacion(10L, turno(DayOfWeek.MONDAY, 6, 10), LUNES, null));
+
+        // Act
+        Optional<ConductorOcupacionIndex.Conflicto> conflicto =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.MONDAY, 18, 22), LUNES, null, null);
+
+        // Assert
+        assertTrue(conflicto.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mismo día - Horarios que se cruzan son conflicto de solapamiento")
+    void testMismoDia_Solapamiento() {
+        // Arrange
+        index.registrar(asignacion(10L, turno(DayOfWeek.MONDAY, 6, 12), LUNES, null));
+
+        // Act
+        Optional<ConductorOcupacionIndex.Conflicto> conflicto =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.MONDAY, 11, 15), LUNES, null, null);
+
+        // Assert
+        assertTrue(conflicto.isPresent());
+        assertEquals(10L, conflicto.get().asignacionId());
+        assertTrue(conflicto.get().solapa());
+    }
+
+    @Test
+    @DisplayName("Mismo día - Sin solapar pero con menos descanso que el mínimo")
+    void testMismoDia_FaltaDescanso() {
+        // Arrange
+        index.registrar(asignacion(10L, turno(DayOfWeek.MONDAY, 6, 10), LUNES, null));
+
+        // Act
+        Optional<ConductorOcupacionIndex.Conflicto> conflicto =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.MONDAY, 12, 16), LUNES, null, null);
+
+        // Assert
+        assertTrue(conflicto.isPresent());
+        assertFalse(conflicto.get().solapa());
+    }
+
+    @Test
+    @DisplayName("Turno nocturno - Cruza la medianoche y choca con el día siguiente")
+    void testTurnoNocturno() {
+        // Arrange: lunes 22:00 a martes 06:00
+        index.registrar(asignacion(10L, turno(DayOfWeek.MONDAY, 22, 6), LUNES, null));
+
+        // Act
+        Optional<ConductorOcupacionIndex.Conflicto> solapa =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.TUESDAY, 5, 9), LUNES, null, null);
+        Optional<ConductorOcupacionIndex.Conflicto> descanso =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.TUESDAY, 10, 14), LUNES, null, null);
+        Optional<ConductorOcupacionIndex.Conflicto> libre =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.TUESDAY, 14, 18), LUNES, null, null);
+
+        // Assert
+        assertTrue(solapa.get().solapa());
+        assertFalse(descanso.get().solapa());
+        assertTrue(libre.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fin de semana - El domingo nocturno choca con el lunes siguiente")
+    void testCruceDeSemana() {
+        // Arrange: domingo 22:00 a lunes 04:00
+        index.registrar(asignacion(10L, turno(DayOfWeek.SUNDAY, 22, 4), LUNES, null));
+
+        // Act
+        Optional<ConductorOcupacionIndex.Conflicto> conflicto =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.MONDAY, 2, 6), LUNES, null, null);
+
+        // Assert
+        assertTrue(conflicto.get().solapa());
+    }
+
+    @Test
+    @DisplayName("Días distintos - Rangos de fechas cruzados sin horarios cercanos no chocan")
+    void testDiasDistintos() {
+        // Arrange
+        index.registrar(asignacion(10L, turno(DayOfWeek.MONDAY, 6, 14), LUNES, LUNES.plusWeeks(4)));
+
+        // Act
+        Optional<ConductorOcupacionIndex.Conflicto> conflicto =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.WEDNESDAY, 6, 14), LUNES, LUNES.plusWeeks(4), null);
+
+        // Assert
+        assertTrue(conflicto.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fechas - Solo hay conflicto si ambas asignaciones ocurren en fechas reales cercanas")
+    void testFechasExactas() {
+        // Arrange: nocturno solo el lunes 7 (termina el martes 8 a las 06:00)
+        index.registrar(asignacion(10L, turno(DayOfWeek.MONDAY, 22, 6), LUNES, LUNES));
+
+        // Act
+        Optional<ConductorOcupacionIndex.Conflicto> mismoMartes =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.TUESDAY, 4, 8), LUNES.plusDays(1), null, null);
+        Optional<ConductorOcupacionIndex.Conflicto> martesSiguiente =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.TUESDAY, 4, 8), LUNES.plusDays(2), null, null);
+        Optional<ConductorOcupacionIndex.Conflicto> anterior =
+                index.buscarConflicto(CONDUCTOR, turno(DayOfWeek.MONDAY, 22, 6), LUNES.minusWeeks(3), LUNES.minusDays(1), null);
+
+        // Assert
+        assertTrue(mismoMartes.isPresent());
+        assertTrue(martesSiguiente.isEmpty());
+        assertTrue(anterior.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Eliminar y estados - Canceladas, finalizadas y excluidas no ocupan")
+    void testEliminarYEstados() {
+        // Arrange
+        Turno turno = turno(DayOfWeek.MONDAY, 6, 14);
+        AsignacionTurno cancelada = asignacion(11L, turno, LUNES, null);
+        cancelada.setEstado(EstadoAsignacion.CANCELADA);
+        AsignacionTurno finalizada = asignacion(12L, turno, LUNES, null);
+        finalizada.setEstado(EstadoAsignacion.FINALIZADA);
+        index.reconstruir(List.of(asignacion(10L, turno, LUNES, null), cancelada, finalizada));
+
+        // Act & Assert
+        assertEquals(1, index.tamano());
+        assertTrue(index.buscarConflicto(CONDUCTOR, turno, LUNES, null, 10L).isEmpty());
+        assertTrue(index.buscarConflicto(CONDUCTOR, turno, LUNES, null, null).isPresent());
+
+        index.eliminar(10L);
+        assertEquals(0, index.tamano());
+        assertTrue(index.buscarConflicto(CONDUCTOR, turno, LUNES, null, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Minutos semanales - Se toma la semana real más cargada, no la suma de todo el rango")
+    void testMinutosSemanales_PorSemanaReal() {
+        // Arrange: lunes 6-14 solo la primera semana, martes 6-14 solo la segunda y miércoles 6-10 sin fin
+        index.reconstruir(List.of(
+                asignacion(10L, turno(DayOfWeek.MONDAY, 6, 14), LUNES, LUNES.plusDays(6)),
+                asignacion(11L, turno(DayOfWeek.TUESDAY, 6, 14), LUNES.plusDays(7), LUNES.plusDays(13)),
+                asignacion(12L, turno(DayOfWeek.WEDNESDAY, 6, 10), LUNES, null)));
+
+        // Act & Assert: cada semana suma 8 + 4 horas, nunca las tres asignaciones juntas
+        assertEquals(720, index.minutosSemanales(CONDUCTOR, LUNES, LUNES.plusDays(13)));
+        assertEquals(720, index.minutosSemanales(CONDUCTOR, LUNES, null));
+        // Desde la tercera semana solo queda el miércoles
+        assertEquals(240, index.minutosSemanales(CONDUCTOR, LUNES.plusDays(14), null));
+        // Un rango que empieza el jueves cuenta la semana completa
+        assertEquals(720, index.minutosSemanales(CONDUCTOR, LUNES.plusDays(3), LUNES.plusDays(4)));
+        assertEquals(0, index.minutosSemanales(99L, LUNES, null));
+    }
+
+    @Test
+    @DisplayName("Incluye día - El rango debe contener el día de la semana del turno")
+    void testIncluyeDia() {
+        // Act & Assert
+        assertTrue(ConductorOcupacionIndex.incluyeDia(DayOfWeek.MONDAY, LUNES, LUNES));
+        assertFalse(ConductorOcupacionIndex.incluyeDia(DayOfWeek.MONDAY, LUNES.plusDays(1), LUNES.plusDays(6)));
+        assertTrue(ConductorOcupacionIndex.incluyeDia(DayOfWeek.MONDAY, LUNES.plusDays(1), null));
+    }
+
+    private Turno turno(DayOfWeek dia, int horaInicio, int horaFin) {
+        return Turno.builder()
+                .diaSemana(dia)
+                .horaInicio(LocalTime.of(horaInicio, 0))
+                .horaFin(LocalTime.of(horaFin, 0))
+                .numeroSemana(1)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+    }
+
+    private AsignacionTurno asignacion(Long id, Turno turno, LocalDate fechaInicio, LocalDate fechaFin) {
+        Conductor conductor = new Conductor();
+        conductor.setId(CONDUCTOR);
+        return AsignacionTurno.builder()
+                .id(id)
+                .turno(turno)
+                .conductor(conductor)
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .estado(EstadoAsignacion.PROGRAMADA)
+                .build();
+    }
+}
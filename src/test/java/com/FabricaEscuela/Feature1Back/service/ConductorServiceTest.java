@@ -41,6 +41,9 @@ class ConductorServiceTest {
     @Mock
     private ConductorMapper conductorMapper;
 
+    @Mock
+    private TurnosEnCursoRegistry turnosEnCursoRegistry;
+
     @InjectMocks
     private ConductorService conductorService;
 
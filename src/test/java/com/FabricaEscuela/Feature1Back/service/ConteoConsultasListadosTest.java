@@ -0,0 +1,285 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PaginaCursorDTO;
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoTransicionLoteDTO;
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Rol;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.HorasSemanaConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fija la cantidad de sentencias SQL de cada listado y de las transiciones en lote:
+ * no debe crecer con el número de filas.
+ * Los métodos se invocan sin sesión abierta (como desde un trabajo en segundo plano),
+ * así que un acceso perezoso no planificado también haría fallar la prueba.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conteo_consultas;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Listados - Cantidad de consultas constante")
+class ConteoConsultasListadosTest {
+
+    private static final int RUTAS = 4;
+    private static final int TURNOS_POR_RUTA = 3;
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private AsignacionTurnoService asignacionTurnoService;
+
+    @Autowired
+    private TurnoScheduleIndex turnoScheduleIndex;
+
+    @Autowired
+    private RutaRepository rutaRepository;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ConductorRepository conductorRepository;
+
+    @Autowired
+    private AsignacionTurnoRepository asignacionTurnoRepository;
+
+    @Autowired
+    private HorasSemanaConductorRepository horasSemanaConductorRepository;
+
+    @Autowired
+    private HorasTrabajadasService horasTrabajadasService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Long rutaId;
+    private Long conductorId;
+
+    @BeforeAll
+    void prepararDatos() {
+        // Arrange: 4 rutas x 3 turnos, un conductor distinto por turno y dos asignaciones por turno
+        List<Turno> turnos = new ArrayList<>();
+        for (int r = 0; r < RUTAS; r++) {
+            Ruta ruta = new Ruta();
+            ruta.setNombre("Ruta " + r);
+            ruta.setOrigen("Origen");
+            ruta.setDestino("Destino");
+            ruta.setDuracionEnMinutos(60);
+            ruta = rutaRepository.save(ruta);
+            for (int t = 0; t < TURNOS_POR_RUTA; t++) {
+                turnos.add(Turno.builder()
+                        .ruta(ruta)
+                        .diaSemana(DayOfWeek.MONDAY)
+                        .horaInicio(LocalTime.of(6 + t * 6, 0))
+                        .horaFin(LocalTime.of(11 + t * 6, 0))
+                        .duracionHoras(5)
+                        .numeroSemana(1)
+                        .estado(EstadoTurno.ACTIVO)
+                        .build());
+            }
+        }
+        turnos = turnoRepository.saveAll(turnos);
+        turnoScheduleIndex.registrarTodos(turnos);
+
+        List<AsignacionTurno> asignaciones = new ArrayList<>();
+        for (int i = 0; i < turnos.size(); i++) {
+            Usuario usuario = usuarioRepository.save(Usuario.builder()
+                    .correo("conductor" + i + "@conteo.test")
+                    .password("x")
+                    .rol(Rol.CONDUCTOR)
+                    .build());
+            Conductor conductor = conductorRepository.save(Conductor.builder()
+                    .nombreCompleto("Conductor " + i)
+                    .licencia("L-" + i)
+                    .usuario(usuario)
+                    .build());
+            asignaciones.add(asignacion(turnos.get(i), conductor, EstadoAsignacion.EN_CURSO, LocalDate.now()));
+            asignaciones.add(asignacion(turnos.get(i), conductor, EstadoAsignacion.FINALIZADA,
+                    LocalDate.now().minusDays(7)));
+            conductorId = conductor.getId();
+        }
+        asignacionTurnoRepository.saveAll(asignaciones);
+        // Los datos se crean después del arranque: se vuelve a cargar el registro de turnos en curso
+        asignacionTurnoService.inicializarTurnosEnCurso();
+        rutaId = turnos.get(0).getRuta().getId();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void limpiarEstadisticas() {
+        estadisticas.clear();
+    }
+
+    @Test
+    @DisplayName("Asignaciones - Listados con turno, ruta y conductor en una consulta")
+    void testListadosDeAsignaciones() {
+        assertConsultas(1, 24, () -> asignacionTurnoService.obtenerTodasAsignaciones());
+        // Las activas salen del registro en memoria
+        assertConsultas(0, RUTAS * TURNOS_POR_RUTA, () -> asignacionTurnoService.obtenerAsignacionesActivas());
+        assertConsultas(1, 24, () -> asignacionTurnoService.obtenerAsignacionesPaginadas(
+                null, 50, null, null, null, null, null, null).getContenido());
+        // Conductor + sus asignaciones
+        assertConsultas(2, 2, () -> asignacionTurnoService.obtenerAsignacionesPorConductor(conductorId));
+    }
+
+    @Test
+    @DisplayName("Asignaciones - Paginación por cursor con filtros, una consulta por página")
+    void testPaginacionDeAsignaciones() {
+        // Act: recorrer las asignaciones de una ruta de a 2
+        List<AsignacionTurnoDTO> recorridas = new ArrayList<>();
+        Long cursor = null;
+        int paginas = 0;
+        do {
+            estadisticas.clear();
+            PaginaCursorDTO<AsignacionTurnoDTO> pagina = asignacionTurnoService.obtenerAsignacionesPaginadas(
+                    cursor, 2, rutaId, null, null, null, null, null);
+            assertEquals(1, estadisticas.getPrepareStatementCount(), "Sentencias SQL por página");
+            recorridas.addAll(pagina.getContenido());
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        // Assert: las 2 asignaciones de cada turno de la ruta, en orden de id y sin repetir
+        assertEquals(3, paginas);
+        assertEquals(TURNOS_POR_RUTA * 2, recorridas.size());
+        assertTrue(recorridas.stream().allMatch(a -> "Ruta 0".equals(a.getRutaNombre())));
+        for (int i = 1; i < recorridas.size(); i++) {
+            assertTrue(recorridas.get(i - 1).getId() < recorridas.get(i).getId());
+        }
+
+        // Los filtros presentes se combinan; el rango de fechas deja fuera las vigencias ya cerradas
+        assertConsultas(1, RUTAS * TURNOS_POR_RUTA, () -> asignacionTurnoService.obtenerAsignacionesPaginadas(
+                null, 50, null, 1, DayOfWeek.MONDAY, EstadoAsignacion.FINALIZADA, null, null).getContenido());
+        assertConsultas(1, RUTAS * TURNOS_POR_RUTA, () -> asignacionTurnoService.obtenerAsignacionesPaginadas(
+                null, 50, null, null, null, null, LocalDate.now(), LocalDate.now()).getContenido());
+        assertConsultas(1, TURNOS_POR_RUTA, () -> asignacionTurnoService.obtenerAsignacionesPaginadas(
+                null, 50, rutaId, null, null, EstadoAsignacion.EN_CURSO, LocalDate.now(), null).getContenido());
+        assertConsultas(1, 0, () -> asignacionTurnoService.obtenerAsignacionesPaginadas(
+                null, 50, null, 2, null, null, null, null).getContenido());
+    }
+
+    @Test
+    @DisplayName("Turnos - Listados con ruta y conductor asignado en consultas fijas")
+    void testListadosDeTurnos() {
+        // Turnos con ruta + conductores asignados hoy
+        assertConsultas(2, RUTAS * TURNOS_POR_RUTA, () -> turnoService.obtenerTodosTurnos());
+        assertConsultas(2, RUTAS * TURNOS_POR_RUTA, () -> turnoService.obtenerTurnosPaginados(
+                null, 50, null, null, null, null).getContenido());
+        assertConsultas(2, TURNOS_POR_RUTA, () -> turnoService.obtenerTurnosPaginados(
+                null, 50, rutaId, 1, DayOfWeek.MONDAY, EstadoTurno.ACTIVO).getContenido());
+        assertConsultas(2, RUTAS, () -> turnoService.obtenerTurnosEnVentana(
+                null, 1, DayOfWeek.MONDAY, LocalTime.of(7, 0), null));
+        // Ruta + turnos + conductores asignados hoy
+        assertConsultas(3, TURNOS_POR_RUTA, () -> turnoService.obtenerTurnosPorRuta(rutaId));
+        assertConsultas(3, TURNOS_POR_RUTA, () -> turnoService.obtenerTurnosPorRutaYSemana(rutaId, 1));
+    }
+
+    @Test
+    @DisplayName("Transiciones en lote - Bloqueo y un UPDATE por lote, sin importar cuántos ids")
+    void testTransicionesEnLote() {
+        // Arrange: asignaciones programadas propias de esta prueba (se borran al final)
+        Conductor conductor = conductorRepository.findById(conductorId).orElseThrow();
+        List<AsignacionTurno> nuevas = new ArrayList<>();
+        for (Turno turno : turnoRepository.findAll()) {
+            nuevas.add(asignacion(turno, conductor, EstadoAsignacion.PROGRAMADA, LocalDate.now().plusYears(1)));
+        }
+        nuevas = asignacionTurnoRepository.saveAll(nuevas);
+        List<Long> ids = new ArrayList<>(nuevas.stream().map(AsignacionTurno::getId).toList());
+        ids.add(-1L);
+
+        try {
+            // Act: iniciar todas (una no existe) y luego finalizarlas
+            estadisticas.clear();
+            ResultadoTransicionLoteDTO iniciadas = asignacionTurnoService.iniciarTurnosEnLote(ids);
+            long sentenciasInicio = estadisticas.getPrepareStatementCount();
+            estadisticas.clear();
+            ResultadoTransicionLoteDTO finalizadas = asignacionTurnoService.finalizarTurnosEnLote(ids);
+            long sentenciasFin = estadisticas.getPrepareStatementCount();
+            ResultadoTransicionLoteDTO repetidas = asignacionTurnoService.finalizarTurnosEnLote(ids);
+
+            // Assert
+            // Bloqueo, UPDATE y la lectura de las actualizadas para el registro en curso y el canal de cambios;
+            // el fin además bloquea los conductores y las filas del libro de horas, inserta (o suma) las filas
+            // y guarda las jornadas en el historial (la secuencia reserva sus ids por bloques)
+            assertEquals(3, sentenciasInicio, "Sentencias SQL del inicio en lote");
+            assertEquals(9, sentenciasFin, "Sentencias SQL del fin en lote");
+            assertEquals(nuevas.size(), iniciadas.getExitosas());
+            assertEquals(1, iniciadas.getFallidas());
+            assertEquals("Asignación no encontrada", iniciadas.getResultados().get(ids.size() - 1).getError());
+            assertEquals(nuevas.size(), finalizadas.getExitosas());
+            assertEquals(0, repetidas.getExitosas());
+            assertEquals(EstadoAsignacion.FINALIZADA, repetidas.getResultados().get(0).getEstado());
+            assertEquals(RUTAS * TURNOS_POR_RUTA, asignacionTurnoService.obtenerAsignacionesActivas().size());
+            assertTrue(asignacionTurnoRepository.findAllById(ids).stream()
+                    .allMatch(a -> a.getEstado() == EstadoAsignacion.FINALIZADA
+                            && a.getHoraInicioReal() != null && a.getHoraFinReal() != null));
+            LocalDate inicio = asignacionTurnoRepository.findAllById(ids).get(0).getHoraInicioReal().toLocalDate();
+            assertEquals(nuevas.size(), horasTrabajadasService.obtenerHorasSemana(conductorId,
+                    inicio.get(IsoFields.WEEK_BASED_YEAR), inicio.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)).getTurnos());
+        } finally {
+            asignacionTurnoRepository.deleteAllByIdInBatch(ids);
+            horasSemanaConductorRepository.deleteAllInBatch(horasSemanaConductorRepository.findAll().stream()
+                    .filter(fila -> fila.getId().getConductorId().equals(conductorId))
+                    .toList());
+        }
+    }
+
+    private void assertConsultas(long esperadas, int filas, Supplier<List<?>> listado) {
+        estadisticas.clear();
+        List<?> resultado = listado.get();
+        assertEquals(filas, resultado.size());
+        assertEquals(esperadas, estadisticas.getPrepareStatementCount(),
+                "Cantidad de sentencias SQL del listado");
+    }
+
+    private AsignacionTurno asignacion(Turno turno, Conductor conductor, EstadoAsignacion estado, LocalDate fecha) {
+        return AsignacionTurno.builder()
+                .turno(turno)
+                .conductor(conductor)
+                .fechaInicio(fecha)
+                .fechaFin(fecha)
+                .estado(estado)
+                .build();
+    }
+}
@@ -0,0 +1,243 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.CorreoPendiente;
+import com.FabricaEscuela.Feature1Back.entity.EstadoCorreo;
+import com.FabricaEscuela.Feature1Back.repository.CorreoPendienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para DespachadorCorreos
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DespachadorCorreos - Pruebas Unitarias")
+class DespachadorCorreosTest {
+
+    private static final int MAX_INTENTOS = 3;
+    private static final long RETENCION_MS = 86_400_000L;
+
+    @Mock
+    private CorreoPendienteRepository correoPendienteRepository;
+
+    private ServidorSmtpFalso servidor;
+    private DespachadorCorreos despachador;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        servidor = new ServidorSmtpFalso();
+        despachador = crearDespachador(60_000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        despachador.detener();
+        servidor.close();
+    }
+
+    private DespachadorCorreos crearDespachador(long inactividadMaximaMs) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(servidor.puerto());
+        return new DespachadorCorreos(correoPendienteRepository, mailSender, 1, 10, MAX_INTENTOS,
+                1_000L, 8_000L, 60_000L, inactividadMaximaMs, RETENCION_MS, "noreply@fleetguard.com");
+    }
+
+    // Simula la reserva en BD: el correo llega con el intento ya contado
+    private void correoReservado(long id, int intentos) {
+        correoReservado(id, intentos, null);
+    }
+
+    private void correoReservado(long id, int intentos, LocalDateTime venceEn) {
+        CorreoPendiente correo = CorreoPendiente.builder()
+                .id(id)
+                .destinatario("conductor" + id + "@fleetguard.com")
+                .asunto("Código " + id)
+                .cuerpo("Tu código es " + id)
+                .estado(EstadoCorreo.PENDIENTE)
+                .intentos(intentos)
+                .proximoIntento(LocalDateTime.now().plusMinutes(1))
+                .venceEn(venceEn)
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+        when(correoPendienteRepository.reservar(eq(id), any(), any())).thenReturn(1);
+        when(correoPendienteRepository.findById(id)).thenReturn(Optional.of(correo));
+    }
+
+    @Test
+    @DisplayName("Enviar - Varios correos reutilizan la misma conexión SMTP")
+    void testEnviar_ReutilizaConexion() {
+        // Arrange
+        correoReservado(1L, 1);
+        correoReservado(2L, 1);
+        correoReservado(3L, 1);
+
+        // Act
+        despachador.enviar(1L);
+        despachador.enviar(2L);
+        despachador.enviar(3L);
+
+        // Assert
+        assertEquals(1, servidor.conexiones.get());
+        assertEquals(3, servidor.mensajes.size());
+        assertTrue(servidor.mensajes.get(0).contains("conductor1@fleetguard.com"));
+        verify(correoPendienteRepository, times(3)).marcarEnviado(anyLong(), eq(EstadoCorreo.ENVIADO), any());
+        verify(correoPendienteRepository, never()).registrarFallo(anyLong(), any(), any(), any());
+        verify(correoPendienteRepository, never()).marcarFallido(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Enviar - Una conexión inactiva demasiado tiempo se renueva")
+    void testEnviar_RenuevaConexionInactiva() {
+        // Arrange: sin tolerancia a la inactividad
+        despachador.detener();
+        despachador = crearDespachador(0L);
+        correoReservado(1L, 1);
+        correoReservado(2L, 1);
+
+        // Act
+        despachador.enviar(1L);
+        despachador.enviar(2L);
+
+        // Assert
+        assertEquals(2, servidor.conexiones.get());
+        assertEquals(2, servidor.mensajes.size());
+    }
+
+    @Test
+    @DisplayName("Enviar - Si el servidor cerró la conexión se reconecta y el correo sale")
+    void testEnviar_ServidorCerroConexion() {
+        // Arrange
+        servidor.cerrarTrasCadaMensaje = true;
+        correoReservado(1L, 1);
+        correoReservado(2L, 1);
+
+        // Act
+        despachador.enviar(1L);
+        despachador.enviar(2L);
+
+        // Assert
+        assertEquals(2, servidor.conexiones.get());
+        assertEquals(2, servidor.mensajes.size());
+        verify(correoPendienteRepository).marcarEnviado(eq(2L), eq(EstadoCorreo.ENVIADO), any());
+    }
+
+    @Test
+    @DisplayName("Enviar - Un rechazo temporal se reprograma con espera")
+    void testEnviar_RechazoSeReprograma() {
+        // Arrange
+        servidor.rechazosPendientes.set(1);
+        correoReservado(1L, 2);
+        LocalDateTime antes = LocalDateTime.now();
+
+        // Act
+        despachador.enviar(1L);
+
+        // Assert: segundo intento fallido, espera 2 s
+        ArgumentCaptor<LocalDateTime> proximo = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(correoPendienteRepository).registrarFallo(eq(1L), eq(EstadoCorreo.PENDIENTE), proximo.capture(),
+                contains("451"));
+        assertFalse(proximo.getValue().isBefore(antes.plusSeconds(2)));
+        verify(correoPendienteRepository, never()).marcarEnviado(anyLong(), any(), any());
+        assertTrue(servidor.mensajes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Enviar - Al agotar los intentos el correo queda FALLIDO")
+    void testEnviar_AgotaIntentos() {
+        // Arrange
+        servidor.rechazosPendientes.set(1);
+        correoReservado(1L, MAX_INTENTOS);
+
+        // Act
+        despachador.enviar(1L);
+
+        // Assert
+        verify(correoPendienteRepository).marcarFallido(eq(1L), contains("451"));
+        verify(correoPendienteRepository, never()).registrarFallo(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Enviar - Un correo vencido no se envía y queda FALLIDO")
+    void testEnviar_Vencido() {
+        // Arrange
+        correoReservado(1L, 1, LocalDateTime.now().minusSeconds(1));
+
+        // Act
+        despachador.enviar(1L);
+
+        // Assert
+        verify(correoPendienteRepository).marcarFallido(eq(1L), anyString());
+        assertEquals(0, servidor.conexiones.get());
+    }
+
+    @Test
+    @DisplayName("Enviar - No se reprograma un reintento posterior al vencimiento")
+    void testEnviar_NoReintentaTrasVencer() {
+        // Arrange: el reintento tocaría dentro de 1 s y el correo vence antes
+        servidor.rechazosPendientes.set(1);
+        correoReservado(1L, 1, LocalDateTime.now().plusNanos(800_000_000L));
+
+        // Act
+        despachador.enviar(1L);
+
+        // Assert
+        verify(correoPendienteRepository).marcarFallido(eq(1L), contains("451"));
+        verify(correoPendienteRepository, never()).registrarFallo(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Purgar - Borra los correos terminados más antiguos que la retención")
+    void testPurgar_Retencion() {
+        // Arrange
+        LocalDateTime antes = LocalDateTime.now();
+
+        // Act
+        despachador.purgar();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> limite = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(correoPendienteRepository).eliminarTerminados(limite.capture());
+        assertFalse(limite.getValue().isBefore(antes.minusDays(1)));
+        assertFalse(limite.getValue().isAfter(LocalDateTime.now().minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Enviar - Si otro hilo ya reservó el correo no se envía")
+    void testEnviar_YaReservado() {
+        // Arrange
+        when(correoPendienteRepository.reservar(eq(1L), any(), any())).thenReturn(0);
+
+        // Act
+        despachador.enviar(1L);
+
+        // Assert
+        verify(correoPendienteRepository, never()).findById(anyLong());
+        assertEquals(0, servidor.conexiones.get());
+    }
+
+    @Test
+    @DisplayName("Espera - Se duplica en cada intento hasta el máximo")
+    void testEspera_Exponencial() {
+        // Act & Assert
+        assertEquals(1_000L, despachador.espera(1));
+        assertEquals(2_000L, despachador.espera(2));
+        assertEquals(4_000L, despachador.espera(3));
+        assertEquals(8_000L, despachador.espera(4));
+        assertEquals(8_000L, despachador.espera(30));
+    }
+}
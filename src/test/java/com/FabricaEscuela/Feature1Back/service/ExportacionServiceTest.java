@@ -0,0 +1,176 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionExportacion;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoExportacion;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ExportacionService
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportacionService - Pruebas Unitarias")
+class ExportacionServiceTest {
+
+    @Mock
+    private AsignacionTurnoRepository asignacionTurnoRepository;
+
+    @Mock
+    private TurnoRepository turnoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SpelAwareProxyProjectionFactory proyecciones = new SpelAwareProxyProjectionFactory();
+    private ExportacionService exportacionService;
+
+    @BeforeEach
+    void setUp() {
+        exportacionService = new ExportacionService(asignacionTurnoRepository, turnoRepository,
+                new ObjectMapper(), transactionManager);
+    }
+
+    @Test
+    @DisplayName("Exportar asignaciones en NDJSON - Una línea JSON por fila y cierra el cursor")
+    void testExportarAsignaciones_Ndjson() throws Exception {
+        // Arrange
+        AtomicBoolean cerrado = new AtomicBoolean();
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        LocalDate hasta = LocalDate.of(2025, 1, 31);
+        when(asignacionTurnoRepository.streamParaExportacion(7L, null, desde, hasta)).thenReturn(
+                Stream.of(asignacion(1L, "Juan Pérez"), asignacion(2L, "Ana Gómez"))
+                        .onClose(() -> cerrado.set(true)));
+
+        // Act
+        String salida = ejecutar(exportacionService.exportarAsignaciones(
+                ExportacionService.Formato.NDJSON, 7L, null, desde, hasta));
+
+        // Assert
+        String[] lineas = salida.split("\n");
+        assertEquals(2, lineas.length);
+        JsonNode primera = new ObjectMapper().readTree(lineas[0]);
+        assertEquals(1, primera.get("id").asLong());
+        assertEquals("Juan Pérez", primera.get("conductorNombre").asText());
+        assertEquals("06:00", primera.get("horaInicio").asText());
+        assertEquals("2025-01-01", primera.get("fechaInicio").asText());
+        assertTrue(primera.get("fechaFin").isNull());
+        assertEquals("PROGRAMADA", primera.get("estado").asText());
+        assertTrue(salida.endsWith("\n"));
+        assertTrue(cerrado.get());
+    }
+
+    @Test
+    @DisplayName("Exportar asignaciones en CSV - Encabezado y valores escapados")
+    void testExportarAsignaciones_Csv() throws Exception {
+        // Arrange
+        when(asignacionTurnoRepository.streamParaExportacion(null, EstadoAsignacion.PROGRAMADA, null, null))
+                .thenReturn(Stream.of(asignacion(1L, "Pérez, \"Juan\"")));
+
+        // Act
+        String salida = ejecutar(exportacionService.exportarAsignaciones(
+                ExportacionService.Formato.CSV, null, EstadoAsignacion.PROGRAMADA, null, null));
+
+        // Assert
+        String[] lineas = salida.split("\r\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].startsWith("id,turnoId,rutaId,rutaNombre,"));
+        assertTrue(lineas[1].contains(",\"Pérez, \"\"Juan\"\"\","));
+        assertTrue(lineas[1].endsWith(",PROGRAMADA,,"));
+    }
+
+    @Test
+    @DisplayName("Exportar turnos en CSV - Aplica filtros y escribe una fila por turno")
+    void testExportarTurnos_Csv() throws Exception {
+        // Arrange
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("id", 10L);
+        valores.put("rutaId", 3L);
+        valores.put("rutaNombre", "Ruta Centro");
+        valores.put("numeroSemana", 2);
+        valores.put("diaSemana", DayOfWeek.FRIDAY);
+        valores.put("horaInicio", LocalTime.of(14, 0));
+        valores.put("horaFin", LocalTime.of(22, 0));
+        valores.put("duracionHoras", 8);
+        valores.put("estado", EstadoTurno.ACTIVO);
+        when(turnoRepository.streamParaExportacion(3L, 2, null))
+                .thenReturn(Stream.of(proyecciones.createProjection(TurnoExportacion.class, valores)));
+
+        // Act
+        String salida = ejecutar(exportacionService.exportarTurnos(ExportacionService.Formato.CSV, 3L, 2, null));
+
+        // Assert
+        assertEquals("id,rutaId,rutaNombre,numeroSemana,diaSemana,horaInicio,horaFin,duracionHoras,estado\r\n" +
+                "10,3,Ruta Centro,2,FRIDAY,14:00,22:00,8,ACTIVO\r\n", salida);
+    }
+
+    @Test
+    @DisplayName("Exportar asignaciones - Rango de fechas inválido")
+    void testExportarAsignaciones_RangoInvalido() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> exportacionService.exportarAsignaciones(ExportacionService.Formato.CSV, null, null,
+                        LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)));
+        assertEquals("La fecha desde no puede ser posterior a la fecha hasta", exception.getMessage());
+        verifyNoInteractions(asignacionTurnoRepository);
+    }
+
+    @Test
+    @DisplayName("Formato - Acepta mayúsculas o minúsculas y rechaza desconocidos")
+    void testFormatoDesde() {
+        // Act & Assert
+        assertEquals(ExportacionService.Formato.CSV, ExportacionService.Formato.desde("csv"));
+        assertEquals(ExportacionService.Formato.NDJSON, ExportacionService.Formato.desde("NDJSON"));
+        assertThrows(RuntimeException.class, () -> ExportacionService.Formato.desde("xml"));
+    }
+
+    private String ejecutar(StreamingResponseBody cuerpo) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        cuerpo.writeTo(salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    private AsignacionExportacion asignacion(Long id, String conductor) {
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("id", id);
+        valores.put("turnoId", 100L);
+        valores.put("rutaId", 7L);
+        valores.put("rutaNombre", "Ruta Norte");
+        valores.put("numeroSemana", 1);
+        valores.put("diaSemana", DayOfWeek.MONDAY);
+        valores.put("horaInicio", LocalTime.of(6, 0));
+        valores.put("horaFin", LocalTime.of(14, 0));
+        valores.put("conductorId", 5L);
+        valores.put("conductorNombre", conductor);
+        valores.put("conductorLicencia", "C1-123");
+        valores.put("fechaInicio", LocalDate.of(2025, 1, 1));
+        valores.put("estado", EstadoAsignacion.PROGRAMADA);
+        return proyecciones.createProjection(AsignacionExportacion.class, valores);
+    }
+}
@@ -0,0 +1,124 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.HorasSemanaConductor;
+import com.FabricaEscuela.Feature1Back.entity.Rol;
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.HorasSemanaConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos finalizaciones simultáneas del mismo conductor en una semana sin fila en el libro:
+ * ambas deben confirmarse y sumarse, sin violar la clave primaria.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:horas_concurrentes;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@DisplayName("HorasTrabajadasService - Finalizaciones concurrentes")
+class HorasTrabajadasConcurrenciaTest {
+
+    // Lunes de la semana ISO 10 de 2031
+    private static final LocalDate LUNES = LocalDate.of(2031, 3, 3);
+
+    @Autowired
+    private HorasTrabajadasService horasTrabajadasService;
+
+    @Autowired
+    private HorasSemanaConductorRepository horasRepository;
+
+    @Autowired
+    private ConductorRepository conductorRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Registrar - Dos hilos insertan la misma semana nueva sin perder horas")
+    void testRegistrar_SemanaNuevaEnParalelo() throws Exception {
+        // Arrange
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .correo("horas@concurrencia.test")
+                .password("x")
+                .rol(Rol.CONDUCTOR)
+                .build());
+        Long conductorId = conductorRepository.save(Conductor.builder()
+                .nombreCompleto("Conductor horas")
+                .licencia("L-HORAS")
+                .usuario(usuario)
+                .build()).getId();
+        CyclicBarrier barrera = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act: el primero mantiene su transacción abierta después de registrar
+        Future<?> primero = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            esperar(barrera);
+            horasTrabajadasService.registrarJornadas(List.of(
+                    finalizada(1L, conductorId, LUNES.atTime(6, 0), LUNES.atTime(14, 0))));
+            dormir(300);
+        }));
+        Future<?> segundo = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            esperar(barrera);
+            dormir(100);
+            horasTrabajadasService.registrarJornadas(List.of(
+                    finalizada(2L, conductorId, LUNES.plusDays(1).atTime(6, 0), LUNES.plusDays(1).atTime(12, 0))));
+        }));
+
+        // Assert
+        primero.get(30, TimeUnit.SECONDS);
+        segundo.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        HorasSemanaConductor fila = horasRepository.findById(
+                new HorasSemanaConductor.Clave(conductorId, LUNES, LUNES.withDayOfMonth(1))).orElseThrow();
+        assertEquals(840, fila.getMinutos());
+        assertEquals(2, fila.getTurnos());
+    }
+
+    private static AsignacionTurnoDTO finalizada(Long id, Long conductorId, LocalDateTime inicio, LocalDateTime fin) {
+        AsignacionTurnoDTO dto = new AsignacionTurnoDTO();
+        dto.setId(id);
+        dto.setConductorId(conductorId);
+        dto.setHoraInicioReal(inicio);
+        dto.setHoraFinReal(fin);
+        return dto;
+    }
+
+    private static void esperar(CyclicBarrier barrera) {
+        try {
+            barrera.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.HorasTrabajadasDTO;
+import com.FabricaEscuela.Feature1Back.DTO.ReconstruccionHorasDTO;
+import com.FabricaEscuela.Feature1Back.entity.HorasSemanaConductor;
+import com.FabricaEscuela.Feature1Back.entity.JornadaAsignacion;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.HorasRealesAsignacion;
+import com.FabricaEscuela.Feature1Back.repository.HorasSemanaConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.JornadaAsignacionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para HorasTrabajadasService
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HorasTrabajadasService - Pruebas Unitarias")
+class HorasTrabajadasServiceTest {
+
+    // Semana ISO 5 de 2030: del lunes 28 de enero al domingo 3 de febrero
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 28);
+
+    @Mock
+    private HorasSemanaConductorRepository horasRepository;
+
+    @Mock
+    private JornadaAsignacionRepository jornadaAsignacionRepository;
+
+    @Mock
+    private ConductorRepository conductorRepository;
+
+    @Mock
+    private PersistenciaPorLotes persistenciaPorLotes;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private HorasTrabajadasIndex horasTrabajadasIndex;
+    private ExecutorService executor;
+    private HorasTrabajadasService horasTrabajadasService;
+
+    @BeforeEach
+    void setUp() {
+        horasTrabajadasIndex = new HorasTrabajadasIndex();
+        executor = Executors.newFixedThreadPool(2);
+        horasTrabajadasService = new HorasTrabajadasService(horasRepository, jornadaAsignacionRepository,
+                conductorRepository, horasTrabajadasIndex, persistenciaPorLotes, transactionTemplate, executor, 1, 48);
+
+        // La transacción ejecuta el callback directamente
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(persistenciaPorLotes.insertarEnLotes(anyList())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Registrar - Guarda las jornadas, suma en la fila existente e inserta las semanas nuevas")
+    void testRegistrar_SumaEInserta() {
+        // Arrange: el conductor ya tenía 8 h el lunes; ahora termina el lunes (8 h) y el viernes 1 de febrero (6 h)
+        HorasSemanaConductor existente = fila(1L, LUNES, LUNES.withDayOfMonth(1), 480, 1);
+        when(horasRepository.findParaActualizar(anyCollection(), anyCollection())).thenReturn(List.of(existente));
+        horasTrabajadasIndex.sumar(existente.getId(), new HorasTrabajadasIndex.Acumulado(480, 1));
+
+        // Act
+        horasTrabajadasService.registrarJornadas(List.of(
+                finalizada(1L, LUNES.atTime(14, 0), LUNES.atTime(22, 0)),
+                finalizada(1L, LUNES.plusDays(4).atTime(6, 0), LUNES.plusDays(4).atTime(12, 0))));
+
+        // Assert
+        assertEquals(960, existente.getMinutos());
+        assertEquals(2, existente.getTurnos());
+        ArgumentCaptor<List<Object>> insertadas = ArgumentCaptor.forClass(List.class);
+        verify(persistenciaPorLotes).insertarEnLotes(insertadas.capture());
+        List<HorasSemanaConductor> nuevas = insertadas.getValue().stream()
+                .filter(HorasSemanaConductor.class::isInstance).map(HorasSemanaConductor.class::cast).toList();
+        List<JornadaAsignacion> jornadas = insertadas.getValue().stream()
+                .filter(JornadaAsignacion.class::isInstance).map(JornadaAsignacion.class::cast).toList();
+        assertEquals(1, nuevas.size());
+        assertEquals(LocalDate.of(2030, 2, 1), nuevas.get(0).getId().getMes());
+        assertEquals(2, jornadas.size());
+        assertEquals(LUNES.atTime(14, 0), jornadas.get(0).getInicio());
+        assertEquals(new HorasTrabajadasIndex.Acumulado(1320, 3), horasTrabajadasIndex.semana(1L, LUNES));
+        assertEquals(new HorasTrabajadasIndex.Acumulado(960, 2), horasTrabajadasIndex.mes(1L, LocalDate.of(2030, 1, 1)));
+        assertEquals(new HorasTrabajadasIndex.Acumulado(360, 1), horasTrabajadasIndex.mes(1L, LocalDate.of(2030, 2, 1)));
+    }
+
+    @Test
+    @DisplayName("Registrar - Un turno que cruza el domingo a medianoche se reparte entre las dos semanas")
+    void testRegistrar_CruzaSemana() {
+        // Arrange: domingo 3 de febrero 22:00 a lunes 4 de febrero 06:00
+        LocalDate domingo = LUNES.plusDays(6);
+        LocalDate siguienteLunes = LUNES.plusWeeks(1);
+
+        // Act
+        horasTrabajadasService.registrarJornadas(List.of(
+                finalizada(1L, domingo.atTime(22, 0), siguienteLunes.atTime(6, 0))));
+
+        // Assert: 2 h en la semana 5 (donde cuenta el turno) y 6 h en la 6
+        assertEquals(new HorasTrabajadasIndex.Acumulado(120, 1), horasTrabajadasIndex.semana(1L, LUNES));
+        assertEquals(new HorasTrabajadasIndex.Acumulado(360, 0), horasTrabajadasIndex.semana(1L, siguienteLunes));
+        verify(conductorRepository).findAllByIdParaActualizar(Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("Registrar - Un intervalo de varias semanas no infla la semana de inicio")
+    void testRegistrar_VariasSemanas() {
+        // Arrange
+        Map<HorasSemanaConductor.Clave, HorasTrabajadasIndex.Acumulado> totales = new HashMap<>();
+
+        // Act: del lunes 28 de enero 00:00 al lunes 11 de febrero 00:00
+        HorasTrabajadasService.acumular(totales, 1L, LUNES.atStartOfDay(), LUNES.plusWeeks(2).atStartOfDay());
+
+        // Assert: la semana 5 se corta el 1 de febrero (cambio de mes)
+        long total = totales.values().stream().mapToLong(HorasTrabajadasIndex.Acumulado::minutos).sum();
+        assertEquals(14 * 24 * 60, total);
+        assertEquals(3, totales.size());
+        assertEquals(4 * 24 * 60, totales.get(new HorasSemanaConductor.Clave(1L, LUNES, LocalDate.of(2030, 1, 1))).minutos());
+        assertEquals(1, totales.values().stream().mapToInt(HorasTrabajadasIndex.Acumulado::turnos).sum());
+    }
+
+    @Test
+    @DisplayName("Registrar - Sin hora real de inicio no se toca el libro")
+    void testRegistrar_SinHoraReal() {
+        // Act
+        horasTrabajadasService.registrarJornadas(List.of(finalizada(1L, null, LUNES.atTime(14, 0))));
+
+        // Assert
+        verifyNoInteractions(horasRepository, conductorRepository, persistenciaPorLotes);
+    }
+
+    @Test
+    @DisplayName("Consultar semana - Marca horas extra al superar el máximo semanal")
+    void testConsultarSemana_HorasExtra() {
+        // Arrange: 50 h y media en la semana 5
+        horasTrabajadasIndex.sumar(new HorasSemanaConductor.Clave(1L, LUNES, LUNES.withDayOfMonth(1)),
+                new HorasTrabajadasIndex.Acumulado(3030, 6));
+
+        // Act
+        HorasTrabajadasDTO semana = horasTrabajadasService.obtenerHorasSemana(1L, 2030, 5);
+        HorasTrabajadasDTO otra = horasTrabajadasService.obtenerHorasSemana(1L, 2030, 6);
+
+        // Assert
+        assertEquals(LUNES, semana.getDesde());
+        assertEquals(50.5, semana.getHoras());
+        assertEquals(2.5, semana.getHorasExtra());
+        assertTrue(semana.isConHorasExtra());
+        assertEquals(0, otra.getMinutos());
+        assertFalse(otra.isConHorasExtra());
+    }
+
+    @Test
+    @DisplayName("Consultar mes - Máximo proporcional a los días del mes")
+    void testConsultarMes_MaximoProporcional() {
+        // Arrange
+        horasTrabajadasIndex.sumar(new HorasSemanaConductor.Clave(1L, LUNES, LocalDate.of(2030, 2, 1)),
+                new HorasTrabajadasIndex.Acumulado(600, 1));
+
+        // Act
+        HorasTrabajadasDTO febrero = horasTrabajadasService.obtenerHorasMes(1L, 2030, 2);
+
+        // Assert
+        assertEquals(10.0, febrero.getHoras());
+        assertEquals(192.0, febrero.getHorasMaximas());
+        assertEquals(LocalDate.of(2030, 2, 28), febrero.getHasta());
+    }
+
+    @Test
+    @DisplayName("Consultar - Periodos fuera de rango")
+    void testConsultar_PeriodoInvalido() {
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> horasTrabajadasService.obtenerHorasSemana(1L, 2030, 53));
+        assertThrows(RuntimeException.class, () -> horasTrabajadasService.obtenerHorasMes(1L, 2030, 13));
+    }
+
+    @Test
+    @DisplayName("Reconstruir - Recalcula en paralelo y elimina filas de conductores sin historial")
+    void testReconstruir_EnParalelo() {
+        // Arrange: el conductor 1 tiene dos jornadas en el historial; el 2 solo una fila vieja en el libro
+        when(jornadaAsignacionRepository.findConductorIds()).thenReturn(List.of(1L));
+        when(horasRepository.findConductorIds()).thenReturn(List.of(1L, 2L));
+        when(jornadaAsignacionRepository.findHorasReales(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            List<HorasRealesAsignacion> historial = new ArrayList<>();
+            if (ids.contains(1L)) {
+                historial.add(historial(1L, LUNES.atTime(6, 0), LUNES.atTime(14, 0)));
+                historial.add(historial(1L, LUNES.plusDays(1).atTime(6, 0), LUNES.plusDays(1).atTime(14, 0)));
+            }
+            return historial;
+        });
+        horasTrabajadasIndex.sumar(new HorasSemanaConductor.Clave(2L, LUNES, LUNES.withDayOfMonth(1)),
+                new HorasTrabajadasIndex.Acumulado(999, 9));
+        List<Integer> avances = new ArrayList<>();
+
+        // Act
+        ReconstruccionHorasDTO resultado = horasTrabajadasService.reconstruir((progreso, total) -> {
+            synchronized (avances) {
+                avances.add(progreso);
+            }
+        });
+
+        // Assert
+        assertEquals(2, resultado.getTotalConductores());
+        assertEquals(2, resultado.getConductoresExitosos());
+        assertEquals(2, resultado.getAsignaciones());
+        assertEquals(1, resultado.getFilas());
+        assertTrue(resultado.getErrores().isEmpty());
+        verify(horasRepository).deleteByConductorIdIn(List.of(1L));
+        verify(horasRepository).deleteByConductorIdIn(List.of(2L));
+        assertEquals(new HorasTrabajadasIndex.Acumulado(960, 2), horasTrabajadasIndex.semana(1L, LUNES));
+        assertEquals(HorasTrabajadasIndex.Acumulado.VACIO, horasTrabajadasIndex.semana(2L, LUNES));
+        assertTrue(avances.contains(2));
+    }
+
+    @Test
+    @DisplayName("Reconstruir - Cuenta las asignaciones finalizadas sin jornada en el historial")
+    void testReconstruir_FinalizadasSinJornada() {
+        // Arrange: el conductor 3 solo tiene una asignación finalizada antes de existir el historial
+        when(jornadaAsignacionRepository.findConductorIds()).thenReturn(List.of(1L));
+        when(jornadaAsignacionRepository.findConductorIdsSinJornada()).thenReturn(List.of(3L));
+        when(horasRepository.findConductorIds()).thenReturn(List.of());
+        when(jornadaAsignacionRepository.findHorasReales(anyCollection())).thenAnswer(inv ->
+                inv.<Collection<Long>>getArgument(0).contains(1L)
+                        ? List.of(historial(1L, LUNES.atTime(6, 0), LUNES.atTime(14, 0)))
+                        : List.of());
+        when(jornadaAsignacionRepository.findHorasRealesSinJornada(anyCollection())).thenAnswer(inv ->
+                inv.<Collection<Long>>getArgument(0).contains(3L)
+                        ? List.of(historial(3L, LUNES.atTime(8, 0), LUNES.atTime(12, 0)))
+                        : List.of());
+
+        // Act
+        ReconstruccionHorasDTO resultado = horasTrabajadasService.reconstruir((progreso, total) -> { });
+
+        // Assert
+        assertEquals(2, resultado.getConductoresExitosos());
+        assertEquals(2, resultado.getAsignaciones());
+        assertEquals(new HorasTrabajadasIndex.Acumulado(480, 1), horasTrabajadasIndex.semana(1L, LUNES));
+        assertEquals(new HorasTrabajadasIndex.Acumulado(240, 1), horasTrabajadasIndex.semana(3L, LUNES));
+    }
+
+    @Test
+    @DisplayName("Reconstruir - Un bloque que falla se informa sin afectar a los demás")
+    void testReconstruir_BloqueFallido() {
+        // Arrange
+        when(jornadaAsignacionRepository.findConductorIds()).thenReturn(List.of(1L, 2L));
+        when(horasRepository.findConductorIds()).thenReturn(List.of());
+        when(jornadaAsignacionRepository.findHorasReales(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            if (ids.contains(2L)) {
+                throw new RuntimeException("Tiempo de espera agotado");
+            }
+            return List.of(historial(1L, LUNES.atTime(6, 0), LUNES.atTime(14, 0)));
+        });
+
+        // Act
+        ReconstruccionHorasDTO resultado = horasTrabajadasService.reconstruir((progreso, total) -> { });
+
+        // Assert
+        assertEquals(1, resultado.getConductoresExitosos());
+        assertTrue(resultado.getErrores().get(2L).contains("Tiempo de espera agotado"));
+        assertEquals(480, horasTrabajadasIndex.semana(1L, LUNES).minutos());
+    }
+
+    private AsignacionTurnoDTO finalizada(Long conductorId, LocalDateTime inicio, LocalDateTime fin) {
+        AsignacionTurnoDTO dto = new AsignacionTurnoDTO();
+        dto.setConductorId(conductorId);
+        dto.setHoraInicioReal(inicio);
+        dto.setHoraFinReal(fin);
+        return dto;
+    }
+
+    private HorasSemanaConductor fila(Long conductorId, LocalDate semana, LocalDate mes, long minutos, int turnos) {
+        return HorasSemanaConductor.builder()
+                .id(new HorasSemanaConductor.Clave(conductorId, semana, mes))
+                .minutos(minutos)
+                .turnos(turnos)
+                .build();
+    }
+
+    private HorasRealesAsignacion historial(Long conductorId, LocalDateTime inicio, LocalDateTime fin) {
+        return new HorasRealesAsignacion() {
+            @Override
+            public Long getConductorId() {
+                return conductorId;
+            }
+
+            @Override
+            public LocalDateTime getHoraInicioReal() {
+                return inicio;
+            }
+
+            @Override
+            public LocalDateTime getHoraFinReal() {
+                return fin;
+            }
+        };
+    }
+}
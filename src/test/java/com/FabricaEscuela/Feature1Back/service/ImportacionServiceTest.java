@@ -0,0 +1,267 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoImportacionDTO;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Rol;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ImportacionService
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportacionService - Pruebas Unitarias")
+class ImportacionServiceTest {
+
+    @Mock
+    private RutaRepository rutaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private ConductorRepository conductorRepository;
+
+    @Mock
+    private TurnoRepository turnoRepository;
+
+    @Mock
+    private TurnoService turnoService;
+
+    @Mock
+    private PersistenciaPorLotes persistenciaPorLotes;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TurnoScheduleIndex turnoScheduleIndex;
+    private ImportacionService importacionService;
+    private final List<Integer> tamanosBloque = new ArrayList<>();
+    // Turnos confirmados en la base simulada
+    private final List<Turno> turnosGuardados = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        turnoScheduleIndex = new TurnoScheduleIndex();
+        importacionService = new ImportacionService(rutaRepository, usuarioRepository, conductorRepository,
+                turnoRepository, turnoService, turnoScheduleIndex, persistenciaPorLotes, transactionTemplate, 2);
+
+        // La transacción ejecuta el callback directamente
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(turnoRepository.findByRutaIdInAndNumeroSemanaIn(anyCollection(), anyCollection()))
+                .thenAnswer(inv -> {
+                    Collection<Long> rutaIds = inv.getArgument(0);
+                    Collection<Integer> semanas = inv.getArgument(1);
+                    return turnosGuardados.stream()
+                            .filter(t -> rutaIds.contains(t.getRuta().getId()) && semanas.contains(t.getNumeroSemana()))
+                            .toList();
+                });
+        // Simula la asignación de ids por secuencia
+        AtomicLong secuencia = new AtomicLong(100);
+        lenient().when(persistenciaPorLotes.insertarEnLotes(anyList())).thenAnswer(inv -> {
+            List<Object> entidades = inv.getArgument(0);
+            tamanosBloque.add(entidades.size());
+            for (Object entidad : entidades) {
+                if (entidad instanceof Turno turno) {
+                    turno.setId(secuencia.getAndIncrement());
+                    turnosGuardados.add(turno);
+                } else if (entidad instanceof Conductor conductor) {
+                    conductor.setId(secuencia.getAndIncrement());
+                }
+            }
+            return entidades;
+        });
+    }
+
+    @Test
+    @DisplayName("Importar turnos - Guarda las filas válidas por bloques y reporta las inválidas")
+    void testImportarTurnos() {
+        // Arrange: la ruta 1 ya tiene un turno de 14 a 22 el lunes de la semana 1
+        when(rutaRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        turnosGuardados.add(turno(1L, 1L, DayOfWeek.MONDAY, 14, 22));
+        String csv = """
+                rutaId,diaSemana,horaInicio,horaFin,numeroSemana
+                1,MONDAY,06:00,14:00,1
+                2,monday,06:00,14:00,1
+                9,MONDAY,06:00,14:00,1
+                1,TUESDAY,06:00,16:00,1
+                1,MONDAY,13:00,15:00,1
+                2,MONDAY,10:00,12:00,1
+
+                2,FUNDAY,06:00,14:00,1
+                2,TUESDAY,6am,14:00,1
+                2,TUESDAY,06:00,14:00,53
+                2,WEDNESDAY,06:00,14:00,2
+                2,WEDNESDAY,13:00,15:00,2
+                """;
+
+        // Act
+        ResultadoImportacionDTO resultado = importacionService.importarTurnos(entrada(csv));
+
+        // Assert
+        assertEquals(11, resultado.getTotalFilas());
+        assertEquals(3, resultado.getFilasImportadas());
+        assertEquals(8, resultado.getFilasConError());
+        assertEquals(List.of(
+                        "4:Ruta no encontrada",
+                        "5:El turno no puede exceder las 8 horas",
+                        "6:El turno se solapa con otro turno de la misma ruta y día",
+                        "7:El turno se solapa con otro turno de la misma ruta y día",
+                        "9:Día de la semana inválido",
+                        "10:El campo horaInicio debe tener formato HH:mm",
+                        "11:El número de semana debe estar entre 1 y 52",
+                        "13:El turno se solapa con otra fila del archivo"),
+                resultado.getErrores().stream().map(e -> e.getLinea() + ":" + e.getMensaje()).toList());
+        // Bloques de 2 filas: 2 + 0 + 1. La línea 7 choca con la línea 3, ya confirmada en la base;
+        // la línea 13 choca con la 12, de su mismo bloque
+        assertEquals(List.of(2, 0, 1), tamanosBloque);
+        // Cada bloque bloquea sus rutas antes de validar
+        verify(rutaRepository, times(2)).findAllByIdParaActualizar(argThat(ids -> ids.size() == 2));
+        verify(rutaRepository).findAllByIdParaActualizar(argThat(ids -> ids.size() == 1 && ids.contains(2L)));
+        // Los turnos guardados quedan en el índice y se publican por bloque
+        assertEquals(1, turnoScheduleIndex.buscarEnHora(2L, 2, DayOfWeek.WEDNESDAY, LocalTime.of(7, 0)).size());
+        assertEquals(3, turnoScheduleIndex.tamano());
+        verify(turnoService).publicarCreados(argThat(turnos -> turnos.size() == 2));
+        verify(turnoService).publicarCreados(argThat(turnos -> turnos.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Importar turnos - Los turnos nocturnos chocan con la madrugada del día siguiente")
+    void testImportarTurnos_Nocturnos() {
+        // Arrange: la ruta 1 tiene un turno de 02:00 a 06:00 el lunes de la semana 2
+        when(rutaRepository.findAllIds()).thenReturn(List.of(1L));
+        Turno madrugada = turno(1L, 1L, DayOfWeek.MONDAY, 2, 6);
+        madrugada.setNumeroSemana(2);
+        turnosGuardados.add(madrugada);
+        String csv = """
+                rutaId,diaSemana,horaInicio,horaFin,numeroSemana
+                1,TUESDAY,22:00,05:00,2
+                1,WEDNESDAY,03:00,07:00,2
+                1,SUNDAY,22:00,04:00,1
+                """;
+
+        // Act
+        ResultadoImportacionDTO resultado = importacionService.importarTurnos(entrada(csv));
+
+        // Assert: el martes termina el miércoles; el domingo de la semana 1 termina el lunes de la semana 2
+        assertEquals(1, resultado.getFilasImportadas());
+        assertEquals(List.of(
+                        "3:El turno se solapa con otra fila del archivo",
+                        "4:El turno se solapa con otro turno de la misma ruta y día"),
+                resultado.getErrores().stream().map(e -> e.getLinea() + ":" + e.getMensaje()).toList());
+    }
+
+    @Test
+    @DisplayName("Importar turnos - Falta una columna obligatoria")
+    void testImportarTurnos_FaltaColumna() {
+        // Arrange
+        when(rutaRepository.findAllIds()).thenReturn(List.of(1L));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> importacionService.importarTurnos(entrada("rutaId,diaSemana,horaInicio\n1,MONDAY,06:00\n")));
+        assertEquals("Falta la columna obligatoria: horaFin", exception.getMessage());
+        verifyNoInteractions(persistenciaPorLotes);
+    }
+
+    @Test
+    @DisplayName("Importar turnos - Un error al guardar marca las filas del bloque")
+    void testImportarTurnos_ErrorAlGuardar() {
+        // Arrange
+        when(rutaRepository.findAllIds()).thenReturn(List.of(1L));
+        when(persistenciaPorLotes.insertarEnLotes(anyList())).thenThrow(new RuntimeException("conexión perdida"));
+
+        // Act
+        ResultadoImportacionDTO resultado = importacionService.importarTurnos(entrada(
+                "rutaId,diaSemana,horaInicio,horaFin,numeroSemana\n1,MONDAY,06:00,14:00,1\n"));
+
+        // Assert
+        assertEquals(0, resultado.getFilasImportadas());
+        assertEquals("Error al guardar: conexión perdida", resultado.getErrores().get(0).getMensaje());
+        assertEquals(0, turnoScheduleIndex.tamano());
+    }
+
+    @Test
+    @DisplayName("Importar conductores - Valida rol CONDUCTOR, usuarios ya vinculados y repetidos")
+    void testImportarConductores() {
+        // Arrange: usuarios 10, 11 y 12 son CONDUCTOR; el 12 ya tiene conductor
+        when(usuarioRepository.findIdsByRol(Rol.CONDUCTOR)).thenReturn(List.of(10L, 11L, 12L));
+        when(conductorRepository.findUsuarioIdsVinculados()).thenReturn(List.of(12L));
+        String csv = """
+                usuarioId,nombreCompleto,licencia,telefono
+                10,"Pérez, Juan",C1-001,3001234567
+                11,Ana Gómez,C1-002,
+                12,Luis Díaz,C1-003,3000000000
+                10,Juan Repetido,C1-004,
+                99,Sin Rol,C1-005,
+                abc,Mal Id,C1-006,
+                """;
+
+        // Act
+        ResultadoImportacionDTO resultado = importacionService.importarConductores(entrada(csv));
+
+        // Assert
+        assertEquals(6, resultado.getTotalFilas());
+        assertEquals(2, resultado.getFilasImportadas());
+        assertEquals(List.of(
+                        "4:El usuario ya tiene un conductor vinculado",
+                        "5:El usuario ya tiene un conductor vinculado",
+                        "6:El usuario no existe o no tiene rol CONDUCTOR",
+                        "7:El campo usuarioId debe ser numérico"),
+                resultado.getErrores().stream().map(e -> e.getLinea() + ":" + e.getMensaje()).toList());
+        verify(persistenciaPorLotes).insertarEnLotes(argThat(lista -> {
+            Conductor primero = (Conductor) lista.get(0);
+            return lista.size() == 2
+                    && primero.getNombreCompleto().equals("Pérez, Juan")
+                    && primero.getUsuario().getId().equals(10L)
+                    && ((Conductor) lista.get(1)).getTelefono() == null;
+        }));
+    }
+
+    private InputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Turno turno(Long id, Long rutaId, DayOfWeek dia, int horaInicio, int horaFin) {
+        Ruta ruta = new Ruta();
+        ruta.setId(rutaId);
+        Turno turno = new Turno();
+        turno.setId(id);
+        turno.setRuta(ruta);
+        turno.setDiaSemana(dia);
+        turno.setHoraInicio(LocalTime.of(horaInicio, 0));
+        turno.setHoraFin(LocalTime.of(horaFin, 0));
+        turno.setNumeroSemana(1);
+        turno.setEstado(EstadoTurno.ACTIVO);
+        return turno;
+    }
+}
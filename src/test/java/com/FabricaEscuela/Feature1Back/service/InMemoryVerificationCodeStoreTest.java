@@ -0,0 +1,149 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.service.VerificationCodeStore.ResultadoVerificacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para InMemoryVerificationCodeStore
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("InMemoryVerificationCodeStore - Pruebas Unitarias")
+class InMemoryVerificationCodeStoreTest {
+
+    private static final long VIGENCIA = 300_000L;
+
+    // Reloj controlado por la prueba (ms)
+    private final AtomicLong ahora = new AtomicLong(1_900_000_000_000L);
+    private InMemoryVerificationCodeStore store;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryVerificationCodeStore(3, ahora::get);
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setCorreo("test@example.com");
+    }
+
+    @Test
+    @DisplayName("Verificar - Un código válido se consume y no sirve dos veces")
+    void testVerificar_ValidoSeConsume() {
+        // Arrange
+        store.guardar(usuario, "123456", VIGENCIA);
+
+        // Act
+        ResultadoVerificacion primero = store.verificar(usuario, "123456");
+        ResultadoVerificacion segundo = store.verificar(usuario, "123456");
+
+        // Assert
+        assertEquals(ResultadoVerificacion.VALIDO, primero);
+        assertEquals(ResultadoVerificacion.INVALIDO, segundo);
+        assertEquals(0, store.tamano());
+    }
+
+    @Test
+    @DisplayName("Guardar - Un código nuevo reemplaza al anterior")
+    void testGuardar_ReemplazaAnterior() {
+        // Arrange
+        store.guardar(usuario, "111111", VIGENCIA);
+        store.guardar(usuario, "222222", VIGENCIA);
+
+        // Act & Assert
+        assertEquals(ResultadoVerificacion.INVALIDO, store.verificar(usuario, "111111"));
+        assertEquals(ResultadoVerificacion.VALIDO, store.verificar(usuario, "222222"));
+    }
+
+    @Test
+    @DisplayName("Verificar - Un código vencido se informa como expirado y se descarta")
+    void testVerificar_Expirado() {
+        // Arrange
+        store.guardar(usuario, "123456", VIGENCIA);
+        ahora.addAndGet(VIGENCIA);
+
+        // Act
+        ResultadoVerificacion resultado = store.verificar(usuario, "123456");
+
+        // Assert
+        assertEquals(ResultadoVerificacion.EXPIRADO, resultado);
+        assertEquals(0, store.tamano());
+    }
+
+    @Test
+    @DisplayName("Verificar - Tras el máximo de intentos fallidos el código se descarta")
+    void testVerificar_BloqueaTrasIntentos() {
+        // Arrange: máximo 3 intentos
+        store.guardar(usuario, "123456", VIGENCIA);
+
+        // Act
+        ResultadoVerificacion primero = store.verificar(usuario, "000000");
+        ResultadoVerificacion segundo = store.verificar(usuario, "000001");
+        ResultadoVerificacion tercero = store.verificar(usuario, "000002");
+
+        // Assert: ni siquiera el correcto sirve ya
+        assertEquals(ResultadoVerificacion.INVALIDO, primero);
+        assertEquals(ResultadoVerificacion.INVALIDO, segundo);
+        assertEquals(ResultadoVerificacion.BLOQUEADO, tercero);
+        assertEquals(ResultadoVerificacion.INVALIDO, store.verificar(usuario, "123456"));
+    }
+
+    @Test
+    @DisplayName("Purga - Elimina solo los códigos vencidos")
+    void testPurgarExpirados() {
+        // Arrange
+        Usuario otro = new Usuario();
+        otro.setId(2L);
+        store.guardar(usuario, "123456", VIGENCIA);
+        store.guardar(otro, "654321", VIGENCIA * 2);
+        ahora.addAndGet(VIGENCIA);
+
+        // Act
+        store.purgarExpirados();
+
+        // Assert
+        assertEquals(1, store.tamano());
+        assertEquals(ResultadoVerificacion.VALIDO, store.verificar(otro, "654321"));
+    }
+
+    @Test
+    @DisplayName("Concurrencia - Un mismo código solo lo consume una verificación")
+    void testVerificar_ConcurrenteUnSoloValido() throws Exception {
+        // Arrange
+        int hilos = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            for (int ronda = 0; ronda < 200; ronda++) {
+                store.guardar(usuario, "123456", VIGENCIA);
+                List<Callable<ResultadoVerificacion>> tareas = new ArrayList<>();
+                for (int i = 0; i < hilos; i++) {
+                    tareas.add(() -> store.verificar(usuario, "123456"));
+                }
+
+                // Act
+                int validos = 0;
+                for (Future<ResultadoVerificacion> resultado : executor.invokeAll(tareas)) {
+                    if (resultado.get() == ResultadoVerificacion.VALIDO) {
+                        validos++;
+                    }
+                }
+
+                // Assert
+                assertEquals(1, validos);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
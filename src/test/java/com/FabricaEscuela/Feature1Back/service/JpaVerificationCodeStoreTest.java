@@ -0,0 +1,136 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.Rol;
+import com.FabricaEscuela.Feature1Back.entity.Usuario;
+import com.FabricaEscuela.Feature1Back.repository.CodigoVerificacionRepository;
+import com.FabricaEscuela.Feature1Back.repository.UsuarioRepository;
+import com.FabricaEscuela.Feature1Back.service.VerificationCodeStore.ResultadoVerificacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de JpaVerificationCodeStore contra la base (verification.code.store=jpa)
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DataJpaTest(properties = {
+        "verification.code.store=jpa",
+        "verification.code.max-intentos=3",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+// El inicializador de la aplicación, que también carga en este contexto, necesita un PasswordEncoder
+@Import({JpaVerificationCodeStore.class, BCryptPasswordEncoder.class})
+@DisplayName("JpaVerificationCodeStore - Pruebas de Persistencia")
+class JpaVerificationCodeStoreTest {
+
+    private static final long VIGENCIA = 300_000L;
+
+    @Autowired
+    private VerificationCodeStore store;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CodigoVerificacionRepository codigoVerificacionRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setCorreo("codigos@fleetguard.com");
+        usuario.setPassword("hash");
+        usuario.setRol(Rol.CONDUCTOR);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @Test
+    @DisplayName("Configuración - Con store=jpa se usa el almacén en tabla")
+    void testConfiguracion_StoreJpa() {
+        // Assert
+        assertInstanceOf(JpaVerificationCodeStore.class, store);
+    }
+
+    @Test
+    @DisplayName("Verificar - Un código válido se consume y no sirve dos veces")
+    void testVerificar_ValidoSeConsume() {
+        // Arrange
+        store.guardar(usuario, "123456", VIGENCIA);
+
+        // Act
+        ResultadoVerificacion primero = store.verificar(usuario, "123456");
+        ResultadoVerificacion segundo = store.verificar(usuario, "123456");
+
+        // Assert
+        assertEquals(ResultadoVerificacion.VALIDO, primero);
+        assertEquals(ResultadoVerificacion.INVALIDO, segundo);
+    }
+
+    @Test
+    @DisplayName("Verificar - Un código incorrecto es inválido y cuenta el intento")
+    void testVerificar_Invalido() {
+        // Arrange
+        store.guardar(usuario, "123456", VIGENCIA);
+
+        // Act
+        ResultadoVerificacion resultado = store.verificar(usuario, "654321");
+
+        // Assert: el código sigue vigente con un intento fallido
+        assertEquals(ResultadoVerificacion.INVALIDO, resultado);
+        assertEquals(1, codigoVerificacionRepository
+                .findFirstByUsuarioAndUsadoFalseOrderByIdDesc(usuario).orElseThrow().getIntentos());
+        assertEquals(ResultadoVerificacion.VALIDO, store.verificar(usuario, "123456"));
+    }
+
+    @Test
+    @DisplayName("Verificar - Un código vencido se informa como expirado")
+    void testVerificar_Expirado() {
+        // Arrange
+        store.guardar(usuario, "123456", -1_000L);
+
+        // Act
+        ResultadoVerificacion resultado = store.verificar(usuario, "123456");
+
+        // Assert
+        assertEquals(ResultadoVerificacion.EXPIRADO, resultado);
+    }
+
+    @Test
+    @DisplayName("Verificar - Tras el máximo de intentos fallidos el código se descarta")
+    void testVerificar_BloqueaTrasIntentos() {
+        // Arrange: máximo 3 intentos
+        store.guardar(usuario, "123456", VIGENCIA);
+
+        // Act
+        ResultadoVerificacion primero = store.verificar(usuario, "000000");
+        ResultadoVerificacion segundo = store.verificar(usuario, "000001");
+        ResultadoVerificacion tercero = store.verificar(usuario, "000002");
+
+        // Assert: ni siquiera el correcto sirve ya
+        assertEquals(ResultadoVerificacion.INVALIDO, primero);
+        assertEquals(ResultadoVerificacion.INVALIDO, segundo);
+        assertEquals(ResultadoVerificacion.BLOQUEADO, tercero);
+        assertEquals(ResultadoVerificacion.INVALIDO, store.verificar(usuario, "123456"));
+    }
+
+    @Test
+    @DisplayName("Guardar - Un código nuevo reemplaza al anterior")
+    void testGuardar_ReemplazaAnterior() {
+        // Arrange
+        store.guardar(usuario, "111111", VIGENCIA);
+        store.guardar(usuario, "222222", VIGENCIA);
+
+        // Act & Assert
+        assertEquals(ResultadoVerificacion.INVALIDO, store.verificar(usuario, "111111"));
+        assertEquals(ResultadoVerificacion.VALIDO, store.verificar(usuario, "222222"));
+        assertEquals(1, codigoVerificacionRepository.count());
+    }
+}
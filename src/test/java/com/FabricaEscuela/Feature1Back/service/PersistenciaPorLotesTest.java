@@ -0,0 +1,87 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.CorreoPendiente;
+import com.FabricaEscuela.Feature1Back.entity.EstadoCorreo;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inserción por lotes dentro de la transacción de un llamador que ya tiene entidades cargadas:
+ * solo las insertadas deben salir del contexto de persistencia.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:persistencia_lotes;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=2",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@DisplayName("PersistenciaPorLotes - Transacción del llamador")
+class PersistenciaPorLotesTest {
+
+    @Autowired
+    private PersistenciaPorLotes persistenciaPorLotes;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Insertar - Solo se desasocian las entidades insertadas, no las del llamador")
+    void testInsertarEnLotes_ConservaContextoDelLlamador() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Arrange: una entidad gestionada por la transacción del llamador, con un cambio sin guardar
+            Ruta ruta = new Ruta();
+            ruta.setNombre("Ruta 1");
+            ruta.setOrigen("A");
+            ruta.setDestino("B");
+            ruta.setDuracionEnMinutos(30);
+            entityManager.persist(ruta);
+            ruta.setNombre("Ruta 1 modificada");
+
+            List<CorreoPendiente> correos = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                correos.add(CorreoPendiente.builder()
+                        .destinatario("conductor" + i + "@fleetguard.com")
+                        .asunto("Asunto " + i)
+                        .cuerpo("Cuerpo " + i)
+                        .estado(EstadoCorreo.PENDIENTE)
+                        .intentos(0)
+                        .proximoIntento(LocalDateTime.now())
+                        .fechaCreacion(LocalDateTime.now())
+                        .build());
+            }
+
+            // Act
+            List<CorreoPendiente> insertados = persistenciaPorLotes.insertarEnLotes(correos);
+
+            // Assert
+            assertTrue(entityManager.contains(ruta));
+            for (CorreoPendiente correo : insertados) {
+                assertNotNull(correo.getId());
+                assertFalse(entityManager.contains(correo));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            assertEquals("Ruta 1 modificada", entityManager.find(Ruta.class, ruta.getId()).getNombre());
+            assertEquals(5L, entityManager.createQuery(
+                    "select count(c) from CorreoPendiente c where c.asunto like 'Asunto %'", Long.class)
+                    .getSingleResult());
+            status.setRollbackOnly();
+        });
+    }
+}
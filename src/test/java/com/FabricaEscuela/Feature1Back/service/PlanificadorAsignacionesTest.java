@@ -0,0 +1,190 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.Conductor;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para PlanificadorAsignaciones
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("PlanificadorAsignaciones - Pruebas Unitarias")
+class PlanificadorAsignacionesTest {
+
+    // 2030-01-07 es lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+    private static final LocalDate DOMINGO = LUNES.plusDays(6);
+
+    private ConductorOcupacionIndex index;
+    private PlanificadorAsignaciones planificador;
+
+    @BeforeEach
+    void setUp() {
+        index = new ConductorOcupacionIndex(480);
+        planificador = new PlanificadorAsignaciones(index, 48, 2, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        planificador.detener();
+    }
+
+    @Test
+    @DisplayName("Planificar - Reparte las horas de forma pareja entre conductores")
+    void testPlanificar_RepartoEquilibrado() {
+        // Arrange: 6 turnos de 8 h (lunes a sábado) para 3 conductores
+        List<Turno> turnos = new ArrayList<>();
+        for (int d = 0; d < 6; d++) {
+            turnos.add(turno(d + 1L, DayOfWeek.of(d + 1), 6, 14));
+        }
+
+        // Act
+        PlanificadorAsignaciones.Plan plan = planificador.planificar(turnos, conductores(3), LUNES, DOMINGO);
+
+        // Assert
+        assertTrue(plan.turnosSinAsignar().isEmpty());
+        assertEquals(Map.of(1L, 960, 2L, 960, 3L, 960), plan.minutosPorConductor());
+    }
+
+    @Test
+    @DisplayName("Planificar - No asigna turnos que se cruzan o sin descanso mínimo al mismo conductor")
+    void testPlanificar_SinSolapamientoNiFaltaDeDescanso() {
+        // Arrange: el segundo turno empieza 1 h después de terminar el primero
+        List<Turno> turnos = List.of(
+                turno(1L, DayOfWeek.MONDAY, 6, 12),
+                turno(2L, DayOfWeek.MONDAY, 13, 19));
+
+        // Act
+        PlanificadorAsignaciones.Plan plan = planificador.planificar(turnos, conductores(1), LUNES, DOMINGO);
+
+        // Assert
+        assertEquals(1, plan.conductorPorTurno().size());
+        assertEquals(1, plan.turnosSinAsignar().size());
+    }
+
+    @Test
+    @DisplayName("Planificar - Respeta las horas máximas por semana")
+    void testPlanificar_HorasMaximas() {
+        // Arrange: máximo de 16 h y tres turnos de 8 h
+        planificador.detener();
+        planificador = new PlanificadorAsignaciones(index, 16, 2, 20);
+        List<Turno> turnos = List.of(
+                turno(1L, DayOfWeek.MONDAY, 6, 14),
+                turno(2L, DayOfWeek.WEDNESDAY, 6, 14),
+                turno(3L, DayOfWeek.FRIDAY, 6, 14));
+
+        // Act
+        PlanificadorAsignaciones.Plan plan = planificador.planificar(turnos, conductores(1), LUNES, DOMINGO);
+
+        // Assert
+        assertEquals(2, plan.conductorPorTurno().size());
+        assertEquals(960, plan.minutosPorConductor().get(1L));
+    }
+
+    @Test
+    @DisplayName("Planificar - Las asignaciones vigentes cuentan como ocupación y como horas")
+    void testPlanificar_RespetaAsignacionesVigentes() {
+        // Arrange: el conductor 1 ya trabaja el lunes de 06:00 a 14:00
+        index.registrar(asignacion(100L, 1L, turno(50L, DayOfWeek.MONDAY, 6, 14)));
+        List<Turno> turnos = List.of(turno(1L, DayOfWeek.MONDAY, 10, 18));
+
+        // Act
+        PlanificadorAsignaciones.Plan plan = planificador.planificar(turnos, conductores(2), LUNES, DOMINGO);
+
+        // Assert
+        assertEquals(2L, plan.conductorPorTurno().get(1L));
+        assertEquals(480, plan.minutosPorConductor().get(1L));
+        assertEquals(480, plan.minutosPorConductor().get(2L));
+    }
+
+    @Test
+    @DisplayName("Planificar - Un plan aleatorio grande cumple todas las restricciones")
+    void testPlanificar_PlanGrandeValido() {
+        // Arrange: 1000 turnos aleatorios para 150 conductores
+        Random aleatorio = new Random(11);
+        List<Turno> turnos = new ArrayList<>();
+        for (long i = 1; i <= 1000; i++) {
+            int inicio = aleatorio.nextInt(24);
+            turnos.add(turno(i, DayOfWeek.of(1 + aleatorio.nextInt(7)), inicio, (inicio + 4 + aleatorio.nextInt(5)) % 24));
+        }
+
+        // Act
+        PlanificadorAsignaciones.Plan plan = planificador.planificar(turnos, conductores(150), LUNES, DOMINGO);
+
+        // Assert
+        assertEquals(1000, plan.conductorPorTurno().size() + plan.turnosSinAsignar().size());
+        Map<Long, Turno> porId = turnos.stream().collect(Collectors.toMap(Turno::getId, t -> t));
+        Map<Long, List<Turno>> porConductor = plan.conductorPorTurno().entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(e -> porId.get(e.getKey()), Collectors.toList())));
+        porConductor.forEach((conductorId, asignados) -> {
+            int minutos = 0;
+            for (int a = 0; a < asignados.size(); a++) {
+                Turno turnoA = asignados.get(a);
+                minutos += fin(turnoA) - inicio(turnoA);
+                for (int b = a + 1; b < asignados.size(); b++) {
+                    Turno turnoB = asignados.get(b);
+                    assertFalse(ConductorOcupacionIndex.chocan(inicio(turnoA), fin(turnoA),
+                            inicio(turnoB), fin(turnoB), 480), "Turnos en conflicto para " + conductorId);
+                }
+            }
+            assertTrue(minutos <= 48 * 60);
+            assertEquals(minutos, plan.minutosPorConductor().get(conductorId));
+        });
+    }
+
+    private List<Long> conductores(int cantidad) {
+        return LongStream.rangeClosed(1, cantidad).boxed().collect(Collectors.toList());
+    }
+
+    private int inicio(Turno turno) {
+        return ConductorOcupacionIndex.inicioSemanal(turno.getDiaSemana(), turno.getHoraInicio());
+    }
+
+    private int fin(Turno turno) {
+        return ConductorOcupacionIndex.finSemanal(turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin());
+    }
+
+    private Turno turno(Long id, DayOfWeek dia, int horaInicio, int horaFin) {
+        Turno turno = Turno.builder()
+                .diaSemana(dia)
+                .horaInicio(LocalTime.of(horaInicio, 0))
+                .horaFin(LocalTime.of(horaFin, 0))
+                .numeroSemana(1)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+        turno.setId(id);
+        return turno;
+    }
+
+    private AsignacionTurno asignacion(Long id, Long conductorId, Turno turno) {
+        Conductor conductor = new Conductor();
+        conductor.setId(conductorId);
+        return AsignacionTurno.builder()
+                .id(id)
+                .turno(turno)
+                .conductor(conductor)
+                .fechaInicio(LUNES)
+                .fechaFin(DOMINGO)
+                .estado(EstadoAsignacion.PROGRAMADA)
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.EventoCambioDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para PublicadorCambios
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("PublicadorCambios - Pruebas Unitarias")
+class PublicadorCambiosTest {
+
+    // Las tareas de envío se acumulan y se ejecutan a mano, como si el cliente tardara en leer
+    private final List<Runnable> tareas = new ArrayList<>();
+    private PublicadorCambios publicador;
+
+    @BeforeEach
+    void setUp() {
+        publicador = new PublicadorCambios(8, 4, 0L, tareas::add);
+    }
+
+    @Test
+    @DisplayName("Publicar - Cada suscriptor recibe solo los eventos de su ruta o conductor")
+    void testPublicar_Filtros() {
+        // Arrange
+        SalidaEnMemoria porRuta = new SalidaEnMemoria();
+        SalidaEnMemoria porConductor = new SalidaEnMemoria();
+        publicador.suscribir(new PublicadorCambios.Filtro(1L, null), null, porRuta);
+        publicador.suscribir(new PublicadorCambios.Filtro(null, 7L), null, porConductor);
+
+        // Act
+        publicador.publicarTodos(List.of(
+                evento(EventoCambioDTO.Tipo.TURNO_CREADO, 1L, null),
+                evento(EventoCambioDTO.Tipo.ASIGNACION_CREADA, 2L, 7L),
+                evento(EventoCambioDTO.Tipo.ASIGNACION_INICIADA, 1L, 7L)));
+        ejecutarTareas();
+
+        // Assert
+        assertEquals(List.of(EventoCambioDTO.Tipo.TURNO_CREADO, EventoCambioDTO.Tipo.ASIGNACION_INICIADA),
+                porRuta.tipos());
+        assertEquals(List.of(EventoCambioDTO.Tipo.ASIGNACION_CREADA, EventoCambioDTO.Tipo.ASIGNACION_INICIADA),
+                porConductor.tipos());
+    }
+
+    @Test
+    @DisplayName("Publicar - Un turno actualizado llega a los suscriptores de sus conductores")
+    void testPublicar_TurnoConConductores() {
+        // Arrange
+        SalidaEnMemoria porConductor = new SalidaEnMemoria();
+        SalidaEnMemoria otroConductor = new SalidaEnMemoria();
+        publicador.suscribir(new PublicadorCambios.Filtro(null, 7L), null, porConductor);
+        publicador.suscribir(new PublicadorCambios.Filtro(null, 8L), null, otroConductor);
+        EventoCambioDTO actualizado = evento(EventoCambioDTO.Tipo.TURNO_ACTUALIZADO, 1L, null);
+        actualizado.setConductorIds(List.of(3L, 7L));
+
+        // Act
+        publicador.publicarTodos(List.of(actualizado, evento(EventoCambioDTO.Tipo.TURNO_CREADO, 1L, null)));
+        ejecutarTareas();
+
+        // Assert
+        assertEquals(List.of(EventoCambioDTO.Tipo.TURNO_ACTUALIZADO), porConductor.tipos());
+        assertTrue(otroConductor.tipos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Reanudar - Con el último id recibido se entregan solo los eventos posteriores")
+    void testReanudar_DesdeUltimoId() {
+        // Arrange
+        List<EventoCambioDTO> publicados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            publicados.add(evento(EventoCambioDTO.Tipo.TURNO_ACTUALIZADO, i % 2 == 0 ? 1L : 2L, null));
+        }
+        publicador.publicarTodos(publicados);
+        SalidaEnMemoria salida = new SalidaEnMemoria();
+
+        // Act: el cliente había recibido hasta el segundo evento
+        publicador.suscribir(new PublicadorCambios.Filtro(1L, null), publicados.get(1).getId(), salida);
+        ejecutarTareas();
+
+        // Assert
+        assertEquals(List.of(publicados.get(2).getId(), publicados.get(4).getId()),
+                salida.recibidos.stream().map(EventoCambioDTO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Reanudar - Si el historial ya no tiene el último id se pide recargar todo")
+    void testReanudar_HistorialInsuficiente() {
+        // Arrange: 12 eventos con un historial de 8
+        List<EventoCambioDTO> publicados = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            publicados.add(evento(EventoCambioDTO.Tipo.TURNO_CREADO, 1L, null));
+        }
+        publicador.publicarTodos(publicados);
+        SalidaEnMemoria salida = new SalidaEnMemoria();
+
+        // Act
+        publicador.suscribir(new PublicadorCambios.Filtro(null, null), publicados.get(1).getId(), salida);
+        publicador.publicar(evento(EventoCambioDTO.Tipo.TURNO_ELIMINADO, 1L, null));
+        ejecutarTareas();
+
+        // Assert
+        assertEquals(List.of(EventoCambioDTO.Tipo.REINICIO, EventoCambioDTO.Tipo.TURNO_ELIMINADO), salida.tipos());
+        assertNull(salida.recibidos.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Contrapresión - Un cliente lento pierde los eventos más antiguos y se le avisa cuántos")
+    void testContrapresion_DescartaLosMasAntiguos() {
+        // Arrange: buffer de 4 por suscriptor
+        SalidaEnMemoria lenta = new SalidaEnMemoria();
+        publicador.suscribir(new PublicadorCambios.Filtro(null, null), null, lenta);
+        List<EventoCambioDTO> publicados = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            publicados.add(evento(EventoCambioDTO.Tipo.ASIGNACION_CREADA, 1L, 1L));
+        }
+
+        // Act: nada se envía hasta que corre la tarea del suscriptor
+        publicador.publicarTodos(publicados);
+        assertEquals(1, tareas.size());
+        ejecutarTareas();
+
+        // Assert
+        assertEquals(EventoCambioDTO.Tipo.DESCARTADOS, lenta.recibidos.get(0).getTipo());
+        assertEquals(6L, lenta.recibidos.get(0).getDatos());
+        assertEquals(publicados.subList(6, 10), lenta.recibidos.subList(1, 5));
+    }
+
+    @Test
+    @DisplayName("Desconexión - Un cliente que falla al recibir se elimina sin afectar a los demás")
+    void testDesconexion_SeEliminaElSuscriptor() {
+        // Arrange
+        SalidaEnMemoria caida = new SalidaEnMemoria();
+        caida.fallar = true;
+        SalidaEnMemoria activa = new SalidaEnMemoria();
+        publicador.suscribir(new PublicadorCambios.Filtro(null, null), null, caida);
+        publicador.suscribir(new PublicadorCambios.Filtro(null, null), null, activa);
+
+        // Act
+        publicador.publicar(evento(EventoCambioDTO.Tipo.TURNO_CREADO, 1L, null));
+        ejecutarTareas();
+        publicador.enviarLatidos();
+        ejecutarTareas();
+
+        // Assert
+        assertTrue(caida.cerrada);
+        assertEquals(1, publicador.suscriptores());
+        assertEquals(1, activa.recibidos.size());
+        assertEquals(1, activa.latidos);
+    }
+
+    private void ejecutarTareas() {
+        while (!tareas.isEmpty()) {
+            tareas.remove(0).run();
+        }
+    }
+
+    private EventoCambioDTO evento(EventoCambioDTO.Tipo tipo, Long rutaId, Long conductorId) {
+        return EventoCambioDTO.builder()
+                .tipo(tipo)
+                .rutaId(rutaId)
+                .conductorId(conductorId)
+                .build();
+    }
+
+    private static class SalidaEnMemoria implements PublicadorCambios.Salida {
+
+        private final List<EventoCambioDTO> recibidos = new ArrayList<>();
+        private int latidos;
+        private boolean fallar;
+        private boolean cerrada;
+
+        @Override
+        public void enviar(EventoCambioDTO evento) throws IOException {
+            if (fallar) {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+            recibidos.add(evento);
+        }
+
+        @Override
+        public void latido() {
+            latidos++;
+        }
+
+        @Override
+        public void cerrar() {
+            cerrada = true;
+        }
+
+        private List<EventoCambioDTO.Tipo> tipos() {
+            return recibidos.stream().map(EventoCambioDTO::getTipo).collect(Collectors.toList());
+        }
+    }
+}
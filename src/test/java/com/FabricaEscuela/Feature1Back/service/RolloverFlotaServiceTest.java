@@ -0,0 +1,276 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.EventoCambioDTO;
+import com.FabricaEscuela.Feature1Back.DTO.RolloverEstadoDTO;
+import com.FabricaEscuela.Feature1Back.DTO.RolloverRequest;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.mapper.TurnoMapper;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para RolloverFlotaService
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RolloverFlotaService - Pruebas Unitarias")
+class RolloverFlotaServiceTest {
+
+    @Mock
+    private RutaRepository rutaRepository;
+
+    @Mock
+    private TurnoRepository turnoRepository;
+
+    @Mock
+    private PersistenciaPorLotes persistenciaPorLotes;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PublicadorCambios publicadorCambios;
+
+    private TurnoScheduleIndex turnoScheduleIndex;
+    private ExecutorService executor;
+    private final List<Integer> avances = Collections.synchronizedList(new ArrayList<>());
+    private final TrabajoHandler.AvanceTrabajo avance = (progreso, total) -> avances.add(progreso);
+    private RolloverFlotaService rolloverFlotaService;
+
+    @BeforeEach
+    void setUp() {
+        turnoScheduleIndex = new TurnoScheduleIndex();
+        executor = Executors.newFixedThreadPool(4);
+        TurnoService turnoService = new TurnoService();
+        ReflectionTestUtils.setField(turnoService, "turnoMapper", Mappers.getMapper(TurnoMapper.class));
+        ReflectionTestUtils.setField(turnoService, "publicadorCambios", publicadorCambios);
+        rolloverFlotaService = new RolloverFlotaService(rutaRepository, turnoRepository, turnoService,
+                turnoScheduleIndex, persistenciaPorLotes, transactionTemplate, executor, 2);
+
+        // La transacción ejecuta el callback directamente
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        // Simula la asignación de ids por secuencia
+        lenient().when(persistenciaPorLotes.insertarEnLotes(anyList())).thenAnswer(inv -> {
+            List<Turno> turnos = inv.getArgument(0);
+            long id = 1000;
+            for (Turno turno : turnos) {
+                turno.setId(id++ + turno.getRuta().getId() * 100);
+            }
+            return turnos;
+        });
+    }
+
+    @Test
+    @DisplayName("Rollover de toda la flota - Copia cada ruta y reporta rutas sin turnos")
+    void testEjecutarRollover_TodaLaFlota() {
+        // Arrange: rutas 1..5; la ruta 4 no tiene turnos en la semana origen
+        when(rutaRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(turnoRepository.findByRutaIdInAndNumeroSemana(anyCollection(), eq(1))).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            List<Turno> turnos = new ArrayList<>();
+            for (Long rutaId : ids) {
+                if (rutaId != 4L) {
+                    turnos.add(turno(rutaId, DayOfWeek.MONDAY, 6, 14));
+                    turnos.add(turno(rutaId, DayOfWeek.MONDAY, 14, 22));
+                }
+            }
+            return turnos;
+        });
+
+        // Act
+        RolloverEstadoDTO estado = rolloverFlotaService.ejecutarRollover(request(1, 2, 0), avance);
+
+        // Assert
+        assertEquals(5, estado.getTotalRutas());
+        assertEquals(5, estado.getRutasProcesadas());
+        assertEquals(4, estado.getRutasExitosas());
+        assertEquals(8, estado.getTurnosCreados());
+        assertEquals("No hay turnos en la semana origen", estado.getErrores().get(4L));
+        assertTrue(estado.isCompletado());
+        assertEquals(List.of(0, 5), List.of(avances.get(0), avances.get(avances.size() - 1)));
+        // Bloques de 2 rutas: 3 transacciones, cada una con su lote de eventos TURNO_CREADO
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(publicadorCambios).publicarTodos(argThat(eventos -> eventos.size() == 4
+                && eventos.iterator().next().getTipo() == EventoCambioDTO.Tipo.TURNO_CREADO));
+        verify(publicadorCambios, times(2)).publicarTodos(argThat(eventos -> eventos.size() == 2));
+        assertEquals(1, turnoScheduleIndex.buscarEnHora(1L, 2, DayOfWeek.MONDAY, LocalTime.of(7, 0)).size());
+    }
+
+    @Test
+    @DisplayName("Rollover con rotación - Desplaza el día de los turnos copiados")
+    void testEjecutarRollover_ConRotacion() {
+        // Arrange
+        when(turnoRepository.findByRutaIdInAndNumeroSemana(anyCollection(), eq(1)))
+                .thenReturn(List.of(turno(1L, DayOfWeek.SUNDAY, 6, 14)));
+
+        // Act
+        RolloverRequest request = request(1, 2, 1);
+        request.setRutaIds(List.of(1L));
+        RolloverEstadoDTO estado = rolloverFlotaService.ejecutarRollover(request, avance);
+
+        // Assert: domingo + 1 = lunes
+        assertEquals(1, estado.getTurnosCreados());
+        assertEquals(1, turnoScheduleIndex.buscarEnHora(1L, 2, DayOfWeek.MONDAY, LocalTime.of(7, 0)).size());
+        verify(rutaRepository).findAllByIdParaActualizar(List.of(1L));
+        verify(rutaRepository, never()).findAllIds();
+    }
+
+    @Test
+    @DisplayName("Rollover - Ruta con solapamiento en la semana destino se reporta como fallida")
+    void testEjecutarRollover_SolapamientoEnDestino() {
+        // Arrange: la semana destino ya tiene en la base un turno de 10 a 12 en la ruta 2 (aún no en el índice)
+        Turno existente = turno(2L, DayOfWeek.MONDAY, 10, 12);
+        existente.setId(1L);
+        existente.setNumeroSemana(2);
+        when(turnoRepository.findByRutaIdInAndNumeroSemanaIn(anyCollection(), eq(List.of(1, 2, 3))))
+                .thenReturn(List.of(existente));
+        when(turnoRepository.findByRutaIdInAndNumeroSemana(anyCollection(), eq(1)))
+                .thenReturn(List.of(turno(1L, DayOfWeek.MONDAY, 6, 14), turno(2L, DayOfWeek.MONDAY, 6, 14)));
+
+        // Act
+        RolloverRequest request = request(1, 2, 0);
+        request.setRutaIds(List.of(1L, 2L));
+        RolloverEstadoDTO estado = rolloverFlotaService.ejecutarRollover(request, avance);
+
+        // Assert
+        assertEquals(1, estado.getRutasExitosas());
+        assertTrue(estado.getErrores().get(2L).startsWith("El turno se solapa con un turno existente"));
+    }
+
+    @Test
+    @DisplayName("Rollover - Un turno nocturno del domingo anterior choca con el lunes copiado")
+    void testEjecutarRollover_SolapamientoNocturno() {
+        // Arrange: domingo de la semana 1 de 22 a 07 en la ruta 1; la copia pone un turno el lunes de la semana 2 a las 6
+        Turno nocturno = turno(1L, DayOfWeek.SUNDAY, 22, 7);
+        nocturno.setId(1L);
+        when(turnoRepository.findByRutaIdInAndNumeroSemanaIn(anyCollection(), eq(List.of(1, 2, 3))))
+                .thenReturn(List.of(nocturno));
+        when(turnoRepository.findByRutaIdInAndNumeroSemana(anyCollection(), eq(1)))
+                .thenReturn(List.of(turno(1L, DayOfWeek.MONDAY, 6, 14)));
+
+        // Act
+        RolloverRequest request = request(1, 2, 0);
+        request.setRutaIds(List.of(1L));
+        RolloverEstadoDTO estado = rolloverFlotaService.ejecutarRollover(request, avance);
+
+        // Assert
+        assertEquals(0, estado.getRutasExitosas());
+        assertTrue(estado.getErrores().get(1L).startsWith("El turno se solapa con un turno existente"));
+    }
+
+    @Test
+    @DisplayName("Rollover - Reintento: una ruta ya copiada por el intento anterior no se duplica ni falla")
+    void testEjecutarRollover_RutaYaCopiada() {
+        // Arrange: la ruta 1 ya tiene su copia en la semana destino (el bloque se confirmó antes del reinicio)
+        Turno copiado = turno(1L, DayOfWeek.MONDAY, 6, 14);
+        copiado.setId(7L);
+        copiado.setNumeroSemana(2);
+        when(turnoRepository.findByRutaIdInAndNumeroSemana(anyCollection(), eq(1)))
+                .thenReturn(List.of(turno(1L, DayOfWeek.MONDAY, 6, 14), turno(2L, DayOfWeek.MONDAY, 6, 14)));
+        when(turnoRepository.findByRutaIdInAndNumeroSemanaIn(anyCollection(), eq(List.of(1, 2, 3))))
+                .thenReturn(List.of(copiado));
+
+        // Act
+        RolloverRequest request = request(1, 2, 0);
+        request.setRutaIds(List.of(1L, 2L));
+        RolloverEstadoDTO estado = rolloverFlotaService.ejecutarRollover(request, avance);
+
+        // Assert: solo se crea la copia de la ruta 2
+        assertEquals(2, estado.getRutasExitosas());
+        assertEquals(1, estado.getTurnosCreados());
+        assertTrue(estado.getErrores().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Rollover - Un Error en un bloque no deja esperando al trabajo")
+    void testEjecutarRollover_ErrorEnBloque() {
+        // Arrange: el bloque de las rutas 1 y 2 revienta con un Error; el de la ruta 3 se copia
+        doAnswer(inv -> {
+            List<Turno> creados = (List<Turno>) inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            if (creados.stream().anyMatch(turno -> turno.getRuta().getId() == 1L)) {
+                throw new OutOfMemoryError("simulado");
+            }
+            return creados;
+        }).when(transactionTemplate).execute(any());
+        when(turnoRepository.findByRutaIdInAndNumeroSemana(anyCollection(), eq(1))).thenAnswer(inv ->
+                inv.<Collection<Long>>getArgument(0).stream()
+                        .map(rutaId -> turno(rutaId, DayOfWeek.MONDAY, 6, 14))
+                        .toList());
+
+        // Act
+        RolloverRequest request = request(1, 2, 0);
+        request.setRutaIds(List.of(1L, 2L, 3L));
+        RolloverEstadoDTO estado = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> rolloverFlotaService.ejecutarRollover(request, avance));
+
+        // Assert
+        assertEquals(3, estado.getRutasProcesadas());
+        assertEquals(1, estado.getRutasExitosas());
+        assertTrue(estado.getErrores().get(1L).contains("simulado"));
+        assertTrue(estado.getErrores().get(2L).contains("simulado"));
+    }
+
+    @Test
+    @DisplayName("Rollover - Semana origen igual a destino sin rotación")
+    void testValidar_MismaSemana() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> rolloverFlotaService.validar(request(3, 3, 0)));
+        assertEquals("La semana destino debe ser distinta a la semana origen", exception.getMessage());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private RolloverRequest request(int origen, int destino, int rotacion) {
+        RolloverRequest request = new RolloverRequest();
+        request.setSemanaOrigen(origen);
+        request.setSemanaDestino(destino);
+        request.setRotacionDias(rotacion);
+        return request;
+    }
+
+    private Turno turno(Long rutaId, DayOfWeek dia, int horaInicio, int horaFin) {
+        Ruta ruta = new Ruta();
+        ruta.setId(rutaId);
+        Turno turno = new Turno();
+        turno.setRuta(ruta);
+        turno.setDiaSemana(dia);
+        turno.setHoraInicio(LocalTime.of(horaInicio, 0));
+        turno.setHoraFin(LocalTime.of(horaFin, 0));
+        turno.setDuracionHoras(horaFin - horaInicio);
+        turno.setNumeroSemana(1);
+        turno.setEstado(EstadoTurno.ACTIVO);
+        return turno;
+    }
+}
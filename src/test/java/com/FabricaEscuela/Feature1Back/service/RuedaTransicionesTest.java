@@ -0,0 +1,225 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para RuedaTransiciones
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("RuedaTransiciones - Pruebas Unitarias")
+class RuedaTransicionesTest {
+
+    // 2030-01-07 es lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    private RuedaTransiciones rueda;
+
+    @BeforeEach
+    void setUp() {
+        rueda = new RuedaTransiciones(48, LUNES.atTime(5, 0));
+    }
+
+    @Test
+    @DisplayName("Avanzar - Inicia y finaliza en el minuto del turno, no antes")
+    void testAvanzar_EnElMinutoDelTurno() {
+        // Arrange
+        rueda.programar(asignacion(1L, turno(DayOfWeek.MONDAY, 6, 14), EstadoAsignacion.PROGRAMADA));
+
+        // Act & Assert
+        assertTrue(rueda.avanzar(LUNES.atTime(5, 59)).vacia());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.atTime(6, 0, 30)).aIniciar());
+        assertTrue(rueda.avanzar(LUNES.atTime(13, 59)).vacia());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.atTime(14, 0)).aFinalizar());
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    @DisplayName("Programar - Los límites fuera del horizonte se agregan cuando se acercan")
+    void testProgramar_FueraDelHorizonte() {
+        // Arrange: turno del lunes siguiente
+        AsignacionTurno asignacion = asignacion(1L, turno(DayOfWeek.MONDAY, 6, 14), EstadoAsignacion.PROGRAMADA);
+        asignacion.setFechaInicio(LUNES.plusWeeks(1));
+        asignacion.setFechaFin(LUNES.plusWeeks(1));
+
+        // Act
+        rueda.programar(asignacion);
+        int antes = rueda.tamano();
+        rueda.avanzar(LUNES.plusDays(6).atTime(7, 0));
+        rueda.programar(asignacion);
+
+        // Assert
+        assertEquals(0, antes);
+        assertEquals(1, rueda.tamano());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.plusWeeks(1).atTime(6, 0)).aIniciar());
+    }
+
+    @Test
+    @DisplayName("Reprogramar - Las entradas de un horario anterior o de asignaciones retiradas no se disparan")
+    void testReprogramar_EntradasObsoletas() {
+        // Arrange
+        Turno turno = turno(DayOfWeek.MONDAY, 6, 14);
+        AsignacionTurno movida = asignacion(1L, turno, EstadoAsignacion.PROGRAMADA);
+        rueda.programar(movida);
+        rueda.programar(asignacion(2L, turno(DayOfWeek.MONDAY, 6, 14), EstadoAsignacion.PROGRAMADA));
+
+        // Act: el turno pasa a las 08:00 y la segunda asignación se cancela
+        turno.setHoraInicio(LocalTime.of(8, 0));
+        turno.setHoraFin(LocalTime.of(16, 0));
+        rueda.programar(movida);
+        rueda.retirar(2L);
+
+        // Assert
+        assertTrue(rueda.avanzar(LUNES.atTime(7, 0)).vacia());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.atTime(8, 0)).aIniciar());
+        assertTrue(rueda.avanzar(LUNES.atTime(14, 0)).vacia());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.atTime(16, 0)).aFinalizar());
+    }
+
+    @Test
+    @DisplayName("Atrasadas - Tras un reinicio los límites vencidos salen en el siguiente avance, inicio y fin")
+    void testAtrasadas_SalenEnElSiguienteAvance() {
+        // Arrange: la rueda arranca después del fin del turno
+        rueda = new RuedaTransiciones(48, LUNES.atTime(15, 0));
+        rueda.programar(asignacion(1L, turno(DayOfWeek.MONDAY, 6, 14), EstadoAsignacion.PROGRAMADA));
+        rueda.programar(asignacion(2L, turno(DayOfWeek.MONDAY, 8, 12), EstadoAsignacion.EN_CURSO));
+
+        // Act
+        RuedaTransiciones.Vencidas vencidas = rueda.avanzar(LUNES.atTime(15, 1));
+
+        // Assert
+        assertEquals(List.of(1L), vencidas.aIniciar());
+        assertEquals(List.of(1L, 2L), vencidas.aFinalizar());
+    }
+
+    @Test
+    @DisplayName("Reintentar - Los límites reintentados salen en el siguiente avance y un fin espera a su inicio")
+    void testReintentar_FinEsperaAlInicio() {
+        // Arrange: ambos límites vencidos; el lote de inicios falló
+        rueda = new RuedaTransiciones(48, LUNES.atTime(15, 0));
+        rueda.programar(asignacion(1L, turno(DayOfWeek.MONDAY, 6, 14), EstadoAsignacion.PROGRAMADA));
+        rueda.avanzar(LUNES.atTime(15, 1));
+
+        // Act: se reintenta primero el fin y luego el inicio
+        rueda.reintentar(RuedaTransiciones.Limite.FIN, List.of(1L));
+        rueda.reintentar(RuedaTransiciones.Limite.INICIO, List.of(1L));
+        RuedaTransiciones.Vencidas primero = rueda.avanzar(LUNES.atTime(15, 2));
+        RuedaTransiciones.Vencidas despues = rueda.avanzar(LUNES.atTime(15, 3));
+
+        // Assert
+        assertEquals(List.of(1L), primero.aIniciar());
+        assertTrue(primero.aFinalizar().isEmpty());
+        assertEquals(List.of(1L), despues.aFinalizar());
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    @DisplayName("Turno nocturno - El fin cae al día siguiente")
+    void testTurnoNocturno_FinAlDiaSiguiente() {
+        // Arrange
+        rueda.programar(asignacion(1L, turno(DayOfWeek.MONDAY, 22, 6), EstadoAsignacion.PROGRAMADA));
+
+        // Act & Assert
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.atTime(22, 0)).aIniciar());
+        assertTrue(rueda.avanzar(LUNES.atTime(23, 59)).vacia());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.plusDays(1).atTime(6, 0)).aFinalizar());
+    }
+
+    @Test
+    @DisplayName("Sin fecha fin - Cada semana se cierra la jornada y se programa la siguiente")
+    void testSinFechaFin_JornadaPorSemana() {
+        // Arrange
+        AsignacionTurno asignacion = asignacion(1L, turno(DayOfWeek.MONDAY, 6, 14), EstadoAsignacion.PROGRAMADA);
+        asignacion.setFechaFin(null);
+        rueda.programar(asignacion);
+
+        // Act: primera jornada
+        RuedaTransiciones.Vencidas inicio = rueda.avanzar(LUNES.atTime(6, 0));
+        RuedaTransiciones.Vencidas cierre = rueda.avanzar(LUNES.atTime(14, 0));
+        // La jornada cerrada vuelve a PROGRAMADA; la siguiente entra al horizonte con la recarga
+        asignacion.setEstado(EstadoAsignacion.PROGRAMADA);
+        rueda.avanzar(LUNES.plusDays(6).atTime(7, 0));
+        rueda.programar(asignacion);
+
+        // Assert
+        assertEquals(List.of(1L), inicio.aIniciar());
+        assertEquals(List.of(1L), cierre.aCerrar());
+        assertTrue(cierre.aFinalizar().isEmpty());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.plusWeeks(1).atTime(6, 0)).aIniciar());
+        assertEquals(List.of(1L), rueda.avanzar(LUNES.plusWeeks(1).atTime(14, 0)).aCerrar());
+    }
+
+    @Test
+    @DisplayName("Varias semanas - Las jornadas intermedias se cierran y la última finaliza")
+    void testVariasSemanas_UltimaFinaliza() {
+        // Arrange: dos lunes; la primera jornada ya está en curso
+        rueda = new RuedaTransiciones(24 * 9, LUNES.atTime(5, 0));
+        AsignacionTurno asignacion = asignacion(1L, turno(DayOfWeek.MONDAY, 6, 14), EstadoAsignacion.EN_CURSO);
+        asignacion.setFechaFin(LUNES.plusDays(9));
+        asignacion.setHoraInicioReal(LUNES.atTime(6, 2));
+        rueda.programar(asignacion);
+
+        // Act
+        RuedaTransiciones.Vencidas primera = rueda.avanzar(LUNES.atTime(14, 0));
+        asignacion.setEstado(EstadoAsignacion.PROGRAMADA);
+        rueda.programar(asignacion);
+        RuedaTransiciones.Vencidas inicio = rueda.avanzar(LUNES.plusWeeks(1).atTime(6, 0));
+        RuedaTransiciones.Vencidas ultima = rueda.avanzar(LUNES.plusWeeks(1).atTime(14, 0));
+
+        // Assert
+        assertEquals(List.of(1L), primera.aCerrar());
+        assertEquals(List.of(1L), inicio.aIniciar());
+        assertEquals(List.of(1L), ultima.aFinalizar());
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    @DisplayName("Jornada - La vigente es la primera que aún no terminó, aunque cruce la medianoche")
+    void testJornada_Vigente() {
+        // Arrange: turno nocturno del lunes, sin fecha fin
+        AsignacionTurno asignacion = asignacion(1L, turno(DayOfWeek.MONDAY, 22, 6), EstadoAsignacion.PROGRAMADA);
+        asignacion.setFechaFin(null);
+
+        // Act
+        RuedaTransiciones.Jornada enCurso = RuedaTransiciones.jornada(asignacion, LUNES.plusDays(1).atTime(5, 0));
+        RuedaTransiciones.Jornada siguiente = RuedaTransiciones.jornada(asignacion, LUNES.plusDays(1).atTime(6, 0));
+
+        // Assert
+        assertEquals(LUNES.atTime(22, 0), enCurso.inicio());
+        assertEquals(LUNES.plusDays(1).atTime(6, 0), enCurso.fin());
+        assertEquals(LUNES.plusWeeks(1).atTime(22, 0), siguiente.inicio());
+        assertFalse(siguiente.ultima());
+    }
+
+    private Turno turno(DayOfWeek dia, int horaInicio, int horaFin) {
+        return Turno.builder()
+                .diaSemana(dia)
+                .horaInicio(LocalTime.of(horaInicio, 0))
+                .horaFin(LocalTime.of(horaFin, 0))
+                .numeroSemana(1)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+    }
+
+    private AsignacionTurno asignacion(Long id, Turno turno, EstadoAsignacion estado) {
+        return AsignacionTurno.builder()
+                .id(id)
+                .turno(turno)
+                .fechaInicio(LUNES)
+                .fechaFin(LUNES)
+                .estado(estado)
+                .build();
+    }
+}
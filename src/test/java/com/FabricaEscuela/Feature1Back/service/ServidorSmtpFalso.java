@@ -0,0 +1,108 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo en un puerto local para las pruebas del envío de correos.
+ * Cuenta conexiones y guarda los mensajes aceptados; puede rechazar los próximos DATA
+ * con un 451 o cerrar la conexión después de cada mensaje.
+ */
+class ServidorSmtpFalso implements AutoCloseable {
+
+    private final ServerSocket servidor;
+    private final Thread aceptador;
+    private final List<Socket> clientes = new CopyOnWriteArrayList<>();
+
+    final List<String> mensajes = new CopyOnWriteArrayList<>();
+    final AtomicInteger conexiones = new AtomicInteger();
+    final AtomicInteger rechazosPendientes = new AtomicInteger();
+    volatile boolean cerrarTrasCadaMensaje;
+
+    ServidorSmtpFalso() throws IOException {
+        servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        aceptador = new Thread(this::aceptar, "smtp-falso");
+        aceptador.setDaemon(true);
+        aceptador.start();
+    }
+
+    int puerto() {
+        return servidor.getLocalPort();
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket cliente = servidor.accept();
+                conexiones.incrementAndGet();
+                clientes.add(cliente);
+                Thread atencion = new Thread(() -> atender(cliente), "smtp-falso-cliente");
+                atencion.setDaemon(true);
+                atencion.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket cliente) {
+        try (cliente;
+             BufferedReader entrada = new BufferedReader(
+                     new InputStreamReader(cliente.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter salida = new PrintWriter(cliente.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            responder(salida, "220 localhost SMTP falso");
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                String comando = linea.toUpperCase();
+                if (comando.startsWith("EHLO") || comando.startsWith("HELO")) {
+                    responder(salida, "250 localhost");
+                } else if (comando.startsWith("DATA")) {
+                    responder(salida, "354 Fin con <CRLF>.<CRLF>");
+                    StringBuilder mensaje = new StringBuilder();
+                    while ((linea = entrada.readLine()) != null && !linea.equals(".")) {
+                        mensaje.append(linea).append('\n');
+                    }
+                    if (rechazosPendientes.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        responder(salida, "451 Intente más tarde");
+                        continue;
+                    }
+                    mensajes.add(mensaje.toString());
+                    responder(salida, "250 Aceptado");
+                    if (cerrarTrasCadaMensaje) {
+                        return;
+                    }
+                } else if (comando.startsWith("QUIT")) {
+                    responder(salida, "221 Adiós");
+                    return;
+                } else {
+                    // MAIL FROM, RCPT TO, RSET, NOOP
+                    responder(salida, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // El cliente cerró la conexión
+        }
+    }
+
+    private void responder(PrintWriter salida, String respuesta) {
+        salida.print(respuesta + "\r\n");
+        salida.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        for (Socket cliente : clientes) {
+            cliente.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.TrabajoDTO;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTrabajo;
+import com.FabricaEscuela.Feature1Back.entity.Trabajo;
+import com.FabricaEscuela.Feature1Back.repository.TrabajoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para TrabajoService
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrabajoService - Pruebas Unitarias")
+class TrabajoServiceTest {
+
+    @Mock
+    private TrabajoRepository trabajoRepository;
+
+    // Simula la tabla de trabajos
+    private final Map<String, Trabajo> tabla = new ConcurrentHashMap<>();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private ThreadPoolExecutor executor;
+    private TrabajoService trabajoService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        trabajoService = new TrabajoService(trabajoRepository, new ObjectMapper(),
+                List.of(new SumaTrabajo(), new FalloTrabajo(), new BloqueoTrabajo()), executor, 24);
+
+        lenient().when(trabajoRepository.save(any(Trabajo.class))).thenAnswer(inv -> {
+            Trabajo trabajo = inv.getArgument(0);
+            tabla.put(trabajo.getId(), copia(trabajo));
+            return trabajo;
+        });
+        lenient().when(trabajoRepository.findById(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(tabla.get((String) inv.getArgument(0))).map(this::copia));
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Enviar trabajo - Se ejecuta en segundo plano y guarda el resultado")
+    void testEnviar_Completado() throws Exception {
+        // Act
+        TrabajoDTO enviado = trabajoService.enviar("SUMA", Map.of("a", 2, "b", 3));
+        TrabajoDTO fin = trabajoService.esperarFin(enviado.getId()).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(EstadoTrabajo.PENDIENTE, enviado.getEstado());
+        assertEquals(EstadoTrabajo.COMPLETADO, fin.getEstado());
+        assertEquals(1, fin.getIntentos());
+        assertEquals("{\"suma\":5}", trabajoService.obtenerResultado(enviado.getId()));
+        verify(trabajoRepository).actualizarProgreso(enviado.getId(), 1, 1);
+    }
+
+    @Test
+    @DisplayName("Enviar trabajo - Un error del trabajo lo marca como FALLIDO")
+    void testEnviar_Fallido() throws Exception {
+        // Act
+        TrabajoDTO enviado = trabajoService.enviar("FALLO", Map.of());
+        TrabajoDTO fin = trabajoService.esperarFin(enviado.getId()).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(EstadoTrabajo.FALLIDO, fin.getEstado());
+        assertEquals("Ruta no encontrada", fin.getError());
+        assertThrows(IllegalStateException.class, () -> trabajoService.obtenerResultado(enviado.getId()));
+    }
+
+    @Test
+    @DisplayName("Enviar trabajo - Tipo no soportado")
+    void testEnviar_TipoNoSoportado() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> trabajoService.enviar("DESCONOCIDO", Map.of()));
+        assertEquals("Tipo de trabajo no soportado: DESCONOCIDO", exception.getMessage());
+        verify(trabajoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Enviar trabajo - Con la cola llena se rechaza sin registrar el trabajo")
+    void testEnviar_ColaLlena() {
+        // Arrange: un trabajo ocupa el único hilo y otro llena la cola
+        trabajoService.enviar("BLOQUEO", Map.of());
+        trabajoService.enviar("BLOQUEO", Map.of());
+        int registrados = tabla.size();
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> trabajoService.enviar("SUMA", Map.of("a", 1, "b", 1)));
+        assertEquals(registrados, tabla.size());
+    }
+
+    @Test
+    @DisplayName("Recuperar trabajos - Reencola los interrumpidos por un reinicio")
+    void testRecuperarTrabajosPendientes() throws Exception {
+        // Arrange: trabajo que estaba en ejecución cuando se detuvo la aplicación
+        Trabajo interrumpido = Trabajo.builder()
+                .id("t-1")
+                .tipo("SUMA")
+                .estado(EstadoTrabajo.EN_EJECUCION)
+                .parametros("{\"a\":4,\"b\":4}")
+                .intentos(1)
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+        tabla.put("t-1", interrumpido);
+        when(trabajoRepository.findByEstadoInOrderByFechaCreacion(anyCollection()))
+                .thenReturn(List.of(copia(interrumpido)));
+
+        // Act
+        trabajoService.recuperarTrabajosPendientes();
+        TrabajoDTO fin = trabajoService.esperarFin("t-1").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(EstadoTrabajo.COMPLETADO, fin.getEstado());
+        assertEquals(2, fin.getIntentos());
+        assertEquals("{\"suma\":8}", trabajoService.obtenerResultado("t-1"));
+    }
+
+    @Test
+    @DisplayName("Purgar - Borra solo los terminados más antiguos que la retención")
+    void testPurgarTerminados() {
+        // Arrange
+        when(trabajoRepository.eliminarTerminadosAntesDe(anyCollection(), any())).thenReturn(3);
+        LocalDateTime antes = LocalDateTime.now().minusHours(24);
+
+        // Act
+        int purgados = trabajoService.purgarTerminados();
+
+        // Assert
+        assertEquals(3, purgados);
+        verify(trabajoRepository).eliminarTerminadosAntesDe(
+                eq(EnumSet.of(EstadoTrabajo.COMPLETADO, EstadoTrabajo.FALLIDO)),
+                argThat(limite -> !limite.isBefore(antes) && limite.isBefore(antes.plusMinutes(1))));
+    }
+
+    private Trabajo copia(Trabajo t) {
+        return new Trabajo(t.getId(), t.getTipo(), t.getEstado(), t.getParametros(), t.getResultado(),
+                t.getError(), t.getProgreso(), t.getTotal(), t.getIntentos(),
+                t.getFechaCreacion(), t.getFechaInicio(), t.getFechaFin());
+    }
+
+    private static class SumaTrabajo implements TrabajoHandler {
+        @Override
+        public String tipo() {
+            return "SUMA";
+        }
+
+        @Override
+        public Object ejecutar(JsonNode parametros, AvanceTrabajo avance) {
+            avance.actualizar(1, 1);
+            return Map.of("suma", parametros.get("a").asInt() + parametros.get("b").asInt());
+        }
+    }
+
+    private static class FalloTrabajo implements TrabajoHandler {
+        @Override
+        public String tipo() {
+            return "FALLO";
+        }
+
+        @Override
+        public Object ejecutar(JsonNode parametros, AvanceTrabajo avance) {
+            throw new RuntimeException("Ruta no encontrada");
+        }
+    }
+
+    private class BloqueoTrabajo implements TrabajoHandler {
+        @Override
+        public String tipo() {
+            return "BLOQUEO";
+        }
+
+        @Override
+        public Object ejecutar(JsonNode parametros, AvanceTrabajo avance) {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+}
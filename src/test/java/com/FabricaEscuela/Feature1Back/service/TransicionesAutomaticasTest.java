@@ -0,0 +1,154 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.ResultadoTransicionLoteDTO;
+import com.FabricaEscuela.Feature1Back.entity.AsignacionTurno;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para TransicionesAutomaticas
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransicionesAutomaticas - Pruebas Unitarias")
+class TransicionesAutomaticasTest {
+
+    // 2030-01-07 es lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private AsignacionTurnoService asignacionTurnoService;
+
+    @Mock
+    private AsignacionTurnoRepository asignacionTurnoRepository;
+
+    private RuedaTransiciones rueda;
+    private TransicionesAutomaticas transiciones;
+
+    @BeforeEach
+    void setUp() {
+        rueda = new RuedaTransiciones(48, LUNES.atTime(5, 0));
+        transiciones = new TransicionesAutomaticas(rueda, asignacionTurnoService, asignacionTurnoRepository);
+    }
+
+    @Test
+    @DisplayName("Avanzar - Aplica los inicios en lote antes que los fines")
+    void testAvanzar_IniciosAntesQueFines() {
+        // Arrange: la 1 empieza a las 06:00 y termina a las 08:00; la 2 ya está en curso y termina a las 07:00
+        rueda.programar(asignacion(1L, 6, 8, EstadoAsignacion.PROGRAMADA));
+        rueda.programar(asignacion(2L, 5, 7, EstadoAsignacion.EN_CURSO));
+        when(asignacionTurnoService.iniciarTurnosEnLote(anyList())).thenAnswer(inv -> exitosas(inv.getArgument(0)));
+        when(asignacionTurnoService.finalizarTurnosEnLote(anyList())).thenAnswer(inv -> exitosas(inv.getArgument(0)));
+
+        // Act
+        TransicionesAutomaticas.Resultado resultado = transiciones.avanzar(LUNES.atTime(8, 0));
+
+        // Assert
+        assertEquals(new TransicionesAutomaticas.Resultado(1, 0, 2), resultado);
+        InOrder orden = inOrder(asignacionTurnoService);
+        orden.verify(asignacionTurnoService).iniciarTurnosEnLote(List.of(1L));
+        orden.verify(asignacionTurnoService).finalizarTurnosEnLote(List.of(2L, 1L));
+        verifyNoInteractions(asignacionTurnoRepository);
+    }
+
+    @Test
+    @DisplayName("Avanzar - Sin límites vencidos no se toca la base de datos")
+    void testAvanzar_SinVencidas() {
+        // Arrange
+        rueda.programar(asignacion(1L, 6, 8, EstadoAsignacion.PROGRAMADA));
+
+        // Act
+        TransicionesAutomaticas.Resultado resultado = transiciones.avanzar(LUNES.atTime(5, 59));
+
+        // Assert
+        assertEquals(new TransicionesAutomaticas.Resultado(0, 0, 0), resultado);
+        verifyNoInteractions(asignacionTurnoService, asignacionTurnoRepository);
+    }
+
+    @Test
+    @DisplayName("Fallo - Un lote que falla se reintenta en el siguiente avance junto con su fin")
+    void testFallo_SeReintentaEnElSiguienteAvance() {
+        // Arrange: inicio y fin ya vencidos; el primer intento de inicio choca con otra operación
+        rueda.programar(asignacion(1L, 6, 8, EstadoAsignacion.PROGRAMADA));
+        when(asignacionTurnoService.iniciarTurnosEnLote(anyList()))
+                .thenThrow(new RuntimeException("Las asignaciones cambiaron durante la actualización; intente de nuevo"))
+                .thenAnswer(inv -> exitosas(inv.getArgument(0)));
+        when(asignacionTurnoService.finalizarTurnosEnLote(anyList())).thenAnswer(inv -> exitosas(inv.getArgument(0)));
+
+        // Act
+        TransicionesAutomaticas.Resultado primero = transiciones.avanzar(LUNES.atTime(9, 0));
+        TransicionesAutomaticas.Resultado segundo = transiciones.avanzar(LUNES.atTime(9, 1));
+
+        // Assert
+        assertEquals(new TransicionesAutomaticas.Resultado(0, 0, 0), primero);
+        assertEquals(new TransicionesAutomaticas.Resultado(1, 0, 1), segundo);
+        verify(asignacionTurnoService, times(2)).iniciarTurnosEnLote(List.of(1L));
+        verify(asignacionTurnoService, times(1)).finalizarTurnosEnLote(List.of(1L));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    @DisplayName("Avanzar - Sin fecha fin la jornada se cierra en vez de finalizar la asignación")
+    void testAvanzar_SinFechaFinCierraJornada() {
+        // Arrange
+        AsignacionTurno asignacion = asignacion(1L, 6, 8, EstadoAsignacion.PROGRAMADA);
+        asignacion.setFechaFin(null);
+        rueda.programar(asignacion);
+        when(asignacionTurnoService.iniciarTurnosEnLote(anyList())).thenAnswer(inv -> exitosas(inv.getArgument(0)));
+        when(asignacionTurnoService.cerrarJornadasEnLote(anyList())).thenAnswer(inv -> exitosas(inv.getArgument(0)));
+
+        // Act
+        TransicionesAutomaticas.Resultado inicio = transiciones.avanzar(LUNES.atTime(6, 0));
+        TransicionesAutomaticas.Resultado fin = transiciones.avanzar(LUNES.atTime(8, 0));
+
+        // Assert
+        assertEquals(new TransicionesAutomaticas.Resultado(1, 0, 0), inicio);
+        assertEquals(new TransicionesAutomaticas.Resultado(0, 1, 0), fin);
+        verify(asignacionTurnoService).cerrarJornadasEnLote(List.of(1L));
+        verify(asignacionTurnoService, never()).finalizarTurnosEnLote(anyList());
+    }
+
+    private ResultadoTransicionLoteDTO exitosas(List<Long> ids) {
+        return ResultadoTransicionLoteDTO.builder()
+                .total(ids.size())
+                .exitosas(ids.size())
+                .fallidas(0)
+                .resultados(List.of())
+                .build();
+    }
+
+    private AsignacionTurno asignacion(Long id, int horaInicio, int horaFin, EstadoAsignacion estado) {
+        Turno turno = Turno.builder()
+                .diaSemana(DayOfWeek.MONDAY)
+                .horaInicio(LocalTime.of(horaInicio, 0))
+                .horaFin(LocalTime.of(horaFin, 0))
+                .numeroSemana(1)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+        return AsignacionTurno.builder()
+                .id(id)
+                .turno(turno)
+                .fechaInicio(LUNES)
+                .fechaFin(LUNES)
+                .estado(estado)
+                .build();
+    }
+}
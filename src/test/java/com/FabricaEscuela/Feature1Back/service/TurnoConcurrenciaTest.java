@@ -0,0 +1,110 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.CrearTurnoRequest;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
+import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos altas simultáneas de turnos solapados en la misma ruta: el índice solo se actualiza
+ * después del commit, así que sin el bloqueo de la ruta ambas pasarían la validación.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:turnos_concurrentes;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@DisplayName("TurnoService - Altas concurrentes")
+class TurnoConcurrenciaTest {
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private RutaRepository rutaRepository;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Crear - Solo uno de dos turnos solapados se confirma")
+    void testCrearTurno_SolapadosEnParalelo() throws Exception {
+        // Arrange
+        Ruta ruta = new Ruta();
+        ruta.setNombre("Ruta concurrencia");
+        ruta.setOrigen("A");
+        ruta.setDestino("B");
+        ruta.setDuracionEnMinutos(60);
+        Long rutaId = rutaRepository.save(ruta).getId();
+        CountDownLatch creado = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act: el primero mantiene su transacción abierta después de crear el turno;
+        // el segundo arranca recién entonces y tiene que esperar el bloqueo de la ruta
+        Future<?> primero = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            turnoService.crearTurno(request(rutaId, 6, 14));
+            creado.countDown();
+            dormir(300);
+        }));
+        Future<?> segundo = executor.submit(() -> {
+            esperar(creado);
+            turnoService.crearTurno(request(rutaId, 10, 18));
+        });
+
+        // Assert
+        primero.get(30, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> segundo.get(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals("El turno se solapa con otro turno de la misma ruta y día", error.getCause().getMessage());
+        assertEquals(1, turnoRepository.findByRutaIdAndNumeroSemanaIn(rutaId, List.of(1)).size());
+    }
+
+    private static CrearTurnoRequest request(Long rutaId, int horaInicio, int horaFin) {
+        CrearTurnoRequest request = new CrearTurnoRequest();
+        request.setRutaId(rutaId);
+        request.setDiaSemana(DayOfWeek.MONDAY);
+        request.setHoraInicio(LocalTime.of(horaInicio, 0));
+        request.setHoraFin(LocalTime.of(horaFin, 0));
+        request.setNumeroSemana(1);
+        return request;
+    }
+
+    private static void esperar(CountDownLatch senal) {
+        try {
+            if (!senal.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("El primer turno no se creó a tiempo");
+            }
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Ruta;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para TurnoScheduleIndex
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("TurnoScheduleIndex - Pruebas Unitarias")
+class TurnoScheduleIndexTest {
+
+    private TurnoScheduleIndex index;
+    private Ruta rutaNorte;
+    private Ruta rutaSur;
+
+    @BeforeEach
+    void setUp() {
+        index = new TurnoScheduleIndex();
+
+        rutaNorte = new Ruta();
+        rutaNorte.setId(1L);
+        rutaSur = new Ruta();
+        rutaSur.setId(2L);
+
+        index.reconstruir(List.of(
+                turno(1L, rutaNorte, DayOfWeek.TUESDAY, 5, 13),
+                turno(2L, rutaNorte, DayOfWeek.TUESDAY, 13, 21),
+                turno(3L, rutaNorte, DayOfWeek.TUESDAY, 21, 23),
+                turno(4L, rutaSur, DayOfWeek.TUESDAY, 12, 16),
+                turno(5L, rutaNorte, DayOfWeek.WEDNESDAY, 13, 21)
+        ));
+    }
+
+    @Test
+    @DisplayName("Solapados por ruta - Solo turnos de la misma ruta, semana y día")
+    void testBuscarSolapados_PorRuta() {
+        // Act
+        List<Long> ids = index.buscarSolapados(1L, 1, DayOfWeek.TUESDAY, LocalTime.of(13, 0), LocalTime.of(15, 0));
+
+        // Assert
+        assertEquals(List.of(2L), ids);
+    }
+
+    @Test
+    @DisplayName("Solapados - Los límites son semiabiertos")
+    void testBuscarSolapados_LimitesSemiabiertos() {
+        // Act
+        List<Long> ids = index.buscarSolapados(1L, 1, DayOfWeek.TUESDAY, LocalTime.of(12, 0), LocalTime.of(13, 0));
+
+        // Assert
+        assertEquals(List.of(1L), ids);
+    }
+
+    @Test
+    @DisplayName("En hora - Consulta de toda la flota")
+    void testBuscarEnHora_Flota() {
+        // Act
+        List<Long> ids = index.buscarEnHora(null, 1, DayOfWeek.TUESDAY, LocalTime.of(14, 0));
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(2L, 4L)));
+    }
+
+    @Test
+    @DisplayName("Registrar - Actualizar un turno reemplaza su intervalo anterior")
+    void testRegistrar_ActualizaIntervalo() {
+        // Act
+        index.registrarTodos(List.of(turno(2L, rutaNorte, DayOfWeek.TUESDAY, 15, 20)));
+
+        // Assert
+        assertTrue(index.buscarEnHora(1L, 1, DayOfWeek.TUESDAY, LocalTime.of(14, 0)).isEmpty());
+        assertEquals(List.of(2L), index.buscarEnHora(1L, 1, DayOfWeek.TUESDAY, LocalTime.of(16, 0)));
+        assertEquals(5, index.tamano());
+    }
+
+    @Test
+    @DisplayName("Registrar - Un turno cancelado sale del índice")
+    void testRegistrar_TurnoCancelado() {
+        // Arrange
+        Turno cancelado = turno(4L, rutaSur, DayOfWeek.TUESDAY, 12, 16);
+        cancelado.setEstado(EstadoTurno.CANCELADO);
+
+        // Act
+        index.registrarTodos(List.of(cancelado));
+
+        // Assert
+        assertEquals(List.of(2L), index.buscarEnHora(null, 1, DayOfWeek.TUESDAY, LocalTime.of(14, 0)));
+    }
+
+    @Test
+    @DisplayName("Eliminar - El turno deja de aparecer en las consultas")
+    void testEliminar() {
+        // Act
+        index.eliminar(1L);
+
+        // Assert
+        assertTrue(index.buscarEnHora(1L, 1, DayOfWeek.TUESDAY, LocalTime.of(6, 0)).isEmpty());
+        assertEquals(4, index.tamano());
+    }
+
+    @Test
+    @DisplayName("Solapados - Coincide con un recorrido lineal en un índice grande")
+    void testBuscarSolapados_CoincideConRecorridoLineal() {
+        // Arrange: 2.000 turnos de toda la flota el mismo día
+        List<Turno> turnos = new ArrayList<>();
+        for (long i = 1; i <= 2000; i++) {
+            Ruta ruta = new Ruta();
+            ruta.setId(i % 100);
+            int inicio = (int) (i * 7 % 20);
+            turnos.add(turno(i, ruta, DayOfWeek.FRIDAY, inicio, inicio + 1 + (int) (i % 4)));
+        }
+        index.reconstruir(turnos);
+
+        for (int hora = 0; hora < 23; hora++) {
+            LocalTime desde = LocalTime.of(hora, 30);
+            LocalTime hasta = LocalTime.of(hora + 1, 0);
+            long esperados = turnos.stream()
+                    .filter(t -> t.getHoraInicio().isBefore(hasta) && t.getHoraFin().isAfter(desde))
+                    .count();
+
+            // Act
+            List<Long> ids = index.buscarSolapados(null, 1, DayOfWeek.FRIDAY, desde, hasta);
+
+            // Assert
+            assertEquals(esperados, ids.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Validar lote - Turnos contiguos de una semana nueva son válidos")
+    void testValidarSinSolapamientos_LoteValido() {
+        // Arrange
+        List<Turno> lote = List.of(
+                turnoSemana(null, rutaNorte, DayOfWeek.TUESDAY, 5, 13, 2),
+                turnoSemana(null, rutaNorte, DayOfWeek.TUESDAY, 13, 21, 2),
+                turnoSemana(null, rutaSur, DayOfWeek.TUESDAY, 5, 13, 2));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> TurnoScheduleIndex.validarSinSolapamientos(lote, List.of()));
+    }
+
+    @Test
+    @DisplayName("Validar lote - Detecta solapamientos dentro del lote")
+    void testValidarSinSolapamientos_SolapadosEntreSi() {
+        // Arrange
+        List<Turno> lote = List.of(
+                turnoSemana(null, rutaNorte, DayOfWeek.MONDAY, 5, 13, 2),
+                turnoSemana(null, rutaNorte, DayOfWeek.MONDAY, 12, 20, 2));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> TurnoScheduleIndex.validarSinSolapamientos(lote, List.of()));
+        assertTrue(exception.getMessage().startsWith("Los turnos se solapan entre sí"));
+    }
+
+    @Test
+    @DisplayName("Validar lote - Detecta solapamientos con turnos existentes")
+    void testValidarSinSolapamientos_SolapadoConExistente() {
+        // Arrange
+        List<Turno> existentes = List.of(turno(3L, rutaNorte, DayOfWeek.TUESDAY, 21, 23));
+        List<Turno> lote = List.of(turnoSemana(null, rutaNorte, DayOfWeek.TUESDAY, 20, 22, 1));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> TurnoScheduleIndex.validarSinSolapamientos(lote, existentes));
+        assertTrue(exception.getMessage().startsWith("El turno se solapa con un turno existente"));
+    }
+
+    @Test
+    @DisplayName("Turno nocturno - Ocupa también la madrugada del día siguiente")
+    void testRegistrar_TurnoNocturnoEnDosDias() {
+        // Arrange: miércoles de 22 a 04
+        index.registrarTodos(List.of(turno(6L, rutaNorte, DayOfWeek.WEDNESDAY, 22, 4)));
+
+        // Act & Assert
+        assertEquals(List.of(6L), index.buscarEnHora(1L, 1, DayOfWeek.THURSDAY, LocalTime.of(3, 0)));
+        assertEquals(List.of(6L), index.buscarEnHora(null, 1, DayOfWeek.THURSDAY, LocalTime.of(3, 0)));
+        assertTrue(index.buscarEnHora(1L, 1, DayOfWeek.THURSDAY, LocalTime.of(4, 0)).isEmpty());
+        assertEquals(List.of(6L),
+                index.buscarSolapados(1L, 1, DayOfWeek.THURSDAY, LocalTime.of(2, 0), LocalTime.of(8, 0)));
+
+        index.eliminar(6L);
+        assertTrue(index.buscarEnHora(1L, 1, DayOfWeek.THURSDAY, LocalTime.of(3, 0)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Turno nocturno - El del domingo continúa el lunes de la semana siguiente")
+    void testRegistrar_TurnoNocturnoDomingo() {
+        // Arrange: domingo de la semana 52 de 23 a 05
+        index.registrarTodos(List.of(turnoSemana(7L, rutaNorte, DayOfWeek.SUNDAY, 23, 5, 52)));
+
+        // Act & Assert: después de la 52 sigue la 1
+        assertEquals(List.of(7L), index.buscarEnHora(1L, 1, DayOfWeek.MONDAY, LocalTime.of(1, 0)));
+        assertEquals(List.of(7L),
+                index.buscarSolapados(1L, 52, DayOfWeek.SUNDAY, LocalTime.of(22, 0), LocalTime.of(6, 0)));
+    }
+
+    @Test
+    @DisplayName("Validar contra la base - Considera los turnos nocturnos de la semana")
+    void testValidarSinSolapamientos_ContraTurnosLeidos() {
+        // Arrange: la base ya tiene un turno nocturno el lunes de la semana 3
+        Turno existente = turnoSemana(8L, rutaNorte, DayOfWeek.MONDAY, 20, 2, 3);
+        List<Turno> lote = List.of(turnoSemana(null, rutaNorte, DayOfWeek.TUESDAY, 1, 9, 3));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> TurnoScheduleIndex.validarSinSolapamientos(lote, List.of(existente)));
+        assertTrue(TurnoScheduleIndex.haySolapamiento(lote.get(0), List.of(existente)));
+        // Su propia versión guardada no cuenta como choque
+        assertFalse(TurnoScheduleIndex.haySolapamiento(existente, List.of(existente)));
+    }
+
+    @Test
+    @DisplayName("Semanas vecinas - Circulares entre la 52 y la 1")
+    void testSemanasVecinas() {
+        // Act & Assert
+        assertEquals(List.of(52, 1, 2), TurnoScheduleIndex.semanasVecinas(1));
+        assertEquals(List.of(51, 52, 1), TurnoScheduleIndex.semanasVecinas(52));
+        assertEquals(List.of(9, 10, 11), TurnoScheduleIndex.semanasVecinas(10));
+    }
+
+    private Turno turnoSemana(Long id, Ruta ruta, DayOfWeek dia, int horaInicio, int horaFin, int semana) {
+        Turno turno = turno(id, ruta, dia, horaInicio, horaFin);
+        turno.setNumeroSemana(semana);
+        return turno;
+    }
+
+    private Turno turno(Long id, Ruta ruta, DayOfWeek dia, int horaInicio, int horaFin) {
+        Turno turno = new Turno();
+        turno.setId(id);
+        turno.setRuta(ruta);
+        turno.setDiaSemana(dia);
+        turno.setHoraInicio(LocalTime.of(horaInicio, 0));
+        turno.setHoraFin(LocalTime.of(horaFin, 0));
+        turno.setNumeroSemana(1);
+        turno.setEstado(EstadoTurno.ACTIVO);
+        return turno;
+    }
+
+    @Test
+    @DisplayName("Duración - Los turnos que terminan a la misma hora o antes cruzan la medianoche")
+    void testDuracionMinutos_Nocturno() {
+        // Act & Assert
+        assertEquals(450, TurnoScheduleIndex.duracionMinutos(LocalTime.of(6, 0), LocalTime.of(13, 30)));
+        assertEquals(480, TurnoScheduleIndex.duracionMinutos(LocalTime.of(22, 0), LocalTime.of(6, 0)));
+        assertEquals(1380, TurnoScheduleIndex.duracionMinutos(LocalTime.of(10, 0), LocalTime.of(9, 0)));
+        assertEquals(1440, TurnoScheduleIndex.duracionMinutos(LocalTime.of(8, 0), LocalTime.of(8, 0)));
+        assertEquals(480, TurnoScheduleIndex.validarDuracion(LocalTime.of(22, 0), LocalTime.of(6, 0)));
+        assertThrows(RuntimeException.class,
+                () -> TurnoScheduleIndex.validarDuracion(LocalTime.of(8, 0), LocalTime.of(8, 0)));
+        assertThrows(RuntimeException.class,
+                () -> TurnoScheduleIndex.validarDuracion(LocalTime.of(10, 0), LocalTime.of(9, 0)));
+    }
+}
@@ -1,10 +1,14 @@
 package com.FabricaEscuela.Feature1Back.service;
 
 import com.FabricaEscuela.Feature1Back.DTO.CrearTurnoRequest;
+import com.FabricaEscuela.Feature1Back.DTO.EventoCambioDTO;
+import com.FabricaEscuela.Feature1Back.DTO.PaginaCursorDTO;
 import com.FabricaEscuela.Feature1Back.DTO.TurnoDTO;
 import com.FabricaEscuela.Feature1Back.entity.*;
 import com.FabricaEscuela.Feature1Back.mapper.TurnoMapper;
+import com.FabricaEscuela.Feature1Back.repository.AsignacionActivaResumen;
 import com.FabricaEscuela.Feature1Back.repository.AsignacionTurnoRepository;
+import com.FabricaEscuela.Feature1Back.repository.ConductorRepository;
 import com.FabricaEscuela.Feature1Back.repository.RutaRepository;
 import com.FabricaEscuela.Feature1Back.repository.TurnoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,15 +18,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -42,9 +55,30 @@ class TurnoServiceTest {
     @Mock
     private AsignacionTurnoRepository asignacionTurnoRepository;
 
+    @Mock
+    private ConductorRepository conductorRepository;
+
     @Mock
     private TurnoMapper turnoMapper;
 
+    @Mock
+    private TurnoScheduleIndex turnoScheduleIndex;
+
+    @Mock
+    private PersistenciaPorLotes persistenciaPorLotes;
+
+    @Mock
+    private ConductorOcupacionIndex conductorOcupacionIndex;
+
+    @Mock
+    private TurnosEnCursoRegistry turnosEnCursoRegistry;
+
+    @Mock
+    private PublicadorCambios publicadorCambios;
+
+    @Mock
+    private RuedaTransiciones ruedaTransiciones;
+
     @InjectMocks
     private TurnoService turnoService;
 
@@ -92,7 +126,7 @@ class TurnoServiceTest {
     @DisplayName("Crear turno - Exitoso")
     void testCrearTurno_Exitoso() {
         // Arrange
-        when(rutaRepository.findById(1L)).thenReturn(Optional.of(rutaMock));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
         when(turnoRepository.save(any(Turno.class))).thenReturn(turnoMock);
         when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
 
@@ -103,7 +137,7 @@ class TurnoServiceTest {
         assertNotNull(resultado);
         assertEquals(DayOfWeek.MONDAY, resultado.getDiaSemana());
         assertEquals(7, resultado.getDuracionHoras());
-        verify(rutaRepository, times(1)).findById(1L);
+        verify(rutaRepository, times(1)).findByIdParaActualizar(1L);
         verify(turnoRepository, times(1)).save(any(Turno.class));
         verify(turnoMapper, times(1)).toDTO(turnoMock);
     }
@@ -112,7 +146,7 @@ class TurnoServiceTest {
     @DisplayName("Crear turno - Ruta no encontrada")
     void testCrearTurno_RutaNoEncontrada() {
         // Arrange
-        when(rutaRepository.findById(1L)).thenReturn(Optional.empty());
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -120,7 +154,7 @@ class TurnoServiceTest {
         });
 
         assertEquals("Ruta no encontrada", exception.getMessage());
-        verify(rutaRepository, times(1)).findById(1L);
+        verify(rutaRepository, times(1)).findByIdParaActualizar(1L);
         verify(turnoRepository, never()).save(any());
     }
 
@@ -131,7 +165,7 @@ class TurnoServiceTest {
         crearTurnoRequest.setHoraInicio(LocalTime.of(6, 0));
         crearTurnoRequest.setHoraFin(LocalTime.of(23, 0)); // 17 horas
         
-        when(rutaRepository.findById(1L)).thenReturn(Optional.of(rutaMock));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -142,12 +176,61 @@ class TurnoServiceTest {
         verify(turnoRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Crear turno - Un turno nocturno cuenta hasta el día siguiente")
+    void testCrearTurno_NocturnoExcede8Horas() {
+        // Arrange: de 10:00 a 09:00 del día siguiente son 23 horas
+        crearTurnoRequest.setHoraInicio(LocalTime.of(10, 0));
+        crearTurnoRequest.setHoraFin(LocalTime.of(9, 0));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> turnoService.crearTurno(crearTurnoRequest));
+
+        assertEquals("El turno no puede exceder las 8 horas", exception.getMessage());
+        verify(turnoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Crear turno - Inicio y fin a la misma hora se rechaza")
+    void testCrearTurno_DuracionCero() {
+        // Arrange
+        crearTurnoRequest.setHoraInicio(LocalTime.of(8, 0));
+        crearTurnoRequest.setHoraFin(LocalTime.of(8, 0));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> turnoService.crearTurno(crearTurnoRequest));
+
+        assertEquals("La hora de fin debe ser distinta de la hora de inicio", exception.getMessage());
+        verify(turnoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Crear turno - Un turno nocturno guarda su duración real")
+    void testCrearTurno_NocturnoGuardaDuracion() {
+        // Arrange: de 22:00 a 06:00
+        crearTurnoRequest.setHoraInicio(LocalTime.of(22, 0));
+        crearTurnoRequest.setHoraFin(LocalTime.of(6, 0));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.save(any(Turno.class))).thenReturn(turnoMock);
+        when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
+
+        // Act
+        turnoService.crearTurno(crearTurnoRequest);
+
+        // Assert
+        verify(turnoRepository).save(argThat(turno -> turno.getDuracionHoras() == 8));
+    }
+
     @Test
     @DisplayName("Obtener todos los turnos - Lista con elementos")
     void testObtenerTodosTurnos_ConElementos() {
         // Arrange
         List<Turno> turnos = Arrays.asList(turnoMock);
-        when(turnoRepository.findAll()).thenReturn(turnos);
+        when(turnoRepository.findAllConRuta()).thenReturn(turnos);
 
         // Act
         List<TurnoDTO> resultado = turnoService.obtenerTodosTurnos();
@@ -155,7 +238,7 @@ class TurnoServiceTest {
         // Assert
         assertNotNull(resultado);
         assertFalse(resultado.isEmpty());
-        verify(turnoRepository, times(1)).findAll();
+        verify(turnoRepository, times(1)).findAllConRuta();
     }
 
     @Test
@@ -199,7 +282,7 @@ class TurnoServiceTest {
     void testObtenerTurnoPorId_Existente() {
         // Arrange
         Long id = 1L;
-        when(turnoRepository.findById(id)).thenReturn(Optional.of(turnoMock));
+        when(turnoRepository.findConRutaById(id)).thenReturn(Optional.of(turnoMock));
         when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
         when(asignacionTurnoRepository.findAsignacionActivaEnFecha(any(), any()))
                 .thenReturn(Optional.empty());
@@ -211,7 +294,7 @@ class TurnoServiceTest {
         assertNotNull(resultado);
         assertEquals(id, resultado.getId());
         assertEquals(DayOfWeek.MONDAY, resultado.getDiaSemana());
-        verify(turnoRepository, times(1)).findById(id);
+        verify(turnoRepository, times(1)).findConRutaById(id);
         verify(turnoMapper, times(1)).toDTO(turnoMock);
     }
 
@@ -220,7 +303,7 @@ class TurnoServiceTest {
     void testObtenerTurnoPorId_NoEncontrado() {
         // Arrange
         Long id = 999L;
-        when(turnoRepository.findById(id)).thenReturn(Optional.empty());
+        when(turnoRepository.findConRutaById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -228,7 +311,7 @@ class TurnoServiceTest {
         });
 
         assertEquals("Turno no encontrado", exception.getMessage());
-        verify(turnoRepository, times(1)).findById(id);
+        verify(turnoRepository, times(1)).findConRutaById(id);
     }
 
     @Test
@@ -238,7 +321,7 @@ class TurnoServiceTest {
         crearTurnoRequest.setHoraInicio(LocalTime.of(6, 0));
         crearTurnoRequest.setHoraFin(LocalTime.of(13, 30)); // 7.5 horas
         
-        when(rutaRepository.findById(1L)).thenReturn(Optional.of(rutaMock));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
         when(turnoRepository.save(any(Turno.class))).thenReturn(turnoMock);
         when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
 
@@ -249,4 +332,335 @@ class TurnoServiceTest {
         assertNotNull(resultado);
         verify(turnoRepository, times(1)).save(any(Turno.class));
     }
+
+    @Test
+    @DisplayName("Obtener todos los turnos - Una sola consulta de asignaciones sin importar el tamaño")
+    void testObtenerTodosTurnos_ConsultaFijaDeAsignaciones() {
+        // Arrange
+        List<Turno> turnos = crearTurnos(500);
+        when(turnoRepository.findAllConRuta()).thenReturn(turnos);
+        when(turnoMapper.toDTO(any(Turno.class))).thenAnswer(inv -> {
+            Turno turno = inv.getArgument(0);
+            TurnoDTO dto = new TurnoDTO();
+            dto.setId(turno.getId());
+            return dto;
+        });
+        AsignacionActivaResumen resumen = mock(AsignacionActivaResumen.class);
+        when(resumen.getTurnoId()).thenReturn(7L);
+        when(resumen.getConductorNombre()).thenReturn("Juan Pérez");
+        when(asignacionTurnoRepository.findAsignacionesActivasEnFecha(anyCollection(), any()))
+                .thenReturn(List.of(resumen));
+
+        // Act
+        List<TurnoDTO> resultado = turnoService.obtenerTodosTurnos();
+
+        // Assert
+        assertEquals(500, resultado.size());
+        assertTrue(resultado.get(6).isTieneAsignacion());
+        assertEquals("Juan Pérez", resultado.get(6).getConductorAsignado());
+        assertFalse(resultado.get(0).isTieneAsignacion());
+        verify(asignacionTurnoRepository, times(1)).findAsignacionesActivasEnFecha(anyCollection(), any());
+        verify(asignacionTurnoRepository, never()).findAsignacionActivaEnFecha(any(), any());
+    }
+
+    @Test
+    @DisplayName("Obtener turnos por ruta - Consultas de asignaciones por bloque de ids")
+    void testObtenerTurnosPorRuta_ConsultasPorBloque() {
+        // Arrange
+        int cantidad = TurnoService.TAMANO_BLOQUE_CONSULTA * 2 + 1;
+        when(rutaRepository.findById(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.findByRuta(rutaMock)).thenReturn(crearTurnos(cantidad));
+
+        // Act
+        List<TurnoDTO> resultado = turnoService.obtenerTurnosPorRuta(1L);
+
+        // Assert
+        assertEquals(cantidad, resultado.size());
+        verify(asignacionTurnoRepository, times(3)).findAsignacionesActivasEnFecha(anyCollection(), any());
+        verify(asignacionTurnoRepository, never()).findAsignacionActivaEnFecha(any(), any());
+    }
+
+    @Test
+    @DisplayName("Obtener turnos paginados - Devuelve cursor cuando hay más resultados")
+    void testObtenerTurnosPaginados_ConSiguientePagina() {
+        // Arrange: el repositorio devuelve tamaño + 1 elementos
+        when(turnoRepository.findPaginaPorCursor(eq(0L), eq(1L), isNull(), isNull(), isNull(), any(Limit.class)))
+                .thenReturn(crearTurnos(3));
+
+        // Act
+        PaginaCursorDTO<TurnoDTO> pagina = turnoService.obtenerTurnosPaginados(null, 2, 1L, null, null, null);
+
+        // Assert
+        assertTrue(pagina.isHayMas());
+        assertEquals(2, pagina.getTamano());
+        assertEquals(2, pagina.getContenido().size());
+        assertEquals(2L, pagina.getSiguienteCursor());
+        verify(turnoRepository).findPaginaPorCursor(eq(0L), eq(1L), isNull(), isNull(), isNull(), eq(Limit.of(3)));
+    }
+
+    @Test
+    @DisplayName("Obtener turnos paginados - Última página sin cursor")
+    void testObtenerTurnosPaginados_UltimaPagina() {
+        // Arrange
+        when(turnoRepository.findPaginaPorCursor(eq(10L), isNull(), eq(2), eq(DayOfWeek.MONDAY),
+                eq(EstadoTurno.ACTIVO), any(Limit.class)))
+                .thenReturn(crearTurnos(1));
+
+        // Act
+        PaginaCursorDTO<TurnoDTO> pagina = turnoService.obtenerTurnosPaginados(
+                10L, 50, null, 2, DayOfWeek.MONDAY, EstadoTurno.ACTIVO);
+
+        // Assert
+        assertFalse(pagina.isHayMas());
+        assertEquals(1, pagina.getTamano());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    @DisplayName("Crear turno - Se registra en el índice de horarios")
+    void testCrearTurno_RegistraEnIndice() {
+        // Arrange
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.save(any(Turno.class))).thenReturn(turnoMock);
+        when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
+
+        // Act
+        turnoService.crearTurno(crearTurnoRequest);
+
+        // Assert
+        verify(turnoScheduleIndex, times(1)).registrarTodos(List.of(turnoMock));
+    }
+
+    @Test
+    @DisplayName("Turnos en ventana - Consulta el índice y carga solo los ids encontrados")
+    void testObtenerTurnosEnVentana_UsaIndice() {
+        // Arrange
+        LocalTime desde = LocalTime.of(13, 0);
+        LocalTime hasta = LocalTime.of(15, 0);
+        when(turnoScheduleIndex.buscarSolapados(1L, 1, DayOfWeek.MONDAY, desde, hasta)).thenReturn(List.of(1L));
+        when(turnoRepository.findByIdIn(List.of(1L))).thenReturn(List.of(turnoMock));
+        when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
+
+        // Act
+        List<TurnoDTO> resultado = turnoService.obtenerTurnosEnVentana(1L, 1, DayOfWeek.MONDAY, desde, hasta);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        verify(turnoRepository, never()).findByRutaAndDiaSemanaAndNumeroSemana(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Turnos en ventana - Sin coincidencias no consulta la base de datos")
+    void testObtenerTurnosEnVentana_SinCoincidencias() {
+        // Arrange
+        when(turnoScheduleIndex.buscarEnHora(null, 1, DayOfWeek.MONDAY, LocalTime.of(3, 0))).thenReturn(List.of());
+
+        // Act
+        List<TurnoDTO> resultado = turnoService.obtenerTurnosEnVentana(null, 1, DayOfWeek.MONDAY, LocalTime.of(3, 0), null);
+
+        // Assert
+        assertTrue(resultado.isEmpty());
+        verifyNoInteractions(turnoRepository);
+    }
+
+    @Test
+    @DisplayName("Crear turno - Solapamiento con otro turno de la ruta")
+    void testCrearTurno_Solapado() {
+        // Arrange
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.findByRutaIdAndNumeroSemanaIn(1L, List.of(52, 1, 2))).thenReturn(List.of(turnoMock));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            turnoService.crearTurno(crearTurnoRequest);
+        });
+
+        assertEquals("El turno se solapa con otro turno de la misma ruta y día", exception.getMessage());
+        verify(turnoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Crear turno - Choca con el turno nocturno del domingo de la semana anterior")
+    void testCrearTurno_SolapadoConTurnoNocturno() {
+        // Arrange: domingo de la semana 52 de 22:00 a 05:00; el nuevo es el lunes de la semana 1 desde las 04:00
+        Turno nocturno = new Turno();
+        nocturno.setId(5L);
+        nocturno.setRuta(rutaMock);
+        nocturno.setDiaSemana(DayOfWeek.SUNDAY);
+        nocturno.setHoraInicio(LocalTime.of(22, 0));
+        nocturno.setHoraFin(LocalTime.of(5, 0));
+        nocturno.setNumeroSemana(52);
+        nocturno.setEstado(EstadoTurno.ACTIVO);
+        crearTurnoRequest.setHoraInicio(LocalTime.of(4, 0));
+        crearTurnoRequest.setHoraFin(LocalTime.of(10, 0));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.findByRutaIdAndNumeroSemanaIn(1L, List.of(52, 1, 2))).thenReturn(List.of(nocturno));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> turnoService.crearTurno(crearTurnoRequest));
+        verify(turnoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Actualizar turno - El propio turno se excluye de la validación de solapamiento")
+    void testActualizarTurno_ExcluyePropioTurno() {
+        // Arrange
+        when(turnoRepository.findById(1L)).thenReturn(Optional.of(turnoMock));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.findByRutaIdAndNumeroSemanaIn(1L, List.of(52, 1, 2))).thenReturn(List.of(turnoMock));
+        when(turnoRepository.save(turnoMock)).thenReturn(turnoMock);
+        when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
+
+        // Act
+        turnoService.actualizarTurno(1L, crearTurnoRequest);
+
+        // Assert: la ruta se bloquea y la validación se hace contra la base
+        verify(rutaRepository).findByIdParaActualizar(1L);
+        verify(turnoRepository, times(1)).save(turnoMock);
+    }
+
+    @Test
+    @DisplayName("Actualizar turno - Se rechaza si el nuevo horario choca con otro turno del conductor")
+    void testActualizarTurno_ChocaConOcupacionDelConductor() {
+        // Arrange
+        Conductor conductor = new Conductor();
+        conductor.setId(10L);
+        AsignacionTurno asignacion = AsignacionTurno.builder()
+                .id(50L)
+                .turno(turnoMock)
+                .conductor(conductor)
+                .fechaInicio(LocalDate.of(2030, 1, 7))
+                .estado(EstadoAsignacion.PROGRAMADA)
+                .build();
+        when(turnoRepository.findById(1L)).thenReturn(Optional.of(turnoMock));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(asignacionTurnoRepository.findByTurno(turnoMock)).thenReturn(List.of(asignacion));
+        when(conductorOcupacionIndex.buscarConflictoExcluyendo(eq(10L), any(Turno.class), any(), isNull(),
+                eq(Set.of(50L))))
+                .thenReturn(Optional.of(new ConductorOcupacionIndex.Conflicto(60L, true)));
+        crearTurnoRequest.setDiaSemana(DayOfWeek.TUESDAY);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> turnoService.actualizarTurno(1L, crearTurnoRequest));
+
+        assertEquals("El nuevo horario se cruza con otro turno del conductor 10", exception.getMessage());
+        verify(conductorRepository).findAllByIdParaActualizar(Set.of(10L));
+        verify(turnoRepository, never()).save(any());
+        verify(conductorOcupacionIndex, never()).registrarTodos(any());
+        assertEquals(DayOfWeek.MONDAY, turnoMock.getDiaSemana());
+    }
+
+    @Test
+    @DisplayName("Actualizar turno - El evento lleva los conductores asignados al turno")
+    void testActualizarTurno_EventoConConductores() {
+        // Arrange
+        Conductor conductor = new Conductor();
+        conductor.setId(10L);
+        Conductor cancelado = new Conductor();
+        cancelado.setId(11L);
+        AsignacionTurno vigente = AsignacionTurno.builder()
+                .id(50L)
+                .turno(turnoMock)
+                .conductor(conductor)
+                .fechaInicio(LocalDate.of(2030, 1, 7))
+                .estado(EstadoAsignacion.PROGRAMADA)
+                .build();
+        AsignacionTurno anulada = AsignacionTurno.builder()
+                .id(51L)
+                .turno(turnoMock)
+                .conductor(cancelado)
+                .fechaInicio(LocalDate.of(2030, 1, 7))
+                .estado(EstadoAsignacion.CANCELADA)
+                .build();
+        when(turnoRepository.findById(1L)).thenReturn(Optional.of(turnoMock));
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(asignacionTurnoRepository.findByTurno(turnoMock)).thenReturn(List.of(vigente, anulada));
+        when(turnoRepository.save(turnoMock)).thenReturn(turnoMock);
+        when(turnoMapper.toDTO(turnoMock)).thenReturn(turnoDTOMock);
+
+        // Act
+        turnoService.actualizarTurno(1L, crearTurnoRequest);
+
+        // Assert: solo el conductor con la asignación vigente
+        verify(publicadorCambios).publicarTodos(argThat(eventos -> eventos.size() == 1
+                && eventos.iterator().next().getTipo() == EventoCambioDTO.Tipo.TURNO_ACTUALIZADO
+                && List.of(10L).equals(eventos.iterator().next().getConductorIds())));
+    }
+
+    @Test
+    @DisplayName("Copiar semana - Si la copia ya está en la semana destino se devuelve sin insertar")
+    void testCopiarSemana_YaAplicada() {
+        // Arrange: reintento del trabajo después de que el primer intento confirmó
+        Turno copiado = new Turno();
+        copiado.setId(9L);
+        copiado.setRuta(rutaMock);
+        copiado.setDiaSemana(DayOfWeek.MONDAY);
+        copiado.setHoraInicio(LocalTime.of(6, 0));
+        copiado.setHoraFin(LocalTime.of(13, 30));
+        copiado.setNumeroSemana(2);
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.findByRutaAndNumeroSemana(rutaMock, 1)).thenReturn(List.of(turnoMock));
+        when(turnoRepository.findByRutaIdAndNumeroSemanaIn(1L, List.of(1, 2, 3)))
+                .thenReturn(List.of(turnoMock, copiado));
+        when(turnoMapper.toDTO(copiado)).thenReturn(turnoDTOMock);
+
+        // Act
+        List<TurnoDTO> resultado = turnoService.copiarSemanaTurnos(1L, 1, 2);
+
+        // Assert
+        assertEquals(List.of(turnoDTOMock), resultado);
+        verify(persistenciaPorLotes, never()).insertarEnLotes(any());
+        verifyNoInteractions(publicadorCambios);
+    }
+
+    @Test
+    @DisplayName("Crear turnos automáticos - Lote con solapamientos no se guarda")
+    void testCrearTurnosAutomaticos_Solapados() {
+        // Arrange
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(turnoRepository.findByRutaIdAndNumeroSemanaIn(1L, List.of(52, 1, 2))).thenReturn(List.of(turnoMock));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            turnoService.crearTurnosAutomaticos(1L, LocalTime.of(5, 0), LocalTime.of(23, 0), 1);
+        });
+
+        assertTrue(exception.getMessage().startsWith("El turno se solapa con un turno existente"));
+
+        verify(persistenciaPorLotes, never()).insertarEnLotes(any());
+    }
+
+    @Test
+    @DisplayName("Crear turnos automáticos - Se guardan en lotes y se registran en el índice")
+    void testCrearTurnosAutomaticos_GuardaEnLotes() {
+        // Arrange
+        when(rutaRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(rutaMock));
+        when(persistenciaPorLotes.insertarEnLotes(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        List<TurnoDTO> resultado = turnoService.crearTurnosAutomaticos(1L, LocalTime.of(6, 0), LocalTime.of(22, 0), 1);
+
+        // Assert: 6-14 y 14-22 durante 7 días
+        assertEquals(14, resultado.size());
+        verify(persistenciaPorLotes, times(1)).insertarEnLotes(anyList());
+        verify(turnoScheduleIndex, times(1)).registrarTodos(anyList());
+        verify(turnoRepository, never()).saveAll(any());
+    }
+
+    private List<Turno> crearTurnos(int cantidad) {
+        List<Turno> turnos = new ArrayList<>();
+        for (long i = 1; i <= cantidad; i++) {
+            Turno turno = new Turno();
+            turno.setId(i);
+            turno.setRuta(rutaMock);
+            turno.setDiaSemana(DayOfWeek.MONDAY);
+            turno.setHoraInicio(LocalTime.of(6, 0));
+            turno.setHoraFin(LocalTime.of(13, 30));
+            turno.setNumeroSemana(1);
+            turno.setEstado(EstadoTurno.ACTIVO);
+            turnos.add(turno);
+        }
+        return turnos;
+    }
 }
@@ -0,0 +1,122 @@
+package com.FabricaEscuela.Feature1Back.service;
+
+import com.FabricaEscuela.Feature1Back.DTO.AsignacionTurnoDTO;
+import com.FabricaEscuela.Feature1Back.entity.EstadoAsignacion;
+import com.FabricaEscuela.Feature1Back.entity.EstadoTurno;
+import com.FabricaEscuela.Feature1Back.entity.Turno;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para TurnosEnCursoRegistry
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("TurnosEnCursoRegistry - Pruebas Unitarias")
+class TurnosEnCursoRegistryTest {
+
+    private TurnosEnCursoRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TurnosEnCursoRegistry();
+    }
+
+    @Test
+    @DisplayName("Listar - Devuelve las asignaciones en curso ordenadas por id")
+    void testListar_OrdenadoPorId() {
+        // Arrange
+        registry.registrar(enCurso(3L, 1L, 10L));
+        registry.registrarTodos(List.of(enCurso(1L, 2L, 10L), enCurso(2L, 3L, 11L)));
+
+        // Act
+        List<AsignacionTurnoDTO> activas = registry.listar();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), activas.stream().map(AsignacionTurnoDTO::getId).toList());
+        assertThrows(UnsupportedOperationException.class, () -> activas.add(enCurso(4L, 4L, 10L)));
+    }
+
+    @Test
+    @DisplayName("Listar - Una lista ya entregada no cambia con escrituras posteriores")
+    void testListar_InstantaneaEstable() {
+        // Arrange
+        AsignacionTurnoDTO original = enCurso(1L, 1L, 10L);
+        registry.registrar(original);
+        List<AsignacionTurnoDTO> antes = registry.listar();
+
+        // Act
+        original.setConductorNombre("Modificado fuera");
+        registry.actualizarConductor(1L, "Nuevo nombre");
+        registry.registrar(enCurso(2L, 2L, 10L));
+
+        // Assert
+        assertEquals(1, antes.size());
+        assertEquals("Conductor 1", antes.get(0).getConductorNombre());
+        assertEquals("Nuevo nombre", registry.listar().get(0).getConductorNombre());
+        assertEquals(2, registry.tamano());
+    }
+
+    @Test
+    @DisplayName("Retirar - Un registro tardío de una asignación ya retirada se ignora")
+    void testRetirar_RegistroTardioIgnorado() {
+        // Arrange
+        registry.registrar(enCurso(1L, 1L, 10L));
+
+        // Act: el callback de inicio llega después del de finalización
+        registry.retirar(1L);
+        registry.registrar(enCurso(1L, 1L, 10L));
+        registry.retirarTodas(List.of(2L));
+        registry.registrarTodos(List.of(enCurso(2L, 2L, 10L), enCurso(3L, 3L, 10L)));
+
+        // Assert
+        assertEquals(List.of(3L), registry.listar().stream().map(AsignacionTurnoDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Actualizar turno - Cambia día y horario solo en las asignaciones de ese turno")
+    void testActualizarTurno() {
+        // Arrange
+        registry.registrarTodos(List.of(enCurso(1L, 1L, 10L), enCurso(2L, 2L, 11L)));
+        Turno turno = Turno.builder()
+                .diaSemana(DayOfWeek.FRIDAY)
+                .horaInicio(LocalTime.of(14, 0))
+                .horaFin(LocalTime.of(22, 0))
+                .numeroSemana(3)
+                .estado(EstadoTurno.ACTIVO)
+                .build();
+        turno.setId(10L);
+
+        // Act
+        registry.actualizarTurno(turno);
+
+        // Assert
+        AsignacionTurnoDTO cambiada = registry.listar().get(0);
+        assertEquals("FRIDAY", cambiada.getDiaSemanaNombre());
+        assertEquals("14:00 - 22:00", cambiada.getHorarioTurno());
+        assertEquals(3, cambiada.getNumeroSemana());
+        assertEquals("06:00 - 14:00", registry.listar().get(1).getHorarioTurno());
+    }
+
+    private AsignacionTurnoDTO enCurso(Long id, Long conductorId, Long turnoId) {
+        return AsignacionTurnoDTO.builder()
+                .id(id)
+                .turnoId(turnoId)
+                .conductorId(conductorId)
+                .fechaInicio(LocalDate.of(2030, 1, 7))
+                .estado(EstadoAsignacion.EN_CURSO)
+                .conductorNombre("Conductor " + conductorId)
+                .rutaNombre("Ruta 1")
+                .diaSemanaNombre("MONDAY")
+                .horarioTurno("06:00 - 14:00")
+                .numeroSemana(1)
+                .build();
+    }
+}
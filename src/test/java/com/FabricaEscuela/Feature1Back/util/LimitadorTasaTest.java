@@ -0,0 +1,127 @@
+package com.FabricaEscuela.Feature1Back.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para LimitadorTasa
+ * Patrón AAA: Arrange (preparar), Act (actuar), Assert (verificar)
+ */
+@DisplayName("LimitadorTasa - Pruebas Unitarias")
+class LimitadorTasaTest {
+
+    private static final long INTERVALO = 1_000L;
+
+    // Reloj controlado por la prueba (ms)
+    private final AtomicLong ahora = new AtomicLong(1_900_000_000_000L);
+    private LimitadorTasa limitador;
+
+    @BeforeEach
+    void setUp() {
+        // Ráfaga de 3 y luego una por segundo
+        limitador = new LimitadorTasa(3, INTERVALO, 1_000, 4, ahora::get);
+    }
+
+    @Test
+    @DisplayName("Intentar - Permite la ráfaga y rechaza la siguiente indicando la espera")
+    void testIntentar_RafagaYEspera() {
+        // Act
+        long primero = limitador.intentar("10.0.0.1");
+        long segundo = limitador.intentar("10.0.0.1");
+        long tercero = limitador.intentar("10.0.0.1");
+        long cuarto = limitador.intentar("10.0.0.1");
+
+        // Assert
+        assertEquals(0, primero);
+        assertEquals(0, segundo);
+        assertEquals(0, tercero);
+        assertEquals(INTERVALO, cuarto);
+    }
+
+    @Test
+    @DisplayName("Intentar - Recupera un token por intervalo y un rechazo no consume")
+    void testIntentar_Recarga() {
+        // Arrange: cubo vacío
+        for (int i = 0; i < 3; i++) {
+            limitador.intentar("10.0.0.1");
+        }
+        limitador.intentar("10.0.0.1");
+
+        // Act
+        ahora.addAndGet(INTERVALO);
+        long trasUnIntervalo = limitador.intentar("10.0.0.1");
+        long inmediato = limitador.intentar("10.0.0.1");
+
+        // Assert
+        assertEquals(0, trasUnIntervalo);
+        assertEquals(INTERVALO, inmediato);
+    }
+
+    @Test
+    @DisplayName("Espera - Informa la espera sin consumir tokens")
+    void testEspera_NoConsume() {
+        // Arrange
+        limitador.intentar("10.0.0.1");
+        limitador.intentar("10.0.0.1");
+
+        // Act
+        long conToken = limitador.espera("10.0.0.1");
+        long consultaRepetida = limitador.espera("10.0.0.1");
+        limitador.intentar("10.0.0.1");
+        long sinToken = limitador.espera("10.0.0.1");
+
+        // Assert
+        assertEquals(0, conToken);
+        assertEquals(0, consultaRepetida);
+        assertEquals(INTERVALO, sinToken);
+        assertEquals(0, limitador.espera("10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Intentar - Cada clave tiene su propio cubo")
+    void testIntentar_ClavesIndependientes() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limitador.intentar("10.0.0.1");
+        }
+
+        // Act & Assert
+        assertTrue(limitador.intentar("10.0.0.1") > 0);
+        assertEquals(0, limitador.intentar("10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Purgar - Elimina solo las claves con el cubo ya lleno")
+    void testPurgar_ClavesInactivas() {
+        // Arrange
+        limitador.intentar("10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            limitador.intentar("10.0.0.2");
+        }
+        ahora.addAndGet(INTERVALO);
+
+        // Act
+        limitador.purgar();
+
+        // Assert: 10.0.0.1 ya se recargó, 10.0.0.2 aún no
+        assertEquals(1, limitador.tamano());
+        assertTrue(limitador.intentar("10.0.0.2") == 0 && limitador.intentar("10.0.0.2") > 0);
+    }
+
+    @Test
+    @DisplayName("Memoria - El número de claves no supera el máximo configurado")
+    void testMemoria_Acotada() {
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            limitador.intentar("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        // Assert
+        assertTrue(limitador.tamano() <= 1_000);
+    }
+}